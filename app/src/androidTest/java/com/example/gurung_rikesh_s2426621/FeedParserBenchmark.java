@@ -0,0 +1,149 @@
+package com.example.gurung_rikesh_s2426621;
+
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs every FeedParser strategy on the same feeds and reports throughput and allocation.
+ * Feeds are the responses recorded in the app's feed cache (if the app has been run on the
+ * device) plus synthetic feeds of a few sizes. Results go to logcat under "FeedParserBenchmark".
+ */
+@RunWith(AndroidJUnit4.class)
+public class FeedParserBenchmark {
+
+    private static final String TAG = "FeedParserBenchmark";
+
+    private static final int WARMUP_RUNS = 20;
+    private static final int MEASURED_RUNS = 50;
+
+    // ART's running total of bytes allocated
+    private static final String STAT_BYTES_ALLOCATED = "art.gc.bytes-allocated";
+
+    @Test
+    public void allStrategiesAgree() {
+        for (Map.Entry<String, String> feed : loadFeeds().entrySet()) {
+            List<CurrencyRate> expected = parse(new RssFeedParser(), feed.getValue());
+            assertFalse(feed.getKey() + " parsed to nothing", expected.isEmpty());
+
+            for (FeedParser.Strategy strategy : FeedParser.Strategy.values()) {
+                List<CurrencyRate> actual = parse(FeedParser.create(strategy), feed.getValue());
+                assertEquals(strategy + " on " + feed.getKey(), expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(strategy + " on " + feed.getKey(),
+                            expected.get(i).getPairKey(), actual.get(i).getPairKey());
+                    assertEquals(strategy + " on " + feed.getKey(),
+                            expected.get(i).getRate(), actual.get(i).getRate(), 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void reportThroughputAndAllocation() {
+        for (Map.Entry<String, String> feed : loadFeeds().entrySet()) {
+            String xml = feed.getValue();
+            for (FeedParser.Strategy strategy : FeedParser.Strategy.values()) {
+                FeedParser parser = FeedParser.create(strategy);
+                int items = parse(parser, xml).size();
+                for (int i = 0; i < WARMUP_RUNS; i++) {
+                    parse(parser, xml);
+                }
+
+                long[] samples = new long[MEASURED_RUNS];
+                long allocatedBefore = bytesAllocated();
+                for (int i = 0; i < MEASURED_RUNS; i++) {
+                    long start = SystemClock.elapsedRealtimeNanos();
+                    parse(parser, xml);
+                    samples[i] = SystemClock.elapsedRealtimeNanos() - start;
+                }
+                long allocatedPerRun = (bytesAllocated() - allocatedBefore) / MEASURED_RUNS;
+
+                Arrays.sort(samples);
+                long median = Math.max(1, samples[MEASURED_RUNS / 2]);
+                double itemsPerSecond = items * 1e9 / median;
+                double megabytesPerSecond = xml.length() * 1e9 / median / (1024 * 1024);
+                Log.i(TAG, String.format(java.util.Locale.US,
+                        "%-14s %-18s %6dus  %8.0f items/s  %6.1f MB/s  %8d B/parse",
+                        feed.getKey(), parser.getName(), median / 1000, itemsPerSecond,
+                        megabytesPerSecond, allocatedPerRun));
+                assertTrue(items > 0);
+            }
+        }
+    }
+
+    private static List<CurrencyRate> parse(FeedParser parser, String xml) {
+        return parser.parse(new StringReader(xml));
+    }
+
+    /**
+     * Bytes allocated so far by this process, or 0 where the runtime does not report it
+     */
+    private static long bytesAllocated() {
+        String value = Debug.getRuntimeStat(STAT_BYTES_ALLOCATED);
+        try {
+            return value != null ? Long.parseLong(value) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Recorded responses from the app's feed cache, then synthetic feeds
+     */
+    private static Map<String, String> loadFeeds() {
+        Map<String, String> feeds = new LinkedHashMap<>();
+        File cacheDir = new File(InstrumentationRegistry.getInstrumentation()
+                .getTargetContext().getCacheDir(), "feeds");
+        File[] bodies = cacheDir.listFiles((dir, name) -> name.endsWith(".body"));
+        if (bodies != null) {
+            for (File body : bodies) {
+                String xml = read(body);
+                if (xml != null) {
+                    feeds.put("cached-" + body.getName().substring(0, 6), xml);
+                }
+            }
+        }
+
+        for (int items : new int[]{20, 170, 1000}) {
+            feeds.put("synthetic-" + items, FxRssScannerBenchmark.syntheticFeed(items, items));
+        }
+        return feeds;
+    }
+
+    private static String read(File file) {
+        StringBuilder text = new StringBuilder((int) file.length());
+        char[] buffer = new char[8192];
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            int count;
+            while ((count = reader.read(buffer)) != -1) {
+                text.append(buffer, 0, count);
+            }
+            return text.toString();
+        } catch (IOException e) {
+            Log.w(TAG, "Skipping unreadable cached feed " + file, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.gurung_rikesh_s2426621;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Times FxRssScanner against the generic RssFeedParser on a synthetic fx-exchange feed.
+ * Runs on a device because the pull parser implementation comes from the platform.
+ * Timings are written to logcat under the tag "FxRssScannerBenchmark" and are not asserted
+ * on (they depend on the device); correctness is covered by FxRssScannerTest.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FxRssScannerBenchmark {
+
+    private static final String TAG = "FxRssScannerBenchmark";
+
+    // Roughly the size of the real GBP feed
+    private static final int ITEM_COUNT = 170;
+    private static final int WARMUP_RUNS = 20;
+    private static final int MEASURED_RUNS = 50;
+
+    private static final String[][] CURRENCIES = {
+            {"USD", "US Dollar"}, {"EUR", "Euro"}, {"JPY", "Japanese Yen"},
+            {"AED", "United Arab Emirates Dirham"}, {"TTD", "Trinidad & Tobago Dollar"},
+            {"KWD", "Kuwaiti Dinar"}, {"CHF", "Swiss Franc"}, {"INR", "Indian Rupee"}
+    };
+
+    @Test
+    public void reportScannerAndPullParserTimings() {
+        String feed = syntheticFeed(ITEM_COUNT, 7);
+        RssFeedParser pullParser = new RssFeedParser();
+        FxRssScanner scanner = new FxRssScanner(pullParser);
+
+        List<CurrencyRate> expected = pullParser.parse(feed);
+        List<CurrencyRate> actual = scanner.parse(feed);
+        assertEquals(ITEM_COUNT, expected.size());
+        assertEquals(expected.toString(), actual.toString());
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            pullParser.parse(feed);
+            scanner.parse(feed);
+        }
+
+        long pullMedian = medianNanos(() -> pullParser.parse(feed));
+        long scannerMedian = medianNanos(() -> scanner.parse(feed));
+
+        Log.i(TAG, "Pull parser median: " + pullMedian / 1000 + "us, scanner median: "
+                + scannerMedian / 1000 + "us (" + feed.length() + " chars, " + ITEM_COUNT + " items)");
+    }
+
+    private static long medianNanos(Runnable work) {
+        long[] samples = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = SystemClock.elapsedRealtimeNanos();
+            work.run();
+            samples[i] = SystemClock.elapsedRealtimeNanos() - start;
+        }
+        Arrays.sort(samples);
+        return samples[MEASURED_RUNS / 2];
+    }
+
+    /**
+     * Builds a feed in the fx-exchange layout with random four-decimal rates
+     */
+    static String syntheticFeed(int items, long seed) {
+        Random random = new Random(seed);
+        StringBuilder xml = new StringBuilder(items * 420);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rss version=\"2.0\">\n<channel>\n")
+                .append("<title>British Pound Sterling(GBP) Exchange Rates</title>\n")
+                .append("<link>https://www.fx-exchange.com/gbp/</link>\n");
+
+        for (int i = 0; i < items; i++) {
+            String[] currency = CURRENCIES[i % CURRENCIES.length];
+            String lower = currency[0].toLowerCase();
+            double rate = Math.round(random.nextDouble() * 2000 * 10000) / 10000.0;
+            xml.append("<item>\n")
+                    .append("<title>British Pound Sterling(GBP)/").append(currency[1])
+                    .append('(').append(currency[0]).append(")</title>\n")
+                    .append("<link>https://www.fx-exchange.com/gbp/").append(lower).append(".html</link>\n")
+                    .append("<guid>https://www.fx-exchange.com/gbp/").append(lower).append(".html</guid>\n")
+                    .append("<pubDate>Fri Nov 28 2025 10:00:00 UTC</pubDate>\n")
+                    .append("<description>1 British Pound Sterling = ").append(rate).append(' ')
+                    .append(currency[1]).append("</description>\n")
+                    .append("<category>Europe</category>\n")
+                    .append("</item>\n");
+        }
+        return xml.append("</channel>\n</rss>\n").toString();
+    }
+}
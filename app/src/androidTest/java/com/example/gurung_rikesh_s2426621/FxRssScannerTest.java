@@ -0,0 +1,163 @@
+package com.example.gurung_rikesh_s2426621;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * FxRssScanner output, checked against the generic RssFeedParser it must always agree with.
+ * Runs on a device because the fallback pull parser comes from the platform.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FxRssScannerTest {
+
+    private static final String HEAD = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rss version=\"2.0\"><channel>\n";
+    private static final String TAIL = "</channel></rss>\n";
+
+    @Test
+    public void scannerMatchesPullParser() {
+        String feed = FxRssScannerBenchmark.syntheticFeed(170, 42);
+        FxRssScanner scanner = new FxRssScanner();
+
+        List<CurrencyRate> rates = assertSameAsPullParser(scanner, feed);
+
+        assertEquals(170, rates.size());
+        assertEquals(0, scanner.getLastFallbackCount());
+    }
+
+    @Test
+    public void resolvesEntitiesWithoutFallingBack() {
+        String feed = HEAD
+                + item("British Pound Sterling(GBP)/Trinidad &amp; Tobago Dollar(TTD)",
+                "1 British Pound Sterling = 8.9912 Trinidad &amp; Tobago Dollar")
+                + item("British Pound Sterling(GBP)/S&#227;o Tom&#xE9; Dobra(STN)",
+                "1 British Pound Sterling = 28.1234 S&#227;o Tom&#xE9; Dobra")
+                + TAIL;
+        FxRssScanner scanner = new FxRssScanner();
+
+        List<CurrencyRate> rates = assertSameAsPullParser(scanner, feed);
+
+        assertEquals(2, rates.size());
+        assertEquals("Trinidad & Tobago Dollar", rates.get(0).getTargetCurrency());
+        assertEquals("TTD", rates.get(0).getTargetCode());
+        assertEquals(8.9912, rates.get(0).getRate(), 0.0);
+        assertEquals("São Tomé Dobra", rates.get(1).getTargetCurrency());
+        assertEquals(0, scanner.getLastFallbackCount());
+    }
+
+    @Test
+    public void keepsStrayAmpersandsLikeThePullParser() {
+        String feed = HEAD
+                + item("British Pound Sterling(GBP)/Trinidad & Tobago Dollar(TTD)",
+                "1 British Pound Sterling = 8.9912 Trinidad & Tobago Dollar")
+                + TAIL;
+
+        List<CurrencyRate> rates = assertSameAsPullParser(new FxRssScanner(), feed);
+
+        assertEquals(1, rates.size());
+        assertEquals("Trinidad & Tobago Dollar", rates.get(0).getTargetCurrency());
+    }
+
+    @Test
+    public void cdataItemsFallBackToPullParser() {
+        String feed = HEAD
+                + item("<![CDATA[British Pound Sterling(GBP)/Euro(EUR)]]>",
+                "1 British Pound Sterling = 1.1412 Euro")
+                + item("British Pound Sterling(GBP)/US Dollar(USD)",
+                "<![CDATA[1 British Pound Sterling = 1.3312 US Dollar]]>")
+                + TAIL;
+        FxRssScanner scanner = new FxRssScanner();
+
+        List<CurrencyRate> rates = assertSameAsPullParser(scanner, feed);
+
+        assertEquals(2, rates.size());
+        assertEquals("EUR", rates.get(0).getTargetCode());
+        assertEquals(1.1412, rates.get(0).getRate(), 0.0);
+        assertEquals(1.3312, rates.get(1).getRate(), 0.0);
+        assertEquals(2, scanner.getLastFallbackCount());
+    }
+
+    @Test
+    public void missingDescriptionFallsBackToPullParser() {
+        String feed = HEAD
+                + "<item><title>British Pound Sterling(GBP)/Euro(EUR)</title>"
+                + "<link>https://www.fx-exchange.com/gbp/eur.html</link>"
+                + "<pubDate>Fri Nov 28 2025 10:00:00 UTC</pubDate></item>\n"
+                + item("British Pound Sterling(GBP)/US Dollar(USD)", "1 British Pound Sterling = 1.3312 US Dollar")
+                + TAIL;
+        FxRssScanner scanner = new FxRssScanner();
+
+        List<CurrencyRate> rates = assertSameAsPullParser(scanner, feed);
+
+        assertEquals(2, rates.size());
+        assertEquals("EUR", rates.get(0).getTargetCode());
+        assertNull(rates.get(0).getDescription());
+        assertEquals(1, scanner.getLastFallbackCount());
+    }
+
+    @Test
+    public void malformedItemsAreDroppedLikeThePullParser() {
+        String feed = HEAD
+                + item("British Pound Sterling/Euro", "1 British Pound Sterling = 1.1412 Euro") // No codes
+                + item("British Pound Sterling(gbp)/Euro(eur)", "1 British Pound Sterling = 1.1412 Euro")
+                + item("British Pound Sterling(GBP)/US Dollar(USD)", "1 British Pound Sterling = 1.3312 US Dollar")
+                + TAIL;
+
+        List<CurrencyRate> rates = assertSameAsPullParser(new FxRssScanner(), feed);
+
+        assertEquals(1, rates.size());
+        assertEquals("USD", rates.get(0).getTargetCode());
+    }
+
+    @Test
+    public void truncatedLastItemIsDropped() {
+        // Body cut off mid-item: the rate may be cut too ("205" of "2055.1"), so it is not used.
+        // (The relaxed pull parser closes the open item at end of input and would keep it.)
+        String feed = HEAD
+                + item("British Pound Sterling(GBP)/US Dollar(USD)", "1 British Pound Sterling = 1.3312 US Dollar")
+                + "<item><title>British Pound Sterling(GBP)/Japanese Yen(JPY)</title>"
+                + "<description>1 British Pound Sterling = 205";
+
+        List<CurrencyRate> rates = new FxRssScanner().parse(feed);
+
+        assertEquals(1, rates.size());
+        assertEquals("USD", rates.get(0).getTargetCode());
+    }
+
+    @Test
+    public void itemsSplitAcrossReadsAreReassembled() {
+        String feed = FxRssScannerBenchmark.syntheticFeed(40, 3);
+        // One char per read: every item straddles many buffer refills
+        List<CurrencyRate> trickled = new FxRssScanner().parse(new StringReader(feed) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws java.io.IOException {
+                return super.read(buffer, offset, Math.min(length, 1));
+            }
+        });
+
+        assertEquals(new RssFeedParser().parse(feed).toString(), trickled.toString());
+    }
+
+    private static List<CurrencyRate> assertSameAsPullParser(FxRssScanner scanner, String feed) {
+        List<CurrencyRate> expected = new RssFeedParser().parse(feed);
+        List<CurrencyRate> actual = scanner.parse(feed);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString());
+        }
+        return actual;
+    }
+
+    private static String item(String title, String description) {
+        return "<item>\n<title>" + title + "</title>\n"
+                + "<link>https://www.fx-exchange.com/gbp/</link>\n"
+                + "<pubDate>Fri Nov 28 2025 10:00:00 UTC</pubDate>\n"
+                + "<description>" + description + "</description>\n</item>\n";
+    }
+}
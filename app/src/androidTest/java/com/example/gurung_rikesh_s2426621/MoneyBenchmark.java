@@ -0,0 +1,65 @@
+package com.example.gurung_rikesh_s2426621;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+/**
+ * Times Money against the old Double.parseDouble / double arithmetic / DecimalFormat path.
+ * Runs on a device, like the other benchmarks, so it stays out of the unit-test run.
+ * Timings are written to logcat under the tag "MoneyBenchmark" and are not asserted on;
+ * correctness is covered by MoneyTest.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MoneyBenchmark {
+
+    private static final String TAG = "MoneyBenchmark";
+
+    private static final int CASES = 20000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Test
+    public void reportMoneyVersusDoubleAndDecimalFormat() {
+        String[] inputs = new String[CASES];
+        Random random = new Random(7);
+        for (int i = 0; i < CASES; i++) {
+            inputs[i] = random.nextInt(100000) + "." + random.nextInt(100);
+        }
+        long rateUnscaled = 493540;
+        int rateScale = 5;
+        double rate = 4.9354;
+
+        long doubleNanos = Long.MAX_VALUE;
+        long moneyNanos = Long.MAX_VALUE;
+        int sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String input : inputs) {
+                double amount = Double.parseDouble(input.replace(',', '.'));
+                sink += CurrencyUtils.formatAmount(CurrencyUtils.convertToTarget(amount, rate)).length();
+            }
+            long doubleTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (String input : inputs) {
+                sink += Money.parse(input, "GBP").multiplyByRate(rateUnscaled, rateScale, "AED")
+                        .format().length();
+            }
+            long moneyTime = System.nanoTime() - start;
+
+            if (round >= WARMUP_ROUNDS) {
+                doubleNanos = Math.min(doubleNanos, doubleTime);
+                moneyNanos = Math.min(moneyNanos, moneyTime);
+            }
+        }
+
+        Log.i(TAG, "double + DecimalFormat: " + doubleNanos / CASES + " ns/conversion, Money: "
+                + moneyNanos / CASES + " ns/conversion (" + sink + ")");
+    }
+}
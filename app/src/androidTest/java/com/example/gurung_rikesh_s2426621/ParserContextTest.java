@@ -0,0 +1,147 @@
+package com.example.gurung_rikesh_s2426621;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.xmlpull.v1.XmlPullParser;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Per-thread parser reuse in ParserContext, and stray '&' handling in every pull parser.
+ * Runs on a device because the XmlPullParser implementation comes from the platform.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ParserContextTest {
+
+    // A feed as the server really sends it: unescaped '&' in names
+    private static final String FEED = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<rss version=\"2.0\"><channel>\n"
+            + "<title>British Pound Sterling(GBP) Exchange Rates</title>\n"
+            + "<item>\n<title>British Pound Sterling(GBP)/Trinidad & Tobago Dollar(TTD)</title>\n"
+            + "<link>https://www.fx-exchange.com/gbp/ttd.html</link>\n"
+            + "<pubDate>Fri Nov 28 2025 10:00:00 UTC</pubDate>\n"
+            + "<description>1 British Pound Sterling = 8.9912 Trinidad & Tobago Dollar</description>\n"
+            + "</item>\n"
+            + "<item>\n<title>British Pound Sterling(GBP)/US Dollar(USD)</title>\n"
+            + "<link>https://www.fx-exchange.com/gbp/usd.html?a=1&amp;b=2</link>\n"
+            + "<pubDate>Fri Nov 28 2025 10:00:00 UTC</pubDate>\n"
+            + "<description>1 British Pound Sterling = 1.3312 US Dollar</description>\n"
+            + "</item>\n"
+            + "</channel></rss>\n";
+
+    @Test
+    public void reusesOneParserPerConfigurationOnAThread() throws Exception {
+        XmlPullParser first = ParserContext.obtain(ParserContext.NAMESPACE_AWARE, new StringReader("<a/>"));
+        ParserContext.release(first);
+        int created = ParserContext.getCreatedCount();
+
+        for (int i = 0; i < 10; i++) {
+            XmlPullParser again = ParserContext.obtain(ParserContext.NAMESPACE_AWARE, new StringReader("<b/>"));
+            assertSame(first, again);
+            assertEquals(XmlPullParser.START_TAG, again.next());
+            assertEquals("b", again.getName()); // Reads the new input, nothing left from before
+            ParserContext.release(again);
+        }
+        assertEquals(created, ParserContext.getCreatedCount());
+
+        XmlPullParser relaxed = ParserContext.obtain(ParserContext.RELAXED, new StringReader("<a/>"));
+        assertNotSame(first, relaxed);
+        assertFalse(relaxed.getFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES));
+        assertTrue(first.getFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES));
+        ParserContext.release(relaxed);
+    }
+
+    @Test
+    public void resetCreatesFreshParsers() throws Exception {
+        XmlPullParser before = ParserContext.obtain(0, new StringReader("<a/>"));
+        ParserContext.release(before);
+
+        ParserContext.reset();
+        XmlPullParser after = ParserContext.obtain(0, new StringReader("<a/>"));
+        ParserContext.release(after);
+
+        assertNotSame(before, after);
+    }
+
+    @Test
+    public void eachThreadHasItsOwnParser() throws Exception {
+        XmlPullParser mine = ParserContext.obtain(0, new StringReader("<a/>"));
+        ParserContext.release(mine);
+
+        AtomicReference<XmlPullParser> other = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                XmlPullParser parser = ParserContext.obtain(0, new StringReader("<a/>"));
+                other.set(parser);
+                ParserContext.release(parser);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertNotNull(other.get());
+        assertNotSame(mine, other.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownFlags() throws Exception {
+        ParserContext.obtain(4, new StringReader("<a/>"));
+    }
+
+    @Test
+    public void rssFeedParserKeepsStrayAmpersands() {
+        List<CurrencyRate> rates = new RssFeedParser().parse(FEED);
+        assertExpectedRates(rates);
+        assertEquals("https://www.fx-exchange.com/gbp/usd.html?a=1&b=2", rates.get(1).getLink());
+    }
+
+    @Test
+    public void feedParserStrategiesKeepStrayAmpersands() {
+        for (FeedParser.Strategy strategy : FeedParser.Strategy.values()) {
+            assertExpectedRates(FeedParser.create(strategy).parse(new StringReader(FEED)));
+        }
+    }
+
+    @Test
+    public void currencyPullParserKeepsStrayAmpersands() {
+        ArrayList<CurrencyFx> items = new CurrencyPullParser().parse(FEED);
+        assertEquals(2, items.size());
+        assertEquals("British Pound Sterling(GBP)/Trinidad & Tobago Dollar(TTD)", items.get(0).title);
+        assertEquals(8.9912, items.get(0).rateValue, 0.0);
+        assertEquals(1.3312, items.get(1).rateValue, 0.0);
+    }
+
+    @Test
+    public void rssManageKeepsStrayAmpersands() {
+        List<RssManage.FeedItem> items = RssManage.parseRss(new StringReader(FEED));
+        assertEquals(2, items.size());
+        assertEquals("British Pound Sterling(GBP)/Trinidad & Tobago Dollar(TTD)", items.get(0).title.trim());
+        assertEquals("1 British Pound Sterling = 8.9912 Trinidad & Tobago Dollar",
+                items.get(0).description.trim());
+    }
+
+    @Test
+    public void parserIsReusableAfterAMalformedDocument() {
+        RssFeedParser parser = new RssFeedParser();
+        parser.parse("<rss><channel><item><title>broken</ti");
+        assertExpectedRates(parser.parse(FEED));
+    }
+
+    private static void assertExpectedRates(List<CurrencyRate> rates) {
+        assertEquals(2, rates.size());
+        assertEquals("Trinidad & Tobago Dollar", rates.get(0).getTargetCurrency());
+        assertEquals("TTD", rates.get(0).getTargetCode());
+        assertEquals(8.9912, rates.get(0).getRate(), 0.0);
+        assertEquals("USD", rates.get(1).getTargetCode());
+        assertEquals(1.3312, rates.get(1).getRate(), 0.0);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.gurung_rikesh_s2426621;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares RateSeriesCodec's size and speed with plain 8-byte time + 8-byte double encoding,
+ * on a simulated year of minute samples. Runs on a device, like the other benchmarks, so the
+ * year of samples stays out of the unit-test run. Sizes and timings are written to logcat
+ * under the tag "RateSeriesCodecBenchmark" and are not asserted on; correctness and the
+ * size bounds are covered by RateSeriesCodecTest.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RateSeriesCodecBenchmark {
+
+    private static final String TAG = "RateSeriesCodecBenchmark";
+
+    private static final long MINUTE_MS = 60 * 1000L;
+    private static final int MINUTES_PER_YEAR = 365 * 24 * 60;
+    private static final int PAIRS = 170;
+    private static final int SCALE = 4;
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    @Test
+    public void reportSizeAndThroughputAgainstPlainEncoding() throws IOException {
+        long[] times = yearOfMinutes();
+        report("hourly changes", times, hourlyChanges());
+        report("change every minute", times, changesEveryMinute());
+    }
+
+    private static void report(String label, long[] times, long[] unscaled) throws IOException {
+        int size = times.length;
+        int[] scales = new int[size];
+        Arrays.fill(scales, SCALE);
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = RateDecoder.toDouble(unscaled[i], SCALE);
+        }
+
+        long plainNanos = Long.MAX_VALUE;
+        long encodeNanos = Long.MAX_VALUE;
+        long decodeNanos = Long.MAX_VALUE;
+        int plainBytes = 0;
+        byte[] block = null;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long begin = System.nanoTime();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(size * 16);
+            DataOutputStream out = new DataOutputStream(bytes);
+            for (int i = 0; i < size; i++) {
+                out.writeLong(times[i]);
+                out.writeDouble(values[i]);
+            }
+            plainBytes = bytes.size();
+            long plain = System.nanoTime() - begin;
+
+            begin = System.nanoTime();
+            block = RateSeriesCodec.encode(times, unscaled, scales, size, MINUTE_MS);
+            long encode = System.nanoTime() - begin;
+
+            begin = System.nanoTime();
+            RateSeriesCodec.Points decoded = RateSeriesCodec.decode(block);
+            long decode = System.nanoTime() - begin;
+            assertEquals(size, decoded.size());
+
+            if (round >= WARMUP_ROUNDS) {
+                plainNanos = Math.min(plainNanos, plain);
+                encodeNanos = Math.min(encodeNanos, encode);
+                decodeNanos = Math.min(decodeNanos, decode);
+            }
+        }
+        Log.i(TAG, String.format(Locale.US, "%s: %d minute points, plain %d bytes (%.1f ns/pt),"
+                        + " codec %d bytes (%.2f bits/pt, encode %.1f ns/pt, decode %.1f ns/pt);"
+                        + " %d pairs x 1 year: plain %.1f MB, codec %.1f MB",
+                label, size, plainBytes, (double) plainNanos / size, block.length,
+                block.length * 8.0 / size, (double) encodeNanos / size, (double) decodeNanos / size,
+                PAIRS, plainBytes * (double) PAIRS / 1e6, block.length * (double) PAIRS / 1e6));
+    }
+
+    // Same series as RateSeriesCodecTest, which lives in the unit-test source set
+
+    /** Refresh times over a year: one a minute, landing up to 5 s into the minute */
+    private static long[] yearOfMinutes() {
+        Random random = new Random(169);
+        long[] times = new long[MINUTES_PER_YEAR];
+        long start = 1700000000000L - 1700000000000L % MINUTE_MS;
+        for (int i = 0; i < MINUTES_PER_YEAR; i++) {
+            times[i] = start + i * MINUTE_MS + random.nextInt(5000);
+        }
+        return times;
+    }
+
+    /** The feed republishes about once an hour; most minute samples repeat the rate (scale 4) */
+    private static long[] hourlyChanges() {
+        Random random = new Random(170);
+        long[] unscaled = new long[MINUTES_PER_YEAR];
+        long rate = 12345;
+        for (int i = 0; i < MINUTES_PER_YEAR; i++) {
+            if (random.nextInt(60) == 0) {
+                rate = Math.round(rate * (1 + (random.nextDouble() - 0.5) / 200));
+            }
+            unscaled[i] = rate;
+        }
+        return unscaled;
+    }
+
+    /** Worst case: a new rate every minute, moving up to 0.05% (scale 4, ~162.87) */
+    private static long[] changesEveryMinute() {
+        Random random = new Random(171);
+        long[] unscaled = new long[MINUTES_PER_YEAR];
+        long rate = 1628700;
+        for (int i = 0; i < MINUTES_PER_YEAR; i++) {
+            rate = Math.round(rate * (1 + (random.nextDouble() - 0.5) / 1000));
+            unscaled[i] = rate;
+        }
+        return unscaled;
+    }
+}
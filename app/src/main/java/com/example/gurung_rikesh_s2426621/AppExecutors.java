@@ -0,0 +1,230 @@
+package com.example.gurung_rikesh_s2426621;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Central dispatcher for all background work in the app
+ *
+ * - io():         bounded pool for blocking network / disk work
+ * - cpu():        bounded pool sized to the CPU count for parsing and other computation
+ * - disk():       single thread for ordered writes (snapshot file, history, roll-ups); tasks
+ *                 run one at a time in submission order
+ * - forkJoin():   work-stealing pool using every core, for splitting one large parse
+ * - mainThread(): posts results back to the UI thread
+ * - schedule():   runs a short hand-off after a delay (e.g. a retry back onto io()), so no
+ *                 pool thread ever sleeps through a backoff
+ *
+ * Threads are created once, up front, with recognisable names ("fx-io-1", "fx-cpu-1"),
+ * so no thread is ever created on the refresh path. Queues are bounded: when a pool is
+ * saturated, execute() throws RejectedExecutionException instead of queueing without limit.
+ */
+public final class AppExecutors {
+
+    private static final String TAG = "AppExecutors";
+
+    private static final int IO_POOL_SIZE = 4;
+    private static final int IO_QUEUE_CAPACITY = 32;
+    private static final int CPU_POOL_SIZE =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final int CPU_QUEUE_CAPACITY = 64;
+    private static final int DISK_QUEUE_CAPACITY = 16;
+
+    /**
+     * Point-in-time view of a pool, for logging and diagnostics
+     */
+    public static final class PoolStats {
+        public final String name;
+        public final int poolSize;
+        public final int activeCount;
+        public final int queueDepth;
+        public final int queueCapacity;
+        public final int largestPoolSize;
+        public final long completedTasks;
+        public final long rejectedTasks;
+
+        PoolStats(String name, ThreadPoolExecutor pool, int queueCapacity, long rejectedTasks) {
+            this.name = name;
+            this.poolSize = pool.getPoolSize();
+            this.activeCount = pool.getActiveCount();
+            this.queueDepth = pool.getQueue().size();
+            this.queueCapacity = queueCapacity;
+            this.largestPoolSize = pool.getLargestPoolSize();
+            this.completedTasks = pool.getCompletedTaskCount();
+            this.rejectedTasks = rejectedTasks;
+        }
+
+        @Override
+        public String toString() {
+            return name + "{threads=" + poolSize + ", active=" + activeCount
+                    + ", queued=" + queueDepth + "/" + queueCapacity
+                    + ", completed=" + completedTasks + ", rejected=" + rejectedTasks + "}";
+        }
+    }
+
+    private static volatile AppExecutors instance;
+
+    private final ThreadPoolExecutor ioExecutor;
+    private final ThreadPoolExecutor cpuExecutor;
+    private final ThreadPoolExecutor diskExecutor;
+    private final Executor mainThreadExecutor;
+    private final ForkJoinPool forkJoinPool;
+    private final ScheduledThreadPoolExecutor timer;
+    private final AtomicLong ioRejected = new AtomicLong();
+    private final AtomicLong cpuRejected = new AtomicLong();
+    private final AtomicLong diskRejected = new AtomicLong();
+
+    private AppExecutors() {
+        ioExecutor = newPool("fx-io", IO_POOL_SIZE, IO_QUEUE_CAPACITY,
+                Thread.NORM_PRIORITY, ioRejected);
+        cpuExecutor = newPool("fx-cpu", CPU_POOL_SIZE, CPU_QUEUE_CAPACITY,
+                Thread.NORM_PRIORITY - 1, cpuRejected);
+        diskExecutor = newPool("fx-disk", 1, DISK_QUEUE_CAPACITY,
+                Thread.NORM_PRIORITY - 1, diskRejected);
+
+        // Workers are started on demand by the pool itself, so this costs nothing until used
+        final AtomicInteger forkJoinCount = new AtomicInteger();
+        forkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("fx-fj-" + forkJoinCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+        // One thread is enough: scheduled commands only hand work to another executor
+        timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "fx-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        mainThreadExecutor = command -> {
+            if (!mainHandler.post(command)) {
+                FxLog.e(TAG, "Main looper is shutting down, dropping result");
+            }
+        };
+    }
+
+    /**
+     * Thread-safe singleton accessor using double-checked locking
+     */
+    public static AppExecutors getInstance() {
+        if (instance == null) {
+            synchronized (AppExecutors.class) {
+                if (instance == null) {
+                    instance = new AppExecutors();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Pool for blocking network and disk I/O
+     */
+    public Executor io() {
+        return ioExecutor;
+    }
+
+    /**
+     * Pool for CPU-bound work such as parsing
+     */
+    public Executor cpu() {
+        return cpuExecutor;
+    }
+
+    /**
+     * Single thread for writes that must happen in order (one task at a time, FIFO)
+     */
+    public Executor disk() {
+        return diskExecutor;
+    }
+
+    /**
+     * Work-stealing pool for divide-and-conquer work (ParallelFeedParser)
+     * Separate from cpu() so a task running there can wait on forked subtasks without
+     * starving the bounded pool.
+     */
+    public ForkJoinPool forkJoin() {
+        return forkJoinPool;
+    }
+
+    /**
+     * Always delivers on the main (UI) thread, whichever thread submits
+     */
+    public Executor mainThread() {
+        return mainThreadExecutor;
+    }
+
+    /**
+     * Runs a command on the timer thread after a delay
+     * The command must not block: it should only hand work to another executor.
+     */
+    public ScheduledFuture<?> schedule(Runnable command, long delayMs) {
+        return timer.schedule(command, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    public PoolStats getIoStats() {
+        return new PoolStats("io", ioExecutor, IO_QUEUE_CAPACITY, ioRejected.get());
+    }
+
+    public PoolStats getCpuStats() {
+        return new PoolStats("cpu", cpuExecutor, CPU_QUEUE_CAPACITY, cpuRejected.get());
+    }
+
+    public PoolStats getDiskStats() {
+        return new PoolStats("disk", diskExecutor, DISK_QUEUE_CAPACITY, diskRejected.get());
+    }
+
+    /**
+     * Logs the current state of the pools
+     */
+    public void logStats() {
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> getIoStats() + " " + getCpuStats() + " " + getDiskStats() + " forkJoin{threads="
+                    + forkJoinPool.getPoolSize() + ", steals=" + forkJoinPool.getStealCount() + "}");
+        }
+    }
+
+    /**
+     * Fixed-size pool with named threads, a bounded queue and a rejection counter
+     * All core threads are started immediately so none is created on the hot path
+     */
+    private static ThreadPoolExecutor newPool(final String name, int size, int queueCapacity,
+                                              final int priority, final AtomicLong rejected) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            return thread;
+        };
+
+        final RejectedExecutionHandler abort = new ThreadPoolExecutor.AbortPolicy();
+        RejectedExecutionHandler countingAbort = (runnable, executor) -> {
+            rejected.incrementAndGet();
+            FxLog.w(TAG, name, " queue full (", executor.getQueue().size(), "), rejecting task");
+            abort.rejectedExecution(runnable, executor);
+        };
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), factory, countingAbort);
+        pool.prestartAllCoreThreads();
+        return pool;
+    }
+}
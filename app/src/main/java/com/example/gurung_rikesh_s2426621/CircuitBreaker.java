@@ -0,0 +1,147 @@
+package com.example.gurung_rikesh_s2426621;
+
+import android.os.SystemClock;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker guarding requests to one host
+ *
+ * CLOSED    - requests flow normally; consecutive failures are counted
+ * OPEN      - after too many failures, requests are refused for a cool-down period
+ * HALF_OPEN - after the cool-down a single trial request is let through (without retries);
+ *             success closes the circuit, failure opens it again
+ *
+ * Only failures that say something about the host (network errors, 5xx, 429) count, see
+ * onFailure(). A request that failed for its own reasons, such as a 404 for a misconfigured
+ * feed or an unparseable body, is reported with onIgnored() so it cannot open the circuit
+ * for every other feed on the same host.
+ *
+ * While the circuit is open the caller serves its last good data instead of
+ * hammering the host (and draining the battery) with requests that will fail.
+ */
+public class CircuitBreaker {
+
+    private static final String TAG = "CircuitBreaker";
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtMs;
+    private boolean trialInFlight;
+    private long rejectedCount;
+
+    /**
+     * @param name Label used in logs (e.g. the host name)
+     * @param failureThreshold Consecutive failures that open the circuit
+     * @param openDurationMs How long to refuse requests before trying again
+     */
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMs) {
+        this(name, failureThreshold, openDurationMs, SystemClock::elapsedRealtime);
+    }
+
+    /**
+     * @param clock Monotonic time source in milliseconds (replaceable in tests)
+     */
+    CircuitBreaker(String name, int failureThreshold, long openDurationMs, LongSupplier clock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Asks permission to send a request
+     * @return false if the circuit is open (the request should not be made)
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAtMs < openDurationMs) {
+                rejectedCount++;
+                return false;
+            }
+            if (FxLog.DEBUG_ENABLED) {
+                FxLog.d(TAG, () -> name + ": cool-down over, allowing a trial request");
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                rejectedCount++;
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    /**
+     * Records a successful request
+     */
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED && FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> name + ": request succeeded, closing circuit");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    /**
+     * Whether requests now allowed are trials of a half-open circuit
+     * A trial gets a single attempt: retrying it would hit a host that is probably still down.
+     */
+    public synchronized boolean isTrial() {
+        return state == State.HALF_OPEN;
+    }
+
+    /**
+     * Records a request that failed for reasons unrelated to the host's health
+     * (e.g. 404 or a parse error); frees the trial slot without changing the state
+     */
+    public synchronized void onIgnored() {
+        trialInFlight = false;
+    }
+
+    /**
+     * Records a failed request (after any retries): network error, 5xx or 429
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            FxLog.w(TAG, name, ": opening circuit after ", consecutiveFailures,
+                    " consecutive failures");
+            state = State.OPEN;
+            openedAtMs = clock.getAsLong();
+        }
+    }
+
+    public synchronized State getState() {
+        // Report OPEN as HALF_OPEN once the cool-down is over, without changing state
+        if (state == State.OPEN && clock.getAsLong() - openedAtMs >= openDurationMs) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Number of requests refused while the circuit was open
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.HttpURLConnection;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Helpers for negotiated HTTP transfer compression (gzip / deflate)
+ *
+ * Setting Accept-Encoding ourselves turns off HttpURLConnection's transparent gzip
+ * handling, so the response body must be decoded here. Decoding is done while
+ * streaming - the compressed body is never held in memory.
+ */
+public final class ContentEncoding {
+
+    /** Value sent in the Accept-Encoding request header */
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private ContentEncoding() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Adds the Accept-Encoding header to a request that has not been sent yet
+     */
+    public static void requestCompression(HttpURLConnection connection) {
+        connection.setRequestProperty("Accept-Encoding", ACCEPT_ENCODING);
+    }
+
+    /**
+     * Wraps a raw response stream with the decoder matching its Content-Encoding
+     *
+     * @param raw Response body as received from the network
+     * @param contentEncoding Value of the Content-Encoding header (may be null)
+     * @return Stream producing the decoded body
+     */
+    public static InputStream decode(InputStream raw, String contentEncoding) throws IOException {
+        if (contentEncoding == null) {
+            return raw;
+        }
+
+        String encoding = contentEncoding.trim().toLowerCase(Locale.US);
+        if (encoding.equals("gzip") || encoding.equals("x-gzip")) {
+            return new GZIPInputStream(raw, BUFFER_SIZE);
+        } else if (encoding.equals("deflate")) {
+            return inflate(raw);
+        }
+        return raw;
+    }
+
+    /**
+     * "deflate" should be zlib-wrapped (RFC 1950) but some servers send raw DEFLATE data
+     * Peek at the first two bytes to pick the right Inflater mode
+     */
+    private static InputStream inflate(InputStream raw) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(raw, 2);
+        int b0 = in.read();
+        int b1 = in.read();
+        if (b1 != -1) in.unread(b1);
+        if (b0 != -1) in.unread(b0);
+
+        boolean zlibHeader = b0 != -1 && b1 != -1
+                && (b0 & 0x0F) == 8
+                && ((b0 << 8) | b1) % 31 == 0;
+
+        final Inflater inflater = new Inflater(!zlibHeader);
+        return new InflaterInputStream(in, inflater, BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                // A caller-supplied Inflater is not released by InflaterInputStream itself
+                super.close();
+                inflater.end();
+            }
+        };
+    }
+}
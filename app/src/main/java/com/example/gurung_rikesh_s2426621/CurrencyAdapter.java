@@ -20,10 +20,12 @@ import java.util.List;
  * RecyclerView Adapter for displaying currency exchange rates
  * Implements color coding based on exchange rate strength
  * Uses color resources from colors.xml following lab pattern
+ * Binds straight from a RateSnapshot's columns; a search shows a subset of its rows
  */
 public class CurrencyAdapter extends RecyclerView.Adapter<CurrencyAdapter.ViewHolder> {
 
-    private List<CurrencyRate> currencyRates;
+    private RateSnapshot snapshot;
+    private int[] visibleRows; // Snapshot rows shown, in order; null = all rows
     private OnItemClickListener clickListener;
     private Context context;
 
@@ -35,7 +37,7 @@ public class CurrencyAdapter extends RecyclerView.Adapter<CurrencyAdapter.ViewHo
     // Constructor
     public CurrencyAdapter(Context context, List<CurrencyRate> currencyRates, OnItemClickListener clickListener) {
         this.context = context;
-        this.currencyRates = currencyRates;
+        this.snapshot = RateSnapshot.of(currencyRates);
         this.clickListener = clickListener;
     }
 
@@ -69,41 +71,53 @@ public class CurrencyAdapter extends RecyclerView.Adapter<CurrencyAdapter.ViewHo
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        CurrencyRate rate = currencyRates.get(position);
+        final int row = visibleRows != null ? visibleRows[position] : position;
+        final RateSnapshot rates = snapshot;
+        String targetCode = rates.getTargetCode(row);
+        double rate = rates.getRate(row);
 
         // Set currency pair text (e.g., "GBP -> USD")
-        String currencyPair = rate.getBaseCode() + " -> " + rate.getTargetCode();
+        String currencyPair = rates.getBaseCode(row) + " -> " + targetCode;
         holder.currencyPairTextView.setText(currencyPair);
 
         // Format and display exchange rate using UK/US format (period for decimal)
-        String formattedRate = CurrencyUtils.formatRate(rate.getRate());
+        String formattedRate = CurrencyUtils.formatRate(rate);
         holder.rateTextView.setText(formattedRate);
 
         // Apply color coding based on exchange rate strength
-        int backgroundColor = CurrencyUtils.getColorForRate(context, rate.getRate());
+        int backgroundColor = CurrencyUtils.getColorForRate(context, rate);
         holder.itemContainer.setBackgroundColor(backgroundColor);
 
         // Set flag icon based on target currency code
-        CurrencyUtils.setFlagIcon(context, holder.flagImageView, rate.getTargetCode());
+        CurrencyUtils.setFlagIcon(context, holder.flagImageView, rates.getTargetCodeId(row));
 
         // Handle click events
         holder.itemContainer.setOnClickListener(v -> {
             if (clickListener != null) {
-                clickListener.onItemClick(rate);
+                clickListener.onItemClick(rates.getRow(row));
             }
         });
     }
 
     @Override
     public int getItemCount() {
-        return currencyRates.size();
+        return visibleRows != null ? visibleRows.length : snapshot.size();
     }
 
     /**
      * Update adapter data and refresh RecyclerView
      */
     public void updateData(List<CurrencyRate> newRates) {
-        this.currencyRates = newRates;
+        updateData(RateSnapshot.of(newRates), null);
+    }
+
+    /**
+     * Shows a snapshot, or only some of its rows (e.g. search results)
+     * @param rows Row indexes to show in order, or null for all rows
+     */
+    public void updateData(RateSnapshot newSnapshot, int[] rows) {
+        this.snapshot = newSnapshot;
+        this.visibleRows = rows;
         notifyDataSetChanged();
     }
 }
@@ -0,0 +1,85 @@
+package com.example.gurung_rikesh_s2426621;
+
+/**
+ * ISO 4217 currency codes packed into an int: 5 bits per letter, 15 bits in all
+ *
+ *   "USD" -> ('U'-'A') << 10 | ('S'-'A') << 5 | ('D'-'A') = 21059
+ *
+ * A packed code is a plain int, so comparing two codes is one int comparison and arrays
+ * of codes need no objects. Anything that is not three upper-case letters packs to NONE.
+ * Use CurrencyRegistry to look up what is known about a code.
+ */
+public final class CurrencyCode {
+
+    /** Packed value of anything that is not a three-letter upper-case code */
+    public static final int NONE = -1;
+
+    public static final int GBP = pack('G', 'B', 'P');
+    public static final int USD = pack('U', 'S', 'D');
+    public static final int EUR = pack('E', 'U', 'R');
+    public static final int JPY = pack('J', 'P', 'Y');
+
+    private CurrencyCode() {
+        // Static helpers only; a code is represented by its int
+    }
+
+    /**
+     * Packs a code such as "USD", or returns NONE
+     */
+    public static int pack(String code) {
+        if (code == null || code.length() != 3) {
+            return NONE;
+        }
+        return pack(code.charAt(0), code.charAt(1), code.charAt(2));
+    }
+
+    /**
+     * Packs the three characters of text starting at start, or returns NONE
+     */
+    public static int pack(CharSequence text, int start) {
+        if (start < 0 || start + 3 > text.length()) {
+            return NONE;
+        }
+        return pack(text.charAt(start), text.charAt(start + 1), text.charAt(start + 2));
+    }
+
+    /**
+     * Packs the three characters of buffer starting at start, or returns NONE
+     */
+    public static int pack(char[] buffer, int start) {
+        if (start < 0 || start + 3 > buffer.length) {
+            return NONE;
+        }
+        return pack(buffer[start], buffer[start + 1], buffer[start + 2]);
+    }
+
+    /**
+     * The code as a String, e.g. "USD"; shared instances, nothing allocated for known codes
+     */
+    public static String toString(int code) {
+        if (code == NONE) {
+            return null;
+        }
+        String known = CurrencyRegistry.codeOf(code);
+        if (known != null) {
+            return known;
+        }
+        char[] letters = {
+                (char) ('A' + ((code >> 10) & 31)),
+                (char) ('A' + ((code >> 5) & 31)),
+                (char) ('A' + (code & 31))
+        };
+        return CurrencySymbolTable.getInstance().intern(letters, 0, 3);
+    }
+
+    private static int pack(char first, char second, char third) {
+        if (!isLetter(first) || !isLetter(second) || !isLetter(third)) {
+            return NONE;
+        }
+        return (first - 'A') << 10 | (second - 'A') << 5 | (third - 'A');
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+}
@@ -3,7 +3,6 @@ package com.example.gurung_rikesh_s2426621;
 import android.os.Bundle;
 import android.text.Editable;
 import android.text.TextWatcher;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -23,14 +22,20 @@ import com.example.gurung_rikesh_s2426621.CurrencyUtils;
 import com.example.gurung_rikesh_s2426621.DateUtils;
 import com.example.gurung_rikesh_s2426621.CurrencyDetailViewModel;
 
+import java.util.Objects;
+
 /**
  * Fragment displaying currency conversion calculator
  * Allows bidirectional conversion between GBP and selected currency
+ *
+ * Only the pair key ("GBP/USD") travels in the arguments; the rate itself is resolved from
+ * RateSnapshotStore, and again after every refresh, so the screen always shows the live rate.
+ * After process death the restored fragment resolves its key once the first result arrives.
  */
 public class CurrencyDetailFragment extends Fragment {
 
     private static final String TAG = "CurrencyDetailFragment";
-    private static final String ARG_CURRENCY_RATE = "currency_rate";
+    private static final String ARG_PAIR_KEY = "pair_key";
 
     // UI Components
     private ImageButton backButton;
@@ -45,17 +50,19 @@ public class CurrencyDetailFragment extends Fragment {
     private TextView bottomCurrencyCodeTextView;
 
     // Data
+    private String pairKey;
     private CurrencyRate currencyRate;
     private CurrencyDetailViewModel viewModel;
     private boolean isUpdating = false; // Prevent infinite loop in TextWatchers
 
     /**
-     * Factory method to create fragment with currency rate argument
+     * Factory method to create fragment for a currency pair
+     * @param pairKey Key of the pair, see CurrencyRate.getPairKey()
      */
-    public static CurrencyDetailFragment newInstance(CurrencyRate rate) {
+    public static CurrencyDetailFragment newInstance(String pairKey) {
         CurrencyDetailFragment fragment = new CurrencyDetailFragment();
         Bundle args = new Bundle();
-        args.putSerializable(ARG_CURRENCY_RATE, rate);
+        args.putString(ARG_PAIR_KEY, pairKey);
         fragment.setArguments(args);
         return fragment;
     }
@@ -64,15 +71,19 @@ public class CurrencyDetailFragment extends Fragment {
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         if (getArguments() != null) {
-            currencyRate = (CurrencyRate) getArguments().getSerializable(ARG_CURRENCY_RATE);
-            Log.d(TAG, "Currency rate loaded: " + currencyRate.getTargetCode());
+            pairKey = getArguments().getString(ARG_PAIR_KEY);
         }
 
-        // Initialize ViewModel
+        // Initialize ViewModel (kept across configuration changes, with its rate)
         viewModel = new ViewModelProvider(this).get(CurrencyDetailViewModel.class);
-        if (currencyRate != null) {
+        currencyRate = viewModel.getCurrencyRate();
+        if (currencyRate == null) {
+            currencyRate = RateSnapshotStore.getInstance().find(pairKey);
             viewModel.setCurrencyRate(currencyRate);
         }
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> "Pair " + pairKey + (currencyRate != null ? " resolved" : " waiting for rates"));
+        }
     }
 
     @Nullable
@@ -110,10 +121,31 @@ public class CurrencyDetailFragment extends Fragment {
         // Setup swap button
         swapButton.setOnClickListener(v -> swapCurrencies());
 
-        Log.d(TAG, "CurrencyDetailFragment view created");
+        FxLog.d(TAG, "CurrencyDetailFragment view created");
         return view;
     }
 
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+
+        // Pick up the rate of every new result (or the first one, after process death)
+        RateSnapshotStore.getInstance().getSnapshots().observe(getViewLifecycleOwner(), snapshot -> {
+            // Rows are rebuilt on each lookup, so compare what is shown rather than identity
+            CurrencyRate latest = RateSnapshotStore.find(snapshot, pairKey);
+            if (latest != null && (currencyRate == null
+                    || latest.getRate() != currencyRate.getRate()
+                    || !Objects.equals(latest.getPubDate(), currencyRate.getPubDate()))) {
+                currencyRate = latest;
+                viewModel.setCurrencyRate(latest);
+                setupCurrencyDisplay();
+                if (topAmountEditText.getText().length() > 0) {
+                    convertTopToBottom();
+                }
+            }
+        });
+    }
+
     /**
      * Setup currency display with rate information
      */
@@ -125,7 +157,7 @@ public class CurrencyDetailFragment extends Fragment {
         currencyNameTextView.setText(currencyName);
 
         // Set actual flag icon
-        CurrencyUtils.setFlagIcon(getContext(), currencyFlagImageView, currencyRate.getTargetCode());
+        CurrencyUtils.setFlagIcon(getContext(), currencyFlagImageView, currencyRate.getTargetCodeId());
 
         // Display exchange rate
         String formattedRate = "1 = " + CurrencyUtils.formatRateDetailed(currencyRate.getRate());
@@ -225,6 +257,6 @@ public class CurrencyDetailFragment extends Fragment {
         bottomAmountEditText.setText(topText);
         isUpdating = false;
 
-        Log.d(TAG, "Currencies swapped. isSwapped: " + viewModel.isSwapped());
+        FxLog.d(TAG, "Currencies swapped. isSwapped: ", viewModel.isSwapped());
     }
 }
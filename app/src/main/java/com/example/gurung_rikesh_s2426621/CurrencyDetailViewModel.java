@@ -5,17 +5,23 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
 import com.example.gurung_rikesh_s2426621.CurrencyRate;
-import com.example.gurung_rikesh_s2426621.CurrencyUtils;
+
+import java.math.BigDecimal;
 
 /**
  * ViewModel for CurrencyDetailFragment
  * Handles currency conversion business logic
+ * Amounts are converted exactly with Money at the rate as published (fixed point)
  */
 public class CurrencyDetailViewModel extends ViewModel {
 
     private CurrencyRate currencyRate;
     private boolean isSwapped = false;
 
+    // The rate as fixed point: rateUnscaled / 10^rateScale units of target per unit of base
+    private long rateUnscaled;
+    private int rateScale;
+
     private final MutableLiveData<String> topAmount = new MutableLiveData<>("");
     private final MutableLiveData<String> bottomAmount = new MutableLiveData<>("");
     private final MutableLiveData<Boolean> swapState = new MutableLiveData<>(false);
@@ -25,6 +31,21 @@ public class CurrencyDetailViewModel extends ViewModel {
      */
     public void setCurrencyRate(CurrencyRate rate) {
         this.currencyRate = rate;
+        if (rate == null) {
+            return;
+        }
+        if (rate.hasExactRate()) {
+            rateUnscaled = rate.getRateUnscaled();
+            rateScale = rate.getRateScale();
+        } else {
+            // Only the double is known: take its shortest decimal form, once
+            BigDecimal exact = BigDecimal.valueOf(rate.getRate());
+            if (exact.scale() < 0) {
+                exact = exact.setScale(0);
+            }
+            rateUnscaled = exact.unscaledValue().longValue();
+            rateScale = exact.scale();
+        }
     }
 
     /**
@@ -102,23 +123,7 @@ public class CurrencyDetailViewModel extends ViewModel {
             return "";
         }
 
-        try {
-            String cleanText = topText.replace(',', '.');
-            double amount = Double.parseDouble(cleanText);
-            double result;
-
-            if (isSwapped) {
-                // Converting from target currency to base (divide by rate)
-                result = CurrencyUtils.convertToBase(amount, currencyRate.getRate());
-            } else {
-                // Converting from base to target currency (multiply by rate)
-                result = CurrencyUtils.convertToTarget(amount, currencyRate.getRate());
-            }
-
-            return CurrencyUtils.formatAmount(result);
-        } catch (NumberFormatException e) {
-            return "";
-        }
+        return convert(topText, getTopCurrencyCode(), getBottomCurrencyCode(), !isSwapped);
     }
 
     /**
@@ -131,23 +136,27 @@ public class CurrencyDetailViewModel extends ViewModel {
             return "";
         }
 
-        try {
-            String cleanText = bottomText.replace(',', '.');
-            double amount = Double.parseDouble(cleanText);
-            double result;
-
-            if (isSwapped) {
-                // Converting from base to target currency (multiply by rate)
-                result = CurrencyUtils.convertToTarget(amount, currencyRate.getRate());
-            } else {
-                // Converting from target to base currency (divide by rate)
-                result = CurrencyUtils.convertToBase(amount, currencyRate.getRate());
-            }
+        return convert(bottomText, getBottomCurrencyCode(), getTopCurrencyCode(), isSwapped);
+    }
 
-            return CurrencyUtils.formatAmount(result);
-        } catch (NumberFormatException e) {
+    /**
+     * Parses an amount, converts it exactly and formats it with the target's minor unit
+     * @param toTarget true to convert base -> target (multiply by rate), false for target -> base
+     * @return The converted amount, or empty string if the input is not a number
+     */
+    private String convert(String text, String fromCode, String toCode, boolean toTarget) {
+        Money amount = Money.parse(text, fromCode);
+        if (amount == null || rateUnscaled == 0) {
             return "";
         }
+        try {
+            Money result = toTarget
+                    ? amount.multiplyByRate(rateUnscaled, rateScale, toCode)
+                    : amount.divideByRate(rateUnscaled, rateScale, toCode);
+            return result.format();
+        } catch (ArithmeticException e) {
+            return ""; // Amount too large to represent
+        }
     }
 
     /**
@@ -5,4 +5,6 @@ public class CurrencyFx {
     public String description;  // contains the exchange rate
     public String pubDate;      // optional
     public double rateValue;    // extracted numeric exchange rate
+    public long rateUnscaled;   // rate exactly as published: rateUnscaled / 10^rateScale
+    public int rateScale = -1;  // published decimals, -1 if unknown
 }
@@ -0,0 +1,43 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FeedParser strategy backed by CurrencyPullParser
+ * Each CurrencyFx is converted to a CurrencyRate; the title gives names and codes,
+ * the published fixed-point rate is carried over.
+ */
+public class CurrencyFxFeedParser implements FeedParser {
+
+    private final CurrencyPullParser parser = new CurrencyPullParser();
+
+    // Shared title handling (symbol table, validation)
+    private final RssFeedParser converter = new RssFeedParser();
+
+    @Override
+    public String getName() {
+        return "CurrencyPullParser";
+    }
+
+    @Override
+    public List<CurrencyRate> parse(Reader reader) {
+        List<CurrencyFx> items = parser.parse(reader);
+        List<CurrencyRate> rates = new ArrayList<>(items.size());
+        for (CurrencyFx item : items) {
+            CurrencyRate rate = converter.toCurrencyRate(item.title, null, item.pubDate,
+                    item.description, null);
+            if (rate == null) {
+                continue;
+            }
+            if (item.rateScale >= 0) {
+                rate.setExactRate(item.rateUnscaled, item.rateScale, item.rateValue);
+            } else {
+                rate.setRate(item.rateValue);
+            }
+            rates.add(rate);
+        }
+        return rates;
+    }
+}
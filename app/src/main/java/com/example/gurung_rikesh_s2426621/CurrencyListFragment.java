@@ -4,7 +4,6 @@ import android.content.Context;
 import android.os.Bundle;
 import android.text.Editable;
 import android.text.TextWatcher;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -26,7 +25,6 @@ import com.example.gurung_rikesh_s2426621.CurrencyAdapter;
 import com.example.gurung_rikesh_s2426621.CurrencyViewModel;
 
 import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Fragment displaying list of currency exchange rates from GBP to other currencies
@@ -61,7 +59,7 @@ public class CurrencyListFragment extends Fragment {
         // Set up listener following Task2_sol pattern
         if (context instanceof CurrencyListListener) {
             listener = (CurrencyListListener) context;
-            Log.d(TAG, "CurrencyListListener attached");
+            FxLog.d(TAG, "CurrencyListListener attached");
         } else {
             throw new ClassCastException(context.toString()
                     + " must implement CurrencyListFragment.CurrencyListListener");
@@ -72,7 +70,7 @@ public class CurrencyListFragment extends Fragment {
     public void onDetach() {
         super.onDetach();
         listener = null;
-        Log.d(TAG, "CurrencyListListener detached");
+        FxLog.d(TAG, "CurrencyListListener detached");
     }
 
     @Nullable
@@ -98,7 +96,7 @@ public class CurrencyListFragment extends Fragment {
             public void onItemClick(CurrencyRate rate) {
                 // Notify MainActivity of selection via interface
                 if (listener != null) {
-                    Log.d(TAG, "Currency selected: " + rate.getTargetCode());
+                    FxLog.d(TAG, "Currency selected: ", rate.getTargetCode());
                     listener.onCurrencySelected(rate);
                 }
             }
@@ -108,7 +106,7 @@ public class CurrencyListFragment extends Fragment {
         // Set up search functionality
         setupSearchListener();
 
-        Log.d(TAG, "CurrencyListFragment view created");
+        FxLog.d(TAG, "CurrencyListFragment view created");
         return view;
     }
 
@@ -123,7 +121,7 @@ public class CurrencyListFragment extends Fragment {
         setupObservers();
 
         // Data fetching is handled by MainActivity - don't duplicate
-        Log.d(TAG, "CurrencyListFragment observers set up, waiting for data...");
+        FxLog.d(TAG, "CurrencyListFragment observers set up, waiting for data...");
     }
 
     /**
@@ -131,23 +129,25 @@ public class CurrencyListFragment extends Fragment {
      * Added lifecycle safety checks to prevent crashes
      */
     private void setupObservers() {
-        // Observe currency rates data
-        viewModel.getCurrencyRates().observe(getViewLifecycleOwner(), currencyRates -> {
+        // Observe currency rates data (columnar snapshot, bound without per-row objects)
+        viewModel.getRateSnapshot().observe(getViewLifecycleOwner(), snapshot -> {
             // Safety check: ensure Fragment is still attached
             if (!isAdded() || getView() == null) {
-                Log.w(TAG, "Fragment not attached, skipping UI update");
+                FxLog.w(TAG, "Fragment not attached, skipping UI update");
                 return;
             }
 
-            if (currencyRates != null && !currencyRates.isEmpty()) {
-                Log.d(TAG, "Received " + currencyRates.size() + " currency rates");
+            if (snapshot != null && !snapshot.isEmpty()) {
+                if (FxLog.DEBUG_ENABLED) {
+                    FxLog.d(TAG, () -> "Received " + snapshot.size() + " currency rates");
+                }
 
                 // Safely update adapter and UI
                 if (adapter != null) {
-                    adapter.updateData(currencyRates);
+                    adapter.updateData(snapshot, null);
                 }
                 // Update currency count display
-                updateCurrencyCount(currencyRates.size());
+                updateCurrencyCount(snapshot.size());
 
                 if (statusTextView != null) {
                     statusTextView.setVisibility(View.GONE);
@@ -162,17 +162,24 @@ public class CurrencyListFragment extends Fragment {
         viewModel.getIsLoading().observe(getViewLifecycleOwner(), isLoading -> {
             // Safety check: ensure Fragment is still attached
             if (!isAdded() || getView() == null) {
-                Log.w(TAG, "Fragment not attached, skipping loading state update");
+                FxLog.w(TAG, "Fragment not attached, skipping loading state update");
                 return;
             }
 
             if (isLoading != null && loadingSpinner != null) {
                 loadingSpinner.setVisibility(isLoading ? View.VISIBLE : View.GONE);
 
-                if (isLoading && statusTextView != null && recyclerView != null) {
+                boolean hasRates = adapter != null && adapter.getItemCount() > 0;
+                if (isLoading && !hasRates && statusTextView != null && recyclerView != null) {
+                    // Nothing to show yet; with saved rates the list stays up while refreshing
                     statusTextView.setText("Loading currency data...");
                     statusTextView.setVisibility(View.VISIBLE);
                     recyclerView.setVisibility(View.GONE);
+                } else if (!isLoading && hasRates
+                        && statusTextView != null && recyclerView != null) {
+                    // Refresh finished without new data (feed unchanged) - show the current list again
+                    statusTextView.setVisibility(View.GONE);
+                    recyclerView.setVisibility(View.VISIBLE);
                 }
             }
         });
@@ -181,17 +188,19 @@ public class CurrencyListFragment extends Fragment {
         viewModel.getErrorMessage().observe(getViewLifecycleOwner(), errorMessage -> {
             // Safety check: ensure Fragment is still attached
             if (!isAdded() || getView() == null) {
-                Log.w(TAG, "Fragment not attached, skipping error display");
+                FxLog.w(TAG, "Fragment not attached, skipping error display");
                 return;
             }
 
             if (errorMessage != null && !errorMessage.isEmpty()) {
-                Log.e(TAG, "Error: " + errorMessage);
+                FxLog.e(TAG, "Error: ", errorMessage);
 
                 if (statusTextView != null && recyclerView != null) {
                     statusTextView.setText("Error: " + errorMessage);
                     statusTextView.setVisibility(View.VISIBLE);
-                    recyclerView.setVisibility(View.GONE);
+                    // Keep showing the last known rates (e.g. saved ones when offline)
+                    boolean hasRates = adapter != null && adapter.getItemCount() > 0;
+                    recyclerView.setVisibility(hasRates ? View.VISIBLE : View.GONE);
                 }
             }
         });
@@ -226,15 +235,16 @@ public class CurrencyListFragment extends Fragment {
      */
     private void filterCurrencies(String query) {
         if (adapter == null) {
-            Log.w(TAG, "Cannot filter: adapter is null");
+            FxLog.w(TAG, "Cannot filter: adapter is null");
             return;
         }
 
-        // Use ViewModel's searchCurrencies method to filter
-        List<CurrencyRate> filtered = viewModel.searchCurrencies(query);
-        if (filtered != null) {
-            adapter.updateData(filtered);
-            updateCurrencyCount(filtered.size());
+        // Use ViewModel's search to pick the matching rows of the current snapshot
+        RateSnapshot snapshot = viewModel.getRateSnapshot().getValue();
+        if (snapshot != null) {
+            int[] rows = viewModel.searchRows(query);
+            adapter.updateData(snapshot, rows);
+            updateCurrencyCount(rows != null ? rows.length : snapshot.size());
         }
     }
 
@@ -1,24 +1,30 @@
 package com.example.gurung_rikesh_s2426621;
 
 import org.xmlpull.v1.XmlPullParser;
-import org.xmlpull.v1.XmlPullParserFactory;
 
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
 
 public class CurrencyPullParser {
 
     public ArrayList<CurrencyFx> parse(String xmlData) {
+        return parse(new StringReader(xmlData));
+    }
+
+    /**
+     * Parses a streamed document; the caller closes the reader
+     */
+    public ArrayList<CurrencyFx> parse(Reader reader) {
         ArrayList<CurrencyFx> list = new ArrayList<>();
         CurrencyFx item = null;
+        XmlPullParser xpp = null;
+        RateDecoder rateDecoder = new RateDecoder(); // Reused for every item
 
         try {
-            XmlPullParserFactory factory =
-                    XmlPullParserFactory.newInstance();
-            factory.setNamespaceAware(true);
-
-            XmlPullParser xpp = factory.newPullParser();
-            xpp.setInput(new StringReader(xmlData));
+            // Cached per-thread parser; stray '&' escaped while reading
+            xpp = ParserContext.obtain(ParserContext.NAMESPACE_AWARE,
+                    new XmlAmpersandFilterReader(reader));
 
             int eventType = xpp.getEventType();
 
@@ -36,7 +42,7 @@ public class CurrencyPullParser {
                         }
                         else if (tag.equalsIgnoreCase("description")) {
                             item.description = xpp.nextText();
-                            item.rateValue = extractRate(item.description);
+                            extractRate(item, rateDecoder);
                         }
                         else if (tag.equalsIgnoreCase("pubDate")) {
                             item.pubDate = xpp.nextText();
@@ -56,20 +62,21 @@ public class CurrencyPullParser {
 
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            ParserContext.release(xpp);
         }
 
         return list;
     }
 
-    private double extractRate(String text) {
-        try {
-            // Example: "1 GBP = 1.23456 USD"
-            String[] parts = text.split("=");
-            String right = parts[1].trim();
-            String number = right.split(" ")[0];
-            return Double.parseDouble(number);
-        } catch (Exception e) {
-            return 0.0;
+    private void extractRate(CurrencyFx item, RateDecoder decoder) {
+        // Example: "1 GBP = 1.23456 USD" - scanned in place, no split() Strings
+        if (decoder.decode(item.description)) {
+            item.rateValue = decoder.getValue();
+            item.rateUnscaled = decoder.getUnscaled();
+            item.rateScale = decoder.getScale();
+        } else {
+            item.rateValue = 0.0;
         }
     }
 }
\ No newline at end of file
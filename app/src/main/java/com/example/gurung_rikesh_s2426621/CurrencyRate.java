@@ -2,10 +2,9 @@ package com.example.gurung_rikesh_s2426621;
 
 import androidx.annotation.NonNull;
 
-import java.io.Serializable;
+import java.math.BigDecimal;
 
-public class CurrencyRate implements Serializable {
-    private static final long serialVersionUID = 1L;
+public class CurrencyRate {
     private String title;
     private String baseCurrency;
     private String baseCode;
@@ -16,6 +15,15 @@ public class CurrencyRate implements Serializable {
     private String description;
     private double rate;
 
+    // Codes packed as CurrencyCode ints, kept in step with baseCode / targetCode
+    private int baseCodeId = CurrencyCode.NONE;
+    private int targetCodeId = CurrencyCode.NONE;
+
+    // Rate exactly as published, as fixed point: rateUnscaled / 10^rateScale
+    // rateScale is -1 when only the double is known (e.g. set through setRate())
+    private long rateUnscaled;
+    private int rateScale = -1;
+
     public CurrencyRate(){}
 
     public CurrencyRate(String title, String baseCurrency, String baseCode,
@@ -23,9 +31,9 @@ public class CurrencyRate implements Serializable {
                         String pubDate, String description, double rate) {
         this.title = title;
         this.baseCurrency = baseCurrency;
-        this.baseCode = baseCode;
+        setBaseCode(baseCode);
         this.targetCurrency = targetCurrency;
-        this.targetCode = targetCode;
+        setTargetCode(targetCode);
         this.link = link;
         this.pubDate = pubDate;
         this.description = description;
@@ -39,13 +47,37 @@ public class CurrencyRate implements Serializable {
     public void setBaseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; }
 
     public String getBaseCode() { return baseCode; }
-    public void setBaseCode(String baseCode) { this.baseCode = baseCode; }
+    public void setBaseCode(String baseCode) {
+        this.baseCode = baseCode;
+        this.baseCodeId = CurrencyCode.pack(baseCode);
+    }
+
+    /** Sets the base code from its packed form; the String is the shared instance */
+    public void setBaseCode(int code) {
+        this.baseCode = CurrencyCode.toString(code);
+        this.baseCodeId = code;
+    }
+
+    /** Base code as a packed CurrencyCode, or CurrencyCode.NONE */
+    public int getBaseCodeId() { return baseCodeId; }
 
     public String getTargetCurrency() { return targetCurrency; }
     public void setTargetCurrency(String targetCurrency) { this.targetCurrency = targetCurrency; }
 
     public String getTargetCode() { return targetCode; }
-    public void setTargetCode(String targetCode) { this.targetCode = targetCode; }
+    public void setTargetCode(String targetCode) {
+        this.targetCode = targetCode;
+        this.targetCodeId = CurrencyCode.pack(targetCode);
+    }
+
+    /** Sets the target code from its packed form; the String is the shared instance */
+    public void setTargetCode(int code) {
+        this.targetCode = CurrencyCode.toString(code);
+        this.targetCodeId = code;
+    }
+
+    /** Target code as a packed CurrencyCode, or CurrencyCode.NONE */
+    public int getTargetCodeId() { return targetCodeId; }
 
     public String getLink() { return link; }
     public void setLink(String link) { this.link = link; }
@@ -57,7 +89,46 @@ public class CurrencyRate implements Serializable {
     public void setDescription(String description) { this.description = description; }
 
     public double getRate() { return rate; }
-    public void setRate(double rate) { this.rate = rate; }
+    public void setRate(double rate) {
+        this.rate = rate;
+        this.rateScale = -1;
+    }
+
+    /**
+     * Sets the rate from its published fixed-point form, e.g. (49354, 4) for "4.9354"
+     * @param value The same rate as a double (see RateDecoder.toDouble)
+     */
+    public void setExactRate(long unscaled, int scale, double value) {
+        this.rate = value;
+        this.rateUnscaled = unscaled;
+        this.rateScale = scale;
+    }
+
+    /** True if the published digits of the rate are known */
+    public boolean hasExactRate() { return rateScale >= 0; }
+
+    /** Unscaled digits of the published rate, e.g. 49354 for "4.9354" */
+    public long getRateUnscaled() { return rateUnscaled; }
+
+    /** Number of decimals the feed published, or -1 if unknown */
+    public int getRateScale() { return rateScale; }
+
+    /**
+     * The rate as the feed published it, trailing zeros included (e.g. "4.93540")
+     * Falls back to the double's own formatting when the published digits are unknown
+     */
+    public String getRateText() {
+        if (rateScale < 0) {
+            return String.valueOf(rate);
+        }
+        return BigDecimal.valueOf(rateUnscaled, rateScale).toPlainString();
+    }
+
+    /**
+     * Unique key of the currency pair, e.g. "GBP/USD"
+     * Used to merge rates from several base-currency feeds
+     */
+    public String getPairKey() { return baseCode + "/" + targetCode; }
 
     @NonNull
     @Override
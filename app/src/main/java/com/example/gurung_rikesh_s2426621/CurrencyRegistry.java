@@ -0,0 +1,280 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Static facts about the currencies the app knows: flag country, English name and
+ * ISO 4217 minor units, keyed by packed CurrencyCode
+ *
+ * The table is a collision-free ("perfect") hash: SEED was generated by searching
+ * for a multiplier that sends every code below to a different one of the 256 slots, so a
+ * lookup is one multiply, one shift and one int comparison - no hashCode(), no probing,
+ * no boxing.
+ *
+ * Adding a currency:
+ * 1. Add its add(...) line to the static block.
+ * 2. Run the unit tests (CurrencyRegistryTest). If the new code shares a slot with another,
+ *    class initialisation fails with "... regenerate SEED, e.g. 0x...": findSeed() has
+ *    already searched for a multiplier that separates every code.
+ * 3. Paste that value into SEED and run the tests again.
+ * With ~85 codes in 256 slots about one multiplier in a million works, so the search
+ * takes well under a second.
+ *
+ * Unknown codes fall back to 2 minor digits and, for flags, the first two letters.
+ */
+public final class CurrencyRegistry {
+
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SEED = 0x9229f495;
+
+    private static final int DEFAULT_MINOR_DIGITS = 2;
+
+    // Marks a free slot; never a packed code, nor CurrencyCode.NONE
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private static final int[] KEYS = new int[SLOTS];
+    private static final String[] CODES = new String[SLOTS];
+    private static final String[] COUNTRIES = new String[SLOTS];
+    private static final String[] NAMES = new String[SLOTS];
+    private static final byte[] MINOR_DIGITS = new byte[SLOTS];
+    private static int size;
+
+    // Every code passed to add(), in order, and the first collision found (null = none)
+    private static final int[] ADDED = new int[SLOTS];
+    private static int addedCount;
+    private static String collision;
+
+    // Upper bound on the multipliers findSeed() tries
+    private static final int MAX_SEED_ATTEMPTS = 1 << 28;
+
+    static {
+        Arrays.fill(KEYS, EMPTY);
+
+        // code, flag country (ISO 3166-1 alpha-2 or flag name), minor digits, name
+        // Major currencies
+        add("USD", "us", 2, "United States Dollar");
+        add("EUR", "eu", 2, "Euro");
+        add("GBP", "gb", 2, "British Pound Sterling");
+        add("JPY", "jp", 0, "Japanese Yen");
+        add("CHF", "ch", 2, "Swiss Franc");
+
+        // Americas
+        add("CAD", "ca", 2, "Canadian Dollar");
+        add("MXN", "mx", 2, "Mexican Peso");
+        add("BRL", "br", 2, "Brazilian Real");
+        add("ARS", "ar", 2, "Argentine Peso");
+        add("CLP", "cl", 0, "Chilean Peso");
+        add("COP", "co", 2, "Colombian Peso");
+        add("PEN", "pe", 2, "Peruvian Sol");
+        add("VEF", "ve", 2, "Venezuelan Bolivar");
+        add("BOB", "bo", 2, "Bolivian Boliviano");
+        add("UYU", "uy", 2, "Uruguayan Peso");
+        add("PYG", "py", 0, "Paraguayan Guarani");
+        add("ANG", "ang", 2, "Netherlands Antillean Guilder");
+        add("XCD", "xcd", 2, "East Caribbean Dollar");
+
+        // Europe
+        add("NOK", "no", 2, "Norwegian Krone");
+        add("SEK", "se", 2, "Swedish Krona");
+        add("DKK", "dk", 2, "Danish Krone");
+        add("ISK", "is", 0, "Icelandic Krona");
+        add("CZK", "cz", 2, "Czech Koruna");
+        add("PLN", "pl", 2, "Polish Zloty");
+        add("HUF", "hu", 2, "Hungarian Forint");
+        add("RON", "ro", 2, "Romanian Leu");
+        add("BGN", "bg", 2, "Bulgarian Lev");
+        add("HRK", "hr", 2, "Croatian Kuna");
+        add("RSD", "rs", 2, "Serbian Dinar");
+        add("UAH", "ua", 2, "Ukrainian Hryvnia");
+        add("TRY", "tr", 2, "Turkish Lira");
+        add("RUB", "ru", 2, "Russian Ruble");
+
+        // Asia-Pacific
+        add("CNY", "cn", 2, "Chinese Yuan Renminbi");
+        add("HKD", "hk", 2, "Hong Kong Dollar");
+        add("TWD", "tw", 2, "Taiwan Dollar");
+        add("KRW", "kr", 0, "South Korean Won");
+        add("INR", "in", 2, "Indian Rupee");
+        add("PKR", "pk", 2, "Pakistani Rupee");
+        add("BDT", "bd", 2, "Bangladeshi Taka");
+        add("LKR", "lk", 2, "Sri Lankan Rupee");
+        add("NPR", "np", 2, "Nepalese Rupee");
+        add("IDR", "id", 2, "Indonesian Rupiah");
+        add("MYR", "my", 2, "Malaysian Ringgit");
+        add("SGD", "sg", 2, "Singapore Dollar");
+        add("THB", "th", 2, "Thai Baht");
+        add("VND", "vn", 0, "Vietnamese Dong");
+        add("PHP", "ph", 2, "Philippine Peso");
+        add("AUD", "au", 2, "Australian Dollar");
+        add("NZD", "nz", 2, "New Zealand Dollar");
+        add("XPF", "xpf", 0, "CFP Franc");
+        add("VUV", "vu", 0, "Vanuatu Vatu");
+
+        // Middle East
+        add("SAR", "sa", 2, "Saudi Riyal");
+        add("AED", "ae", 2, "United Arab Emirates Dirham");
+        add("QAR", "qa", 2, "Qatari Riyal");
+        add("KWD", "kw", 3, "Kuwaiti Dinar");
+        add("BHD", "bh", 3, "Bahraini Dinar");
+        add("OMR", "om", 3, "Omani Rial");
+        add("JOD", "jo", 3, "Jordanian Dinar");
+        add("ILS", "il", 2, "Israeli New Shekel");
+        add("IQD", "iq", 3, "Iraqi Dinar");
+        add("IRR", "ir", 2, "Iranian Rial");
+
+        // Africa
+        add("ZAR", "za", 2, "South African Rand");
+        add("EGP", "eg", 2, "Egyptian Pound");
+        add("NGN", "ng", 2, "Nigerian Naira");
+        add("KES", "ke", 2, "Kenyan Shilling");
+        add("TZS", "tz", 2, "Tanzanian Shilling");
+        add("UGX", "ug", 0, "Ugandan Shilling");
+        add("GHS", "gh", 2, "Ghanaian Cedi");
+        add("MAD", "ma", 2, "Moroccan Dirham");
+        add("TND", "tn", 3, "Tunisian Dinar");
+        add("DZD", "dz", 2, "Algerian Dinar");
+        add("AOA", "ao", 2, "Angolan Kwanza");
+        add("ETB", "et", 2, "Ethiopian Birr");
+        add("LYD", "ly", 3, "Libyan Dinar");
+        add("BIF", "bi", 0, "Burundi Franc");
+        add("DJF", "dj", 0, "Djibouti Franc");
+        add("GNF", "gn", 0, "Guinea Franc");
+        add("KMF", "km", 0, "Comoros Franc");
+        add("RWF", "rw", 0, "Rwanda Franc");
+        add("XAF", "xa", 0, "Central African CFA Franc");
+        add("XOF", "xof", 0, "West African CFA Franc");
+
+        // Cryptocurrencies (no country flag - use fallback)
+        add("BTC", "bc", 2, "Bitcoin");
+        add("ETH", "xx", 2, "Ethereum");
+        add("XRP", "xx", 2, "Ripple");
+
+        if (collision != null) {
+            int seed = findSeed(Arrays.copyOf(ADDED, addedCount));
+            throw new IllegalStateException(collision + "; regenerate SEED"
+                    + (seed != 0 ? ", e.g. 0x" + Integer.toHexString(seed) : ""));
+        }
+    }
+
+    private CurrencyRegistry() {
+        // Static lookups only
+    }
+
+    /**
+     * True if the code is in the table
+     */
+    public static boolean contains(int code) {
+        return KEYS[slotOf(code)] == code;
+    }
+
+    /**
+     * Canonical String of a known code, or null
+     */
+    public static String codeOf(int code) {
+        int slot = slotOf(code);
+        return KEYS[slot] == code ? CODES[slot] : null;
+    }
+
+    /**
+     * Flag country code used for the flag drawable ("us" for USD), or null if unknown
+     */
+    public static String countryOf(int code) {
+        int slot = slotOf(code);
+        return KEYS[slot] == code ? COUNTRIES[slot] : null;
+    }
+
+    /**
+     * English name of a known code, or null
+     */
+    public static String nameOf(int code) {
+        int slot = slotOf(code);
+        return KEYS[slot] == code ? NAMES[slot] : null;
+    }
+
+    /**
+     * ISO 4217 minor-unit exponent (2 for most, 0 for JPY, 3 for KWD...), 2 if unknown
+     */
+    public static int minorDigitsOf(int code) {
+        int slot = slotOf(code);
+        return KEYS[slot] == code ? MINOR_DIGITS[slot] : DEFAULT_MINOR_DIGITS;
+    }
+
+    /**
+     * Number of currencies in the table
+     */
+    public static int size() {
+        return size;
+    }
+
+    /**
+     * Packed codes in the table, in the order they were added
+     */
+    static int[] codes() {
+        return Arrays.copyOf(ADDED, addedCount);
+    }
+
+    static int slotOf(int code) {
+        return slotOf(code, SEED);
+    }
+
+    /**
+     * Searches for a multiplier that puts every code in a slot of its own
+     * Candidates come from a fixed-seed random sequence, so the result is reproducible.
+     * @return The multiplier, or 0 if none was found within MAX_SEED_ATTEMPTS
+     */
+    static int findSeed(int[] codes) {
+        if (codes.length > SLOTS) {
+            return 0;
+        }
+        Random candidates = new Random(SLOTS);
+        boolean[] used = new boolean[SLOTS];
+        for (int attempt = 0; attempt < MAX_SEED_ATTEMPTS; attempt++) {
+            int seed = candidates.nextInt() | 1;
+            Arrays.fill(used, false);
+            boolean distinct = true;
+            for (int code : codes) {
+                int slot = slotOf(code, seed);
+                if (used[slot]) {
+                    distinct = false;
+                    break;
+                }
+                used[slot] = true;
+            }
+            if (distinct) {
+                return seed;
+            }
+        }
+        return 0;
+    }
+
+    private static int slotOf(int code, int seed) {
+        return (code * seed) >>> (32 - SLOT_BITS);
+    }
+
+    private static void add(String code, String country, int minorDigits, String name) {
+        int packed = CurrencyCode.pack(code);
+        if (addedCount == SLOTS) {
+            throw new IllegalStateException("More than " + SLOTS + " currencies; raise SLOT_BITS");
+        }
+        ADDED[addedCount++] = packed;
+        int slot = slotOf(packed);
+        if (KEYS[slot] == packed) {
+            throw new IllegalStateException(code + " is added twice");
+        }
+        if (KEYS[slot] != EMPTY) {
+            // Keep going so findSeed() sees every code
+            if (collision == null) {
+                collision = code + " collides with " + CODES[slot];
+            }
+            return;
+        }
+        KEYS[slot] = packed;
+        CODES[slot] = CurrencySymbolTable.getInstance().intern(code);
+        COUNTRIES[slot] = country;
+        NAMES[slot] = name;
+        MINOR_DIGITS[slot] = (byte) minorDigits;
+        size++;
+    }
+}
@@ -1,37 +1,379 @@
 package com.example.gurung_rikesh_s2426621;
 
-import android.os.Handler;
-import android.util.Log;
+import android.content.Context;
 
 import com.example.gurung_rikesh_s2426621.RssFeedParser;
 import com.example.gurung_rikesh_s2426621.CurrencyRate;
 import com.example.gurung_rikesh_s2426621.RssFeedFetcher;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 public class CurrencyRepository {
 
     private static final String TAG = "CurrencyRepository";
     private static final String RSS_FEED_URL = "https://www.fx-exchange.com/gbp/rss.xml";
 
+    // Feed URL for any base currency, e.g. "usd" -> https://www.fx-exchange.com/usd/rss.xml
+    private static final String RSS_FEED_URL_TEMPLATE = "https://www.fx-exchange.com/%s/rss.xml";
+
+    // Resilience settings: 3 attempts per refresh, backoff 1s..8s with jitter;
+    // 3 failed refreshes in a row open the circuit for 5 minutes
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BASE_DELAY_MS = 1000;
+    private static final long RETRY_MAX_DELAY_MS = 8000;
+    private static final int CIRCUIT_FAILURE_THRESHOLD = 3;
+    private static final long CIRCUIT_OPEN_DURATION_MS = 5 * 60 * 1000L;
+
+    // Fastest strategy in FeedParserBenchmark; change with setParserStrategy()
+    private static final FeedParser.Strategy DEFAULT_PARSER_STRATEGY = FeedParser.Strategy.SCANNER;
+
     /**
      * Callback interface for asynchronous data fetching
      * This allows the Repository to communicate back to the ViewModel on the main thread
      */
     public interface DataCallback {
         void onDataLoaded(List<CurrencyRate> rates);
+
+        /**
+         * Called when the feed has not changed since the last delivered result
+         * (HTTP 304, a cache entry still within max-age, or a download whose items are all
+         * identical to the last parse). The previously delivered rates are still current.
+         */
+        void onDataUnchanged();
+
         void onError(String errorMessage);
     }
 
+    /**
+     * Callback for the rates saved by the last successful refresh (see loadSavedRates)
+     */
+    public interface SavedRatesCallback {
+        /**
+         * Called on the main thread with the snapshot of the saved rates, or not at all if none
+         * are usable or a fetched result was published first
+         * @param snapshot The snapshot published to RateSnapshotStore; a fetch may replace it
+         *                 before this runs, so compare it with the store's current one
+         * @param savedAtMs When those rates were fetched
+         */
+        void onSavedRatesLoaded(RateSnapshot snapshot, long savedAtMs);
+    }
+
+    /**
+     * Rates of one delta parse, with the delta read under the snapshot lock the parse held
+     * Two flights sharing a feed URL (e.g. "GBP" and "GBP,USD") parse into the same
+     * ItemSnapshot, so counts read after the lock is released may be the other parse's.
+     */
+    private static final class ParsedFeed {
+        final List<CurrencyRate> rates;
+        final int deltaSize; // ItemSnapshot.getDeltaSize() of this parse; -1 = unknown
+
+        ParsedFeed(List<CurrencyRate> rates, int deltaSize) {
+            this.rates = rates;
+            this.deltaSize = deltaSize;
+        }
+    }
+
+    /**
+     * Result of loading a single feed
+     */
+    static final class FeedOutcome {
+        final int status;                 // RssFeedFetcher.FetchResult.STATUS_*
+        final List<CurrencyRate> rates;   // Parsed (or previously parsed) rates, null on failure
+                                          // (a stream that broke off part-way is a failure)
+        final int responseCode;           // HTTP status of the last attempt (0 = network error)
+        final int changedItems;           // Items new, different, removed or moved since the last parse; -1 = unknown
+
+        FeedOutcome(int status, List<CurrencyRate> rates, int responseCode) {
+            this(status, rates, responseCode, -1);
+        }
+
+        FeedOutcome(int status, List<CurrencyRate> rates, int responseCode, int changedItems) {
+            this.status = status;
+            this.rates = rates;
+            this.responseCode = responseCode;
+            this.changedItems = changedItems;
+        }
+
+        /**
+         * Nothing new for the caller: 304 / fresh cache, or every downloaded item identical
+         * (a delta parse with no new, changed, removed or moved item). Such a refresh is delivered as
+         * onDataUnchanged and leaves the snapshot file and the history alone, as they already
+         * hold exactly these rates; only the roll-ups take it, to carry the close forward.
+         * An unknown delta (-1, e.g. the first parse of a feed) counts as changed.
+         */
+        boolean isUnchanged() {
+            return status == RssFeedFetcher.FetchResult.STATUS_NOT_MODIFIED
+                    || (status == RssFeedFetcher.FetchResult.STATUS_OK && changedItems == 0);
+        }
+
+        /**
+         * Rates that may be stored and merged: a complete download, or a 304 / fresh cache hit
+         */
+        boolean hasRates() {
+            return rates != null && (status == RssFeedFetcher.FetchResult.STATUS_OK
+                    || status == RssFeedFetcher.FetchResult.STATUS_NOT_MODIFIED);
+        }
+    }
+
+    /**
+     * Rates delivered by a completed flight, with the base currencies they were fetched for
+     */
+    static final class DeliveredRates {
+        final String flightKey;           // Base currencies joined with ',', e.g. "GBP,USD"
+        final List<CurrencyRate> rates;
+
+        DeliveredRates(String flightKey, List<CurrencyRate> rates) {
+            this.flightKey = flightKey;
+            this.rates = rates;
+        }
+
+        /**
+         * Whether an outcome for the given flight can be reported as "unchanged": only if
+         * nothing is new and these rates came from the same set of feeds. After the base
+         * currencies change, a 304 from every feed still has to deliver the merged rates,
+         * so pairs of a removed base go away and pairs of an added base show up.
+         */
+        boolean coversUnchanged(String key, FeedOutcome outcome) {
+            return outcome.isUnchanged() && flightKey.equals(key);
+        }
+    }
+
     // Thread-safe singleton using volatile and double-checked locking
     private static volatile CurrencyRepository instance;
 
-    private final RssFeedParser parser;
+    // Parsing strategy; the fx-exchange scanner (RssFeedParser for odd items) by default.
+    // Documents above ParallelFeedParser's size threshold (by Content-Length when streamed)
+    // are split across cores; normal feeds, ~70 KB each, always go straight to the scanner
+    private volatile ParallelFeedParser parser;
+
+    // Shared I/O, CPU and main-thread executors (bounded, created once per process)
+    private final AppExecutors executors;
+
+    // Latest result as a RateSnapshot, looked up by pair key from any screen
+    private final RateSnapshotStore snapshotStore;
+
+    // On-disk response cache, available once init() has been called with a Context
+    private volatile FeedCache feedCache;
+
+    // Binary copy of the last delivered rates, for showing something before the network answers
+    private volatile RateSnapshotFile savedRates;
+
+    // Append-only log of every delivered result
+    private volatile RateHistoryStore history;
+
+    // Open/high/low/close buckets of every delivered result, for long-range charts
+    private volatile OhlcAggregator rollups;
+
+    // Pipeline mode: parse the network stream directly instead of downloading to a String first
+    private volatile boolean streamingPipeline = true;
+
+    // Base currencies to fetch; more than one switches on multi-feed mode
+    private volatile Set<String> baseCurrencies = Collections.singleton("GBP");
+
+    // Last rates delivered to callers and the feeds they came from; a 304 is only
+    // reported as "unchanged" for the same feeds
+    private volatile DeliveredRates lastDelivered;
+
+    // Last parsed rates per feed URL, reused when that feed answers 304
+    private final Map<String, List<CurrencyRate>> feedRates = new ConcurrentHashMap<>();
+
+    // Item hashes of each feed's last parse; unchanged items are reused instead of re-parsed
+    private final Map<String, ItemSnapshot> itemSnapshots = new ConcurrentHashMap<>();
+
+    // Resilience: retry policy, one circuit breaker per host, and counters for measuring waste
+    private final RetryPolicy retryPolicy =
+            new RetryPolicy(MAX_ATTEMPTS, RETRY_BASE_DELAY_MS, RETRY_MAX_DELAY_MS);
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final AtomicLong attemptCount = new AtomicLong();
+    private final AtomicLong failedAttemptCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong shortCircuitCount = new AtomicLong();
+
+    // Single-flight: callers waiting on the fetch currently running for each feed set
+    private final SingleFlight<DataCallback> inFlight = new SingleFlight<>();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    // Time of the last result written by persist(); only touched on the disk executor
+    private long lastPersistedAtMs;
 
     private CurrencyRepository() {
-        parser = new RssFeedParser();
+        parser = new ParallelFeedParser(FeedParser.create(DEFAULT_PARSER_STRATEGY));
+        executors = AppExecutors.getInstance();
+        snapshotStore = RateSnapshotStore.getInstance();
     }
 
+    /**
+     * Gives the repository access to app storage for its on-disk feed cache
+     * Safe to call more than once (e.g. on every Activity creation)
+     */
+    public synchronized void init(Context context) {
+        if (feedCache == null) {
+            File cacheDir = new File(context.getApplicationContext().getCacheDir(), "feeds");
+            feedCache = new FeedCache(cacheDir);
+        }
+        if (savedRates == null) {
+            savedRates = new RateSnapshotFile(
+                    new File(context.getApplicationContext().getFilesDir(), "rates.snapshot"));
+        }
+        if (history == null) {
+            history = new RateHistoryStore(
+                    new File(context.getApplicationContext().getFilesDir(), "history"));
+        }
+        if (rollups == null) {
+            rollups = new OhlcAggregator(
+                    new File(context.getApplicationContext().getFilesDir(), "ohlc"));
+        }
+    }
+
+    /**
+     * Rate history recorded by this app, or null before init()
+     * Reads touch the disk: call from a background thread.
+     */
+    public RateHistoryStore getHistory() {
+        return history;
+    }
+
+    /**
+     * Minute / hour / day roll-ups of the rate history, or null before init()
+     * Queries touch the disk: call from a background thread.
+     */
+    public OhlcAggregator getRollups() {
+        return rollups;
+    }
+
+    /**
+     * Loads the rates saved by the last successful refresh (memory-mapped, a few milliseconds)
+     * and publishes them to RateSnapshotStore, unless fresher rates have arrived meanwhile.
+     * Meant for startup, before or alongside fetchAndParseRates().
+     * @param callback Receives the saved rates on the main thread; not called if there are none
+     */
+    public void loadSavedRates(final SavedRatesCallback callback) {
+        final RateSnapshotFile file = savedRates;
+        if (file == null) {
+            return;
+        }
+        try {
+            executors.io().execute(() -> {
+                long start = System.nanoTime();
+                RateSnapshotFile.Contents contents = file.read();
+                if (contents == null || contents.rates.isEmpty()) {
+                    return;
+                }
+                RateSnapshot snapshot = snapshotStore.publishIfEmpty(contents.rates);
+                if (snapshot == null) {
+                    return; // A fetched result is already out; never replace it with older rates
+                }
+                if (FxLog.DEBUG_ENABLED) {
+                    FxLog.d(TAG, () -> "Loaded " + contents.rates.size() + " saved rates in "
+                            + (System.nanoTime() - start) / 1000 + "us");
+                }
+                executors.mainThread().execute(
+                        () -> callback.onSavedRatesLoaded(snapshot, contents.savedAtMs));
+            });
+        } catch (RejectedExecutionException e) {
+            FxLog.w(TAG, "I/O pool saturated, skipping saved rates");
+        }
+    }
+
+    /**
+     * Switches between the streaming fetch->sanitize->parse pipeline (default)
+     * and the buffered download-then-parse path
+     */
+    public void setStreamingPipelineEnabled(boolean enabled) {
+        streamingPipeline = enabled;
+    }
+
+    /**
+     * Chooses the parser used for downloaded and cached feeds
+     * Takes effect from the next fetch; a fetch already running keeps its parser
+     */
+    public void setParserStrategy(FeedParser.Strategy strategy) {
+        ParallelFeedParser selected = new ParallelFeedParser(FeedParser.create(strategy));
+        parser = selected;
+        FxLog.d(TAG, "Parser strategy: ", selected.getName());
+    }
+
+    /**
+     * Name of the parser currently in use
+     */
+    public String getParserName() {
+        return parser.getName();
+    }
+
+    /**
+     * Sets which base currencies to download, e.g. ["GBP", "USD", "EUR"]
+     * With more than one base, feeds are fetched in parallel and merged into one result
+     */
+    public void setBaseCurrencies(Collection<String> codes) {
+        Set<String> bases = new LinkedHashSet<>();
+        for (String code : codes) {
+            if (code != null && code.trim().length() == 3) {
+                bases.add(code.trim().toUpperCase(Locale.US));
+            }
+        }
+        if (bases.isEmpty()) {
+            throw new IllegalArgumentException("At least one base currency is required");
+        }
+        baseCurrencies = Collections.unmodifiableSet(bases);
+    }
+
+    /**
+     * Returns the configured base currencies
+     */
+    public Set<String> getBaseCurrencies() {
+        return baseCurrencies;
+    }
+
+    /**
+     * Returns the most recent rates delivered by this repository, or null if none yet
+     */
+    public List<CurrencyRate> getLastRates() {
+        DeliveredRates last = lastDelivered;
+        return last != null ? last.rates : null;
+    }
+
+    /**
+     * State of the circuit breaker for the default (GBP) feed host
+     */
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreakerFor(RSS_FEED_URL).getState();
+    }
+
+    /** Total HTTP attempts, including retries */
+    public long getAttemptCount() { return attemptCount.get(); }
+
+    /** Attempts that failed - each one a wasted request and radio wake-up */
+    public long getFailedAttemptCount() { return failedAttemptCount.get(); }
+
+    /** Retries made after a failed attempt */
+    public long getRetryCount() { return retryCount.get(); }
+
+    /** Requests not made because the circuit was open */
+    public long getShortCircuitCount() { return shortCircuitCount.get(); }
+
+    /** Duplicate fetch requests absorbed by joining an in-flight fetch */
+    public long getCoalescedRequestCount() { return coalescedCount.get(); }
+
     /**
      * Thread-safe singleton accessor using double-checked locking
      */
@@ -47,66 +389,469 @@ public class CurrencyRepository {
     }
 
     /**
-     * Fetches and parses currency data from RSS feed using background thread
+     * Fetches and parses currency data from RSS feed on the shared I/O pool
      *
      * Threading approach:
-     * 1. Creates Handler on main thread (for UI updates)
-     * 2. Spawns worker thread to fetch RSS feed and parse data
-     * 3. Uses Handler.post() to send results back to main thread
+     * 1. Submits the download to the bounded I/O pool of AppExecutors (no thread is created)
+     *    (in multi-feed mode each feed is a separate I/O task and the last one to finish merges)
+     * 2. The feed is parsed as it streams in (buffered mode hands the parse to the CPU pool)
+     * 3. Results are posted through the main-thread executor, so callbacks always run on the
+     *    UI thread regardless of which thread called this method
+     *
+     * Requests are coalesced (single-flight): if a fetch for the same feeds is already
+     * running, the callback joins it instead of starting another download, and every
+     * joined callback receives that one result.
+     * If the I/O queue is full the request is rejected straight away with onError().
      *
      * @param callback Callback to receive parsed data on main thread
      */
     public void fetchAndParseRates(final DataCallback callback) {
-        // Create Handler bound to the main thread's message queue
-        final Handler mHandler = new Handler();
+        final Set<String> bases = baseCurrencies;
+        final String flightKey = String.join(",", bases);
+
+        if (!inFlight.join(flightKey, callback)) {
+            // Same feeds already downloading - share that result
+            coalescedCount.incrementAndGet();
+            if (FxLog.DEBUG_ENABLED) {
+                FxLog.d(TAG, () -> "Fetch for " + flightKey + " already in flight, joining it ("
+                        + inFlight.waiting(flightKey) + " waiting)");
+            }
+            return;
+        }
+
+        if (bases.size() == 1) {
+            final String url = feedUrlFor(bases.iterator().next());
+            FxLog.d(TAG, "Queueing RSS feed fetch from: ", url);
+            try {
+                executors.io().execute(() -> loadFeed(url, outcome -> completeFlight(flightKey, outcome)));
+            } catch (RejectedExecutionException e) {
+                FxLog.w(TAG, "I/O pool saturated, rejecting fetch for ", flightKey);
+                deliver(flightKey, cb -> cb.onError("Too many requests in progress, try again shortly"));
+            }
+        } else {
+            if (FxLog.DEBUG_ENABLED) {
+                FxLog.d(TAG, () -> "Queueing " + bases.size() + " feed fetches: " + bases);
+            }
+            loadFeeds(flightKey, bases);
+        }
+    }
+
+    /**
+     * Turns the outcome of a fetch into the callback every waiter receives
+     * Runs on the I/O thread that finished the fetch
+     */
+    private void completeFlight(String flightKey, FeedOutcome outcome) {
+        // Pooled-connection hits vs new handshakes, and executor load
+        FeedHttpClient.getInstance().logStats();
+        executors.logStats();
+
+        DeliveredRates last = lastDelivered;
+        if (last != null && last.coversUnchanged(flightKey, outcome)) {
+            // Nothing new: the rates already delivered are still current
+            FxLog.d(TAG, "Feed unchanged since last refresh");
+            deliver(flightKey, DataCallback::onDataUnchanged);
+            // Still the current rates: extend the roll-ups so a 304 streak leaves no gap
+            persist(last.rates, false);
+            return;
+        }
+
+        if (outcome.status == RssFeedFetcher.FetchResult.STATUS_ERROR) {
+            // Network error - post error to main thread
+            deliver(flightKey, cb -> cb.onError("Failed to download RSS feed"));
+            return;
+        }
+
+        final List<CurrencyRate> rates = outcome.rates;
+        if (rates == null || rates.isEmpty()) {
+            // Parsing error - post error to main thread
+            deliver(flightKey, cb -> cb.onError("Failed to parse currency data"));
+            return;
+        }
+
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> "Parsing complete. Posting " + rates.size() + " rates to main thread...");
+        }
+
+        // Build the shared snapshot here, off the main thread, then post results there
+        lastDelivered = new DeliveredRates(flightKey, rates);
+        snapshotStore.publish(rates);
+        deliver(flightKey, cb -> cb.onDataLoaded(rates));
+        persist(rates, true);
+    }
 
-        Log.d(TAG, "Starting background thread to fetch RSS feed...");
+    /**
+     * Saves a delivered result for the next cold start and records it in the history and
+     * roll-ups, on the serial disk executor
+     * An unchanged result (changed false) only goes to the roll-ups.
+     * Results are written one at a time in the order their flights completed, so a new flight
+     * finishing while an older one is still being written can never interleave with it or
+     * reach the history first.
+     */
+    private void persist(final List<CurrencyRate> rates, final boolean changed) {
+        try {
+            executors.disk().execute(() -> {
+                // Strictly increasing record times, even if the wall clock steps back
+                long now = Math.max(System.currentTimeMillis(), lastPersistedAtMs + 1);
+                lastPersistedAtMs = now;
+
+                RateSnapshotFile file = savedRates;
+                if (changed && file != null) {
+                    file.write(rates, now);
+                }
+                RateHistoryStore log = history;
+                if (changed && log != null) {
+                    log.append(now, rates);
+                }
+                OhlcAggregator aggregator = rollups;
+                if (aggregator != null) {
+                    aggregator.update(now, rates);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            FxLog.w(TAG, "Disk queue full, not saving this result");
+        }
+    }
 
-        // Create Thread to handle the long-running network operation
-        new Thread(() -> {
-            Log.d(TAG, "Worker thread started - fetching RSS feed from: " + RSS_FEED_URL);
+    /**
+     * Completes an in-flight fetch: removes it and posts the result to every waiting
+     * callback through the main-thread executor
+     */
+    private void deliver(String flightKey, Consumer<DataCallback> result) {
+        List<DataCallback> waiters = inFlight.complete(flightKey);
+        if (waiters == null) {
+            return;
+        }
+        for (final DataCallback waiter : waiters) {
+            executors.mainThread().execute(() -> result.accept(waiter));
+        }
+    }
+
+    /**
+     * Downloads several feeds in parallel and merges them into one result set
+     * Each feed is a separate task on the I/O pool and is parsed as soon as its bytes arrive;
+     * the last task to finish merges and completes the flight, so no thread sits blocked
+     * waiting for the others. Total latency is roughly that of the slowest feed.
+     */
+    private void loadFeeds(final String flightKey, final Set<String> bases) {
+        final Map<String, FeedOutcome> outcomes = new ConcurrentHashMap<>();
+        final AtomicInteger remaining = new AtomicInteger(bases.size());
 
+        for (final String base : bases) {
+            final String url = feedUrlFor(base);
             try {
-                // Step 1: Fetch RSS feed from network (blocking I/O operation)
-                RssFeedFetcher fetcher = new RssFeedFetcher();
-                final String xmlData = fetcher.fetchRssFeed(RSS_FEED_URL);
+                executors.io().execute(() -> loadFeed(url, outcome -> {
+                    outcomes.put(base, outcome);
+                    if (remaining.decrementAndGet() == 0) {
+                        completeFlight(flightKey, mergeOutcomes(bases, outcomes));
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                FxLog.w(TAG, "I/O pool saturated, skipping feed for ", base);
+                outcomes.put(base, new FeedOutcome(RssFeedFetcher.FetchResult.STATUS_ERROR, null, 0));
+                if (remaining.decrementAndGet() == 0) {
+                    completeFlight(flightKey, mergeOutcomes(bases, outcomes));
+                }
+            }
+        }
+    }
 
-                if (xmlData == null || xmlData.isEmpty()) {
-                    // Network error - post error to main thread
-                    mHandler.post(() -> callback.onError("Failed to download RSS feed"));
-                    return;
+    /**
+     * Merges per-feed outcomes into one result set
+     *
+     * @return Merged outcome: NOT_MODIFIED only if every feed was unchanged,
+     *         ERROR only if every feed failed
+     */
+    static FeedOutcome mergeOutcomes(Set<String> bases, Map<String, FeedOutcome> outcomes) {
+        boolean anyChanged = false;
+        boolean anyRates = false;
+        for (String base : bases) {
+            FeedOutcome outcome = outcomes.get(base);
+            if (outcome != null && outcome.hasRates()) {
+                anyRates = true;
+                anyChanged |= !outcome.isUnchanged();
+            } else {
+                anyChanged = true; // Missing feed changes the merged result
+                FxLog.w(TAG, "Feed for ", base, " failed, continuing with the others");
+            }
+        }
+
+        if (!anyRates) {
+            return new FeedOutcome(RssFeedFetcher.FetchResult.STATUS_ERROR, null, 0);
+        }
+
+        // Merge in configured base order; pair key ("GBP/USD") keeps each pair once
+        Map<String, CurrencyRate> merged = new LinkedHashMap<>();
+        for (String base : bases) {
+            FeedOutcome outcome = outcomes.get(base);
+            if (outcome != null && outcome.hasRates()) {
+                for (CurrencyRate rate : outcome.rates) {
+                    merged.put(rate.getPairKey(), rate);
                 }
+            }
+        }
 
-                Log.d(TAG, "RSS feed downloaded successfully, parsing XML...");
+        int status = anyChanged
+                ? RssFeedFetcher.FetchResult.STATUS_OK
+                : RssFeedFetcher.FetchResult.STATUS_NOT_MODIFIED;
+        return new FeedOutcome(status, new ArrayList<>(merged.values()), 0);
+    }
 
-                // Step 2: Parse the XML data (still on worker thread)
-                final List<CurrencyRate> rates = parser.parse(xmlData);
+    /**
+     * Loads a single feed with retries, guarded by the host's circuit breaker
+     * Call on an I/O thread; done receives the outcome exactly once, normally on an I/O thread
+     * (on the timer thread if a retry finds the I/O pool saturated).
+     *
+     * - Transient failures are retried with exponential backoff and jitter. The wait is a
+     *   timer hand-off, not a sleep, so the I/O thread is free for other work meanwhile.
+     * - While the circuit is open no request is made; the last good rates are served as "unchanged"
+     * - The trial request of a half-open circuit gets a single attempt
+     */
+    private void loadFeed(String url, Consumer<FeedOutcome> done) {
+        CircuitBreaker breaker = circuitBreakerFor(url);
 
-                if (rates == null || rates.isEmpty()) {
-                    // Parsing error - post error to main thread
-                    mHandler.post(() -> callback.onError("Failed to parse currency data"));
-                    return;
+        if (!breaker.allowRequest()) {
+            shortCircuitCount.incrementAndGet();
+            FxLog.w(TAG, "Circuit open, serving last good data for: ", url);
+            FeedOutcome outcome;
+            try {
+                outcome = lastGoodOutcome(url);
+            } catch (RuntimeException e) {
+                FxLog.e(TAG, "Error loading cached feed ", url, ": ", e.getMessage(), e);
+                outcome = new FeedOutcome(RssFeedFetcher.FetchResult.STATUS_ERROR, null, 0);
+            }
+            done.accept(outcome);
+            return;
+        }
+
+        int maxAttempts = breaker.isTrial() ? 1 : retryPolicy.getMaxAttempts();
+        attemptFeed(url, breaker, 1, maxAttempts, done);
+    }
+
+    /**
+     * One attempt of loadFeed(); schedules the next one after a backoff if it failed transiently
+     */
+    private void attemptFeed(final String url, final CircuitBreaker breaker, final int attempt,
+                             final int maxAttempts, final Consumer<FeedOutcome> done) {
+        attemptCount.incrementAndGet();
+        FeedOutcome outcome;
+        try {
+            outcome = fetchFeedOnce(url);
+        } catch (RuntimeException e) {
+            // A bug or a broken document, not the host: not retried, not held against the host
+            FxLog.e(TAG, "Error loading feed ", url, ": ", e.getMessage(), e);
+            outcome = new FeedOutcome(RssFeedFetcher.FetchResult.STATUS_ERROR, null, -1);
+        }
+
+        if (outcome.status != RssFeedFetcher.FetchResult.STATUS_ERROR) {
+            breaker.onSuccess();
+            done.accept(outcome);
+            return;
+        }
+
+        failedAttemptCount.incrementAndGet();
+        if (!RetryPolicy.isRetryable(outcome.responseCode)) {
+            // e.g. 404 for a bad base currency: says nothing about the other feeds on this host
+            breaker.onIgnored();
+            done.accept(outcome);
+            return;
+        }
+
+        if (attempt < maxAttempts) {
+            final long backoff = retryPolicy.backoffMs(attempt);
+            if (FxLog.DEBUG_ENABLED) {
+                FxLog.d(TAG, () -> "Retry " + attempt + " for " + url + " in " + backoff + "ms");
+            }
+            final FeedOutcome failed = outcome;
+            try {
+                executors.schedule(() -> {
+                    try {
+                        executors.io().execute(
+                                () -> attemptFeed(url, breaker, attempt + 1, maxAttempts, done));
+                    } catch (RejectedExecutionException e) {
+                        FxLog.w(TAG, "I/O pool saturated, giving up retrying ", url);
+                        breaker.onFailure();
+                        done.accept(failed);
+                    }
+                }, backoff);
+                retryCount.incrementAndGet();
+                return;
+            } catch (RejectedExecutionException e) {
+                FxLog.w(TAG, "Could not schedule retry for ", url);
+            }
+        }
+
+        breaker.onFailure();
+        done.accept(outcome);
+    }
+
+    /**
+     * Outcome used while the circuit is open: previous rates for this feed (or the
+     * cached copy on a cold start) reported as unchanged
+     */
+    private FeedOutcome lastGoodOutcome(String url) {
+        List<CurrencyRate> rates = feedRates.get(url);
+        if (rates == null) {
+            rates = parseCachedFeed(feedCache, url);
+        }
+        if (rates == null || rates.isEmpty()) {
+            return new FeedOutcome(RssFeedFetcher.FetchResult.STATUS_ERROR, null, 0);
+        }
+        feedRates.put(url, rates);
+        return new FeedOutcome(RssFeedFetcher.FetchResult.STATUS_NOT_MODIFIED, rates, 0);
+    }
+
+    /**
+     * Fetches and parses a single feed once (blocking - worker threads only)
+     * A 304 / fresh cache hit returns the rates parsed last time, or parses the cached copy
+     */
+    private FeedOutcome fetchFeedOnce(String url) {
+        // Step 1: Fetch RSS feed from network (blocking I/O operation)
+        // Conditional GET against the on-disk cache when one is available
+        FeedCache cache = feedCache;
+        RssFeedFetcher fetcher = new RssFeedFetcher(cache);
+        RssFeedFetcher.FetchResult result;
+        ParsedFeed parsed = null;
+        ItemSnapshot snapshot = itemSnapshotFor(url);
+
+        if (streamingPipeline) {
+            // Steps 1+2 combined: network stream -> scanner (pull parser for odd items)
+            // The document is never held in memory as a String
+            final AtomicReference<ParsedFeed> streamed = new AtomicReference<>();
+            final ParallelFeedParser feedParser = parser;
+            result = fetcher.fetch(url, (body, length) -> {
+                synchronized (snapshot) {
+                    List<CurrencyRate> parsedRates = feedParser.parse(body, snapshot, length);
+                    streamed.set(new ParsedFeed(parsedRates, snapshot.getDeltaSize()));
                 }
+            });
+            parsed = streamed.get();
+        } else {
+            result = fetcher.fetch(url);
+            if (result.body != null && !result.body.isEmpty()) {
+                FxLog.d(TAG, "RSS feed downloaded successfully, parsing XML...");
 
-                Log.d(TAG, "Parsing complete. Posting " + rates.size() + " rates to main thread...");
+                // Step 2: Parse the XML data on the CPU pool
+                parsed = parseOnCpuPool(result.body, snapshot);
+            }
+        }
+        List<CurrencyRate> rates = parsed != null ? parsed.rates : null;
 
-                // Step 3: Post results to main thread using Handler
-                // This ensures UI updates happen on the main thread
-                mHandler.post(() -> callback.onDataLoaded(rates));
+        if (result.status == RssFeedFetcher.FetchResult.STATUS_ERROR) {
+            // Whatever was parsed before the stream broke off is incomplete: drop it
+            return new FeedOutcome(result.status, null, result.responseCode);
+        }
 
-            } catch (Exception e) {
-                Log.e(TAG, "Error in worker thread: " + e.getMessage(), e);
+        int changedItems = -1;
+        if (result.status == RssFeedFetcher.FetchResult.STATUS_NOT_MODIFIED) {
+            rates = feedRates.get(url);
+            if (rates == null) {
+                // First request in this process: parse the cached copy once
+                rates = parseCachedFeed(cache, url);
+            }
+        } else if (rates != null && feedRates.containsKey(url)) {
+            // Delta against the previous parse of this feed, for later stages to skip work
+            changedItems = parsed.deltaSize;
+        }
 
-                // Post error to main thread
-                final String errorMsg = e.getMessage();
-                mHandler.post(() -> callback.onError("Error fetching data: " + errorMsg));
+        if (rates != null && !rates.isEmpty()) {
+            feedRates.put(url, rates);
+        }
+        return new FeedOutcome(result.status, rates, result.responseCode, changedItems);
+    }
+
+    /**
+     * Parses a downloaded document on the CPU pool and waits for the result
+     * Keeps parse concurrency bounded by the core count; falls back to parsing on the
+     * calling thread if the CPU queue is full.
+     */
+    private ParsedFeed parseOnCpuPool(final String body, final ItemSnapshot snapshot) {
+        final ParallelFeedParser feedParser = parser;
+        FutureTask<ParsedFeed> task = new FutureTask<>(() -> parseDelta(feedParser, body, snapshot));
+        try {
+            executors.cpu().execute(task);
+        } catch (RejectedExecutionException e) {
+            FxLog.w(TAG, "CPU pool saturated, parsing on the I/O thread");
+            return parseDelta(feedParser, body, snapshot);
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.cancel(true);
+            return null;
+        } catch (ExecutionException e) {
+            FxLog.e(TAG, "Parse failed: ", e.getCause(), e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * Delta parse of a document held in memory, with its delta read under the same lock
+     */
+    private static ParsedFeed parseDelta(ParallelFeedParser feedParser, String body,
+                                         ItemSnapshot snapshot) {
+        synchronized (snapshot) {
+            List<CurrencyRate> rates = feedParser.parse(body, snapshot);
+            return new ParsedFeed(rates, snapshot.getDeltaSize());
+        }
+    }
+
+    /**
+     * Streams the cached copy of a feed straight into the parser
+     * @return Parsed rates, or null if nothing usable is cached
+     */
+    private List<CurrencyRate> parseCachedFeed(FeedCache cache, String url) {
+        FeedCache.Entry entry = cache != null ? cache.get(url) : null;
+        if (entry == null) {
+            return null;
+        }
+
+        try (Reader reader = cache.openBody(entry)) {
+            return parser.parse(reader, itemSnapshotFor(url));
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not read cached feed: ", e.getMessage());
+            return null;
+        }
+    }
+
+    private ItemSnapshot itemSnapshotFor(String url) {
+        return itemSnapshots.computeIfAbsent(url, key -> new ItemSnapshot());
+    }
+
+    /**
+     * Returns the circuit breaker for the host of a feed URL
+     */
+    private CircuitBreaker circuitBreakerFor(String url) {
+        String host = URI.create(url).getHost();
+        if (host == null) {
+            host = url;
+        }
+        CircuitBreaker breaker = circuitBreakers.get(host);
+        if (breaker == null) {
+            CircuitBreaker created = new CircuitBreaker(host,
+                    CIRCUIT_FAILURE_THRESHOLD, CIRCUIT_OPEN_DURATION_MS);
+            breaker = circuitBreakers.putIfAbsent(host, created);
+            if (breaker == null) {
+                breaker = created;
             }
-        }).start(); // Start the worker thread
+        }
+        return breaker;
+    }
+
+    /**
+     * Builds the feed URL for a base currency code
+     */
+    private static String feedUrlFor(String baseCode) {
+        if ("GBP".equals(baseCode)) {
+            return RSS_FEED_URL;
+        }
+        return String.format(RSS_FEED_URL_TEMPLATE, baseCode.toLowerCase(Locale.US));
     }
 
     /**
      * Parses XML data containing currency exchange rates
-     * Delegates to RssFeedParser for actual parsing
+     * Delegates to the configured FeedParser strategy
      * @param dataToParse XML string containing RSS feed data
      * @return List of parsed CurrencyRate objects
      */
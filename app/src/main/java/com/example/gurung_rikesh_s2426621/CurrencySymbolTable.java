@@ -0,0 +1,203 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide table of canonical currency names, codes and pair titles
+ *
+ * Every refresh parses the same ~170 names ("British Pound Sterling"), codes ("GBP") and
+ * titles again. Looking them up here returns one shared String instance per symbol, so
+ * parsed rates stop holding thousands of duplicates and the parser's copies die young.
+ *
+ * Lookups work directly on char ranges: when the symbol is already known, no String or
+ * substring is created at all. Reads are lock-free (open addressing over a volatile array);
+ * only inserting a new symbol takes a lock.
+ *
+ * The table is bounded; once full, unknown symbols are returned as new, unshared Strings.
+ */
+public final class CurrencySymbolTable {
+
+    // Far above the number of currencies x bases in any feed; protects against junk input
+    private static final int MAX_SYMBOLS = 4096;
+
+    private static final int INITIAL_CAPACITY = 512; // Power of two
+
+    private static volatile CurrencySymbolTable instance;
+
+    // Open-addressing hash table, load factor <= 0.5; replaced as a whole when it grows
+    private volatile String[] table = new String[INITIAL_CAPACITY];
+    private int size;
+    private final int maxSymbols;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private CurrencySymbolTable() {
+        this(MAX_SYMBOLS);
+    }
+
+    /**
+     * Separate table with its own bound (tests)
+     */
+    CurrencySymbolTable(int maxSymbols) {
+        this.maxSymbols = maxSymbols;
+    }
+
+    /**
+     * Thread-safe singleton accessor using double-checked locking
+     */
+    public static CurrencySymbolTable getInstance() {
+        if (instance == null) {
+            synchronized (CurrencySymbolTable.class) {
+                if (instance == null) {
+                    instance = new CurrencySymbolTable();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Canonical instance of chars[start, end)
+     */
+    public String intern(char[] chars, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        String[] current = table;
+        int mask = current.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            String symbol = current[slot];
+            if (symbol == null) {
+                break;
+            }
+            if (symbol.hashCode() == hash && regionMatches(symbol, chars, start, end)) {
+                hits.incrementAndGet();
+                return symbol;
+            }
+        }
+
+        misses.incrementAndGet();
+        return add(new String(chars, start, end - start));
+    }
+
+    /**
+     * Canonical instance of text[start, end)
+     */
+    public String intern(CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+
+        String[] current = table;
+        int mask = current.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            String symbol = current[slot];
+            if (symbol == null) {
+                break;
+            }
+            if (symbol.hashCode() == hash && regionMatches(symbol, text, start, end)) {
+                hits.incrementAndGet();
+                return symbol;
+            }
+        }
+
+        misses.incrementAndGet();
+        return add(text.subSequence(start, end).toString());
+    }
+
+    /**
+     * Canonical instance of a whole String
+     */
+    public String intern(String text) {
+        return text == null ? null : intern(text, 0, text.length());
+    }
+
+    /**
+     * Number of distinct symbols stored
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /** Lookups answered with an existing instance */
+    public long getHitCount() { return hits.get(); }
+
+    /** Lookups that had to create a String */
+    public long getMissCount() { return misses.get(); }
+
+    /**
+     * Inserts a new symbol, or returns the one another thread inserted meanwhile
+     */
+    private synchronized String add(String symbol) {
+        String[] current = table;
+        int mask = current.length - 1;
+        int hash = symbol.hashCode();
+        int slot = spread(hash) & mask;
+        for (; current[slot] != null; slot = (slot + 1) & mask) {
+            if (current[slot].equals(symbol)) {
+                return current[slot];
+            }
+        }
+
+        if (size >= maxSymbols) {
+            return symbol;
+        }
+
+        if ((size + 1) * 2 > current.length) {
+            // Grow into a new array and publish it in one write; readers keep the old one
+            String[] larger = new String[current.length * 2];
+            int largerMask = larger.length - 1;
+            for (String existing : current) {
+                if (existing != null) {
+                    int s = spread(existing.hashCode()) & largerMask;
+                    while (larger[s] != null) {
+                        s = (s + 1) & largerMask;
+                    }
+                    larger[s] = existing;
+                }
+            }
+            slot = spread(hash) & largerMask;
+            while (larger[slot] != null) {
+                slot = (slot + 1) & largerMask;
+            }
+            larger[slot] = symbol;
+            table = larger;
+        } else {
+            current[slot] = symbol;
+        }
+        size++;
+        return symbol;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean regionMatches(String symbol, char[] chars, int start, int end) {
+        if (symbol.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < symbol.length(); i++) {
+            if (symbol.charAt(i) != chars[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(String symbol, CharSequence text, int start, int end) {
+        if (symbol.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < symbol.length(); i++) {
+            if (symbol.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -10,9 +10,7 @@ import com.example.gurung_rikesh_s2426621.R;
 
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
 
 /**
  * Utility class for currency-related operations
@@ -33,104 +31,6 @@ public final class CurrencyUtils {
         // Private constructor to prevent instantiation
     }
 
-    // ==================== CURRENCY TO COUNTRY MAPPING ====================
-
-    /**
-     * Static mapping of currency codes (ISO 4217) to country codes (ISO 3166-1 alpha-2)
-     * Uses HashMap for O(1) lookup performance
-     */
-    private static final Map<String, String> CURRENCY_TO_COUNTRY = new HashMap<>();
-    static {
-        // Major currencies
-        CURRENCY_TO_COUNTRY.put("USD", "us");    // United States Dollar
-        CURRENCY_TO_COUNTRY.put("EUR", "eu");    // Euro
-        CURRENCY_TO_COUNTRY.put("GBP", "gb");    // British Pound
-        CURRENCY_TO_COUNTRY.put("JPY", "jp");    // Japanese Yen
-        CURRENCY_TO_COUNTRY.put("CHF", "ch");    // Swiss Franc
-
-        // Americas
-        CURRENCY_TO_COUNTRY.put("CAD", "ca");    // Canadian Dollar
-        CURRENCY_TO_COUNTRY.put("MXN", "mx");    // Mexican Peso
-        CURRENCY_TO_COUNTRY.put("BRL", "br");    // Brazilian Real
-        CURRENCY_TO_COUNTRY.put("ARS", "ar");    // Argentine Peso
-        CURRENCY_TO_COUNTRY.put("CLP", "cl");    // Chilean Peso
-        CURRENCY_TO_COUNTRY.put("COP", "co");    // Colombian Peso
-        CURRENCY_TO_COUNTRY.put("PEN", "pe");    // Peruvian Sol
-        CURRENCY_TO_COUNTRY.put("VEF", "ve");    // Venezuelan Bolívar
-        CURRENCY_TO_COUNTRY.put("BOB", "bo");    // Bolivian Boliviano
-        CURRENCY_TO_COUNTRY.put("UYU", "uy");    // Uruguayan Peso
-        CURRENCY_TO_COUNTRY.put("ANG", "ang");   // Netherlands Antillean Guilder
-        CURRENCY_TO_COUNTRY.put("XCD", "xcd");   // East Caribbean Dollar
-
-        // Europe
-        CURRENCY_TO_COUNTRY.put("NOK", "no");    // Norwegian Krone
-        CURRENCY_TO_COUNTRY.put("SEK", "se");    // Swedish Krona
-        CURRENCY_TO_COUNTRY.put("DKK", "dk");    // Danish Krone
-        CURRENCY_TO_COUNTRY.put("ISK", "is");    // Icelandic Króna
-        CURRENCY_TO_COUNTRY.put("CZK", "cz");    // Czech Koruna
-        CURRENCY_TO_COUNTRY.put("PLN", "pl");    // Polish Złoty
-        CURRENCY_TO_COUNTRY.put("HUF", "hu");    // Hungarian Forint
-        CURRENCY_TO_COUNTRY.put("RON", "ro");    // Romanian Leu
-        CURRENCY_TO_COUNTRY.put("BGN", "bg");    // Bulgarian Lev
-        CURRENCY_TO_COUNTRY.put("HRK", "hr");    // Croatian Kuna
-        CURRENCY_TO_COUNTRY.put("RSD", "rs");    // Serbian Dinar
-        CURRENCY_TO_COUNTRY.put("UAH", "ua");    // Ukrainian Hryvnia
-        CURRENCY_TO_COUNTRY.put("TRY", "tr");    // Turkish Lira
-        CURRENCY_TO_COUNTRY.put("RUB", "ru");    // Russian Ruble
-
-        // Asia-Pacific
-        CURRENCY_TO_COUNTRY.put("CNY", "cn");    // Chinese Yuan
-        CURRENCY_TO_COUNTRY.put("HKD", "hk");    // Hong Kong Dollar
-        CURRENCY_TO_COUNTRY.put("TWD", "tw");    // Taiwan Dollar
-        CURRENCY_TO_COUNTRY.put("KRW", "kr");    // South Korean Won
-        CURRENCY_TO_COUNTRY.put("INR", "in");    // Indian Rupee
-        CURRENCY_TO_COUNTRY.put("PKR", "pk");    // Pakistani Rupee
-        CURRENCY_TO_COUNTRY.put("BDT", "bd");    // Bangladeshi Taka
-        CURRENCY_TO_COUNTRY.put("LKR", "lk");    // Sri Lankan Rupee
-        CURRENCY_TO_COUNTRY.put("NPR", "np");    // Nepalese Rupee
-        CURRENCY_TO_COUNTRY.put("IDR", "id");    // Indonesian Rupiah
-        CURRENCY_TO_COUNTRY.put("MYR", "my");    // Malaysian Ringgit
-        CURRENCY_TO_COUNTRY.put("SGD", "sg");    // Singapore Dollar
-        CURRENCY_TO_COUNTRY.put("THB", "th");    // Thai Baht
-        CURRENCY_TO_COUNTRY.put("VND", "vn");    // Vietnamese Dong
-        CURRENCY_TO_COUNTRY.put("PHP", "ph");    // Philippine Peso
-        CURRENCY_TO_COUNTRY.put("AUD", "au");    // Australian Dollar
-        CURRENCY_TO_COUNTRY.put("NZD", "nz");    // New Zealand Dollar
-        CURRENCY_TO_COUNTRY.put("XPF", "xpf");         //Pacific Franc
-
-        // Middle East
-        CURRENCY_TO_COUNTRY.put("SAR", "sa");    // Saudi Riyal
-        CURRENCY_TO_COUNTRY.put("AED", "ae");    // UAE Dirham
-        CURRENCY_TO_COUNTRY.put("QAR", "qa");    // Qatari Riyal
-        CURRENCY_TO_COUNTRY.put("KWD", "kw");    // Kuwaiti Dinar
-        CURRENCY_TO_COUNTRY.put("BHD", "bh");    // Bahraini Dinar
-        CURRENCY_TO_COUNTRY.put("OMR", "om");    // Omani Rial
-        CURRENCY_TO_COUNTRY.put("JOD", "jo");    // Jordanian Dinar
-        CURRENCY_TO_COUNTRY.put("ILS", "il");    // Israeli Shekel
-        CURRENCY_TO_COUNTRY.put("IQD", "iq");    // Iraqi Dinar
-        CURRENCY_TO_COUNTRY.put("IRR", "ir");    // Iranian Rial
-
-        // Africa
-        CURRENCY_TO_COUNTRY.put("ZAR", "za");    // South African Rand
-        CURRENCY_TO_COUNTRY.put("EGP", "eg");    // Egyptian Pound
-        CURRENCY_TO_COUNTRY.put("NGN", "ng");    // Nigerian Naira
-        CURRENCY_TO_COUNTRY.put("KES", "ke");    // Kenyan Shilling
-        CURRENCY_TO_COUNTRY.put("TZS", "tz");    // Tanzanian Shilling
-        CURRENCY_TO_COUNTRY.put("UGX", "ug");    // Ugandan Shilling
-        CURRENCY_TO_COUNTRY.put("GHS", "gh");    // Ghanaian Cedi
-        CURRENCY_TO_COUNTRY.put("MAD", "ma");    // Moroccan Dirham
-        CURRENCY_TO_COUNTRY.put("TND", "tn");    // Tunisian Dinar
-        CURRENCY_TO_COUNTRY.put("DZD", "dz");    // Algerian Dinar
-        CURRENCY_TO_COUNTRY.put("AOA", "ao");    // Angolan Kwanza
-        CURRENCY_TO_COUNTRY.put("ETB", "et");    // Ethiopian Birr
-        CURRENCY_TO_COUNTRY.put("XOF", "xof");   // West African CFA franc
-
-        // Cryptocurrencies (no country flag - use fallback)
-        CURRENCY_TO_COUNTRY.put("BTC", "bc");    // Bitcoin
-        CURRENCY_TO_COUNTRY.put("ETH", "xx");    // Ethereum
-        CURRENCY_TO_COUNTRY.put("XRP", "xx");    // Ripple
-    }
-
     // ==================== FORMATTING ====================
 
     /**
@@ -251,6 +151,13 @@ public final class CurrencyUtils {
      * Set flag icon on an ImageView based on currency code
      */
     public static void setFlagIcon(Context context, ImageView imageView, String currencyCode) {
+        setFlagIcon(context, imageView, CurrencyCode.pack(currencyCode));
+    }
+
+    /**
+     * Set flag icon on an ImageView based on a packed currency code (see CurrencyCode)
+     */
+    public static void setFlagIcon(Context context, ImageView imageView, int currencyCode) {
         if (context == null || imageView == null) return;
 
         int iconResource = getFlagResourceForCurrency(context, currencyCode);
@@ -269,8 +176,15 @@ public final class CurrencyUtils {
      * @param currencyCode 3-letter ISO 4217 currency code (e.g., "USD", "EUR")
      * @return Resource ID of the flag drawable, or default icon if not found
      */
-    @SuppressLint("DiscouragedApi")  // Justified: Dynamic lookup for 260+ flags
     public static int getFlagResourceForCurrency(Context context, String currencyCode) {
+        return getFlagResourceForCurrency(context, CurrencyCode.pack(currencyCode));
+    }
+
+    /**
+     * Get flag icon resource for a packed currency code (see CurrencyCode)
+     */
+    @SuppressLint("DiscouragedApi")  // Justified: Dynamic lookup for 260+ flags
+    public static int getFlagResourceForCurrency(Context context, int currencyCode) {
         if (context == null) return android.R.drawable.ic_menu_mapmode;
 
         String countryCode = getCurrencyToCountryCode(currencyCode);
@@ -291,27 +205,46 @@ public final class CurrencyUtils {
 
     /**
      * Map currency codes (ISO 4217) to country codes (ISO 3166-1 alpha-2)
-     * Uses HashMap lookup for O(1) performance
      */
     public static String getCurrencyToCountryCode(String currencyCode) {
         if (currencyCode == null) return "xx";
 
-        String countryCode = CURRENCY_TO_COUNTRY.get(currencyCode);
+        int packed = CurrencyCode.pack(currencyCode);
+        if (packed == CurrencyCode.NONE) {
+            // Not a three-letter code: use first 2 characters of it as country code
+            if (currencyCode.length() >= 2) {
+                return currencyCode.substring(0, 2).toLowerCase(Locale.ROOT);
+            }
+            return "xx";  // Fallback to unknown country
+        }
+        return getCurrencyToCountryCode(packed);
+    }
+
+    /**
+     * Country code for a packed currency code, from CurrencyRegistry's perfect-hash table
+     * Unknown codes fall back to their first 2 letters in lower case
+     */
+    public static String getCurrencyToCountryCode(int currencyCode) {
+        if (currencyCode == CurrencyCode.NONE) return "xx";
+
+        String countryCode = CurrencyRegistry.countryOf(currencyCode);
         if (countryCode != null) {
             return countryCode;
         }
 
-        // Fallback: use first 2 characters of currency code as country code
-        if (currencyCode.length() >= 2) {
-            return currencyCode.substring(0, 2).toLowerCase();
-        }
-        return "xx";  // Fallback to unknown country
+        // Fallback: use first 2 letters of currency code as country code
+        char[] letters = {
+                (char) ('a' + ((currencyCode >> 10) & 31)),
+                (char) ('a' + ((currencyCode >> 5) & 31))
+        };
+        return CurrencySymbolTable.getInstance().intern(letters, 0, 2);
     }
 
     // ==================== CONVERSION ====================
 
     /**
      * Convert amount from base currency to target currency
+     * Approximate (binary double); use Money.multiplyByRate for exact amounts
      * @param amount The amount to convert
      * @param rate The exchange rate (base to target)
      * @return Converted amount
@@ -322,6 +255,7 @@ public final class CurrencyUtils {
 
     /**
      * Convert amount from target currency to base currency
+     * Approximate (binary double); use Money.divideByRate for exact amounts
      * @param amount The amount to convert
      * @param rate The exchange rate (base to target)
      * @return Converted amount
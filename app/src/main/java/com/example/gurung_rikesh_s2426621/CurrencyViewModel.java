@@ -2,7 +2,6 @@ package com.example.gurung_rikesh_s2426621;
 
 import android.os.Handler;
 import android.os.Looper;
-import android.util.Log;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
@@ -18,12 +17,16 @@ public class CurrencyViewModel extends ViewModel {
 
     private static final String TAG = "CurrencyViewModel";
 
-    // Auto-update configuration
-    // Default: 1 hour (3600000 ms) - can be reduced for demo purposes
-    // For demo: use 5 minutes (300000 ms) or even 1 minute (60000 ms)
-    private static final long AUTO_UPDATE_INTERVAL_MS = 60000; // 1 minutes for demo
+    // Auto-update bounds: the scheduler adapts between these depending on how often
+    // the feed is republished and how much the rates move
+    private static final long MIN_UPDATE_INTERVAL_MS = UpdateScheduler.DEFAULT_MIN_INTERVAL_MS; // 1 minute
+    private static final long MAX_UPDATE_INTERVAL_MS = UpdateScheduler.DEFAULT_MAX_INTERVAL_MS; // 30 minutes
+
+    // Main currencies as packed codes
+    private static final int[] MAIN_CURRENCY_IDS = {CurrencyCode.USD, CurrencyCode.EUR, CurrencyCode.JPY};
 
     private final CurrencyRepository repository;
+    private final MutableLiveData<RateSnapshot> rateSnapshot;
     private final MutableLiveData<List<CurrencyRate>> currencyRates;
     private final MutableLiveData<Boolean> isLoading;
     private final MutableLiveData<String> errorMessage;
@@ -36,28 +39,45 @@ public class CurrencyViewModel extends ViewModel {
     private final Handler autoUpdateHandler;
     private boolean autoUpdateEnabled = false;
 
+    // Adaptive interval between automatic updates
+    private final UpdateScheduler updateScheduler;
+
     // Runnable for periodic updates
+    // The next update is scheduled when this fetch completes, using the adapted interval
     private final Runnable autoUpdateRunnable = new Runnable() {
         @Override
         public void run() {
             if (autoUpdateEnabled) {
-                Log.d(TAG, "Auto-update triggered (interval: " + (AUTO_UPDATE_INTERVAL_MS / 1000) + "s)");
+                if (FxLog.DEBUG_ENABLED) {
+                    FxLog.d(TAG, () -> "Auto-update triggered (interval: "
+                            + (updateScheduler.getIntervalMs() / 1000) + "s)");
+                }
                 refreshCurrencyData();
-                // Schedule next update
-                autoUpdateHandler.postDelayed(this, AUTO_UPDATE_INTERVAL_MS);
             }
         }
     };
 
     public CurrencyViewModel() {
         repository = CurrencyRepository.getInstance();
+        rateSnapshot = new MutableLiveData<>();
         currencyRates = new MutableLiveData<>();
         isLoading = new MutableLiveData<>();
         errorMessage = new MutableLiveData<>();
         lastUpdateTime = new MutableLiveData<>();
         autoUpdateHandler = new Handler(Looper.getMainLooper());
+        updateScheduler = new UpdateScheduler(MIN_UPDATE_INTERVAL_MS, MAX_UPDATE_INTERVAL_MS);
     }
 
+    /**
+     * Current rates as a columnar snapshot (codes, names, rates and times as arrays)
+     */
+    public LiveData<RateSnapshot> getRateSnapshot() {
+        return rateSnapshot;
+    }
+
+    /**
+     * Current rates as a List, a view over the published snapshot's rows
+     */
     public LiveData<List<CurrencyRate>> getCurrencyRates() {
         return currencyRates;
     }
@@ -76,7 +96,7 @@ public class CurrencyViewModel extends ViewModel {
 
     /**
      * Fetches currency data from RSS feed using background thread
-     * This method uses the Repository's Handler pattern implementation
+     * The Repository runs the work on its shared I/O pool (AppExecutors)
      * The callback will be invoked on the main thread, making it safe to update LiveData
      *
      * Note: Always fetches fresh data to ensure exchange rates are current.
@@ -85,13 +105,37 @@ public class CurrencyViewModel extends ViewModel {
     public void fetchCurrencyData() {
         // Guard: prevent multiple simultaneous fetches
         if (isFetching) {
-            Log.w(TAG, "Fetch already in progress, ignoring duplicate request");
+            FxLog.w(TAG, "Fetch already in progress, ignoring duplicate request");
             return;
         }
 
+        if (rateSnapshot.getValue() == null) {
+            showSavedRates();
+        }
         performFetch();
     }
 
+    /**
+     * Shows the rates saved by the last successful refresh while the network fetch runs
+     * They are read from disk in milliseconds, so cold start does not wait for the network.
+     */
+    private void showSavedRates() {
+        repository.loadSavedRates((snapshot, savedAtMs) -> {
+            // Only while nothing is shown and no fetched result has replaced them in the store;
+            // re-publishing here could put the older rates back over a fresh result
+            if (rateSnapshot.getValue() != null
+                    || RateSnapshotStore.getInstance().getSnapshot() != snapshot) {
+                return; // The fetch finished first
+            }
+            if (FxLog.DEBUG_ENABLED) {
+                FxLog.d(TAG, () -> "Showing " + snapshot.size() + " saved rates while refreshing");
+            }
+            rateSnapshot.setValue(snapshot);
+            currencyRates.setValue(snapshot.asList());
+            lastUpdateTime.setValue(DateUtils.formatLastUpdateTime(savedAtMs));
+        });
+    }
+
     /**
      * Refreshes currency data from RSS feed (forces update even if data exists)
      * This method is used for periodic auto-updates and manual refresh
@@ -99,11 +143,11 @@ public class CurrencyViewModel extends ViewModel {
     public void refreshCurrencyData() {
         // Guard: prevent multiple simultaneous fetches
         if (isFetching) {
-            Log.w(TAG, "Fetch already in progress, ignoring duplicate refresh request");
+            FxLog.w(TAG, "Fetch already in progress, ignoring duplicate refresh request");
             return;
         }
 
-        Log.d(TAG, "Refreshing currency data...");
+        FxLog.d(TAG, "Refreshing currency data...");
         performFetch();
     }
 
@@ -115,40 +159,81 @@ public class CurrencyViewModel extends ViewModel {
         isLoading.setValue(true);
         errorMessage.setValue(null);
 
-        Log.d(TAG, "Requesting currency data from repository...");
+        FxLog.d(TAG, "Requesting currency data from repository...");
 
         // Call repository method which handles threading internally
         repository.fetchAndParseRates(new CurrencyRepository.DataCallback() {
             @Override
             public void onDataLoaded(List<CurrencyRate> rates) {
-                // This runs on main thread thanks to Handler.post() in repository
-                Log.d(TAG, "Successfully received " + rates.size() + " currency rates");
-                currencyRates.setValue(rates);
+                // This runs on main thread thanks to the repository's main-thread executor
+                if (FxLog.DEBUG_ENABLED) {
+                    FxLog.d(TAG, () -> "Successfully received " + rates.size() + " currency rates");
+                }
+                publishRates(rates);
                 isLoading.setValue(false);
                 isFetching = false;
 
                 // Update last update time
                 updateLastUpdateTime();
+
+                // Rates moved: check back sooner
+                updateScheduler.onRatesLoaded(rates, System.currentTimeMillis());
+                scheduleNextAutoUpdate();
+            }
+
+            @Override
+            public void onDataUnchanged() {
+                // Feed not modified - keep the current list as it is
+                FxLog.d(TAG, "Currency data unchanged, keeping current rates");
+                if (rateSnapshot.getValue() == null && repository.getLastRates() != null) {
+                    // New ViewModel in a process that already holds data
+                    publishRates(repository.getLastRates());
+                }
+                isLoading.setValue(false);
+                isFetching = false;
+
+                // Static feed: wait longer next time
+                updateScheduler.onUnchanged();
+                scheduleNextAutoUpdate();
             }
 
             @Override
             public void onError(String error) {
-                // This runs on main thread thanks to Handler.post() in repository
-                Log.e(TAG, "Error loading currency data: " + error);
+                // This runs on main thread thanks to the repository's main-thread executor
+                FxLog.e(TAG, "Error loading currency data: ", error);
                 errorMessage.setValue(error);
                 isLoading.setValue(false);
                 isFetching = false;
+
+                updateScheduler.onError();
+                scheduleNextAutoUpdate();
             }
         });
     }
 
+    /**
+     * Schedules the next automatic update using the scheduler's adapted delay
+     * Replaces any update already pending, so a manual refresh restarts the countdown
+     */
+    private void scheduleNextAutoUpdate() {
+        if (!autoUpdateEnabled) {
+            return;
+        }
+        long delay = updateScheduler.getNextDelayMs(System.currentTimeMillis());
+        autoUpdateHandler.removeCallbacks(autoUpdateRunnable);
+        autoUpdateHandler.postDelayed(autoUpdateRunnable, delay);
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> "Next auto-update in " + (delay / 1000) + "s");
+        }
+    }
+
     /**
      * Updates the last update timestamp using DateUtils for consistent formatting
      */
     private void updateLastUpdateTime() {
         String currentTime = DateUtils.formatLastUpdateTime();
         lastUpdateTime.setValue(currentTime);
-        Log.d(TAG, "Data updated at: " + currentTime);
+        FxLog.d(TAG, "Data updated at: ", currentTime);
     }
 
     /**
@@ -160,48 +245,66 @@ public class CurrencyViewModel extends ViewModel {
         errorMessage.setValue(null);
 
         try {
-            Log.d(TAG, "Starting to parse currency data...");
+            FxLog.d(TAG, "Starting to parse currency data...");
             List<CurrencyRate> rates = repository.parseRates(xmlData);
 
             if (rates != null && !rates.isEmpty()) {
-                currencyRates.setValue(rates);
-                Log.d(TAG, "Successfully loaded " + rates.size() + " currency rates");
+                publishRates(rates);
+                if (FxLog.DEBUG_ENABLED) {
+                    FxLog.d(TAG, () -> "Successfully loaded " + rates.size() + " currency rates");
+                }
             } else {
                 errorMessage.setValue("No currency data found");
-                Log.w(TAG, "No currency rates parsed from XML");
+                FxLog.w(TAG, "No currency rates parsed from XML");
             }
         } catch (Exception e) {
             errorMessage.setValue("Error parsing currency data: " + e.getMessage());
-            Log.e(TAG, "Error loading currency data", e);
+            FxLog.e(TAG, "Error loading currency data", e);
         } finally {
             isLoading.setValue(false);
         }
     }
 
     /**
-     * Filters currency rates by search query (currency name, code, or country)
+     * Publishes a new result: takes its snapshot from the shared store (built once per result)
+     * and exposes the List view
+     */
+    private void publishRates(List<CurrencyRate> rates) {
+        RateSnapshot snapshot = RateSnapshotStore.getInstance().publish(rates);
+        rateSnapshot.setValue(snapshot);
+        currencyRates.setValue(snapshot.asList());
+    }
+
+    /**
+     * Rows of the current snapshot matching a search query (currency name, code, or country)
      * @param query Search query
-     * @return Filtered list of currency rates
+     * @return Matching row indexes, or null for an empty query (all rows)
      */
-    public List<CurrencyRate> searchCurrencies(String query) {
-        List<CurrencyRate> allRates = currencyRates.getValue();
-        if (allRates == null || query == null || query.trim().isEmpty()) {
-            return allRates;
+    public int[] searchRows(String query) {
+        RateSnapshot snapshot = rateSnapshot.getValue();
+        if (snapshot == null || query == null || query.trim().isEmpty()) {
+            return null;
         }
 
-        String searchQuery = query.toLowerCase().trim();
-        List<CurrencyRate> filtered = new java.util.ArrayList<>();
-
-        for (CurrencyRate rate : allRates) {
-            if (rate.getTargetCurrency().toLowerCase().contains(searchQuery) ||
-                rate.getTargetCode().toLowerCase().contains(searchQuery) ||
-                rate.getTitle().toLowerCase().contains(searchQuery)) {
-                filtered.add(rate);
-            }
+        int[] rows = snapshot.search(query);
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> "Search for '" + query + "' returned " + rows.length + " results");
         }
+        return rows;
+    }
 
-        Log.d(TAG, "Search for '" + query + "' returned " + filtered.size() + " results");
-        return filtered;
+    /**
+     * Filters currency rates by search query (currency name, code, or country)
+     * @param query Search query
+     * @return Filtered list of currency rates
+     */
+    public List<CurrencyRate> searchCurrencies(String query) {
+        RateSnapshot snapshot = rateSnapshot.getValue();
+        if (snapshot == null) {
+            return null;
+        }
+        int[] rows = searchRows(query);
+        return rows != null ? snapshot.asList(rows) : snapshot.asList();
     }
 
     /**
@@ -209,38 +312,37 @@ public class CurrencyViewModel extends ViewModel {
      * @return List of main currency rates
      */
     public List<CurrencyRate> getMainCurrencies() {
-        List<CurrencyRate> allRates = currencyRates.getValue();
-        if (allRates == null) {
+        RateSnapshot snapshot = rateSnapshot.getValue();
+        if (snapshot == null) {
             return new java.util.ArrayList<>();
         }
 
-        List<CurrencyRate> mainCurrencies = new java.util.ArrayList<>();
-        for (CurrencyRate rate : allRates) {
-            String code = rate.getTargetCode();
-            if ("USD".equals(code) || "EUR".equals(code) || "JPY".equals(code)) {
-                mainCurrencies.add(rate);
-            }
+        int[] rows = snapshot.findTargets(MAIN_CURRENCY_IDS);
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> "Retrieved " + rows.length + " main currencies");
         }
-
-        Log.d(TAG, "Retrieved " + mainCurrencies.size() + " main currencies");
-        return mainCurrencies;
+        return snapshot.asList(rows);
     }
 
     /**
      * Starts automatic periodic updates of currency data
-     * Updates will occur at intervals defined by AUTO_UPDATE_INTERVAL_MS
+     * Updates occur at an adaptive interval between MIN_UPDATE_INTERVAL_MS and
+     * MAX_UPDATE_INTERVAL_MS (see UpdateScheduler)
      */
     public void startAutoUpdate() {
         if (autoUpdateEnabled) {
-            Log.d(TAG, "Auto-update already enabled");
+            FxLog.d(TAG, "Auto-update already enabled");
             return;
         }
 
         autoUpdateEnabled = true;
-        Log.d(TAG, "Starting auto-update (interval: " + (AUTO_UPDATE_INTERVAL_MS / 1000) + " seconds)");
+        long delay = updateScheduler.getNextDelayMs(System.currentTimeMillis());
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> "Starting auto-update (first update in " + (delay / 1000) + " seconds)");
+        }
 
         // Schedule first update
-        autoUpdateHandler.postDelayed(autoUpdateRunnable, AUTO_UPDATE_INTERVAL_MS);
+        autoUpdateHandler.postDelayed(autoUpdateRunnable, delay);
     }
 
     /**
@@ -248,13 +350,13 @@ public class CurrencyViewModel extends ViewModel {
      */
     public void stopAutoUpdate() {
         if (!autoUpdateEnabled) {
-            Log.d(TAG, "Auto-update already disabled");
+            FxLog.d(TAG, "Auto-update already disabled");
             return;
         }
 
         autoUpdateEnabled = false;
         autoUpdateHandler.removeCallbacks(autoUpdateRunnable);
-        Log.d(TAG, "Auto-update stopped");
+        FxLog.d(TAG, "Auto-update stopped");
     }
 
     /**
@@ -269,6 +371,6 @@ public class CurrencyViewModel extends ViewModel {
         super.onCleared();
         // Stop auto-updates when ViewModel is destroyed
         stopAutoUpdate();
-        Log.d(TAG, "ViewModel cleared");
+        FxLog.d(TAG, "ViewModel cleared");
     }
 }
@@ -1,5 +1,6 @@
 package com.example.gurung_rikesh_s2426621;
 
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
@@ -10,6 +11,30 @@ import java.util.Locale;
  */
 public final class DateUtils {
 
+    // Feed pubDate formats: RFC 822 as the RSS spec requires, plus the
+    // JavaScript-style "Tue Nov 25 2025 14:32:05 UTC" some feeds emit
+    private static final String[] PUB_DATE_PATTERNS = {
+            "EEE, dd MMM yyyy HH:mm:ss Z",
+            "EEE, dd MMM yyyy HH:mm:ss zzz",
+            "dd MMM yyyy HH:mm:ss Z",
+            "EEE MMM dd yyyy HH:mm:ss zzz",
+            "EEE MMM dd yyyy HH:mm:ss Z"
+    };
+
+    // Parsers for PUB_DATE_PATTERNS, built once per thread (SimpleDateFormat is not thread-safe)
+    private static final ThreadLocal<SimpleDateFormat[]> PUB_DATE_FORMATS =
+            new ThreadLocal<SimpleDateFormat[]>() {
+                @Override
+                protected SimpleDateFormat[] initialValue() {
+                    SimpleDateFormat[] formats = new SimpleDateFormat[PUB_DATE_PATTERNS.length];
+                    for (int i = 0; i < formats.length; i++) {
+                        formats[i] = new SimpleDateFormat(PUB_DATE_PATTERNS[i], Locale.US);
+                        formats[i].setLenient(false);
+                    }
+                    return formats;
+                }
+            };
+
     private DateUtils() {
         // Private constructor to prevent instantiation
     }
@@ -40,7 +65,41 @@ public final class DateUtils {
      * @return Formatted time string (HH:mm:ss)
      */
     public static String formatLastUpdateTime() {
+        return formatLastUpdateTime(System.currentTimeMillis());
+    }
+
+    /**
+     * Format a given time for ViewModel last update tracking (e.g. when saved rates were fetched)
+     * @param timeMs Epoch millis
+     * @return Formatted time string (HH:mm:ss)
+     */
+    public static String formatLastUpdateTime(long timeMs) {
         SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss", Locale.getDefault());
-        return sdf.format(new Date());
+        return sdf.format(new Date(timeMs));
+    }
+
+    /**
+     * Parses an RSS item pubDate
+     * Example: "Tue, 25 Nov 2025 14:32:05 GMT" -> epoch millis
+     * @param pubDate Date text from the feed
+     * @return Epoch millis, or -1 if the text is missing or in an unknown format
+     */
+    public static long parsePubDate(String pubDate) {
+        if (pubDate == null) {
+            return -1L;
+        }
+        String text = pubDate.trim();
+        if (text.isEmpty()) {
+            return -1L;
+        }
+
+        for (SimpleDateFormat format : PUB_DATE_FORMATS.get()) {
+            ParsePosition position = new ParsePosition(0);
+            Date date = format.parse(text, position);
+            if (date != null && position.getIndex() == text.length()) {
+                return date.getTime();
+            }
+        }
+        return -1L;
     }
 }
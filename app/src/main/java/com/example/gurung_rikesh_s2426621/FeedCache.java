@@ -0,0 +1,301 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Small on-disk HTTP response cache for RSS feeds
+ * Stores the last good body of each feed together with its validators
+ * (ETag / Last-Modified) and freshness lifetime (Cache-Control max-age)
+ *
+ * Each feed URL maps to two files in the cache directory:
+ * - "<key>.meta" holds the validators, expiry time and the name of the body file
+ *   (java.util.Properties format)
+ * - "<key>.<unique>.body" holds the decoded response body
+ *
+ * Files are written to a temporary file first and then renamed, so a crash
+ * mid-write never leaves a half-written entry behind. Every streamed body gets its own
+ * temporary file, so two fetches of the same URL (a manual refresh racing the scheduler)
+ * never write into each other's copy; the last one to commit wins.
+ *
+ * A new body never replaces the old one in place: it keeps its own name and only becomes
+ * current when the meta file naming it is renamed into place. A crash between the two
+ * renames leaves the old body with its own validators, never a new body with old ones
+ * (which a later 304 would serve as current); the orphaned body is deleted on next open.
+ * All methods are synchronized because several worker threads may fetch feeds at once.
+ */
+public class FeedCache {
+
+    private static final String TAG = "FeedCache";
+
+    private static final String KEY_ETAG = "etag";
+    private static final String KEY_LAST_MODIFIED = "lastModified";
+    private static final String KEY_EXPIRES_AT = "expiresAt";
+    private static final String KEY_BODY = "body";
+
+    private static final String PART_SUFFIX = ".part";
+    private static final String BODY_SUFFIX = ".body";
+    private static final String META_SUFFIX = ".meta";
+
+    /**
+     * Cached metadata for a single feed URL
+     */
+    public static class Entry {
+        public final String etag;
+        public final String lastModified;
+        public final long expiresAtMs;
+        final File bodyFile;
+
+        Entry(String etag, String lastModified, long expiresAtMs, File bodyFile) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAtMs = expiresAtMs;
+            this.bodyFile = bodyFile;
+        }
+
+        /**
+         * Entry is still fresh if its max-age has not yet elapsed
+         */
+        public boolean isFresh(long nowMs) {
+            return nowMs < expiresAtMs;
+        }
+    }
+
+    /**
+     * A body being written while it downloads; see beginBody()
+     */
+    public static final class PendingBody extends FileOutputStream {
+        final File file;
+
+        PendingBody(File file) throws IOException {
+            super(file);
+            this.file = file;
+        }
+    }
+
+    private final File directory;
+
+    public FeedCache(File directory) {
+        this.directory = directory;
+        if (!directory.exists() && !directory.mkdirs()) {
+            FxLog.w(TAG, "Could not create cache directory: ", directory);
+        }
+
+        // Bodies left behind by a process that died mid-download or before naming them in meta
+        Set<String> current = new HashSet<>();
+        File[] metas = directory.listFiles((dir, name) -> name.endsWith(META_SUFFIX));
+        if (metas != null) {
+            for (File metaFile : metas) {
+                Properties meta = readMeta(metaFile);
+                String body = meta != null ? meta.getProperty(KEY_BODY) : null;
+                if (body != null) {
+                    current.add(body);
+                }
+            }
+        }
+        File[] stale = directory.listFiles((dir, name) -> name.endsWith(PART_SUFFIX)
+                || (name.endsWith(BODY_SUFFIX) && !current.contains(name)));
+        if (stale != null) {
+            for (File file : stale) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Looks up the cached entry for a URL
+     * @return Entry or null if nothing usable is cached
+     */
+    public synchronized Entry get(String url) {
+        File metaFile = metaFile(url);
+        if (!metaFile.exists()) {
+            return null;
+        }
+        Properties meta = readMeta(metaFile);
+        // No body name: written before bodies were versioned, so the pair cannot be trusted
+        String bodyName = meta != null ? meta.getProperty(KEY_BODY) : null;
+        if (bodyName == null) {
+            return null;
+        }
+        File bodyFile = new File(directory, bodyName);
+        if (!bodyFile.exists()) {
+            return null;
+        }
+
+        return new Entry(
+                meta.getProperty(KEY_ETAG),
+                meta.getProperty(KEY_LAST_MODIFIED),
+                parseLongSafe(meta.getProperty(KEY_EXPIRES_AT)),
+                bodyFile);
+    }
+
+    /**
+     * Refreshes validators and expiry of an existing entry after a 304 Not Modified
+     * The body is left untouched
+     */
+    public synchronized void refresh(String url, String etag, String lastModified, long expiresAtMs) {
+        Entry existing = get(url);
+        if (existing == null) {
+            return;
+        }
+
+        try {
+            writeMeta(url, existing.bodyFile.getName(),
+                    etag != null ? etag : existing.etag,
+                    lastModified != null ? lastModified : existing.lastModified,
+                    expiresAtMs);
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not refresh cache entry for ", url, e);
+        }
+    }
+
+    /**
+     * Reads the cached body of an entry
+     * @return Body text, or null if the file cannot be read
+     */
+    public synchronized String readBody(Entry entry) {
+        StringBuilder body = new StringBuilder((int) entry.bodyFile.length());
+        char[] buffer = new char[8192];
+
+        try (Reader reader = new InputStreamReader(
+                new FileInputStream(entry.bodyFile), StandardCharsets.UTF_8)) {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                body.append(buffer, 0, read);
+            }
+            return body.toString();
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not read cached body: ", entry.bodyFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * Opens the cached body as a character stream, for parsing without loading it into a String
+     * The caller must close the returned Reader
+     */
+    public Reader openBody(Entry entry) throws IOException {
+        return new BufferedReader(new InputStreamReader(
+                new FileInputStream(entry.bodyFile), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Starts writing a new body for a URL while it is being downloaded
+     * Each call writes to its own temporary file. The data only becomes visible after
+     * commitBody(); call abortBody() on failure.
+     */
+    public PendingBody beginBody(String url) throws IOException {
+        return new PendingBody(File.createTempFile(cacheKey(url) + ".", PART_SUFFIX, directory));
+    }
+
+    /**
+     * Publishes a body written (and closed) through beginBody() together with its validators
+     */
+    public synchronized void commitBody(String url, PendingBody body,
+                                        String etag, String lastModified, long expiresAtMs) {
+        Entry previous = get(url);
+        String partName = body.file.getName();
+        File bodyFile = new File(directory,
+                partName.substring(0, partName.length() - PART_SUFFIX.length()) + BODY_SUFFIX);
+        try {
+            if (!body.file.renameTo(bodyFile)) {
+                throw new IOException("Could not rename " + body.file);
+            }
+            // The entry switches to the new body here, validators and all
+            writeMeta(url, bodyFile.getName(), etag, lastModified, expiresAtMs);
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not commit cache entry for ", url, e);
+            body.file.delete();
+            bodyFile.delete();
+            return;
+        }
+        if (previous != null) {
+            previous.bodyFile.delete();
+        }
+    }
+
+    /**
+     * Discards a body started with beginBody()
+     */
+    public void abortBody(PendingBody body) {
+        body.file.delete();
+    }
+
+    /**
+     * Deletes any cached data for a URL
+     */
+    public synchronized void remove(String url) {
+        Entry entry = get(url);
+        metaFile(url).delete();
+        if (entry != null) {
+            entry.bodyFile.delete();
+        }
+    }
+
+    private Properties readMeta(File metaFile) {
+        Properties meta = new Properties();
+        try (InputStream in = new FileInputStream(metaFile)) {
+            meta.load(in);
+            return meta;
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not read cache metadata: ", metaFile, e);
+            return null;
+        }
+    }
+
+    private void writeMeta(String url, String bodyName, String etag, String lastModified,
+                           long expiresAtMs) throws IOException {
+        Properties meta = new Properties();
+        meta.setProperty(KEY_BODY, bodyName);
+        if (etag != null) meta.setProperty(KEY_ETAG, etag);
+        if (lastModified != null) meta.setProperty(KEY_LAST_MODIFIED, lastModified);
+        meta.setProperty(KEY_EXPIRES_AT, String.valueOf(expiresAtMs));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        meta.store(bytes, url);
+        writeAtomically(metaFile(url), bytes.toByteArray());
+    }
+
+    private void writeAtomically(File target, byte[] data) throws IOException {
+        File temp = new File(target.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            out.write(data);
+        }
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            throw new IOException("Could not rename " + temp + " to " + target);
+        }
+    }
+
+    private File metaFile(String url) {
+        return new File(directory, cacheKey(url) + META_SUFFIX);
+    }
+
+    /**
+     * Turns a URL into a safe file name, e.g. "www.fx-exchange.com_gbp_rss.xml"
+     */
+    private static String cacheKey(String url) {
+        String key = url.replaceFirst("^[a-zA-Z]+://", "");
+        return key.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+
+    private static long parseLongSafe(String s) {
+        try {
+            return s == null ? 0L : Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.gurung_rikesh_s2426621;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Shared HTTP client layer for all feed downloads
+ *
+ * Android's HttpURLConnection keeps a keep-alive connection pool per host, but a connection
+ * only goes back to the pool when its body has been read to the end and the stream closed.
+ * Calling disconnect() (or leaking the stream) throws the socket away and the next request pays
+ * a new TCP + TLS handshake. This class owns that life cycle:
+ * - open() creates a configured connection
+ * - release() drains and closes the body so the socket is returned to the pool
+ * - discard() closes the socket for responses that must not be reused
+ *
+ * Pool size and idle eviction are requested through the platform's http.keepAlive /
+ * http.maxConnections / http.keepAliveDuration properties. These are best-effort: the platform
+ * reads them once, when its connection pool is first created, so they only apply if this
+ * client is created before anything else in the process opens an HttpURLConnection (true
+ * today, as every feed request goes through here). Without them the platform defaults apply,
+ * which also keep connections alive.
+ * New TLS connections are counted through a wrapping SSLSocketFactory, so
+ * pooled-connection hits = requests - new connections (HTTPS only).
+ */
+public final class FeedHttpClient {
+
+    private static final String TAG = "FeedHttpClient";
+
+    private static final String USER_AGENT = "FXMate/1.0";
+
+    // Idle connections are evicted from the pool after this long
+    private static final long KEEP_ALIVE_DURATION_MS = 5 * 60 * 1000L; // 5 minutes
+
+    // Maximum idle connections kept in the pool
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+
+    // Leftover body bytes we are willing to read just to keep a connection reusable
+    private static final int MAX_DRAIN_BYTES = 64 * 1024;
+
+    /**
+     * Connection statistics for one host
+     */
+    public static final class HostStats {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong newConnections = new AtomicLong();
+        private volatile long lastUsedMs;
+
+        public long getRequests() { return requests.get(); }
+        public long getNewConnections() { return newConnections.get(); }
+        public long getPooledHits() { return Math.max(0, requests.get() - newConnections.get()); }
+        public long getLastUsedMs() { return lastUsedMs; }
+    }
+
+    private static volatile FeedHttpClient instance;
+
+    private final Map<String, HostStats> hostStats = new ConcurrentHashMap<>();
+
+    // Must be the same instance for every request: the pool only reuses connections
+    // whose SSLSocketFactory matches
+    private final SSLSocketFactory socketFactory;
+
+    private FeedHttpClient() {
+        // Best-effort, see the class comment
+        System.setProperty("http.keepAlive", "true");
+        System.setProperty("http.maxConnections", String.valueOf(MAX_IDLE_CONNECTIONS));
+        System.setProperty("http.keepAliveDuration", String.valueOf(KEEP_ALIVE_DURATION_MS));
+
+        socketFactory = new CountingSocketFactory(HttpsURLConnection.getDefaultSSLSocketFactory());
+    }
+
+    /**
+     * Thread-safe singleton accessor using double-checked locking
+     */
+    public static FeedHttpClient getInstance() {
+        if (instance == null) {
+            synchronized (FeedHttpClient.class) {
+                if (instance == null) {
+                    instance = new FeedHttpClient();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a GET connection with the common feed settings (not yet connected)
+     * Every connection returned here must be passed to release() or discard()
+     */
+    public HttpURLConnection open(String urlString, int timeoutMs) throws IOException {
+        URL url = new URL(urlString);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("GET");
+        connection.setConnectTimeout(timeoutMs);
+        connection.setReadTimeout(timeoutMs);
+        connection.setRequestProperty("User-Agent", USER_AGENT);
+        ContentEncoding.requestCompression(connection);
+
+        if (connection instanceof HttpsURLConnection) {
+            ((HttpsURLConnection) connection).setSSLSocketFactory(socketFactory);
+        }
+
+        HostStats stats = statsFor(url.getHost());
+        stats.requests.incrementAndGet();
+        stats.lastUsedMs = System.currentTimeMillis();
+        return connection;
+    }
+
+    /**
+     * Finishes a response so its connection can go back to the keep-alive pool
+     * Reads whatever is left of the body (up to a limit) and closes the stream,
+     * but does not disconnect.
+     */
+    public void release(HttpURLConnection connection) {
+        if (connection == null) {
+            return;
+        }
+
+        InputStream body = null;
+        try {
+            int code = connection.getResponseCode();
+            body = code >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (body != null) {
+                byte[] buffer = new byte[4096];
+                int drained = 0;
+                int read;
+                while (drained < MAX_DRAIN_BYTES && (read = body.read(buffer)) != -1) {
+                    drained += read;
+                }
+                if (drained >= MAX_DRAIN_BYTES) {
+                    // Too much left over - cheaper to drop this connection
+                    connection.disconnect();
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // Body already closed by the caller - nothing left to drain
+        } finally {
+            closeQuietly(body);
+        }
+    }
+
+    /**
+     * Closes a connection without returning it to the pool (e.g. after a read error)
+     */
+    public void discard(HttpURLConnection connection) {
+        if (connection != null) {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Statistics for a host, e.g. "www.fx-exchange.com"
+     */
+    public HostStats getHostStats(String host) {
+        return statsFor(host);
+    }
+
+    /**
+     * Total requests opened through this client
+     */
+    public long getRequestCount() {
+        long total = 0;
+        for (HostStats stats : hostStats.values()) {
+            total += stats.getRequests();
+        }
+        return total;
+    }
+
+    /**
+     * Total new TLS connections (each one a full handshake)
+     */
+    public long getNewConnectionCount() {
+        long total = 0;
+        for (HostStats stats : hostStats.values()) {
+            total += stats.getNewConnections();
+        }
+        return total;
+    }
+
+    /**
+     * Requests served on an already-open pooled connection
+     */
+    public long getPooledHitCount() {
+        return Math.max(0, getRequestCount() - getNewConnectionCount());
+    }
+
+    /**
+     * Logs per-host pool usage
+     */
+    public void logStats() {
+        if (!FxLog.isLoggable(Log.DEBUG)) {
+            return;
+        }
+        for (Map.Entry<String, HostStats> entry : hostStats.entrySet()) {
+            HostStats stats = entry.getValue();
+            FxLog.d(TAG, () -> entry.getKey() + ": " + stats.getRequests() + " requests, "
+                    + stats.getNewConnections() + " new connections, "
+                    + stats.getPooledHits() + " pooled hits");
+        }
+    }
+
+    private HostStats statsFor(String host) {
+        String key = host != null ? host : "unknown";
+        HostStats stats = hostStats.get(key);
+        if (stats == null) {
+            HostStats created = new HostStats();
+            stats = hostStats.putIfAbsent(key, created);
+            if (stats == null) {
+                stats = created;
+            }
+        }
+        return stats;
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                FxLog.w(TAG, "Error closing response body", e);
+            }
+        }
+    }
+
+    /**
+     * SSLSocketFactory decorator that counts every new socket per host
+     * A new socket means a new TCP connection and TLS handshake; pooled reuse creates none.
+     */
+    private final class CountingSocketFactory extends SSLSocketFactory {
+        private final SSLSocketFactory delegate;
+
+        CountingSocketFactory(SSLSocketFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        private void count(String host) {
+            statsFor(host).newConnections.incrementAndGet();
+        }
+
+        @Override
+        public String[] getDefaultCipherSuites() {
+            return delegate.getDefaultCipherSuites();
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return delegate.getSupportedCipherSuites();
+        }
+
+        @Override
+        public Socket createSocket(Socket socket, String host, int port, boolean autoClose)
+                throws IOException {
+            count(host);
+            return delegate.createSocket(socket, host, port, autoClose);
+        }
+
+        @Override
+        public Socket createSocket() throws IOException {
+            count(null);
+            return delegate.createSocket();
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            count(host);
+            return delegate.createSocket(host, port);
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort)
+                throws IOException {
+            count(host);
+            return delegate.createSocket(host, port, localHost, localPort);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) throws IOException {
+            count(host.getHostAddress());
+            return delegate.createSocket(host, port);
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress,
+                                   int localPort) throws IOException {
+            count(address.getHostAddress());
+            return delegate.createSocket(address, port, localAddress, localPort);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Common interface of the feed parsing strategies
+ *
+ * The app grew several parsers with different output types (CurrencyRate, CurrencyFx,
+ * RssManage.FeedItem). Each is wrapped here so the repository can switch between them
+ * by configuration and they can be benchmarked against each other on the same input.
+ *
+ * Implementations must be thread-safe: several feeds may be parsed at once.
+ */
+public interface FeedParser {
+
+    /**
+     * Available parsing strategies
+     */
+    enum Strategy {
+        PULL,        // RssFeedParser - generic XmlPullParser, relaxed mode
+        SCANNER,     // FxRssScanner - hand-written scanner, pull parser for odd items
+        CURRENCY_FX, // CurrencyPullParser - XmlPullParser into CurrencyFx, converted
+        RSS_MANAGE   // RssManage - namespace-unaware XmlPullParser into FeedItem, converted
+    }
+
+    /**
+     * Short label for logs and benchmark reports
+     */
+    String getName();
+
+    /**
+     * Parses a streamed RSS document into currency rates
+     * The caller owns the reader and is responsible for closing it
+     * @param reader Character stream of the RSS feed
+     * @return Parsed rates (empty if nothing could be parsed)
+     */
+    List<CurrencyRate> parse(Reader reader);
+
+    /**
+     * Incremental parse against the previous result of the same feed
+     * Strategies that see each item's raw text reuse the rates of unchanged items and
+     * parse only the rest; this default parses everything and reports every item as changed.
+     * @param snapshot Item hashes of the feed's last parse; updated to this document
+     */
+    default List<CurrencyRate> parse(Reader reader, ItemSnapshot snapshot) {
+        List<CurrencyRate> rates = parse(reader);
+        synchronized (snapshot) {
+            snapshot.recordFullParse(rates.size());
+        }
+        return rates;
+    }
+
+    /**
+     * Creates the parser for a strategy
+     */
+    static FeedParser create(Strategy strategy) {
+        switch (strategy) {
+            case PULL:
+                return new RssFeedParser();
+            case CURRENCY_FX:
+                return new CurrencyFxFeedParser();
+            case RSS_MANAGE:
+                return new RssManageFeedParser();
+            case SCANNER:
+            default:
+                return new FxRssScanner(new RssFeedParser());
+        }
+    }
+}
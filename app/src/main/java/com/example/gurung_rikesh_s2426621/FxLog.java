@@ -0,0 +1,155 @@
+package com.example.gurung_rikesh_s2426621;
+
+import android.util.Log;
+
+import java.util.function.Supplier;
+
+/**
+ * Level-gated logging facade for hot paths
+ *
+ * android.util.Log.d(TAG, "Title is " + title) builds its message before Log decides
+ * anything, so release builds pay for strings nobody reads. Here the level is checked
+ * first and the message is only built when it will really be written:
+ *
+ *   FxLog.d(TAG, "Constant message");                 // nothing to build
+ *   FxLog.d(TAG, "Title is ", title);                 // concatenated only if enabled
+ *   if (FxLog.DEBUG_ENABLED) {
+ *       FxLog.d(TAG, () -> "Loaded " + rates.size()); // built only if enabled
+ *   }
+ *   FxLog.w(TAG, "Could not read ", file, e);         // parts joined only if enabled,
+ *                                                     // a trailing Throwable is the exception
+ *
+ * Debug and info logging is on in debug builds only (BuildConfig.DEBUG): in release d()/i()
+ * return immediately without building their message. Warnings and errors are kept.
+ * Nothing here is compiled out: release builds are not minified, and BuildConfig.DEBUG is
+ * not a compile-time constant, so the check happens at run time. A lambda that captures
+ * variables is allocated at the call site before d() can check anything, which is why
+ * every Supplier call site sits inside an if (FxLog.DEBUG_ENABLED) block: in release the
+ * branch is skipped and nothing is allocated.
+ */
+public final class FxLog {
+
+    // Debug / info output at all; false in release builds
+    public static final boolean DEBUG_ENABLED = BuildConfig.DEBUG;
+
+    private static volatile int minLevel = DEBUG_ENABLED ? Log.DEBUG : Log.WARN;
+
+    private FxLog() {
+        // Static helper only
+    }
+
+    /**
+     * Changes the lowest level written, e.g. Log.WARN to silence a noisy debug session
+     * Debug and info stay off in release builds whatever the level
+     */
+    public static void setMinLevel(int level) {
+        minLevel = level;
+    }
+
+    /**
+     * True if messages of this level are written; check before building expensive messages
+     */
+    public static boolean isLoggable(int level) {
+        return level >= minLevel && (level >= Log.WARN || DEBUG_ENABLED);
+    }
+
+    public static void d(String tag, String message) {
+        if (isLoggable(Log.DEBUG)) {
+            Log.d(tag, message);
+        }
+    }
+
+    public static void d(String tag, String prefix, Object value) {
+        if (isLoggable(Log.DEBUG)) {
+            Log.d(tag, prefix + value);
+        }
+    }
+
+    public static void d(String tag, Supplier<String> message) {
+        if (isLoggable(Log.DEBUG)) {
+            Log.d(tag, message.get());
+        }
+    }
+
+    public static void i(String tag, String message) {
+        if (isLoggable(Log.INFO)) {
+            Log.i(tag, message);
+        }
+    }
+
+    public static void i(String tag, Supplier<String> message) {
+        if (isLoggable(Log.INFO)) {
+            Log.i(tag, message.get());
+        }
+    }
+
+    public static void w(String tag, String message) {
+        if (isLoggable(Log.WARN)) {
+            Log.w(tag, message);
+        }
+    }
+
+    public static void w(String tag, String prefix, Object value) {
+        if (isLoggable(Log.WARN)) {
+            Log.w(tag, prefix + value);
+        }
+    }
+
+    public static void w(String tag, String message, Throwable error) {
+        if (isLoggable(Log.WARN)) {
+            Log.w(tag, message, error);
+        }
+    }
+
+    public static void w(String tag, Supplier<String> message) {
+        if (isLoggable(Log.WARN)) {
+            Log.w(tag, message.get());
+        }
+    }
+
+    public static void w(String tag, Object... parts) {
+        if (isLoggable(Log.WARN)) {
+            Log.w(tag, join(parts), errorOf(parts));
+        }
+    }
+
+    public static void e(String tag, String message) {
+        if (isLoggable(Log.ERROR)) {
+            Log.e(tag, message);
+        }
+    }
+
+    public static void e(String tag, String message, Throwable error) {
+        if (isLoggable(Log.ERROR)) {
+            Log.e(tag, message, error);
+        }
+    }
+
+    public static void e(String tag, Object... parts) {
+        if (isLoggable(Log.ERROR)) {
+            Log.e(tag, join(parts), errorOf(parts));
+        }
+    }
+
+    /**
+     * Message of a varargs call: every part but a trailing Throwable, concatenated
+     */
+    static String join(Object[] parts) {
+        int count = errorOf(parts) != null ? parts.length - 1 : parts.length;
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            message.append(parts[i]);
+        }
+        return message.toString();
+    }
+
+    /**
+     * Trailing Throwable of a varargs call, or null (a lone part is always the message)
+     */
+    static Throwable errorOf(Object[] parts) {
+        if (parts.length > 1 && parts[parts.length - 1] instanceof Throwable) {
+            return (Throwable) parts[parts.length - 1];
+        }
+        return null;
+    }
+}
@@ -0,0 +1,488 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass scanner specialised for the fx-exchange.com RSS layout
+ *
+ * Every item in that feed looks like:
+ *   <item>
+ *     <title>British Pound Sterling(GBP)/US Dollar(USD)</title>
+ *     <link>https://www.fx-exchange.com/gbp/usd.html</link>
+ *     <pubDate>...</pubDate>
+ *     <description>1 British Pound Sterling = 1.3312 US Dollar</description>
+ *   </item>
+ *
+ * Instead of building a generic XML event stream and running two regexes per item,
+ * this scans the characters once: it locates each <item>...</item> inside a windowed
+ * buffer, finds the four fields by their tags and reads the codes, names and rate
+ * straight out of the buffer (the rate through RateDecoder, as fixed point).
+ * Only the final field Strings are allocated.
+ *
+ * Any item that does not match the expected layout (CDATA, attributes, missing fields,
+ * unusual title or description) is handed to RssFeedParser on its own, so the result
+ * is always the same as the generic parser's for every complete item.
+ *
+ * With an ItemSnapshot (incremental mode) each item's raw text is hashed first, and items
+ * identical to the previous refresh reuse the CurrencyRate built then without being scanned.
+ */
+public class FxRssScanner implements FeedParser {
+
+    private static final String TAG = "FxRssScanner";
+
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+    private static final char[] ITEM_OPEN = "<item".toCharArray();
+    private static final char[] ITEM_CLOSE = "</item>".toCharArray();
+    private static final char[] TITLE_OPEN = "<title>".toCharArray();
+    private static final char[] TITLE_CLOSE = "</title>".toCharArray();
+    private static final char[] LINK_OPEN = "<link>".toCharArray();
+    private static final char[] LINK_CLOSE = "</link>".toCharArray();
+    private static final char[] PUB_DATE_OPEN = "<pubDate>".toCharArray();
+    private static final char[] PUB_DATE_CLOSE = "</pubDate>".toCharArray();
+    private static final char[] DESCRIPTION_OPEN = "<description>".toCharArray();
+    private static final char[] DESCRIPTION_CLOSE = "</description>".toCharArray();
+
+    private final RssFeedParser fallbackParser;
+
+    // Items parsed by the fallback parser in the last parse() call
+    private volatile int lastFallbackCount;
+
+    public FxRssScanner() {
+        this(new RssFeedParser());
+    }
+
+    /**
+     * @param fallbackParser Generic parser used for items that do not match the known layout
+     */
+    public FxRssScanner(RssFeedParser fallbackParser) {
+        this.fallbackParser = fallbackParser;
+    }
+
+    @Override
+    public String getName() {
+        return "FxRssScanner";
+    }
+
+    /**
+     * Scans an RSS document held in a String
+     * @param dataToParse XML string containing RSS feed data
+     * @return List of parsed CurrencyRate objects
+     */
+    public List<CurrencyRate> parse(String dataToParse) {
+        if (dataToParse == null || dataToParse.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return parse(new StringReader(dataToParse));
+    }
+
+    /**
+     * Scans a streamed RSS document
+     * Only the current window of the document is held in memory; the buffer grows
+     * only if a single item is larger than it.
+     * The caller owns the reader and is responsible for closing it
+     * @param reader Character stream of the RSS feed (e.g. straight from the network)
+     * @return List of parsed CurrencyRate objects
+     */
+    @Override
+    public List<CurrencyRate> parse(Reader reader) {
+        List<CurrencyRate> results = new ArrayList<>();
+        scan(reader, null, results);
+        return results;
+    }
+
+    /**
+     * Incremental scan: only items whose text differs from the snapshot are parsed
+     * The snapshot is updated to this document and reports the changed item count.
+     * If the read fails before the end of the document, the snapshot keeps its previous
+     * baseline and the partial result is returned as it is.
+     */
+    @Override
+    public List<CurrencyRate> parse(Reader reader, ItemSnapshot snapshot) {
+        List<CurrencyRate> results = new ArrayList<>();
+        synchronized (snapshot) {
+            snapshot.begin();
+            if (!scan(reader, snapshot, results)) {
+                snapshot.abandon();
+                FxLog.w(TAG, "Document ended early, item snapshot left unchanged");
+                return results;
+            }
+            snapshot.commit();
+            if (FxLog.DEBUG_ENABLED) {
+                FxLog.d(TAG, () -> snapshot.getChangedCount() + " items changed, "
+                        + snapshot.getReusedCount() + " reused, " + snapshot.getRemovedCount() + " removed");
+            }
+            return results;
+        }
+    }
+
+    /**
+     * Scans the document into results
+     * @return true if the reader was read to its end, false if it failed part-way
+     */
+    private boolean scan(Reader reader, ItemSnapshot snapshot, List<CurrencyRate> results) {
+        RateDecoder rateDecoder = new RateDecoder(); // Reused for every item of this document
+        int fallbacks = 0;
+
+        char[] buffer = new char[INITIAL_BUFFER_SIZE];
+        int position = 0; // Start of the unscanned part of the window
+        int limit = 0;    // End of valid data in the window
+        boolean endOfInput = false;
+
+        try {
+            while (true) {
+                int itemStart = indexOf(buffer, position, limit, ITEM_OPEN);
+                int itemEnd = -1;
+                if (itemStart >= 0) {
+                    itemEnd = indexOf(buffer, itemStart + ITEM_OPEN.length, limit, ITEM_CLOSE);
+                }
+
+                if (itemEnd >= 0) {
+                    itemEnd += ITEM_CLOSE.length;
+                    if (snapshot == null) {
+                        fallbacks += parseItem(buffer, itemStart, itemEnd, rateDecoder, results);
+                    } else {
+                        long hash = ItemSnapshot.hash(buffer, itemStart, itemEnd);
+                        CurrencyRate previous = snapshot.find(hash);
+                        if (previous != null) {
+                            // Same text as last time: same rate, nothing to parse
+                            results.add(previous);
+                            snapshot.record(hash, previous, true);
+                        } else {
+                            int count = results.size();
+                            fallbacks += parseItem(buffer, itemStart, itemEnd, rateDecoder, results);
+                            if (results.size() == count + 1) {
+                                snapshot.record(hash, results.get(count), false);
+                            }
+                        }
+                    }
+                    position = itemEnd;
+                    continue;
+                }
+
+                if (endOfInput) {
+                    // No further complete item; a truncated one is dropped, as its rate may be cut
+                    // short too (the relaxed pull parser would close it at end of input instead)
+                    break;
+                }
+
+                // Keep the partial item (or a possible partial "<item" tag) and read more
+                int keepFrom = itemStart >= 0 ? itemStart : Math.max(position, limit - ITEM_OPEN.length);
+                int kept = limit - keepFrom;
+                if (keepFrom > 0) {
+                    System.arraycopy(buffer, keepFrom, buffer, 0, kept);
+                } else if (kept == buffer.length) {
+                    // One item larger than the whole window - grow it
+                    char[] larger = new char[buffer.length * 2];
+                    System.arraycopy(buffer, 0, larger, 0, kept);
+                    buffer = larger;
+                }
+                position = 0;
+                limit = kept;
+
+                int read = reader.read(buffer, limit, buffer.length - limit);
+                if (read == -1) {
+                    endOfInput = true;
+                } else {
+                    limit += read;
+                }
+            }
+        } catch (IOException e) {
+            FxLog.e(TAG, "IO error during scanning", e);
+        }
+
+        final int fallbackCount = fallbacks;
+        lastFallbackCount = fallbackCount;
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> "Scanned " + results.size() + " rates (" + fallbackCount
+                    + " items via fallback parser)");
+        }
+        return endOfInput;
+    }
+
+    /**
+     * Number of items in the last parse() that needed the generic parser
+     */
+    public int getLastFallbackCount() {
+        return lastFallbackCount;
+    }
+
+    /**
+     * Parses one <item>...</item> range, with the fallback parser if it is not the known layout
+     * @return 1 if the fallback parser was needed, otherwise 0
+     */
+    private int parseItem(char[] buf, int start, int end, RateDecoder rateDecoder,
+                          List<CurrencyRate> results) {
+        if (scanItem(buf, start, end, rateDecoder, results)) {
+            return 0;
+        }
+        parseWithFallback(buf, start, end, results);
+        return 1;
+    }
+
+    /**
+     * Reads one <item>...</item> range of the expected layout
+     * @return false if the item does not match the layout and must go to the fallback parser
+     */
+    private static boolean scanItem(char[] buf, int start, int end, RateDecoder rateDecoder,
+                                    List<CurrencyRate> results) {
+        // Plain "<item>" only - attributes or "<items>" go to the generic parser
+        if (buf[start + ITEM_OPEN.length] != '>') {
+            return false;
+        }
+        int from = start + ITEM_OPEN.length + 1;
+        int to = end - ITEM_CLOSE.length;
+
+        // Field text ranges: [open, close) of each element's content
+        int titleStart = contentStart(buf, from, to, TITLE_OPEN);
+        int titleEnd = titleStart >= 0 ? indexOf(buf, titleStart, to, TITLE_CLOSE) : -1;
+        int linkStart = contentStart(buf, from, to, LINK_OPEN);
+        int linkEnd = linkStart >= 0 ? indexOf(buf, linkStart, to, LINK_CLOSE) : -1;
+        int pubStart = contentStart(buf, from, to, PUB_DATE_OPEN);
+        int pubEnd = pubStart >= 0 ? indexOf(buf, pubStart, to, PUB_DATE_CLOSE) : -1;
+        int descStart = contentStart(buf, from, to, DESCRIPTION_OPEN);
+        int descEnd = descStart >= 0 ? indexOf(buf, descStart, to, DESCRIPTION_CLOSE) : -1;
+        if (titleEnd < 0 || linkEnd < 0 || pubEnd < 0 || descEnd < 0) {
+            return false;
+        }
+
+        // Markup inside a field (CDATA, comments, nested tags) is left to the real XML parser
+        if (containsMarkup(buf, titleStart, titleEnd) || containsMarkup(buf, linkStart, linkEnd)
+                || containsMarkup(buf, pubStart, pubEnd) || containsMarkup(buf, descStart, descEnd)) {
+            return false;
+        }
+
+        // Title: "Base Name(BBB)/Target Name(TTT)"
+        int tStart = skipWhitespace(buf, titleStart, titleEnd);
+        int tEnd = trimEnd(buf, tStart, titleEnd);
+        int baseOpen = indexOf(buf, tStart, tEnd, '(');
+        if (baseOpen <= tStart || !isCodeAt(buf, baseOpen + 1, tEnd)
+                || baseOpen + 5 >= tEnd || buf[baseOpen + 4] != ')' || buf[baseOpen + 5] != '/') {
+            return false;
+        }
+        int targetNameStart = baseOpen + 6;
+        int targetOpen = indexOf(buf, targetNameStart, tEnd, '(');
+        if (targetOpen <= targetNameStart || !isCodeAt(buf, targetOpen + 1, tEnd)
+                || targetOpen + 4 >= tEnd || buf[targetOpen + 4] != ')') {
+            return false;
+        }
+
+        // Description: "1 Base Name = 1.2345 Target Name"
+        int dStart = skipWhitespace(buf, descStart, descEnd);
+        int dEnd = trimEnd(buf, dStart, descEnd);
+        if (dStart + 1 >= dEnd || buf[dStart] != '1' || !isWhitespace(buf[dStart + 1])) {
+            return false;
+        }
+        int equals = indexOf(buf, dStart, dEnd, '=');
+        if (equals < dStart + 3) { // Regex needs "1", whitespace and a name before '='
+            return false;
+        }
+        int numberStart = skipWhitespace(buf, equals + 1, dEnd);
+        if (numberStart == equals + 1) {
+            return false; // Regex requires whitespace after '='
+        }
+        int numberEnd = numberStart;
+        while (numberEnd < dEnd && (isDigit(buf[numberEnd]) || buf[numberEnd] == '.')) {
+            numberEnd++;
+        }
+        if (numberEnd == numberStart) {
+            return false;
+        }
+        if (!rateDecoder.decodeNumber(buf, numberStart, numberEnd)) {
+            return false;
+        }
+
+        // Names, codes and titles repeat every refresh: resolve them to shared instances
+        CurrencySymbolTable symbols = CurrencySymbolTable.getInstance();
+        CurrencyRate rate = new CurrencyRate();
+        rate.setTitle(symbolText(symbols, buf, tStart, tEnd));
+        rate.setBaseCurrency(symbolText(symbols, buf, tStart, trimEnd(buf, tStart, baseOpen)));
+        rate.setBaseCode(CurrencyCode.pack(buf, baseOpen + 1));
+        int targetNameFrom = skipWhitespace(buf, targetNameStart, targetOpen);
+        rate.setTargetCurrency(symbolText(symbols, buf, targetNameFrom, trimEnd(buf, targetNameFrom, targetOpen)));
+        rate.setTargetCode(CurrencyCode.pack(buf, targetOpen + 1));
+        rate.setDescription(text(buf, dStart, dEnd));
+        rateDecoder.applyTo(rate);
+        rate.setLink(trimmedText(buf, linkStart, linkEnd));
+        rate.setPubDate(trimmedText(buf, pubStart, pubEnd));
+        results.add(rate);
+        return true;
+    }
+
+    /**
+     * Parses a single item with the generic parser, wrapped in a minimal document
+     */
+    private void parseWithFallback(char[] buf, int start, int end, List<CurrencyRate> results) {
+        StringBuilder document = new StringBuilder(end - start + 32);
+        document.append("<rss><channel>").append(buf, start, end - start).append("</channel></rss>");
+        results.addAll(fallbackParser.parse(document.toString()));
+    }
+
+    /**
+     * Index just after the opening tag, or -1 if the tag is absent
+     */
+    private static int contentStart(char[] buf, int from, int to, char[] openTag) {
+        int index = indexOf(buf, from, to, openTag);
+        return index < 0 ? -1 : index + openTag.length;
+    }
+
+    private static boolean containsMarkup(char[] buf, int start, int end) {
+        return indexOf(buf, start, end, '<') >= 0;
+    }
+
+    private static boolean isCodeAt(char[] buf, int index, int end) {
+        if (index + 3 > end) {
+            return false;
+        }
+        for (int i = index; i < index + 3; i++) {
+            if (buf[i] < 'A' || buf[i] > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(char[] buf, int from, int to, char c) {
+        for (int i = from; i < to; i++) {
+            if (buf[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(char[] buf, int from, int to, char[] pattern) {
+        char first = pattern[0];
+        int last = to - pattern.length;
+        outer:
+        for (int i = from; i <= last; i++) {
+            if (buf[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < pattern.length; j++) {
+                if (buf[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(char[] buf, int from, int to) {
+        while (from < to && isWhitespace(buf[from])) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(char[] buf, int from, int to) {
+        while (to > from && isWhitespace(buf[to - 1])) {
+            to--;
+        }
+        return to;
+    }
+
+    private static String trimmedText(char[] buf, int from, int to) {
+        int start = skipWhitespace(buf, from, to);
+        return text(buf, start, trimEnd(buf, start, to));
+    }
+
+    /**
+     * Shared instance of a field's text (entities resolved first if there are any)
+     */
+    private static String symbolText(CurrencySymbolTable symbols, char[] buf, int start, int end) {
+        if (indexOf(buf, start, end, '&') < 0) {
+            return symbols.intern(buf, start, end);
+        }
+        return symbols.intern(text(buf, start, end));
+    }
+
+    /**
+     * Field text with XML entities resolved; a '&' that starts no known entity is kept as is
+     */
+    private static String text(char[] buf, int start, int end) {
+        if (indexOf(buf, start, end, '&') < 0) {
+            return new String(buf, start, end - start);
+        }
+
+        StringBuilder out = new StringBuilder(end - start);
+        int i = start;
+        while (i < end) {
+            char c = buf[i];
+            if (c == '&') {
+                int semicolon = indexOf(buf, i + 1, Math.min(end, i + 12), ';');
+                int decoded = semicolon > 0 ? decodeEntity(buf, i + 1, semicolon) : -1;
+                if (decoded >= 0) {
+                    out.appendCodePoint(decoded);
+                    i = semicolon + 1;
+                    continue;
+                }
+            }
+            out.append(c);
+            i++;
+        }
+        return out.toString();
+    }
+
+    /**
+     * Resolves the entity name between '&' and ';'
+     * @return The code point, or -1 if it is not a known entity
+     */
+    private static int decodeEntity(char[] buf, int start, int end) {
+        int length = end - start;
+        if (length >= 2 && buf[start] == '#') {
+            int radix = 10;
+            int i = start + 1;
+            if (buf[i] == 'x' || buf[i] == 'X') {
+                radix = 16;
+                i++;
+            }
+            if (i == end) {
+                return -1;
+            }
+            int value = 0;
+            for (; i < end; i++) {
+                int digit = Character.digit(buf[i], radix);
+                if (digit < 0 || value > 0x10FFFF) {
+                    return -1;
+                }
+                value = value * radix + digit;
+            }
+            return value <= 0x10FFFF ? value : -1;
+        }
+        if (matches(buf, start, end, "amp")) return '&';
+        if (matches(buf, start, end, "lt")) return '<';
+        if (matches(buf, start, end, "gt")) return '>';
+        if (matches(buf, start, end, "quot")) return '"';
+        if (matches(buf, start, end, "apos")) return '\'';
+        return -1;
+    }
+
+    private static boolean matches(char[] buf, int start, int end, String name) {
+        if (end - start != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (buf[start + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same definition as String.trim()
+     */
+    private static boolean isWhitespace(char c) {
+        return c <= ' ';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.gurung_rikesh_s2426621;
+
+/**
+ * Item hashes of the last parse of one feed, for incremental (delta) parsing
+ *
+ * Between two refreshes most items of a feed are character-for-character identical.
+ * A parser that sees each item's raw text hashes it (64-bit FNV-1a) and looks the hash
+ * up here: a hit returns the CurrencyRate built last time, which is reused as-is instead
+ * of being parsed and allocated again. Only new or changed items are parsed.
+ *
+ * After each parse the snapshot reports how many items changed (new or different), were
+ * removed or moved to another position, so later stages can skip work when nothing moved.
+ *
+ * Usage (one snapshot per feed URL; the parser holds its lock for the whole document):
+ *   synchronized (snapshot) {
+ *       snapshot.begin();
+ *       ... for each item: find(hash), else parse it; then record(hash, rate, reused) ...
+ *       snapshot.commit();   // or abandon() if the document was not read to the end
+ *   }
+ * The counts describe the last parse of any caller, so a caller that wants the delta of
+ * its own parse must read them inside the same synchronized block.
+ *
+ * CurrencyRate objects are treated as immutable once parsed, which is what makes reuse safe.
+ */
+public final class ItemSnapshot {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final int INITIAL_CAPACITY = 256; // Power of two, fits a ~170 item feed
+
+    // Open-addressing hash -> rate tables; hash 0 marks an empty slot
+    // ordinals holds each item's position in its document
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private CurrencyRate[] values = new CurrencyRate[INITIAL_CAPACITY];
+    private int[] ordinals = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // Table being filled by the parse in progress
+    private long[] nextKeys;
+    private CurrencyRate[] nextValues;
+    private int[] nextOrdinals;
+    private int nextSize;
+    private int recorded;
+
+    private int reusedCount;
+    private int changedCount;
+    private int removedCount;
+    private int movedCount;
+
+    // False until a parse is committed, and again after an abandoned one
+    private boolean complete;
+
+    /**
+     * FNV-1a hash of the item text buf[start, end), never 0
+     */
+    public static long hash(char[] buf, int start, int end) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = start; i < end; i++) {
+            char c = buf[i];
+            hash ^= c & 0xff;
+            hash *= FNV_PRIME;
+            hash ^= c >>> 8;
+            hash *= FNV_PRIME;
+        }
+        return hash != 0 ? hash : 1;
+    }
+
+    /**
+     * Starts recording a new parse of the feed
+     */
+    public void begin() {
+        nextKeys = new long[keys.length];
+        nextValues = new CurrencyRate[keys.length];
+        nextOrdinals = new int[keys.length];
+        nextSize = 0;
+        recorded = 0;
+        reusedCount = 0;
+        changedCount = 0;
+        removedCount = 0;
+        movedCount = 0;
+        complete = false;
+    }
+
+    /**
+     * Rate parsed last time from an item with this hash, or null if the item is new or changed
+     */
+    public CurrencyRate find(long hash) {
+        int slot = slotOf(keys, hash);
+        return slot >= 0 ? values[slot] : null;
+    }
+
+    /**
+     * Records the rate produced for an item in the parse in progress
+     * @param reused true if the rate came from find(), false if the item was parsed
+     */
+    public void record(long hash, CurrencyRate rate, boolean reused) {
+        int ordinal = recorded++;
+        if (reused) {
+            reusedCount++;
+            int previous = slotOf(keys, hash);
+            if (previous >= 0 && ordinals[previous] != ordinal) {
+                movedCount++;
+            }
+        } else {
+            changedCount++;
+        }
+
+        if ((nextSize + 1) * 2 > nextKeys.length) {
+            growNext();
+        }
+        int mask = nextKeys.length - 1;
+        int slot = spread(hash) & mask;
+        while (nextKeys[slot] != 0) {
+            if (nextKeys[slot] == hash) {
+                return; // Duplicate item in the same document
+            }
+            slot = (slot + 1) & mask;
+        }
+        nextKeys[slot] = hash;
+        nextValues[slot] = rate;
+        nextOrdinals[slot] = ordinal;
+        nextSize++;
+    }
+
+    /**
+     * Makes the parse in progress the baseline for the next one
+     */
+    public void commit() {
+        // Previous items this parse did not see (a count difference misses remove-plus-add)
+        int removed = 0;
+        for (long key : keys) {
+            if (key != 0 && slotOf(nextKeys, key) < 0) {
+                removed++;
+            }
+        }
+        removedCount = removed;
+        keys = nextKeys;
+        values = nextValues;
+        ordinals = nextOrdinals;
+        size = nextSize;
+        nextKeys = null;
+        nextValues = null;
+        nextOrdinals = null;
+        complete = true;
+    }
+
+    /**
+     * Drops the parse in progress (e.g. the stream broke off part-way)
+     * The previous baseline stays for the next parse, and the counts of this one are not
+     * to be trusted: isComplete() and isUnchanged() return false until the next commit.
+     */
+    public void abandon() {
+        nextKeys = null;
+        nextValues = null;
+        nextOrdinals = null;
+        complete = false;
+    }
+
+    /**
+     * Records a parse that could not compare items (a strategy without raw item access):
+     * every item counts as changed and the table is cleared
+     */
+    public void recordFullParse(int itemCount) {
+        removedCount = size;
+        reusedCount = 0;
+        changedCount = itemCount;
+        movedCount = 0;
+        keys = new long[INITIAL_CAPACITY];
+        values = new CurrencyRate[INITIAL_CAPACITY];
+        ordinals = new int[INITIAL_CAPACITY];
+        size = 0;
+        complete = true;
+    }
+
+    /** Items new or different since the previous parse */
+    public int getChangedCount() { return changedCount; }
+
+    /** Items reused unchanged from the previous parse */
+    public int getReusedCount() { return reusedCount; }
+
+    /** Items of the previous parse missing from this one */
+    public int getRemovedCount() { return removedCount; }
+
+    /** Items reused unchanged but at a different position in the document */
+    public int getMovedCount() { return movedCount; }
+
+    /**
+     * Items changed, removed or moved by the last parse, or -1 if it was not complete
+     * Read it in the same synchronized block as the parse (see the class comment)
+     */
+    public int getDeltaSize() {
+        return complete ? changedCount + removedCount + movedCount : -1;
+    }
+
+    /**
+     * True if the last parse read its whole document, so its counts describe a real delta
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * True if the last parse was complete and produced exactly the previous result
+     */
+    public boolean isUnchanged() {
+        return complete && changedCount == 0 && removedCount == 0 && movedCount == 0;
+    }
+
+    /**
+     * Slot holding the hash in an open-addressing table, or -1
+     */
+    private static int slotOf(long[] table, long hash) {
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            if (table[slot] == hash) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void growNext() {
+        long[] oldKeys = nextKeys;
+        CurrencyRate[] oldValues = nextValues;
+        int[] oldOrdinals = nextOrdinals;
+        nextKeys = new long[oldKeys.length * 2];
+        nextValues = new CurrencyRate[oldKeys.length * 2];
+        nextOrdinals = new int[oldKeys.length * 2];
+        int mask = nextKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = spread(oldKeys[i]) & mask;
+                while (nextKeys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                nextKeys[slot] = oldKeys[i];
+                nextValues[slot] = oldValues[i];
+                nextOrdinals[slot] = oldOrdinals[i];
+            }
+        }
+    }
+
+    private static int spread(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
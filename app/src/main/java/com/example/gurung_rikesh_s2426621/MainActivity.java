@@ -22,6 +22,9 @@ public class MainActivity extends AppCompatActivity
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
+        // Give the repository access to its on-disk feed cache
+        CurrencyRepository.getInstance().init(this);
+
         // Initialize shared ViewModel
         viewModel = new ViewModelProvider(this).get(CurrencyViewModel.class);
 
@@ -109,8 +112,8 @@ public class MainActivity extends AppCompatActivity
     public void onCurrencySelected(CurrencyRate selectedRate) {
         Log.d(TAG, "Currency selected: " + selectedRate.getTargetCode());
 
-        // Create detail fragment with selected currency
-        CurrencyDetailFragment detailFragment = CurrencyDetailFragment.newInstance(selectedRate);
+        // Create detail fragment for the selected pair; it looks the rate up in RateSnapshotStore
+        CurrencyDetailFragment detailFragment = CurrencyDetailFragment.newInstance(selectedRate.getPairKey());
 
         // Navigate to detail fragment with back stack
         FragmentManager manager = getSupportFragmentManager();
@@ -0,0 +1,353 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Exact fixed-point amount of money in one currency
+ *
+ * The amount is a long count of the currency's minor units (pence, cents, fils...), with
+ * the ISO 4217 exponent of the currency: 12.34 GBP is 1234 with 2 digits, 1500 JPY is
+ * 1500 with 0 digits, 1.250 KWD is 1250 with 3 digits.
+ *
+ * Conversions use the rate exactly as the feed published it (unscaled digits + scale,
+ * see RateDecoder), so 100 GBP at 1.3312 is exactly 133.12 USD - no binary double
+ * in between. Results are rounded half-even to the target currency's minor unit.
+ * The inverse direction divides by that same exact rate instead of multiplying by a
+ * rounded 1/rate, so swapping the direction never drifts.
+ *
+ * All arithmetic is long-based; BigDecimal is only used when an intermediate product
+ * would overflow a long (amounts in the trillions).
+ */
+public final class Money {
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+            1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L,
+            100000000000000L, 1000000000000000L, 10000000000000000L, 100000000000000000L,
+            1000000000000000000L
+    };
+
+    private final long minorUnits;
+    private final int minorDigits;
+    private final String currencyCode;
+
+    private Money(long minorUnits, int minorDigits, String currencyCode) {
+        this.minorUnits = minorUnits;
+        this.minorDigits = minorDigits;
+        this.currencyCode = currencyCode;
+    }
+
+    /**
+     * Amount from a count of minor units, e.g. ofMinor(1234, "GBP") is 12.34 GBP
+     */
+    public static Money ofMinor(long minorUnits, String currencyCode) {
+        return new Money(minorUnits, minorDigitsOf(currencyCode), currencyCode);
+    }
+
+    /**
+     * ISO 4217 minor-unit exponent of a currency (2 for most, 0 for JPY, 3 for KWD...)
+     */
+    public static int minorDigitsOf(String currencyCode) {
+        return CurrencyRegistry.minorDigitsOf(CurrencyCode.pack(currencyCode));
+    }
+
+    /**
+     * Parses user input such as "12.5", "1,234.50", "12,5" or " 7 " into an amount
+     * '.' is the decimal separator and ',' groups thousands, as format() writes them, so
+     * parse(format()) gives the same amount back. Text from a decimal-comma keypad is read
+     * the other way round: a ',' after the last '.' ("1.234,5"), or a single ',' not followed
+     * by exactly three digits ("12,5"), is the decimal separator and '.' groups thousands.
+     * "1,234" stays one thousand two hundred and thirty-four. Groups must hold exactly three
+     * digits. Extra decimals are rounded half-even.
+     * @return The amount, or null if the text is not a decimal number in that form
+     */
+    public static Money parse(CharSequence text, String currencyCode) {
+        int digitsWanted = minorDigitsOf(currencyCode);
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        boolean negative = start < end && text.charAt(start) == '-';
+        if (negative) {
+            start++;
+        }
+
+        // Pick the separators before reading any digit
+        int commas = 0;
+        int lastComma = -1;
+        int lastDot = -1;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == ',') {
+                commas++;
+                lastComma = i;
+            } else if (c == '.') {
+                lastDot = i;
+            }
+        }
+        boolean decimalComma = lastComma > lastDot
+                && (lastDot >= 0 || (commas == 1 && end - lastComma - 1 != 3));
+        char decimalMark = decimalComma ? ',' : '.';
+        char groupMark = decimalComma ? '.' : ',';
+
+        long units = 0;
+        int decimals = -1;     // Digits seen after the separator, -1 = no separator yet
+        int digits = 0;
+        int groupDigits = 0;   // Integer digits since the start or the last group mark
+        boolean grouped = false;
+        int roundDigit = -1;   // First dropped decimal
+        boolean sticky = false; // Any non-zero dropped decimal after it
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == groupMark) {
+                // Thousands separator: 1-3 digits before the first, exactly 3 after each
+                if (decimals >= 0 || groupDigits == 0 || groupDigits > 3 || (grouped && groupDigits != 3)) {
+                    return null;
+                }
+                grouped = true;
+                groupDigits = 0;
+            } else if (c == decimalMark) {
+                if (decimals >= 0 || (grouped && groupDigits != 3)) {
+                    return null;
+                }
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                digits++;
+                if (decimals < 0) {
+                    groupDigits++;
+                }
+                if (decimals >= 0 && decimals >= digitsWanted) {
+                    // Beyond the minor unit: only needed for rounding
+                    if (roundDigit < 0) {
+                        roundDigit = c - '0';
+                    } else if (c != '0') {
+                        sticky = true;
+                    }
+                    continue;
+                }
+                if (units > (Long.MAX_VALUE - 9) / 10) {
+                    return null; // Far beyond any real amount
+                }
+                units = units * 10 + (c - '0');
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else {
+                return null;
+            }
+        }
+        if (digits == 0 || (decimals < 0 && grouped && groupDigits != 3)) {
+            return null;
+        }
+
+        // Scale up to the minor unit, then round half-even on the dropped digits
+        for (int d = Math.max(decimals, 0); d < digitsWanted; d++) {
+            if (units > Long.MAX_VALUE / 10) {
+                return null;
+            }
+            units *= 10;
+        }
+        if (roundDigit > 5 || (roundDigit == 5 && (sticky || (units & 1) != 0))) {
+            units++;
+        }
+        return new Money(negative ? -units : units, digitsWanted, currencyCode);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public int getMinorDigits() {
+        return minorDigits;
+    }
+
+    public String getCurrencyCode() {
+        return currencyCode;
+    }
+
+    /**
+     * Converts at a rate of (rateUnscaled / 10^rateScale) target units per unit of this currency
+     * e.g. 100.00 GBP at (13312, 4) -> 133.12 USD
+     */
+    public Money multiplyByRate(long rateUnscaled, int rateScale, String targetCode) {
+        int targetDigits = minorDigitsOf(targetCode);
+        // minorUnits * rate has (minorDigits + rateScale) decimals; bring it to targetDigits
+        int shift = minorDigits + rateScale - targetDigits;
+        long product;
+        try {
+            product = Math.multiplyExact(minorUnits, rateUnscaled);
+        } catch (ArithmeticException e) {
+            return convertSlow(BigInteger.valueOf(minorUnits).multiply(BigInteger.valueOf(rateUnscaled)),
+                    BigInteger.ONE, shift, targetCode, targetDigits);
+        }
+        if (shift >= 0) {
+            if (shift >= POWERS_OF_TEN.length) {
+                return convertSlow(BigInteger.valueOf(product), BigInteger.ONE, shift, targetCode, targetDigits);
+            }
+            return new Money(divideHalfEven(product, POWERS_OF_TEN[shift]), targetDigits, targetCode);
+        }
+        return scaleUp(product, -shift, targetCode, targetDigits);
+    }
+
+    /**
+     * Inverse conversion: divides by the rate, i.e. this amount is in the rate's target
+     * currency and the result is in its base currency
+     * e.g. 133.12 USD / (13312, 4) -> 100.00 GBP
+     */
+    public Money divideByRate(long rateUnscaled, int rateScale, String targetCode) {
+        if (rateUnscaled == 0) {
+            throw new ArithmeticException("Zero rate");
+        }
+        int targetDigits = minorDigitsOf(targetCode);
+        // minorUnits / 10^minorDigits / (rateUnscaled / 10^rateScale) * 10^targetDigits
+        // = minorUnits * 10^(rateScale + targetDigits - minorDigits) / rateUnscaled
+        int shift = rateScale + targetDigits - minorDigits;
+        long numerator = minorUnits;
+        long denominator = rateUnscaled;
+        if (shift >= 0) {
+            if (shift >= POWERS_OF_TEN.length) {
+                return convertSlow(BigInteger.valueOf(minorUnits), BigInteger.valueOf(rateUnscaled),
+                        -shift, targetCode, targetDigits);
+            }
+            try {
+                numerator = Math.multiplyExact(minorUnits, POWERS_OF_TEN[shift]);
+            } catch (ArithmeticException e) {
+                return convertSlow(BigInteger.valueOf(minorUnits), BigInteger.valueOf(rateUnscaled),
+                        -shift, targetCode, targetDigits);
+            }
+        } else {
+            if (-shift >= POWERS_OF_TEN.length) {
+                return convertSlow(BigInteger.valueOf(minorUnits), BigInteger.valueOf(rateUnscaled),
+                        -shift, targetCode, targetDigits);
+            }
+            try {
+                denominator = Math.multiplyExact(rateUnscaled, POWERS_OF_TEN[-shift]);
+            } catch (ArithmeticException e) {
+                return convertSlow(BigInteger.valueOf(minorUnits), BigInteger.valueOf(rateUnscaled),
+                        -shift, targetCode, targetDigits);
+            }
+        }
+        return new Money(divideHalfEven(numerator, denominator), targetDigits, targetCode);
+    }
+
+    /**
+     * The amount with its currency's decimals and ',' grouping, e.g. "1,234.50" or "1,500"
+     */
+    public String format() {
+        StringBuilder text = new StringBuilder(24);
+        long units = Math.abs(minorUnits);
+        long scale = POWERS_OF_TEN[minorDigits];
+        long whole = units / scale;
+        long fraction = units % scale;
+
+        if (minorUnits < 0) {
+            text.append('-');
+        }
+        appendGrouped(text, whole);
+        if (minorDigits > 0) {
+            text.append('.');
+            for (int d = minorDigits - 1; d >= 0; d--) {
+                text.append((char) ('0' + (fraction / POWERS_OF_TEN[d]) % 10));
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * The amount as a double (for display scales, colours and the like - not for arithmetic)
+     */
+    public double toDouble() {
+        return RateDecoder.toDouble(minorUnits, minorDigits);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Money)) {
+            return false;
+        }
+        Money money = (Money) other;
+        return minorUnits == money.minorUnits && minorDigits == money.minorDigits
+                && (currencyCode != null ? currencyCode.equals(money.currencyCode) : money.currencyCode == null);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Long.hashCode(minorUnits);
+        result = 31 * result + minorDigits;
+        return 31 * result + (currencyCode != null ? currencyCode.hashCode() : 0);
+    }
+
+    @Override
+    public String toString() {
+        return format() + " " + currencyCode;
+    }
+
+    /**
+     * numerator / denominator rounded half-even (banker's rounding)
+     */
+    static long divideHalfEven(long numerator, long denominator) {
+        long quotient = numerator / denominator;
+        long remainder = numerator % denominator;
+        if (remainder == 0) {
+            return quotient;
+        }
+        // Compare |2 * remainder| with |denominator| without overflowing
+        long absRemainder = Math.abs(remainder);
+        long rest = Math.abs(denominator) - absRemainder;
+        boolean positive = (numerator < 0) == (denominator < 0);
+        if (absRemainder > rest || (absRemainder == rest && (quotient & 1) != 0)) {
+            return positive ? quotient + 1 : quotient - 1;
+        }
+        return quotient;
+    }
+
+    private static Money scaleUp(long value, int digits, String targetCode, int targetDigits) {
+        if (digits >= POWERS_OF_TEN.length) {
+            return convertSlow(BigInteger.valueOf(value), BigInteger.ONE, -digits, targetCode, targetDigits);
+        }
+        try {
+            return new Money(Math.multiplyExact(value, POWERS_OF_TEN[digits]), targetDigits, targetCode);
+        } catch (ArithmeticException e) {
+            return convertSlow(BigInteger.valueOf(value), BigInteger.ONE, -digits, targetCode, targetDigits);
+        }
+    }
+
+    /**
+     * Overflow path: numerator / denominator / 10^shift, rounded half-even
+     * One exact division straight to whole units: rounding an intermediate quotient first
+     * could land a value just off a .5 tie onto it and then round it the wrong way.
+     * @throws ArithmeticException if the result does not fit a long
+     */
+    private static Money convertSlow(BigInteger numerator, BigInteger denominator, int shift,
+                                     String targetCode, int targetDigits) {
+        BigDecimal value = new BigDecimal(numerator).movePointLeft(shift)
+                .divide(new BigDecimal(denominator), 0, RoundingMode.HALF_EVEN);
+        return new Money(value.longValueExact(), targetDigits, targetCode);
+    }
+
+    private static void appendGrouped(StringBuilder text, long whole) {
+        if (whole < 1000) {
+            text.append(whole);
+            return;
+        }
+        appendGrouped(text, whole / 1000);
+        long group = whole % 1000;
+        text.append(',');
+        if (group < 100) {
+            text.append('0');
+        }
+        if (group < 10) {
+            text.append('0');
+        }
+        text.append(group);
+    }
+}
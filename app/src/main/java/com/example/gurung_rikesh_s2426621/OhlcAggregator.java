@@ -0,0 +1,670 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Open / high / low / close roll-ups of every pair at minute, hour and day resolution
+ *
+ * Each refresh updates, for every pair, the bucket currently open at each resolution: one
+ * map lookup per pair and a few comparisons per resolution, whatever the history length.
+ * When a refresh falls into a new bucket, every pair's finished bucket at that resolution is
+ * appended to the resolution's file as one block, with a single write:
+ *
+ *   <dir>/<1m|1h|1d>.ohlc   blocks, oldest first:
+ *   block:  long start, int count, count x int pairId (ascending),
+ *           count x (double open, high, low, close), int crc32 of the rest of the block
+ *
+ * Blocks are in time order, and their starts and offsets are kept in memory (read from the
+ * block headers when the aggregator is first used). A range query binary-searches them and,
+ * per block, reads only the pair ids and the one row it needs: a year of daily candles is 365
+ * small reads instead of every raw refresh. A block cut short by a crash, or whose checksum
+ * fails, is cut off when the file is opened.
+ *
+ * Minute blocks are kept for MINUTE_RETENTION_MS and hour blocks for HOUR_RETENTION_MS
+ * (trimmed when the day bucket closes); day blocks are kept indefinitely (~6 KB per day for
+ * ~170 pairs).
+ *
+ * Open buckets live in memory and are saved to <dir>/open.state (CRC-checked, written with
+ * rename) whenever buckets close, after the blocks are synced; a refresh that closes nothing
+ * touches no file. After a restart the saved buckets are loaded back, so a bucket spanning the
+ * restart is still closed and written; ticks added to it after the last save are lost with a
+ * crash, and a missing or damaged state file loses the partial buckets. All of it can be
+ * rebuilt from RateHistoryStore.
+ *
+ * A bucket only exists if a refresh fell into it: the repository also feeds unchanged
+ * refreshes (304 or no changed item) through update() to carry the close forward, but
+ * minutes or hours without any refresh (app closed, long poll interval) have no bucket.
+ *
+ * Not meant for the main thread. Thread-safe.
+ */
+public class OhlcAggregator {
+
+    private static final String TAG = "OhlcAggregator";
+
+    private static final int BLOCK_HEADER_SIZE = 8 + 4;
+    private static final int BLOCK_TRAILER_SIZE = 4;
+    private static final int ROW_SIZE = 4 * 8;
+    private static final int ENTRY_SIZE = 4 + ROW_SIZE;
+    private static final int STATE_BUCKET_SIZE = 8 + ROW_SIZE;
+    private static final int MAX_BLOCK_PAIRS = 8192;
+    private static final String SUFFIX = ".ohlc";
+    private static final String STATE_FILE = "open.state";
+    private static final int STATE_MAGIC = 0x46584f32; // "FXO2"
+
+    public static final long MINUTE_RETENTION_MS = 24 * 60 * 60 * 1000L;
+    public static final long HOUR_RETENTION_MS = 30 * 24 * 60 * 60 * 1000L;
+
+    /**
+     * Bucket sizes
+     */
+    public enum Resolution {
+        MINUTE(60 * 1000L, "1m"),
+        HOUR(60 * 60 * 1000L, "1h"),
+        DAY(24 * 60 * 60 * 1000L, "1d");
+
+        public final long durationMs;
+        final String directoryName;
+
+        Resolution(long durationMs, String directoryName) {
+            this.durationMs = durationMs;
+            this.directoryName = directoryName;
+        }
+
+        /** Start of the bucket containing timeMs (UTC-aligned) */
+        public long bucketStart(long timeMs) {
+            return timeMs - Math.floorMod(timeMs, durationMs);
+        }
+
+        /**
+         * Finest resolution that covers a time span in at most maxBuckets buckets
+         */
+        public static Resolution forSpan(long spanMs, int maxBuckets) {
+            for (Resolution resolution : values()) {
+                if (spanMs / resolution.durationMs <= maxBuckets) {
+                    return resolution;
+                }
+            }
+            return DAY;
+        }
+    }
+
+    /**
+     * Buckets of one pair at one resolution, oldest first (columns indexed by bucket)
+     */
+    public static final class Candles {
+        private final long[] starts;
+        private final double[] opens;
+        private final double[] highs;
+        private final double[] lows;
+        private final double[] closes;
+        private final int size;
+
+        Candles(long[] starts, double[] opens, double[] highs, double[] lows, double[] closes, int size) {
+            this.starts = starts;
+            this.opens = opens;
+            this.highs = highs;
+            this.lows = lows;
+            this.closes = closes;
+            this.size = size;
+        }
+
+        public int size() { return size; }
+
+        public boolean isEmpty() { return size == 0; }
+
+        public long getStart(int i) { return starts[i]; }
+
+        public double getOpen(int i) { return opens[i]; }
+
+        public double getHigh(int i) { return highs[i]; }
+
+        public double getLow(int i) { return lows[i]; }
+
+        public double getClose(int i) { return closes[i]; }
+    }
+
+    /**
+     * The bucket currently open for a pair at one resolution
+     */
+    private static final class Bucket {
+        long start = -1;
+        double open;
+        double high;
+        double low;
+        double close;
+
+        boolean isOpen() {
+            return start >= 0;
+        }
+
+        void begin(long bucketStart, double value) {
+            start = bucketStart;
+            open = value;
+            high = value;
+            low = value;
+            close = value;
+        }
+
+        void add(double value) {
+            if (value > high) high = value;
+            if (value < low) low = value;
+            close = value;
+        }
+    }
+
+    /**
+     * The block file of one resolution and the start and offset of each of its blocks
+     */
+    private static final class Channel {
+        final File file;
+        RandomAccessFile raf;
+        long[] starts = new long[64];
+        long[] offsets = new long[64];
+        int size;
+        long length;
+
+        Channel(File file) {
+            this.file = file;
+        }
+
+        long lastStart() {
+            return size > 0 ? starts[size - 1] : Long.MIN_VALUE;
+        }
+
+        void add(long start, long offset) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            starts[size] = start;
+            offsets[size] = offset;
+            size++;
+        }
+
+        /** Index of the first block whose start is >= timeMs (size if none) */
+        int lowerBound(long timeMs) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < timeMs) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private final File directory;
+
+    // pairId -> open bucket per Resolution (indexed by ordinal); null until loaded
+    private Map<Integer, Bucket[]> openBuckets;
+
+    // Start of the buckets open at each resolution (every open bucket shares it), or -1
+    private final long[] openStarts = new long[Resolution.values().length];
+
+    // Block file per resolution, indexed by ordinal; null until loaded
+    private Channel[] channels;
+
+    public OhlcAggregator(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Adds one refresh to every pair's open buckets
+     * When the refresh falls into a new bucket, the buckets it closes are written and synced
+     * as one block per resolution, then the open-bucket state is saved.
+     */
+    public synchronized void update(long timeMs, List<CurrencyRate> rates) {
+        if (!ensureLoaded()) {
+            return;
+        }
+        Resolution[] resolutions = Resolution.values();
+        boolean closed = false;
+        boolean closedDay = false;
+        for (Resolution resolution : resolutions) {
+            int r = resolution.ordinal();
+            long start = resolution.bucketStart(timeMs);
+            if (openStarts[r] >= 0 && openStarts[r] < start) {
+                closeBuckets(resolution);
+                closed = true;
+                closedDay |= resolution == Resolution.DAY;
+            }
+        }
+
+        for (CurrencyRate rate : rates) {
+            int pair = RateHistoryStore.pairId(rate.getBaseCodeId(), rate.getTargetCodeId());
+            if (pair < 0) {
+                continue;
+            }
+            Bucket[] buckets = openBuckets.get(pair);
+            if (buckets == null) {
+                buckets = newBuckets();
+                openBuckets.put(pair, buckets);
+            }
+
+            double value = rate.getRate();
+            for (Resolution resolution : resolutions) {
+                int r = resolution.ordinal();
+                long start = resolution.bucketStart(timeMs);
+                if (openStarts[r] > start) {
+                    continue; // Clock moved backwards: the tick belongs to a closed bucket
+                }
+                Bucket bucket = buckets[r];
+                if (bucket.start == start) {
+                    bucket.add(value);
+                } else {
+                    bucket.begin(start, value);
+                }
+            }
+        }
+        for (Resolution resolution : resolutions) {
+            openStarts[resolution.ordinal()] = Math.max(openStarts[resolution.ordinal()],
+                    resolution.bucketStart(timeMs));
+        }
+
+        if (closed) {
+            if (closedDay) {
+                trim(Resolution.MINUTE, timeMs - MINUTE_RETENTION_MS);
+                trim(Resolution.HOUR, timeMs - HOUR_RETENTION_MS);
+            }
+            saveState();
+        }
+    }
+
+    /**
+     * Buckets of a pair whose start lies in [fromMs, toMs], including the open bucket
+     */
+    public synchronized Candles query(int baseCode, int targetCode, Resolution resolution,
+                                      long fromMs, long toMs) {
+        int pair = RateHistoryStore.pairId(baseCode, targetCode);
+        long[] starts = new long[0];
+        double[] opens = new double[0];
+        double[] highs = new double[0];
+        double[] lows = new double[0];
+        double[] closes = new double[0];
+        int size = 0;
+        if (pair < 0 || fromMs > toMs || !ensureLoaded()) {
+            return new Candles(starts, opens, highs, lows, closes, 0);
+        }
+
+        Channel channel = channels[resolution.ordinal()];
+        int first = channel.lowerBound(fromMs);
+        int last = toMs == Long.MAX_VALUE ? channel.size : channel.lowerBound(toMs + 1);
+        int n = last - first;
+        starts = new long[n + 1];
+        opens = new double[n + 1];
+        highs = new double[n + 1];
+        lows = new double[n + 1];
+        closes = new double[n + 1];
+
+        try {
+            byte[] ids = new byte[256 * 4];
+            byte[] row = new byte[ROW_SIZE];
+            ByteBuffer rowBuffer = ByteBuffer.wrap(row);
+            for (int b = first; b < last; b++) {
+                long offset = channel.offsets[b];
+                long end = b + 1 < channel.size ? channel.offsets[b + 1] : channel.length;
+                int count = (int) ((end - offset - BLOCK_HEADER_SIZE - BLOCK_TRAILER_SIZE) / ENTRY_SIZE);
+                if (ids.length < count * 4) {
+                    ids = new byte[count * 4];
+                }
+                channel.raf.seek(offset + BLOCK_HEADER_SIZE);
+                channel.raf.readFully(ids, 0, count * 4);
+                int index = indexOf(ByteBuffer.wrap(ids, 0, count * 4), count, pair);
+                if (index < 0) {
+                    continue; // Pair had no refresh in this bucket
+                }
+                channel.raf.seek(offset + BLOCK_HEADER_SIZE + count * 4L + (long) index * ROW_SIZE);
+                channel.raf.readFully(row);
+                rowBuffer.clear();
+                starts[size] = channel.starts[b];
+                opens[size] = rowBuffer.getDouble();
+                highs[size] = rowBuffer.getDouble();
+                lows[size] = rowBuffer.getDouble();
+                closes[size] = rowBuffer.getDouble();
+                size++;
+            }
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not read ", channel.file, e);
+            size = 0;
+        }
+
+        Bucket[] buckets = openBuckets.get(pair);
+        Bucket open = buckets != null ? buckets[resolution.ordinal()] : null;
+        if (open != null && open.isOpen() && open.start >= fromMs && open.start <= toMs
+                && (size == 0 || open.start > starts[size - 1])) {
+            starts[size] = open.start;
+            opens[size] = open.open;
+            highs[size] = open.high;
+            lows[size] = open.low;
+            closes[size] = open.close;
+            size++;
+        }
+        return new Candles(starts, opens, highs, lows, closes, size);
+    }
+
+    /**
+     * Closes the block files; the aggregator reopens them (and reloads its state) on next use
+     */
+    public synchronized void close() {
+        if (channels != null) {
+            for (Channel channel : channels) {
+                closeQuietly(channel);
+            }
+        }
+        channels = null;
+        openBuckets = null;
+    }
+
+    private static Bucket[] newBuckets() {
+        Bucket[] buckets = new Bucket[Resolution.values().length];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+        return buckets;
+    }
+
+    /**
+     * Writes every pair's bucket open at a resolution as one block and syncs it, and closes
+     * the buckets
+     */
+    private void closeBuckets(Resolution resolution) {
+        int r = resolution.ordinal();
+        long start = openStarts[r];
+
+        int[] pairs = new int[openBuckets.size()];
+        int count = 0;
+        for (Map.Entry<Integer, Bucket[]> entry : openBuckets.entrySet()) {
+            if (entry.getValue()[r].start == start && count < MAX_BLOCK_PAIRS) {
+                pairs[count++] = entry.getKey();
+            }
+        }
+        Arrays.sort(pairs, 0, count);
+
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_HEADER_SIZE + count * ENTRY_SIZE + BLOCK_TRAILER_SIZE);
+        block.putLong(start);
+        block.putInt(count);
+        for (int i = 0; i < count; i++) {
+            block.putInt(pairs[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            Bucket bucket = openBuckets.get(pairs[i])[r];
+            block.putDouble(bucket.open);
+            block.putDouble(bucket.high);
+            block.putDouble(bucket.low);
+            block.putDouble(bucket.close);
+            bucket.start = -1;
+        }
+        block.putInt(checksum(block.array(), block.position()));
+        openStarts[r] = -1;
+
+        Channel channel = channels[r];
+        if (count == 0 || start <= channel.lastStart()) {
+            return; // Already written before a crash lost the state saved after it
+        }
+        try {
+            channel.raf.seek(channel.length);
+            channel.raf.write(block.array());
+            channel.raf.getFD().sync();
+            channel.add(start, channel.length);
+            channel.length += block.capacity();
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not write buckets to ", channel.file, e);
+        }
+    }
+
+    /**
+     * Opens the block files and loads the open buckets saved before the last restart, once
+     * @return false if the directory or a block file cannot be opened
+     */
+    private boolean ensureLoaded() {
+        if (channels != null) {
+            return true;
+        }
+        if (!directory.exists() && !directory.mkdirs()) {
+            FxLog.w(TAG, "Could not create ", directory);
+            return false;
+        }
+        Resolution[] resolutions = Resolution.values();
+        Channel[] opened = new Channel[resolutions.length];
+        try {
+            for (Resolution resolution : resolutions) {
+                opened[resolution.ordinal()] = openChannel(
+                        new File(directory, resolution.directoryName + SUFFIX));
+            }
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not open roll-up files", e);
+            for (Channel channel : opened) {
+                closeQuietly(channel);
+            }
+            return false;
+        }
+        channels = opened;
+        loadState();
+        return true;
+    }
+
+    /**
+     * Opens a block file and reads its block headers, cutting off a torn or damaged tail
+     */
+    private static Channel openChannel(File file) throws IOException {
+        Channel channel = new Channel(file);
+        channel.raf = new RandomAccessFile(file, "rw");
+        long fileLength = channel.raf.length();
+        long offset = 0;
+        long lastOffset = -1;
+        while (offset + BLOCK_HEADER_SIZE <= fileLength) {
+            channel.raf.seek(offset);
+            long start = channel.raf.readLong();
+            int count = channel.raf.readInt();
+            long end = offset + BLOCK_HEADER_SIZE + (long) count * ENTRY_SIZE + BLOCK_TRAILER_SIZE;
+            if (count <= 0 || count > MAX_BLOCK_PAIRS || end > fileLength || start <= channel.lastStart()) {
+                break;
+            }
+            channel.add(start, offset);
+            lastOffset = offset;
+            offset = end;
+        }
+
+        // Only the last block can have been cut short by a crash; check its content too
+        if (lastOffset >= 0) {
+            byte[] last = new byte[(int) (offset - lastOffset)];
+            channel.raf.seek(lastOffset);
+            channel.raf.readFully(last);
+            if (checksum(last, last.length - 4) != ByteBuffer.wrap(last).getInt(last.length - 4)) {
+                channel.size--;
+                offset = lastOffset;
+            }
+        }
+        if (offset < fileLength) {
+            FxLog.w(TAG, "Truncating ", file.getName(), " from ", fileLength, " to ", offset,
+                    " bytes (incomplete block)");
+            channel.raf.setLength(offset);
+        }
+        channel.length = offset;
+        return channel;
+    }
+
+    private void loadState() {
+        openBuckets = new HashMap<>();
+        Arrays.fill(openStarts, -1);
+        File file = new File(directory, STATE_FILE);
+        long length = file.length();
+        if (length < 12) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            byte[] bytes = new byte[(int) length];
+            raf.readFully(bytes);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (checksum(bytes, bytes.length - 4) != buffer.getInt(bytes.length - 4)
+                    || buffer.getInt() != STATE_MAGIC) {
+                FxLog.w(TAG, "Ignoring damaged ", file);
+                return;
+            }
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                int pair = buffer.getInt();
+                Bucket[] buckets = newBuckets();
+                for (Bucket bucket : buckets) {
+                    bucket.start = buffer.getLong();
+                    bucket.open = buffer.getDouble();
+                    bucket.high = buffer.getDouble();
+                    bucket.low = buffer.getDouble();
+                    bucket.close = buffer.getDouble();
+                }
+                openBuckets.put(pair, buckets);
+            }
+            for (Bucket[] buckets : openBuckets.values()) {
+                for (int r = 0; r < buckets.length; r++) {
+                    openStarts[r] = Math.max(openStarts[r], buckets[r].start);
+                }
+            }
+            // A pair left behind by an older bucket has nothing left to add to it
+            for (Bucket[] buckets : openBuckets.values()) {
+                for (int r = 0; r < buckets.length; r++) {
+                    if (buckets[r].start != openStarts[r]) {
+                        buckets[r].start = -1;
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // RuntimeException: BufferUnderflowException on a bad count
+            FxLog.w(TAG, "Could not read ", file, e);
+            openBuckets.clear();
+            Arrays.fill(openStarts, -1);
+        }
+    }
+
+    /**
+     * Saves the open buckets (about 21 KB for ~170 pairs)
+     */
+    private void saveState() {
+        File file = new File(directory, STATE_FILE);
+        File temp = new File(directory, STATE_FILE + ".tmp");
+        try {
+            ByteBuffer state = ByteBuffer.allocate(4 + 4
+                    + openBuckets.size() * (4 + Resolution.values().length * STATE_BUCKET_SIZE) + 4);
+            state.putInt(STATE_MAGIC);
+            state.putInt(openBuckets.size());
+            for (Map.Entry<Integer, Bucket[]> entry : openBuckets.entrySet()) {
+                state.putInt(entry.getKey());
+                for (Bucket bucket : entry.getValue()) {
+                    state.putLong(bucket.start);
+                    state.putDouble(bucket.open);
+                    state.putDouble(bucket.high);
+                    state.putDouble(bucket.low);
+                    state.putDouble(bucket.close);
+                }
+            }
+            state.putInt(checksum(state.array(), state.position()));
+
+            try (FileOutputStream stream = new FileOutputStream(temp)) {
+                stream.write(state.array());
+                stream.getFD().sync();
+            }
+            if (!temp.renameTo(file)) {
+                throw new IOException("Could not rename " + temp);
+            }
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not save open buckets", e);
+            temp.delete();
+        }
+    }
+
+    /**
+     * Drops the blocks of a resolution that start before a cutoff (about once a day)
+     */
+    private void trim(Resolution resolution, long cutoffMs) {
+        Channel channel = channels[resolution.ordinal()];
+        int first = channel.lowerBound(cutoffMs);
+        if (first == 0) {
+            return;
+        }
+        long from = first < channel.size ? channel.offsets[first] : channel.length;
+        File temp = new File(channel.file.getPath() + ".tmp");
+        try {
+            byte[] kept = new byte[(int) (channel.length - from)];
+            channel.raf.seek(from);
+            channel.raf.readFully(kept);
+            try (FileOutputStream out = new FileOutputStream(temp)) {
+                out.write(kept);
+                out.getFD().sync();
+            }
+            channel.raf.close();
+            if (!temp.renameTo(channel.file)) {
+                throw new IOException("Could not rename " + temp);
+            }
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not trim ", channel.file, e);
+            temp.delete();
+        }
+
+        // Reopen whichever file is now in place
+        try {
+            channels[resolution.ordinal()] = openChannel(channel.file);
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not reopen ", channel.file, e);
+            channels[resolution.ordinal()] = emptyChannel(channel.file);
+        }
+    }
+
+    private static Channel emptyChannel(File file) {
+        Channel channel = new Channel(file);
+        try {
+            channel.raf = new RandomAccessFile(file, "rw");
+            channel.raf.setLength(0);
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not reset ", file, e);
+        }
+        return channel;
+    }
+
+    /**
+     * Position of a pair among a block's ascending pair ids, or -1
+     */
+    private static int indexOf(ByteBuffer ids, int count, int pair) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int id = ids.getInt(mid * 4);
+            if (id < pair) {
+                low = mid + 1;
+            } else if (id > pair) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static int checksum(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+
+    private static void closeQuietly(Channel channel) {
+        if (channel != null && channel.raf != null) {
+            try {
+                channel.raf.close();
+            } catch (IOException e) {
+                FxLog.w(TAG, "Could not close ", channel.file, e);
+            }
+        }
+    }
+}
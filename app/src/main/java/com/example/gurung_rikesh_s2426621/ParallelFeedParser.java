@@ -0,0 +1,286 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * FeedParser decorator that parses very large documents in parallel
+ *
+ * Splitting needs the whole document, so it applies to a document already held in memory
+ * (parse(String), the repository's buffered path) and to a streamed response whose
+ * Content-Length is at least the threshold, which is read into memory first. Any other stream
+ * goes straight to the wrapped parser and is never buffered here, so the streaming pipeline
+ * keeps its fixed memory use for normal feeds.
+ *
+ * A normal feed (~170 items, ~70 KB) is handed straight to the wrapped parser. Above
+ * thresholdChars - a full cross-rate dump with tens of thousands of items, or a server
+ * answering with one aggregated document - the document is cut at item boundaries into
+ * chunks, each chunk is parsed as its own small "<rss><channel>...</channel></rss>" document on the
+ * fork/join pool, and the results are joined back in document order.
+ *
+ * Chunks are read straight out of the document text (no substring copies), and each worker
+ * uses its own per-thread XmlPullParser (ParserContext), so the chunks share nothing.
+ * The wrapped parser must therefore be thread-safe, as every FeedParser is.
+ *
+ * Channel-level elements outside <item> are not parsed; no strategy reads them.
+ */
+public class ParallelFeedParser implements FeedParser {
+
+    private static final String TAG = "ParallelFeedParser";
+
+    // Below this a single thread is faster than splitting (~7 normal feeds)
+    public static final int DEFAULT_THRESHOLD_CHARS = 512 * 1024;
+
+    // Smallest chunk worth a task: roughly 300 items
+    private static final int MIN_CHUNK_CHARS = 128 * 1024;
+
+    // Chunks per worker, so a slow chunk does not leave other cores idle
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    // Largest buffer allocated up front for a stream read into memory; it grows past this
+    private static final int MAX_PRESIZE_CHARS = 8 * 1024 * 1024;
+
+    private static final String CHUNK_PREFIX = "<rss><channel>";
+    private static final String CHUNK_SUFFIX = "</channel></rss>";
+    private static final String ITEM_END = "</item>";
+
+    private final FeedParser delegate;
+    private final ForkJoinPool pool;
+    private final int thresholdChars;
+
+    public ParallelFeedParser(FeedParser delegate) {
+        this(delegate, AppExecutors.getInstance().forkJoin(), DEFAULT_THRESHOLD_CHARS);
+    }
+
+    /**
+     * @param delegate       Parser used for each chunk (and for small documents)
+     * @param pool           Pool the chunks are parsed on
+     * @param thresholdChars Documents shorter than this are parsed on the calling thread
+     */
+    public ParallelFeedParser(FeedParser delegate, ForkJoinPool pool, int thresholdChars) {
+        if (thresholdChars <= 0) {
+            throw new IllegalArgumentException("Invalid threshold: " + thresholdChars);
+        }
+        this.delegate = delegate;
+        this.pool = pool;
+        this.thresholdChars = thresholdChars;
+    }
+
+    @Override
+    public String getName() {
+        return "Parallel(" + delegate.getName() + ")";
+    }
+
+    /**
+     * Streams the document through the wrapped parser (never split)
+     */
+    @Override
+    public List<CurrencyRate> parse(Reader reader) {
+        return delegate.parse(reader);
+    }
+
+    /**
+     * Streams the document through the wrapped parser's delta mode (never split)
+     */
+    @Override
+    public List<CurrencyRate> parse(Reader reader, ItemSnapshot snapshot) {
+        return delegate.parse(reader, snapshot);
+    }
+
+    /**
+     * Incremental parse of a streamed document whose length is announced up front
+     * A stream declared at least thresholdChars long is read into memory and parsed like
+     * parse(String, ItemSnapshot); shorter or unknown lengths stream through the wrapped parser.
+     * @param lengthHint Declared length in bytes (e.g. Content-Length), -1 if unknown. A UTF-8
+     *                   document has no more chars than bytes, so parse(String, ItemSnapshot)
+     *                   checks the real length again before splitting.
+     * @throws IOException If the stream fails while being read into memory; the snapshot is
+     *                     left untouched
+     */
+    public List<CurrencyRate> parse(Reader reader, ItemSnapshot snapshot, long lengthHint)
+            throws IOException {
+        if (lengthHint < thresholdChars) {
+            return delegate.parse(reader, snapshot);
+        }
+        return parse(readFully(reader, lengthHint), snapshot);
+    }
+
+    /**
+     * Incremental parse of a document held in memory; small documents use the wrapped
+     * parser's delta mode, large ones are parsed in parallel in full
+     */
+    public List<CurrencyRate> parse(String xml, ItemSnapshot snapshot) {
+        if (xml.length() < thresholdChars) {
+            return delegate.parse(new StringReader(xml), snapshot);
+        }
+        List<CurrencyRate> rates = parse(xml);
+        synchronized (snapshot) {
+            snapshot.recordFullParse(rates.size());
+        }
+        return rates;
+    }
+
+    /**
+     * Parses a document held in memory, in parallel when it is above the threshold
+     */
+    public List<CurrencyRate> parse(String xml) {
+        if (xml.length() < thresholdChars) {
+            return delegate.parse(new StringReader(xml));
+        }
+
+        int[] bounds = chunkBounds(xml);
+        int chunks = bounds.length - 1;
+        if (chunks < 2) {
+            return delegate.parse(new StringReader(xml));
+        }
+
+        long start = System.nanoTime();
+        List<CurrencyRate> rates = pool.invoke(new ChunkTask(xml, bounds, 0, chunks));
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> "Parsed " + xml.length() + " chars in " + chunks + " chunks, " + rates.size()
+                    + " rates in " + (System.nanoTime() - start) / 1000000 + "ms");
+        }
+        return rates;
+    }
+
+    /**
+     * Reads a whole stream, presized from its declared length (trusted only up to a cap)
+     */
+    private static String readFully(Reader reader, long lengthHint) throws IOException {
+        StringBuilder text = new StringBuilder((int) Math.min(lengthHint, MAX_PRESIZE_CHARS));
+        char[] buffer = new char[8192];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            text.append(buffer, 0, read);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Chunk boundaries: offsets just after an "</item>", so every chunk holds whole items
+     * bounds[0] is the start of the document and the last entry is its end
+     */
+    int[] chunkBounds(String xml) {
+        int length = xml.length();
+        int targetChunks = pool.getParallelism() * CHUNKS_PER_THREAD;
+        int chunkChars = Math.max(MIN_CHUNK_CHARS, length / Math.max(1, targetChunks));
+
+        List<Integer> cuts = new ArrayList<>();
+        cuts.add(0);
+        int from = chunkChars;
+        while (from < length) {
+            int itemEnd = xml.indexOf(ITEM_END, from);
+            if (itemEnd < 0) {
+                break;
+            }
+            int cut = itemEnd + ITEM_END.length();
+            if (length - cut < chunkChars / 2) {
+                break; // Fold a small tail into the last chunk
+            }
+            cuts.add(cut);
+            from = cut + chunkChars;
+        }
+        cuts.add(length);
+
+        int[] bounds = new int[cuts.size()];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = cuts.get(i);
+        }
+        return bounds;
+    }
+
+    /**
+     * Parses chunks [from, to) by splitting the range in half until one chunk is left
+     */
+    private final class ChunkTask extends RecursiveTask<List<CurrencyRate>> {
+        private static final long serialVersionUID = 1L; // Never serialized; ForkJoinTask is Serializable
+
+        private final String xml;
+        private final int[] bounds;
+        private final int from;
+        private final int to;
+
+        ChunkTask(String xml, int[] bounds, int from, int to) {
+            this.xml = xml;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<CurrencyRate> compute() {
+            if (to - from == 1) {
+                return parseChunk(from);
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(xml, bounds, from, middle);
+            left.fork();
+            List<CurrencyRate> right = new ChunkTask(xml, bounds, middle, to).compute();
+            List<CurrencyRate> merged = left.join();
+
+            if (merged.isEmpty()) {
+                return right;
+            }
+            List<CurrencyRate> result = new ArrayList<>(merged.size() + right.size());
+            result.addAll(merged);
+            result.addAll(right);
+            return result;
+        }
+
+        private List<CurrencyRate> parseChunk(int index) {
+            int start = bounds[index];
+            int end = bounds[index + 1];
+            // The first chunk already opens <rss><channel> and the last one closes it;
+            // add whatever each chunk is missing so every chunk is a complete document
+            String prefix = index == 0 ? "" : CHUNK_PREFIX;
+            String suffix = index == bounds.length - 2 ? "" : CHUNK_SUFFIX;
+            List<CurrencyRate> rates = delegate.parse(new ChunkReader(prefix, xml, start, end, suffix));
+            return rates != null ? rates : Collections.<CurrencyRate>emptyList();
+        }
+    }
+
+    /**
+     * Reads prefix + text[start, end) + suffix without copying the range
+     */
+    static final class ChunkReader extends Reader {
+        private final String[] parts;
+        private final int[] partStart;
+        private final int[] partEnd;
+        private int part;     // 0 = prefix, 1 = text range, 2 = suffix, 3 = done
+        private int position; // Offset within the current part
+
+        ChunkReader(String prefix, String text, int start, int end, String suffix) {
+            parts = new String[]{prefix, text, suffix};
+            partStart = new int[]{0, start, 0};
+            partEnd = new int[]{prefix.length(), end, suffix.length()};
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            while (part < parts.length) {
+                int from = partStart[part] + position;
+                int available = partEnd[part] - from;
+                if (available > 0) {
+                    int count = Math.min(length, available);
+                    parts[part].getChars(from, from + count, buffer, offset);
+                    position += count;
+                    return count;
+                }
+                part++;
+                position = 0;
+            }
+            return -1;
+        }
+
+        @Override
+        public void close() {
+            part = parts.length;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+import org.xmlpull.v1.XmlPullParserFactory;
+
+import java.io.Reader;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-thread cache of configured XmlPullParser instances
+ *
+ * XmlPullParserFactory.newInstance() looks the implementation up by reflection and
+ * every newPullParser() allocates fresh buffers. Both used to happen on every parse.
+ * Here the factory is created once per process and each worker thread keeps one parser
+ * per configuration; setInput() resets a parser completely, so it can be reused for
+ * every refresh with no setup cost.
+ *
+ * Usage (not re-entrant: finish one document before obtaining the same configuration again):
+ *   XmlPullParser xpp = ParserContext.obtain(ParserContext.NAMESPACE_AWARE, reader);
+ *   try { ... } finally { ParserContext.release(xpp); }
+ */
+public final class ParserContext {
+
+    private static final String TAG = "ParserContext";
+
+    private static final String FEATURE_RELAXED = "http://xmlpull.org/v1/doc/features.html#relaxed";
+
+    // Configuration flags, combined with '|'
+    public static final int NAMESPACE_AWARE = 1;
+    public static final int RELAXED = 2;
+
+    private static final int CONFIGURATIONS = 4;
+
+    private static volatile XmlPullParserFactory factory;
+
+    private static final ThreadLocal<XmlPullParser[]> PARSERS = new ThreadLocal<XmlPullParser[]>() {
+        @Override
+        protected XmlPullParser[] initialValue() {
+            return new XmlPullParser[CONFIGURATIONS];
+        }
+    };
+
+    // Parsers created since start-up; stays at (threads x configurations) when reuse works
+    private static final AtomicInteger createdCount = new AtomicInteger();
+
+    private ParserContext() {
+        // Static helper only
+    }
+
+    /**
+     * Returns this thread's parser for the configuration, reset and reading from input
+     * @param flags NAMESPACE_AWARE and/or RELAXED
+     * @param input Document to parse
+     */
+    public static XmlPullParser obtain(int flags, Reader input) throws XmlPullParserException {
+        if (flags < 0 || flags >= CONFIGURATIONS) {
+            throw new IllegalArgumentException("Unknown parser flags: " + flags);
+        }
+
+        XmlPullParser[] parsers = PARSERS.get();
+        XmlPullParser parser = parsers[flags];
+        if (parser == null) {
+            parser = create(flags);
+            parsers[flags] = parser;
+        }
+
+        // setInput() discards all state from the previous document
+        parser.setInput(input);
+        return parser;
+    }
+
+    /**
+     * Detaches the parser from its input so the reader (and its buffers) can be collected
+     * The parser itself stays cached for the next document on this thread
+     */
+    public static void release(XmlPullParser parser) {
+        if (parser == null) {
+            return;
+        }
+        try {
+            parser.setInput(null);
+        } catch (XmlPullParserException e) {
+            // Parser refuses a null input - drop it, a new one is created next time
+            reset();
+        }
+    }
+
+    /**
+     * Drops every cached parser of the calling thread
+     * Use after a parser has been left in a bad state; the next obtain() creates a fresh one
+     */
+    public static void reset() {
+        PARSERS.remove();
+    }
+
+    /**
+     * Number of parsers created so far, across all threads
+     */
+    public static int getCreatedCount() {
+        return createdCount.get();
+    }
+
+    private static XmlPullParser create(int flags) throws XmlPullParserException {
+        XmlPullParser parser = factory().newPullParser();
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, (flags & NAMESPACE_AWARE) != 0);
+        if ((flags & RELAXED) != 0) {
+            parser.setFeature(FEATURE_RELAXED, true);
+        }
+        int created = createdCount.incrementAndGet();
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> "Created parser #" + created + " (flags " + flags
+                    + ") on " + Thread.currentThread().getName());
+        }
+        return parser;
+    }
+
+    private static XmlPullParserFactory factory() throws XmlPullParserException {
+        if (factory == null) {
+            synchronized (ParserContext.class) {
+                if (factory == null) {
+                    factory = XmlPullParserFactory.newInstance();
+                }
+            }
+        }
+        return factory;
+    }
+}
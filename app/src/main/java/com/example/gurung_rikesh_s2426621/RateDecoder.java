@@ -0,0 +1,241 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.math.BigDecimal;
+
+/**
+ * Reads the exchange rate out of a feed description without regexes or temporary Strings
+ *
+ * "1 British Pound Sterling = 4.93540 United Arab Emirates Dirham"
+ *   -> unscaled 493540, scale 5, value 4.9354
+ *
+ * The rate is kept as fixed point (unscaled long + number of decimals), so the digits the
+ * feed published - trailing zeros included - survive for display, alongside the double.
+ * The double is computed as unscaled / 10^scale, which is correctly rounded (identical to
+ * Double.parseDouble) whenever both fit a double exactly; other cases use Double.parseDouble.
+ *
+ * One decoder is reused for every item of a document, so decoding allocates nothing.
+ * Not thread-safe: use one instance per parse.
+ */
+public final class RateDecoder {
+
+    // Most digits that always fit a long
+    private static final int MAX_DIGITS = 18;
+
+    // Largest mantissa that a double holds exactly
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    // Powers of ten that are exact doubles
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private long unscaled;
+    private int scale = -1;
+    private double value;
+
+    /**
+     * Finds and decodes the rate in a description, with the same matching rules as the
+     * old pattern "1\s+[^=]+=\s+([0-9.]+)": a '1', whitespace, a name, '=', whitespace, the number
+     * @return true if a valid rate was found
+     */
+    public boolean decode(CharSequence description) {
+        clear();
+        if (description == null) {
+            return false;
+        }
+
+        int length = description.length();
+        int equals = -1;
+        for (int i = 0; i + 1 < length; i++) {
+            if (description.charAt(i) != '1' || !isWhitespace(description.charAt(i + 1))) {
+                continue;
+            }
+            // First '=' after the '1'; at least one character must sit between them
+            if (equals <= i) {
+                equals = indexOf(description, '=', i + 1, length);
+                if (equals < 0) {
+                    return false;
+                }
+            }
+            if (equals < i + 3) {
+                continue;
+            }
+
+            int numberStart = equals + 1;
+            while (numberStart < length && isWhitespace(description.charAt(numberStart))) {
+                numberStart++;
+            }
+            if (numberStart == equals + 1) {
+                continue;
+            }
+            int numberEnd = numberStart;
+            while (numberEnd < length && isNumberChar(description.charAt(numberEnd))) {
+                numberEnd++;
+            }
+            if (numberEnd == numberStart) {
+                continue;
+            }
+            return decodeNumber(description, numberStart, numberEnd);
+        }
+        return false;
+    }
+
+    /**
+     * Decodes a plain decimal such as "4.9354" from text[start, end)
+     * @return false if the characters are not a valid decimal ("1.2.3", ".")
+     */
+    public boolean decodeNumber(CharSequence text, int start, int end) {
+        clear();
+        long mantissa = 0;
+        int decimals = -1;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                if (decimals >= 0) {
+                    return false;
+                }
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (digits == MAX_DIGITS) {
+                    return decodeSlow(text.subSequence(start, end).toString());
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else {
+                return false;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        return set(mantissa, Math.max(decimals, 0));
+    }
+
+    /**
+     * Same as decodeNumber(CharSequence, int, int) for a char buffer (used by FxRssScanner)
+     */
+    public boolean decodeNumber(char[] buffer, int start, int end) {
+        clear();
+        long mantissa = 0;
+        int decimals = -1;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            char c = buffer[i];
+            if (c == '.') {
+                if (decimals >= 0) {
+                    return false;
+                }
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (digits == MAX_DIGITS) {
+                    return decodeSlow(new String(buffer, start, end - start));
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else {
+                return false;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        return set(mantissa, Math.max(decimals, 0));
+    }
+
+    /**
+     * Unscaled digits of the last decoded rate, e.g. 493540 for "4.93540"
+     */
+    public long getUnscaled() {
+        return unscaled;
+    }
+
+    /**
+     * Decimal places of the last decoded rate, or -1 if it had no fixed-point form
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * The last decoded rate as a double (0.0 if decoding failed)
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Stores the last decoded rate on a CurrencyRate (fixed point when available)
+     */
+    public void applyTo(CurrencyRate rate) {
+        if (scale >= 0) {
+            rate.setExactRate(unscaled, scale, value);
+        } else {
+            rate.setRate(value);
+        }
+    }
+
+    /**
+     * Converts a fixed-point rate to a double (correctly rounded)
+     */
+    public static double toDouble(long unscaled, int scale) {
+        if (Math.abs(unscaled) < MAX_EXACT_MANTISSA && scale < POWERS_OF_TEN.length) {
+            return unscaled / POWERS_OF_TEN[scale];
+        }
+        // Rare: too many digits for the fast path
+        return Double.parseDouble(BigDecimal.valueOf(unscaled, scale).toString());
+    }
+
+    private boolean set(long mantissa, int decimals) {
+        unscaled = mantissa;
+        scale = decimals;
+        value = toDouble(mantissa, decimals);
+        return true;
+    }
+
+    /**
+     * More digits than a long holds: keep only the double
+     */
+    private boolean decodeSlow(String number) {
+        try {
+            value = Double.parseDouble(number);
+            return true;
+        } catch (NumberFormatException e) {
+            value = 0.0;
+            return false;
+        }
+    }
+
+    private void clear() {
+        unscaled = 0;
+        scale = -1;
+        value = 0.0;
+    }
+
+    private static int indexOf(CharSequence text, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Same set as the regex \s
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isNumberChar(char c) {
+        return (c >= '0' && c <= '9') || c == '.';
+    }
+}
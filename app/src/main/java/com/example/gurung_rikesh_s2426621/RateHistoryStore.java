@@ -0,0 +1,861 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only history of every refresh, stored as a series of segment files
+ *
+ * Each refresh appends one record: a timestamp and the rates of the pairs that changed
+ * since the previous record of the same segment. The first record of a segment holds every
+ * pair known so far - including pairs missing from that refresh (e.g. their base feed
+ * failed), at their last recorded rate - so a segment can be read on its own. Records are
+ * framed and checksummed:
+ *
+ *   segment file  "<startMs>.seg":  int magic "FXH1", int version, int flags, long startMs, records...
+ *   record:  int payloadLength, int crc32(payload), payload
+ *   payload: long timeMs, int count, count x (int pairId, double rate)
+ *
+ * pairId is the base and target CurrencyCode packed together (base << 15 | target).
+ *
+ * - Rolling: a new segment starts after SEGMENT_SPAN_MS or SEGMENT_MAX_BYTES
+ * - Index: a sparse per-pair index (every INDEX_INTERVAL-th record of a pair -> file offset)
+ *   lets a range read seek straight to the right part of a segment. Sealed segments keep
+ *   their index in a "<startMs>.idx" file, so opening the store does not rescan them.
+ * - Compaction: segments older than FULL_RESOLUTION_MS are rewritten with one record per
+ *   COMPACTED_INTERVAL_MS (the rates in effect at the end of each interval); segments older
+ *   than RETENTION_MS are deleted. A minute-by-minute history therefore grows by roughly
+ *   one small record per pair and hour after the first week, and stops growing after a year.
+ * - Recovery: a record cut short by a crash fails its length or checksum test when the store
+ *   is opened, and the segment is truncated to the last complete record.
+ *
+ * Not meant for the main thread: every method may touch the disk. Thread-safe.
+ */
+public class RateHistoryStore {
+
+    private static final String TAG = "RateHistoryStore";
+
+    private static final int MAGIC = 0x46584831;       // "FXH1"
+    private static final int INDEX_MAGIC = 0x46584931; // "FXI1"
+    private static final int VERSION = 1;
+    private static final int FLAG_COMPACTED = 1;
+
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8;
+    private static final int RECORD_HEADER_SIZE = 4 + 4;
+    private static final int ENTRY_SIZE = 4 + 8;
+    private static final int MAX_RECORD_ENTRIES = 8192;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    public static final long SEGMENT_SPAN_MS = 24 * 60 * 60 * 1000L;
+    public static final long SEGMENT_MAX_BYTES = 1024 * 1024;
+    public static final long FULL_RESOLUTION_MS = 7 * SEGMENT_SPAN_MS;
+    public static final long COMPACTED_INTERVAL_MS = 60 * 60 * 1000L;
+    public static final long RETENTION_MS = 365 * SEGMENT_SPAN_MS;
+
+    // One index entry per this many records that contain a pair
+    private static final int INDEX_INTERVAL = 16;
+
+    /**
+     * Rates of one pair over time, oldest first
+     */
+    public static final class Series {
+        private final long[] times;
+        private final double[] rates;
+        private final int size;
+
+        Series(long[] times, double[] rates, int size) {
+            this.times = times;
+            this.rates = rates;
+            this.size = size;
+        }
+
+        public int size() { return size; }
+
+        public boolean isEmpty() { return size == 0; }
+
+        /** When the rate was recorded (epoch ms) */
+        public long getTime(int i) { return times[i]; }
+
+        public double getRate(int i) { return rates[i]; }
+    }
+
+    private final File directory;
+
+    // Oldest first; the last one is the segment being appended to (unless it is compacted)
+    private final List<Segment> segments = new ArrayList<>();
+    private RandomAccessFile activeFile;
+
+    // Last rate written for every pair, to append only what changed; kept across a roll
+    // so the new segment's first record can restate pairs the rolling refresh lacked
+    private final Map<Integer, Double> lastWritten = new HashMap<>();
+
+    private boolean opened;
+
+    public RateHistoryStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Packs a currency pair into the id used in the log
+     * @return The pair id, or -1 if either code is CurrencyCode.NONE
+     */
+    public static int pairId(int baseCode, int targetCode) {
+        if (baseCode == CurrencyCode.NONE || targetCode == CurrencyCode.NONE) {
+            return -1;
+        }
+        return baseCode << 15 | targetCode;
+    }
+
+    /**
+     * Records the rates of one refresh
+     * Only pairs whose rate changed since the previous record are written, except in the
+     * first record of a segment, which holds every pair known so far.
+     * @param timeMs When the rates were fetched; must be later than the last record, since
+     *               the sparse index and range reads rely on time order. An older or equal
+     *               time (e.g. a refresh persisted out of order) is dropped.
+     * @return false if the record was dropped for its time or could not be written
+     */
+    public synchronized boolean append(long timeMs, List<CurrencyRate> rates) {
+        if (rates.isEmpty()) {
+            return true;
+        }
+        try {
+            ensureOpen();
+            long lastMs = segments.isEmpty() ? -1 : segments.get(segments.size() - 1).lastMs;
+            if (timeMs <= lastMs) {
+                FxLog.w(TAG, "Dropping history record at ", timeMs, ", not after ", lastMs);
+                return false;
+            }
+            Segment active = activeSegment();
+            if (active == null || active.isFull(timeMs)) {
+                active = roll(timeMs);
+            }
+
+            // The first record of a segment restates every pair; carried holds the known
+            // pairs this refresh does not contain
+            boolean firstRecord = active.recordCount == 0;
+            Map<Integer, Double> carried = firstRecord ? new HashMap<>(lastWritten) : null;
+
+            int capacity = rates.size() + (carried != null ? carried.size() : 0);
+            int[] pairs = new int[capacity];
+            double[] values = new double[capacity];
+            int count = 0;
+            for (CurrencyRate rate : rates) {
+                int pair = pairId(rate.getBaseCodeId(), rate.getTargetCodeId());
+                if (pair < 0 || count == MAX_RECORD_ENTRIES) {
+                    continue;
+                }
+                Double previous = lastWritten.get(pair);
+                if (firstRecord || previous == null || previous != rate.getRate()) {
+                    pairs[count] = pair;
+                    values[count] = rate.getRate();
+                    count++;
+                    lastWritten.put(pair, rate.getRate());
+                }
+                if (carried != null) {
+                    carried.remove(pair);
+                }
+            }
+            if (carried != null) {
+                for (Map.Entry<Integer, Double> entry : carried.entrySet()) {
+                    if (count == MAX_RECORD_ENTRIES) {
+                        break;
+                    }
+                    pairs[count] = entry.getKey();
+                    values[count] = entry.getValue();
+                    count++;
+                }
+            }
+            if (count == 0) {
+                return true; // Nothing moved
+            }
+
+            long offset = active.length;
+            activeFile.seek(offset);
+            activeFile.write(encodeRecord(timeMs, pairs, values, count));
+            active.onRecord(offset, timeMs, pairs, count);
+            active.length = activeFile.getFilePointer();
+            return true;
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not append to rate history", e);
+            closeActive();
+            return false;
+        }
+    }
+
+    /**
+     * Rates of a pair recorded between fromMs and toMs (inclusive)
+     * The series starts with the rate in effect at fromMs, if one was recorded before it,
+     * and contains one point per change after that.
+     */
+    public synchronized Series read(int baseCode, int targetCode, long fromMs, long toMs) {
+        long[] times = new long[16];
+        double[] rates = new double[16];
+        int size = 0;
+
+        int pair = pairId(baseCode, targetCode);
+        try {
+            ensureOpen();
+            if (pair < 0 || segments.isEmpty()) {
+                return new Series(times, rates, 0);
+            }
+
+            // Each segment starts with every pair known when it was started, so the rate
+            // at fromMs is in the last segment starting at or before fromMs
+            int first = 0;
+            for (int i = 0; i < segments.size(); i++) {
+                if (segments.get(i).firstMs <= fromMs) {
+                    first = i;
+                }
+            }
+
+            for (int i = first; i < segments.size(); i++) {
+                Segment segment = segments.get(i);
+                if (segment.firstMs > toMs) {
+                    break;
+                }
+                long offset = segment.seek(pair, fromMs);
+                if (offset < 0) {
+                    continue;
+                }
+                try (RecordReader reader = new RecordReader(segment.file, offset, segment.length)) {
+                    while (reader.next(false)) {
+                        long time = reader.timeMs;
+                        if (time > toMs) {
+                            break;
+                        }
+                        double value = reader.valueOf(pair);
+                        if (Double.isNaN(value)) {
+                            continue;
+                        }
+                        if (time < fromMs && size > 0) {
+                            size--; // Only the latest rate before fromMs is kept
+                        }
+                        if (size > 0 && rates[size - 1] == value && time >= fromMs) {
+                            continue; // Repeated at a segment boundary
+                        }
+                        if (size == times.length) {
+                            times = Arrays.copyOf(times, size * 2);
+                            rates = Arrays.copyOf(rates, size * 2);
+                        }
+                        times[size] = time;
+                        rates[size] = value;
+                        size++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not read rate history", e);
+        }
+        return new Series(times, rates, size);
+    }
+
+    /**
+     * Applies retention: deletes segments older than RETENTION_MS and thins out sealed
+     * segments older than FULL_RESOLUTION_MS to one record per COMPACTED_INTERVAL_MS
+     */
+    public synchronized void compact(long nowMs) {
+        try {
+            ensureOpen();
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not open rate history", e);
+            return;
+        }
+
+        for (int i = segments.size() - 2; i >= 0; i--) { // Never the active segment
+            Segment segment = segments.get(i);
+            if (segment.lastMs < nowMs - RETENTION_MS) {
+                deleteSegment(segment);
+                segments.remove(i);
+            } else if (!segment.isCompacted() && segment.lastMs < nowMs - FULL_RESOLUTION_MS) {
+                Segment compacted = rewriteCompacted(segment);
+                if (compacted != null) {
+                    segments.set(i, compacted);
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of segment files
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Bytes used by all segments
+     */
+    public synchronized long getTotalBytes() {
+        long total = 0;
+        for (Segment segment : segments) {
+            total += segment.length;
+        }
+        return total;
+    }
+
+    /**
+     * Closes the active segment; the store reopens itself on next use
+     */
+    public synchronized void close() {
+        closeActive();
+        segments.clear();
+        lastWritten.clear();
+        opened = false;
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Opening and recovery
+
+    private void ensureOpen() throws IOException {
+        if (opened) {
+            return;
+        }
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory);
+        }
+
+        File[] files = directory.listFiles();
+        List<File> segmentFiles = new ArrayList<>();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    file.delete(); // Left over from an interrupted compaction
+                } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                    segmentFiles.add(file);
+                }
+            }
+        }
+        // Names are zero-padded start times, so name order is time order
+        segmentFiles.sort((a, b) -> a.getName().compareTo(b.getName()));
+
+        for (int i = 0; i < segmentFiles.size(); i++) {
+            File file = segmentFiles.get(i);
+            boolean last = i == segmentFiles.size() - 1;
+            Segment segment = last ? null : Segment.loadIndex(file, indexFileOf(file));
+            if (segment == null) {
+                segment = recover(file, last);
+            }
+            if (segment == null) {
+                deleteFiles(file);
+            } else if (segment.firstMs < 0) {
+                deleteSegment(segment); // No complete record
+            } else {
+                segments.add(segment);
+            }
+        }
+
+        Segment active = activeSegment();
+        if (active != null) {
+            activeFile = new RandomAccessFile(active.file, "rw");
+        }
+        opened = true;
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> "Opened rate history: " + segments.size() + " segments, "
+                    + getTotalBytes() + " bytes");
+        }
+    }
+
+    /**
+     * Rebuilds a segment's index by reading it, truncating it after the last good record
+     * @param restoreState true for the active segment: also reload the last written rates
+     * @return The segment, or null if the file is not a segment at all
+     */
+    private Segment recover(File file, boolean restoreState) throws IOException {
+        int flags;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                FxLog.w(TAG, "Not a history segment, deleting: ", file);
+                return null;
+            }
+            flags = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+
+        Segment segment = new Segment(file, flags);
+        long validLength = HEADER_SIZE;
+        try (RecordReader reader = new RecordReader(file, HEADER_SIZE, file.length())) {
+            while (reader.next(true)) {
+                segment.onRecord(reader.offset, reader.timeMs, reader.pairs, reader.count);
+                if (restoreState) {
+                    for (int i = 0; i < reader.count; i++) {
+                        lastWritten.put(reader.pairs[i], reader.values[i]);
+                    }
+                }
+                validLength = reader.position;
+            }
+        }
+
+        if (validLength < file.length()) {
+            FxLog.w(TAG, "Truncating ", file.getName(), " from ", file.length(), " to ",
+                    validLength, " bytes (incomplete record)");
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            }
+        }
+        segment.length = validLength;
+        return segment;
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Segments
+
+    private Segment activeSegment() {
+        if (segments.isEmpty()) {
+            return null;
+        }
+        Segment last = segments.get(segments.size() - 1);
+        if (last.isCompacted() || (opened && activeFile == null)) {
+            return null; // Append to a new segment
+        }
+        return last;
+    }
+
+    /**
+     * Seals the active segment (saving its index) and starts a new one
+     */
+    private Segment roll(long timeMs) throws IOException {
+        Segment previous = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        closeActive();
+        if (previous != null && !previous.isCompacted()) {
+            previous.saveIndex(indexFileOf(previous.file));
+        }
+
+        long start = previous != null ? Math.max(timeMs, previous.lastMs + 1) : timeMs;
+        File file = new File(directory, String.format(Locale.US, "%016d", start) + SEGMENT_SUFFIX);
+        activeFile = new RandomAccessFile(file, "rw");
+        activeFile.setLength(0);
+        activeFile.writeInt(MAGIC);
+        activeFile.writeInt(VERSION);
+        activeFile.writeInt(0);
+        activeFile.writeLong(start);
+
+        Segment segment = new Segment(file, 0);
+        segment.length = HEADER_SIZE;
+        segments.add(segment);
+        // lastWritten is kept: the first record restates every pair from it (see append)
+        FxLog.d(TAG, "Started history segment ", file.getName());
+
+        // A segment was sealed: a good moment to apply retention (about once a day)
+        compact(timeMs);
+        return segment;
+    }
+
+    /**
+     * Writes a thinned-out copy of a sealed segment and swaps it in
+     */
+    private Segment rewriteCompacted(Segment segment) {
+        File temp = new File(segment.file.getPath() + TEMP_SUFFIX);
+        Segment compacted = new Segment(segment.file, FLAG_COMPACTED);
+
+        try (RecordReader reader = new RecordReader(segment.file, HEADER_SIZE, segment.length);
+             FileOutputStream out = new FileOutputStream(temp)) {
+            ByteArrayOutputStream header = new ByteArrayOutputStream(HEADER_SIZE);
+            DataOutputStream data = new DataOutputStream(header);
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeInt(FLAG_COMPACTED);
+            data.writeLong(segment.firstMs);
+            out.write(header.toByteArray());
+
+            // Rates in effect now, and as of the last record written
+            Map<Integer, Double> current = new HashMap<>();
+            Map<Integer, Double> written = new HashMap<>();
+            long pendingTime = -1;
+            long offset = HEADER_SIZE;
+            while (true) {
+                boolean more = reader.next(false);
+                if (pendingTime >= 0 && (!more
+                        || reader.timeMs / COMPACTED_INTERVAL_MS != pendingTime / COMPACTED_INTERVAL_MS)) {
+                    // Interval finished: write what changed during it, stamped with its last record
+                    int[] pairs = new int[current.size()];
+                    double[] values = new double[current.size()];
+                    int count = 0;
+                    for (Map.Entry<Integer, Double> entry : current.entrySet()) {
+                        if (!entry.getValue().equals(written.get(entry.getKey()))) {
+                            pairs[count] = entry.getKey();
+                            values[count] = entry.getValue();
+                            count++;
+                        }
+                    }
+                    written.putAll(current);
+                    if (count > 0) {
+                        byte[] record = encodeRecord(pendingTime, pairs, values, count);
+                        out.write(record);
+                        compacted.onRecord(offset, pendingTime, pairs, count);
+                        offset += record.length;
+                    }
+                }
+                if (!more) {
+                    break;
+                }
+                for (int i = 0; i < reader.count; i++) {
+                    current.put(reader.pairs[i], reader.values[i]);
+                }
+                pendingTime = reader.timeMs;
+            }
+            out.getFD().sync();
+            compacted.length = offset;
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not compact ", segment.file.getName(), e);
+            temp.delete();
+            return null;
+        }
+
+        // The old index must not outlive the old data
+        indexFileOf(segment.file).delete();
+        if (!temp.renameTo(segment.file)) {
+            FxLog.w(TAG, "Could not replace ", segment.file.getName(), " with its compacted copy");
+            temp.delete();
+            return null;
+        }
+        compacted.saveIndex(indexFileOf(compacted.file));
+        final long before = segment.length;
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> "Compacted " + segment.file.getName() + ": " + before
+                    + " -> " + compacted.length + " bytes");
+        }
+        return compacted;
+    }
+
+    private void closeActive() {
+        if (activeFile != null) {
+            try {
+                activeFile.close();
+            } catch (IOException e) {
+                FxLog.w(TAG, "Could not close history segment", e);
+            }
+            activeFile = null;
+        }
+    }
+
+    private void deleteSegment(Segment segment) {
+        deleteFiles(segment.file);
+        FxLog.d(TAG, "Deleted history segment ", segment.file.getName());
+    }
+
+    private static void deleteFiles(File segmentFile) {
+        segmentFile.delete();
+        indexFileOf(segmentFile).delete();
+    }
+
+    private static File indexFileOf(File segmentFile) {
+        String name = segmentFile.getName();
+        String base = name.substring(0, name.length() - SEGMENT_SUFFIX.length());
+        return new File(segmentFile.getParentFile(), base + INDEX_SUFFIX);
+    }
+
+    private static byte[] encodeRecord(long timeMs, int[] pairs, double[] values, int count) {
+        ByteBuffer payload = ByteBuffer.allocate(8 + 4 + count * ENTRY_SIZE);
+        payload.putLong(timeMs);
+        payload.putInt(count);
+        for (int i = 0; i < count; i++) {
+            payload.putInt(pairs[i]);
+            payload.putDouble(values[i]);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.array(), 0, payload.capacity());
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.capacity());
+        record.putInt(payload.capacity());
+        record.putInt((int) crc.getValue());
+        record.put(payload.array());
+        return record.array();
+    }
+
+    /**
+     * One segment file and its in-memory sparse index
+     */
+    private static final class Segment {
+        final File file;
+        final int flags;
+        long firstMs = -1;
+        long lastMs = -1;
+        long length;
+        int recordCount;
+
+        // pairId -> every INDEX_INTERVAL-th record containing it
+        final Map<Integer, PairIndex> index = new HashMap<>();
+
+        Segment(File file, int flags) {
+            this.file = file;
+            this.flags = flags;
+        }
+
+        boolean isCompacted() {
+            return (flags & FLAG_COMPACTED) != 0;
+        }
+
+        boolean isFull(long timeMs) {
+            return length >= SEGMENT_MAX_BYTES || (firstMs >= 0 && timeMs - firstMs >= SEGMENT_SPAN_MS);
+        }
+
+        void onRecord(long offset, long timeMs, int[] pairs, int count) {
+            if (firstMs < 0) {
+                firstMs = timeMs;
+            }
+            lastMs = timeMs;
+            recordCount++;
+            for (int i = 0; i < count; i++) {
+                PairIndex pairIndex = index.get(pairs[i]);
+                if (pairIndex == null) {
+                    pairIndex = new PairIndex();
+                    index.put(pairs[i], pairIndex);
+                }
+                pairIndex.onRecord(timeMs, offset);
+            }
+        }
+
+        /**
+         * Offset to start reading a pair from so that its rate at fromMs is seen
+         * @return The offset, or -1 if the pair does not occur in this segment
+         */
+        long seek(int pair, long fromMs) {
+            PairIndex pairIndex = index.get(pair);
+            return pairIndex != null ? pairIndex.floorOffset(fromMs) : -1;
+        }
+
+        void saveIndex(File indexFile) {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024 + index.size() * 64);
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeInt(INDEX_MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(flags);
+                out.writeLong(length);
+                out.writeLong(firstMs);
+                out.writeLong(lastMs);
+                out.writeInt(recordCount);
+                out.writeInt(index.size());
+                for (Map.Entry<Integer, PairIndex> entry : index.entrySet()) {
+                    PairIndex pairIndex = entry.getValue();
+                    out.writeInt(entry.getKey());
+                    out.writeInt(pairIndex.seen);
+                    out.writeInt(pairIndex.size);
+                    for (int i = 0; i < pairIndex.size; i++) {
+                        out.writeLong(pairIndex.times[i]);
+                        out.writeLong(pairIndex.offsets[i]);
+                    }
+                }
+                out.flush();
+                CRC32 crc = new CRC32();
+                crc.update(bytes.toByteArray(), 0, bytes.size());
+                out.writeInt((int) crc.getValue());
+
+                File temp = new File(indexFile.getPath() + TEMP_SUFFIX);
+                try (FileOutputStream file = new FileOutputStream(temp)) {
+                    file.write(bytes.toByteArray());
+                }
+                if (!temp.renameTo(indexFile)) {
+                    temp.delete();
+                }
+            } catch (IOException e) {
+                // Only costs a rescan of the segment on the next start
+                FxLog.w(TAG, "Could not save index of ", file.getName(), e);
+            }
+        }
+
+        /**
+         * Loads a sealed segment's saved index
+         * @return The segment, or null if the index is missing, damaged or out of date
+         */
+        static Segment loadIndex(File segmentFile, File indexFile) {
+            long indexLength = indexFile.length();
+            if (indexLength < 4 + 4 + 4 + 8 + 8 + 8 + 4 + 4 + 4) {
+                return null;
+            }
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(indexFile)))) {
+                byte[] bytes = new byte[(int) indexLength];
+                in.readFully(bytes);
+                CRC32 crc = new CRC32();
+                crc.update(bytes, 0, bytes.length - 4);
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                if ((int) crc.getValue() != buffer.getInt(bytes.length - 4)
+                        || buffer.getInt() != INDEX_MAGIC || buffer.getInt() != VERSION) {
+                    return null;
+                }
+
+                Segment segment = new Segment(segmentFile, buffer.getInt());
+                segment.length = buffer.getLong();
+                if (segment.length != segmentFile.length()) {
+                    return null; // Segment changed after the index was written
+                }
+                segment.firstMs = buffer.getLong();
+                segment.lastMs = buffer.getLong();
+                segment.recordCount = buffer.getInt();
+                int pairs = buffer.getInt();
+                for (int p = 0; p < pairs; p++) {
+                    int pair = buffer.getInt();
+                    PairIndex pairIndex = new PairIndex();
+                    pairIndex.seen = buffer.getInt();
+                    int size = buffer.getInt();
+                    pairIndex.times = new long[Math.max(size, 1)];
+                    pairIndex.offsets = new long[Math.max(size, 1)];
+                    for (int i = 0; i < size; i++) {
+                        pairIndex.times[i] = buffer.getLong();
+                        pairIndex.offsets[i] = buffer.getLong();
+                    }
+                    pairIndex.size = size;
+                    segment.index.put(pair, pairIndex);
+                }
+                return segment;
+            } catch (IOException | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Sparse index of one pair within a segment: (time, record offset) of every
+     * INDEX_INTERVAL-th record containing the pair, in time order
+     */
+    private static final class PairIndex {
+        int seen;
+        int size;
+        long[] times = new long[4];
+        long[] offsets = new long[4];
+
+        void onRecord(long timeMs, long offset) {
+            if (seen++ % INDEX_INTERVAL != 0) {
+                return;
+            }
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            times[size] = timeMs;
+            offsets[size] = offset;
+            size++;
+        }
+
+        /**
+         * Offset of the last indexed record at or before timeMs (the first one if none)
+         */
+        long floorOffset(long timeMs) {
+            int low = 0;
+            int high = size - 1;
+            int found = 0;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (times[mid] <= timeMs) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return offsets[found];
+        }
+    }
+
+    /**
+     * Reads records one by one from an offset up to a limit
+     */
+    private static final class RecordReader implements AutoCloseable {
+        private final DataInputStream in;
+        private final long limit;
+        private byte[] payload = new byte[4096];
+        private final CRC32 crc = new CRC32();
+
+        long offset;      // Start of the current record
+        long position;    // End of the current record
+        long timeMs;
+        int count;
+        int[] pairs = new int[256];
+        double[] values = new double[256];
+
+        RecordReader(File file, long offset, long limit) throws IOException {
+            FileInputStream stream = new FileInputStream(file);
+            stream.getChannel().position(offset);
+            this.in = new DataInputStream(new BufferedInputStream(stream, 16 * 1024));
+            this.position = offset;
+            this.limit = limit;
+        }
+
+        /**
+         * Moves to the next record
+         * @param verify Check the record's checksum (used when recovering)
+         * @return false at the end of the data or at the first incomplete or damaged record
+         */
+        boolean next(boolean verify) throws IOException {
+            offset = position;
+            if (offset + RECORD_HEADER_SIZE > limit) {
+                return false;
+            }
+            int length = in.readInt();
+            int checksum = in.readInt();
+            if (length < 8 + 4 || length > 8 + 4 + MAX_RECORD_ENTRIES * ENTRY_SIZE
+                    || offset + RECORD_HEADER_SIZE + length > limit) {
+                return false;
+            }
+            if (payload.length < length) {
+                payload = new byte[length];
+            }
+            in.readFully(payload, 0, length);
+            if (verify) {
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    return false;
+                }
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(payload, 0, length);
+            timeMs = buffer.getLong();
+            count = buffer.getInt();
+            if (count < 0 || 8 + 4 + count * ENTRY_SIZE != length) {
+                return false;
+            }
+            if (pairs.length < count) {
+                pairs = new int[count];
+                values = new double[count];
+            }
+            for (int i = 0; i < count; i++) {
+                pairs[i] = buffer.getInt();
+                values[i] = buffer.getDouble();
+            }
+            position = offset + RECORD_HEADER_SIZE + length;
+            return true;
+        }
+
+        /**
+         * Rate of a pair in the current record (the last one if listed twice), or NaN if
+         * the record does not contain it
+         */
+        double valueOf(int pair) {
+            for (int i = count - 1; i >= 0; i--) {
+                if (pairs[i] == pair) {
+                    return values[i];
+                }
+            }
+            return Double.NaN;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
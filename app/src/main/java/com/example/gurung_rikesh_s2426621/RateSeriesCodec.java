@@ -0,0 +1,459 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Bit-packed encoding of one pair's rate series (after Facebook's Gorilla)
+ *
+ * Points are sampled on a regular grid and consecutive rates barely change, so a point is
+ * stored as the change of its time step (delta-of-delta) and the change of its rate, instead
+ * of a plain 8-byte time and 8-byte double. Two choices make this pay off for rates:
+ * - Times are quantized to a grid (gridMs, e.g. a minute or an OhlcAggregator bucket), so
+ *   refreshes that land a few seconds apart still count as one step and the delta-of-delta
+ *   is 0. Times decode as the start of their grid cell.
+ * - Rates are the fixed-point values the feed published (CurrencyRate.getRateUnscaled() /
+ *   getRateScale()), stored as zigzag varint deltas of the unscaled value. A tick of up to
+ *   63 units costs 10 bits, where the XOR of two decimal rates held as doubles is ~50 bits.
+ *
+ * A block starts with a version byte and gridMs (varint), followed by points, each starting
+ * with a control code (MSB first):
+ *
+ *   0                                next step (delta-of-delta 0), same rate
+ *   10     + zz change               next step, rate changed by this many units
+ *   110    + zz dod + zz change      any other time step
+ *   1110   + n                       run: n points repeating the last step and rate
+ *   11110  + 5 bits scale + zz dod + zz unscaled
+ *                                    rate restated in full: the first point, or a new scale
+ *   11111                            end of block, padded to a byte
+ *
+ * n is an unsigned varint and zz a zigzag varint (7 bits per byte, low group first), written
+ * into the bit stream. The first point's dod is its absolute grid index; the step before it
+ * counts as one grid cell, so a regular series codes its second point as "next step" too.
+ *
+ * For a year of minute samples of ~170 pairs (1.43 GB as plain time + double), with refresh
+ * times landing up to 5 s into their minute:
+ *   rate changes about once an hour (what the feed publishes)     ~0.36 bits/point, ~4.0 MB
+ *   rate changes every minute, by hundreds of units at scale 4    ~17 bits/point, ~195 MB
+ * RateSeriesCodecBenchmark (instrumented) logs both figures with encode/decode times.
+ * Rates round-trip exactly (unscaled value and scale); times round-trip to their grid cell.
+ * Blocks are self-delimiting, so several can follow one another in a stream.
+ *
+ * This is a standalone block format for exporting or archiving a series; RateHistoryStore
+ * keeps its own records and does not use it. Rates without an exact fixed-point form
+ * (scale -1) cannot be encoded.
+ */
+public final class RateSeriesCodec {
+
+    private static final int VERSION = 2;
+
+    // Scale field width: 5 bits
+    public static final int MAX_SCALE = 31;
+
+    // Shorter runs are cheaper as individual 1-bit points (a run of up to 127 costs 12 bits)
+    private static final int MIN_RUN = 13;
+
+    private RateSeriesCodec() {
+    }
+
+    /**
+     * Encodes a whole series into one block
+     * @param gridMs Sampling grid that times are quantized to (1 keeps them exact)
+     */
+    public static byte[] encode(long[] times, long[] unscaled, int[] scales, int size, long gridMs) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + size / 4);
+        try {
+            Encoder encoder = new Encoder(bytes, gridMs);
+            for (int i = 0; i < size; i++) {
+                encoder.append(times[i], unscaled[i], scales[i]);
+            }
+            encoder.finish();
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Not thrown by ByteArrayOutputStream
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes one block
+     * @throws IOException If the block is truncated or not a rate series block
+     */
+    public static Points decode(byte[] block) throws IOException {
+        long[] times = new long[64];
+        long[] unscaled = new long[64];
+        int[] scales = new int[64];
+        int size = 0;
+        Decoder decoder = new Decoder(block);
+        while (decoder.next()) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                unscaled = Arrays.copyOf(unscaled, size * 2);
+                scales = Arrays.copyOf(scales, size * 2);
+            }
+            times[size] = decoder.getTime();
+            unscaled[size] = decoder.getUnscaled();
+            scales[size] = decoder.getScale();
+            size++;
+        }
+        return new Points(decoder.getGridMs(), times, unscaled, scales, size);
+    }
+
+    /**
+     * Points of one decoded block, in the order they were encoded
+     */
+    public static final class Points {
+        private final long gridMs;
+        private final long[] times;
+        private final long[] unscaled;
+        private final int[] scales;
+        private final int size;
+
+        Points(long gridMs, long[] times, long[] unscaled, int[] scales, int size) {
+            this.gridMs = gridMs;
+            this.times = times;
+            this.unscaled = unscaled;
+            this.scales = scales;
+            this.size = size;
+        }
+
+        public long getGridMs() { return gridMs; }
+
+        public int size() { return size; }
+
+        public boolean isEmpty() { return size == 0; }
+
+        /** Start of the grid cell the point was recorded in (epoch ms) */
+        public long getTime(int i) { return times[i]; }
+
+        public long getUnscaled(int i) { return unscaled[i]; }
+
+        public int getScale(int i) { return scales[i]; }
+
+        public double getValue(int i) { return RateDecoder.toDouble(unscaled[i], scales[i]); }
+    }
+
+    /**
+     * Writes points to a stream as they arrive
+     * Call finish() to end the block; the stream itself is left open.
+     */
+    public static final class Encoder {
+        private final BitWriter bits;
+        private final long gridMs;
+        private int count;
+        private long previousIndex;
+        private long previousStep;
+        private long previousUnscaled;
+        private int scale = -1;
+        private long pendingRepeats;
+        private boolean finished;
+
+        /**
+         * @param gridMs Sampling grid that times are quantized to (1 keeps them exact)
+         */
+        public Encoder(OutputStream out, long gridMs) throws IOException {
+            if (gridMs <= 0) {
+                throw new IllegalArgumentException("Invalid grid: " + gridMs);
+            }
+            this.gridMs = gridMs;
+            bits = new BitWriter(out);
+            bits.write(VERSION, 8);
+            writeVarint(bits, gridMs);
+        }
+
+        /**
+         * Appends a point whose rate is unscaled / 10^scale
+         */
+        public void append(long timeMs, long unscaled, int scale) throws IOException {
+            if (finished) {
+                throw new IllegalStateException("Block already finished");
+            }
+            if (scale < 0 || scale > MAX_SCALE) {
+                throw new IllegalArgumentException("Invalid rate scale: " + scale);
+            }
+            long index = Math.floorDiv(timeMs, gridMs);
+            long step = index - previousIndex;
+            long deltaOfDelta = step - previousStep;
+            long change = unscaled - previousUnscaled;
+
+            if (count == 0 || scale != this.scale) {
+                writeRepeats();
+                bits.write(0b11110, 5);
+                bits.write(scale, 5);
+                writeVarint(bits, zigzag(deltaOfDelta));
+                writeVarint(bits, zigzag(unscaled));
+                this.scale = scale;
+            } else if (deltaOfDelta == 0 && change == 0) {
+                pendingRepeats++;
+            } else {
+                writeRepeats();
+                if (deltaOfDelta == 0) {
+                    bits.write(0b10, 2);
+                } else {
+                    bits.write(0b110, 3);
+                    writeVarint(bits, zigzag(deltaOfDelta));
+                }
+                writeVarint(bits, zigzag(change));
+            }
+
+            // The step before the first point counts as one grid cell
+            previousStep = count == 0 ? 1 : step;
+            previousIndex = index;
+            previousUnscaled = unscaled;
+            count++;
+        }
+
+        /**
+         * Ends the block and flushes it to the stream
+         */
+        public void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            writeRepeats();
+            bits.write(0b11111, 5);
+            bits.flush();
+            finished = true;
+        }
+
+        /** Points appended so far */
+        public int getCount() { return count; }
+
+        /** Bytes written to the stream so far (complete after finish()) */
+        public long getByteCount() { return bits.byteCount; }
+
+        private void writeRepeats() throws IOException {
+            if (pendingRepeats >= MIN_RUN) {
+                bits.write(0b1110, 4);
+                writeVarint(bits, pendingRepeats);
+            } else {
+                for (long i = 0; i < pendingRepeats; i++) {
+                    bits.write(0, 1);
+                }
+            }
+            pendingRepeats = 0;
+        }
+    }
+
+    /**
+     * Reads the points of one block from a stream, one next() at a time
+     */
+    public static final class Decoder {
+        private final BitReader bits;
+        private final long gridMs;
+        private int count;
+        private long index;
+        private long step;
+        private long unscaled;
+        private int scale;
+        private long remainingRepeats;
+        private boolean finished;
+
+        public Decoder(InputStream in) throws IOException {
+            this(new BitReader(in, null));
+        }
+
+        /**
+         * Decodes a block held in memory (faster than going through a stream)
+         */
+        public Decoder(byte[] block) throws IOException {
+            this(new BitReader(null, block));
+        }
+
+        private Decoder(BitReader bits) throws IOException {
+            this.bits = bits;
+            int version = (int) bits.read(8);
+            if (version != VERSION) {
+                throw new IOException("Unsupported rate series version " + version);
+            }
+            gridMs = readVarint(bits);
+            if (gridMs <= 0) {
+                throw new IOException("Bad rate series grid " + gridMs);
+            }
+        }
+
+        /**
+         * Moves to the next point
+         * @return false at the end of the block
+         */
+        public boolean next() throws IOException {
+            if (finished) {
+                return false;
+            }
+            if (remainingRepeats > 0) {
+                remainingRepeats--;
+                index += step;
+                count++;
+                return true;
+            }
+
+            int ones = 0;
+            while (ones < 4 && bits.read(1) == 1) {
+                ones++;
+            }
+            if (ones == 4) {
+                if (bits.read(1) == 1) {
+                    finished = true;
+                    return false;
+                }
+                scale = (int) bits.read(5);
+                long deltaOfDelta = unzigzag(readVarint(bits));
+                unscaled = unzigzag(readVarint(bits));
+                long next = step + deltaOfDelta;
+                index += next;
+                step = count == 0 ? 1 : next; // As in Encoder.append()
+                count++;
+                return true;
+            }
+            if (count == 0) {
+                throw new IOException("Rate series block does not start with a full point");
+            }
+
+            switch (ones) {
+                case 0:
+                    break;
+                case 1:
+                    unscaled += unzigzag(readVarint(bits));
+                    break;
+                case 2:
+                    step += unzigzag(readVarint(bits));
+                    unscaled += unzigzag(readVarint(bits));
+                    break;
+                default:
+                    long run = readVarint(bits);
+                    if (run < MIN_RUN) {
+                        throw new IOException("Bad rate series run " + run);
+                    }
+                    remainingRepeats = run - 1;
+                    break;
+            }
+            index += step;
+            count++;
+            return true;
+        }
+
+        public long getGridMs() { return gridMs; }
+
+        /** Start of the grid cell the point was recorded in (epoch ms) */
+        public long getTime() { return index * gridMs; }
+
+        public long getUnscaled() { return unscaled; }
+
+        public int getScale() { return scale; }
+
+        public double getValue() { return RateDecoder.toDouble(unscaled, scale); }
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(BitWriter bits, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            bits.write((value & 0x7F) | 0x80, 8);
+            value >>>= 7;
+        }
+        bits.write(value, 8);
+    }
+
+    private static long readVarint(BitReader bits) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            long group = bits.read(8);
+            value |= (group & 0x7F) << shift;
+            if ((group & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Bad rate series varint");
+    }
+
+    /**
+     * MSB-first bit output with a small byte buffer
+     */
+    private static final class BitWriter {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[4096];
+        private int position;
+        private long pending;
+        private int pendingBits;
+        long byteCount;
+
+        BitWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        /** Writes the low bitCount bits of value (1..32) */
+        void write(long value, int bitCount) throws IOException {
+            pending = (pending << bitCount) | (value & ((1L << bitCount) - 1));
+            pendingBits += bitCount;
+            while (pendingBits >= 8) {
+                pendingBits -= 8;
+                put((int) (pending >>> pendingBits));
+            }
+        }
+
+        /** Pads the last byte with zeros and writes everything out */
+        void flush() throws IOException {
+            if (pendingBits > 0) {
+                put((int) (pending << (8 - pendingBits)));
+                pendingBits = 0;
+            }
+            out.write(buffer, 0, position);
+            position = 0;
+            out.flush();
+        }
+
+        private void put(int b) throws IOException {
+            if (position == buffer.length) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+            buffer[position++] = (byte) b;
+            byteCount++;
+        }
+    }
+
+    /**
+     * MSB-first bit input from a stream or an array
+     * A stream is read one byte at a time, so nothing past the block is consumed.
+     */
+    private static final class BitReader {
+        private final InputStream in;
+        private final byte[] array;
+        private int position;
+        private long pending;
+        private int pendingBits;
+
+        BitReader(InputStream in, byte[] array) {
+            this.in = in;
+            this.array = array;
+        }
+
+        /** Reads bitCount bits (1..32) as an unsigned value */
+        long read(int bitCount) throws IOException {
+            while (pendingBits < bitCount) {
+                int b;
+                if (array != null) {
+                    b = position < array.length ? array[position++] & 0xFF : -1;
+                } else {
+                    b = in.read();
+                }
+                if (b < 0) {
+                    throw new EOFException("Truncated rate series block");
+                }
+                pending = (pending << 8) | b;
+                pendingBits += 8;
+            }
+            pendingBits -= bitCount;
+            return (pending >>> pendingBits) & ((1L << bitCount) - 1);
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Immutable, column-oriented view of one set of rates
+ *
+ * Consumers that scan every pair (list binding, search, picking main currencies) used to
+ * walk a List<CurrencyRate>, chasing one object and several String fields per pair.
+ * Here each attribute is a primitive column indexed by row:
+ *
+ *   baseCodes / targetCodes   int[]    CurrencyCode packed ints ("USD" -> 21059)
+ *   baseNames / targetNames   int[]    ids into the table of distinct Strings
+ *   titles, links,            int[]    ids into the same table (0 = null)
+ *   descriptions, pubDates
+ *   rates                     double[]
+ *   rateUnscaled / rateScales long[] / short[]  the published fixed-point rate (-1 = unknown)
+ *   publishedAt               long[]   pubDate as epoch ms (-1 = unparseable)
+ *
+ * A ~170 pair feed takes about 10 KB of columns plus one table entry per distinct String.
+ * The table holds the parser's own String instances, each once (a feed's items normally
+ * share one pubDate, and names repeat across bases); no CurrencyRate object is kept.
+ * getRow() and the List views build a CurrencyRate from the columns on each call, for
+ * callers that still want objects.
+ */
+public final class RateSnapshot {
+
+    private static final String TAG = "RateSnapshot";
+
+    public static final RateSnapshot EMPTY = of(Collections.<CurrencyRate>emptyList());
+
+    private final int size;
+    private final int[] baseCodes;
+    private final int[] targetCodes;
+    private final int[] baseNames;
+    private final int[] targetNames;
+    private final int[] titles;
+    private final int[] links;
+    private final int[] descriptions;
+    private final int[] pubDates;
+    private final double[] rates;
+    private final long[] rateUnscaled;
+    private final short[] rateScales;
+    private final long[] publishedAt;
+
+    // Distinct Strings of this result; id 0 is null
+    private final String[] strings;
+
+    // Code text of rows whose code does not pack (CurrencyCode.NONE); null if every code packs
+    private final int[] baseCodeTexts;
+    private final int[] targetCodeTexts;
+
+    private final List<CurrencyRate> listView;
+
+    private RateSnapshot(List<CurrencyRate> source) {
+        size = source.size();
+        baseCodes = new int[size];
+        targetCodes = new int[size];
+        baseNames = new int[size];
+        targetNames = new int[size];
+        titles = new int[size];
+        links = new int[size];
+        descriptions = new int[size];
+        pubDates = new int[size];
+        rates = new double[size];
+        rateUnscaled = new long[size];
+        rateScales = new short[size];
+        publishedAt = new long[size];
+
+        Map<String, Integer> stringIds = new HashMap<>();
+        List<String> table = new ArrayList<>();
+        table.add(null);
+        int[] otherBaseCodes = null;
+        int[] otherTargetCodes = null;
+        String lastPubDate = null;
+        long lastPublished = -1L;
+        for (int i = 0; i < size; i++) {
+            CurrencyRate rate = source.get(i);
+            baseCodes[i] = rate.getBaseCodeId();
+            targetCodes[i] = rate.getTargetCodeId();
+            if (baseCodes[i] == CurrencyCode.NONE && rate.getBaseCode() != null) {
+                if (otherBaseCodes == null) {
+                    otherBaseCodes = new int[size];
+                }
+                otherBaseCodes[i] = stringId(stringIds, table, rate.getBaseCode());
+            }
+            if (targetCodes[i] == CurrencyCode.NONE && rate.getTargetCode() != null) {
+                if (otherTargetCodes == null) {
+                    otherTargetCodes = new int[size];
+                }
+                otherTargetCodes[i] = stringId(stringIds, table, rate.getTargetCode());
+            }
+            baseNames[i] = stringId(stringIds, table, rate.getBaseCurrency());
+            targetNames[i] = stringId(stringIds, table, rate.getTargetCurrency());
+            titles[i] = stringId(stringIds, table, rate.getTitle());
+            links[i] = stringId(stringIds, table, rate.getLink());
+            descriptions[i] = stringId(stringIds, table, rate.getDescription());
+            pubDates[i] = stringId(stringIds, table, rate.getPubDate());
+            rates[i] = rate.getRate();
+            rateUnscaled[i] = rate.getRateUnscaled();
+            rateScales[i] = scaleOf(rate);
+
+            // Every item of a feed normally carries the same pubDate: parse it once
+            String pubDate = rate.getPubDate();
+            if (pubDate == null || !pubDate.equals(lastPubDate)) {
+                lastPubDate = pubDate;
+                lastPublished = DateUtils.parsePubDate(pubDate);
+            }
+            publishedAt[i] = lastPublished;
+        }
+
+        strings = table.toArray(new String[0]);
+        baseCodeTexts = otherBaseCodes;
+        targetCodeTexts = otherTargetCodes;
+        listView = new RowList(null);
+    }
+
+    /**
+     * Builds the columns for a parsed result; neither the list nor its objects are kept
+     */
+    public static RateSnapshot of(List<CurrencyRate> rates) {
+        return new RateSnapshot(rates);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Packed base code of a row (see CurrencyCode) */
+    public int getBaseCodeId(int row) { return baseCodes[row]; }
+
+    /** Packed target code of a row (see CurrencyCode) */
+    public int getTargetCodeId(int row) { return targetCodes[row]; }
+
+    public String getBaseCode(int row) {
+        return codeText(baseCodes, baseCodeTexts, row);
+    }
+
+    public String getTargetCode(int row) {
+        return codeText(targetCodes, targetCodeTexts, row);
+    }
+
+    public String getBaseName(int row) { return strings[baseNames[row]]; }
+
+    public String getTargetName(int row) { return strings[targetNames[row]]; }
+
+    public String getTitle(int row) { return strings[titles[row]]; }
+
+    public double getRate(int row) { return rates[row]; }
+
+    /** Unscaled published rate; only meaningful when getRateScale(row) >= 0 */
+    public long getRateUnscaled(int row) { return rateUnscaled[row]; }
+
+    /** Published decimals of the rate, or -1 if unknown */
+    public int getRateScale(int row) { return rateScales[row]; }
+
+    /** pubDate of the row as epoch milliseconds, or -1 if it could not be parsed */
+    public long getPublishedAt(int row) { return publishedAt[row]; }
+
+    /**
+     * A row as a CurrencyRate (title, link, description and so on)
+     * Built from the columns on each call; changes to it do not reach the snapshot
+     */
+    public CurrencyRate getRow(int row) {
+        CurrencyRate rate = new CurrencyRate(getTitle(row), getBaseName(row), getBaseCode(row),
+                getTargetName(row), getTargetCode(row), strings[links[row]], strings[pubDates[row]],
+                strings[descriptions[row]], rates[row]);
+        if (rateScales[row] >= 0) {
+            rate.setExactRate(rateUnscaled[row], rateScales[row], rates[row]);
+        }
+        return rate;
+    }
+
+    /**
+     * Read-only List view over the rows, without copying; get() builds the row (see getRow)
+     */
+    public List<CurrencyRate> asList() {
+        return listView;
+    }
+
+    /**
+     * Read-only List view over selected rows
+     */
+    public List<CurrencyRate> asList(int[] selectedRows) {
+        return new RowList(selectedRows);
+    }
+
+    /**
+     * First row for a currency pair, or -1
+     */
+    public int indexOf(int baseCodeId, int targetCodeId) {
+        for (int i = 0; i < size; i++) {
+            if (targetCodes[i] == targetCodeId && baseCodes[i] == baseCodeId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Row of a pair key such as "GBP/USD" (see CurrencyRate.getPairKey()), or -1
+     */
+    public int indexOfPair(String pairKey) {
+        if (pairKey == null || pairKey.length() != 7 || pairKey.charAt(3) != '/') {
+            return -1;
+        }
+        int base = CurrencyCode.pack(pairKey, 0);
+        int target = CurrencyCode.pack(pairKey, 4);
+        if (base == CurrencyCode.NONE || target == CurrencyCode.NONE) {
+            return -1;
+        }
+        return indexOf(base, target);
+    }
+
+    /**
+     * Rows whose target is one of the given packed codes, in row order
+     */
+    public int[] findTargets(int... targetCodeIds) {
+        int[] matches = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int code = targetCodes[i];
+            for (int wanted : targetCodeIds) {
+                if (code == wanted) {
+                    matches[count++] = i;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Rows whose target name, target code or title contains the query (case-insensitive)
+     * Works on the id columns: each distinct String is tested at most once, however many
+     * rows share it.
+     */
+    public int[] search(String query) {
+        String needle = query.trim();
+        byte[] tested = new byte[strings.length]; // 0 = not yet, 1 = no match, 2 = match
+
+        int[] matches = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (matches(tested, targetNames[i], needle)
+                    || containsIgnoreCase(getTargetCode(i), needle)
+                    || matches(tested, titles[i], needle)) {
+                matches[count++] = i;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Approximate size of the columns and the String table in bytes (excluding the Strings)
+     */
+    public long estimatedBytes() {
+        long columns = (long) size * (4 + 4 + 4 + 4 + 4 * 4 + 8 + 8 + 2 + 8);
+        if (baseCodeTexts != null) {
+            columns += size * 4L;
+        }
+        if (targetCodeTexts != null) {
+            columns += size * 4L;
+        }
+        return columns + strings.length * 4L;
+    }
+
+    private String codeText(int[] codes, int[] otherCodes, int row) {
+        if (codes[row] != CurrencyCode.NONE) {
+            return CurrencyCode.toString(codes[row]);
+        }
+        return otherCodes != null ? strings[otherCodes[row]] : null;
+    }
+
+    private boolean matches(byte[] tested, int id, String needle) {
+        if (tested[id] == 0) {
+            tested[id] = containsIgnoreCase(strings[id], needle) ? (byte) 2 : (byte) 1;
+        }
+        return tested[id] == 2;
+    }
+
+    private static int stringId(Map<String, Integer> stringIds, List<String> table, String text) {
+        if (text == null) {
+            return 0;
+        }
+        Integer id = stringIds.get(text);
+        if (id == null) {
+            id = table.size();
+            stringIds.put(text, id);
+            table.add(text);
+        }
+        return id;
+    }
+
+    /**
+     * Published decimals of a rate, -1 if unknown or too large to be a real scale
+     */
+    private static short scaleOf(CurrencyRate rate) {
+        int scale = rate.getRateScale();
+        if (scale > Short.MAX_VALUE) {
+            FxLog.w(TAG, "Rate scale out of range, keeping the double only: ", scale);
+            return -1;
+        }
+        return (short) Math.max(scale, -1);
+    }
+
+    private static boolean containsIgnoreCase(String text, String needle) {
+        if (text == null) {
+            return false;
+        }
+        int last = text.length() - needle.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, needle, 0, needle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * List over all rows, or over the selected ones
+     */
+    private final class RowList extends AbstractList<CurrencyRate> implements RandomAccess {
+        private final int[] selected;
+
+        RowList(int[] selected) {
+            this.selected = selected;
+        }
+
+        @Override
+        public CurrencyRate get(int index) {
+            return getRow(selected != null ? selected[index] : index);
+        }
+
+        @Override
+        public int size() {
+            return selected != null ? selected.length : size;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Last successfully parsed rates, kept on disk in a compact binary form for cold start
+ *
+ * Written after every successful refresh and memory-mapped on the next launch, so the list
+ * can be shown from disk in a few milliseconds while the network refresh runs.
+ *
+ * Layout (big-endian):
+ *   int    magic "FXS1", int version, long savedAtMs
+ *   int    string count, then per string: unsigned short UTF-8 length + bytes
+ *          (every distinct name, title, link, date and description, stored once)
+ *   int    row count, then per row:
+ *          int baseCode, int targetCode    packed CurrencyCode; negative = -2 - string index
+ *          int title, baseName, targetName, link, pubDate, description   string indexes (-1 = null)
+ *          double rate, long rateUnscaled, byte rateScale
+ *   int    CRC32 of everything before it
+ *
+ * The file is written to a temporary file, synced and renamed, so a crash mid-write leaves
+ * the previous snapshot in place. A truncated or corrupt file is ignored (read() returns null).
+ */
+public class RateSnapshotFile {
+
+    private static final String TAG = "RateSnapshotFile";
+
+    private static final int MAGIC = 0x46585331; // "FXS1"
+    private static final int VERSION = 1;
+
+    // Header (magic, version, savedAt, string count, row count) and CRC trailer
+    private static final int MIN_SIZE = 4 + 4 + 8 + 4 + 4 + 4;
+
+    // Refuse absurd files instead of mapping them
+    private static final long MAX_SIZE = 8L * 1024 * 1024;
+
+    /**
+     * Rates read back from disk, with the time they were saved
+     */
+    public static final class Contents {
+        public final List<CurrencyRate> rates;
+        public final long savedAtMs;
+
+        Contents(List<CurrencyRate> rates, long savedAtMs) {
+            this.rates = rates;
+            this.savedAtMs = savedAtMs;
+        }
+    }
+
+    private final File file;
+
+    public RateSnapshotFile(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Replaces the stored snapshot with these rates
+     * @return true if the file was written
+     */
+    public synchronized boolean write(List<CurrencyRate> rates, long savedAtMs) {
+        File directory = file.getParentFile();
+        if (directory != null && !directory.exists() && !directory.mkdirs()) {
+            FxLog.w(TAG, "Could not create directory: ", directory);
+            return false;
+        }
+
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            byte[] data = encode(rates, savedAtMs);
+            try (FileOutputStream out = new FileOutputStream(temp)) {
+                out.write(data);
+                out.getFD().sync();
+            }
+            if (!temp.renameTo(file)) {
+                throw new IOException("Could not rename " + temp + " to " + file);
+            }
+            return true;
+        } catch (IOException e) {
+            FxLog.w(TAG, "Could not write rate snapshot", e);
+            temp.delete();
+            return false;
+        }
+    }
+
+    /**
+     * Maps the stored snapshot and decodes it
+     * @return The stored rates, or null if there is no usable snapshot
+     */
+    public synchronized Contents read() {
+        long length = file.length();
+        if (length < MIN_SIZE || length > MAX_SIZE) {
+            return null;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return decode(buffer, (int) length);
+        } catch (IOException | RuntimeException e) {
+            // RuntimeException: BufferUnderflowException / IllegalArgumentException on a bad file
+            FxLog.w(TAG, "Could not read rate snapshot", e);
+            return null;
+        }
+    }
+
+    /**
+     * Removes the stored snapshot
+     */
+    public synchronized void delete() {
+        file.delete();
+    }
+
+    private static byte[] encode(List<CurrencyRate> rates, long savedAtMs) throws IOException {
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int[] refs = new int[rates.size() * 8];
+        int r = 0;
+        for (CurrencyRate rate : rates) {
+            refs[r++] = codeRef(rate.getBaseCodeId(), rate.getBaseCode(), stringIndex, strings);
+            refs[r++] = codeRef(rate.getTargetCodeId(), rate.getTargetCode(), stringIndex, strings);
+            refs[r++] = stringRef(rate.getTitle(), stringIndex, strings);
+            refs[r++] = stringRef(rate.getBaseCurrency(), stringIndex, strings);
+            refs[r++] = stringRef(rate.getTargetCurrency(), stringIndex, strings);
+            refs[r++] = stringRef(rate.getLink(), stringIndex, strings);
+            refs[r++] = stringRef(rate.getPubDate(), stringIndex, strings);
+            refs[r++] = stringRef(rate.getDescription(), stringIndex, strings);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096 + rates.size() * 64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(savedAtMs);
+
+        out.writeInt(strings.size());
+        for (String s : strings) {
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            if (utf8.length > 0xFFFF) {
+                throw new IOException("String too long for snapshot: " + utf8.length + " bytes");
+            }
+            out.writeShort(utf8.length);
+            out.write(utf8);
+        }
+
+        out.writeInt(rates.size());
+        r = 0;
+        for (CurrencyRate rate : rates) {
+            for (int i = 0; i < 8; i++) {
+                out.writeInt(refs[r++]);
+            }
+            out.writeDouble(rate.getRate());
+            out.writeLong(rate.getRateUnscaled());
+            out.writeByte(rate.getRateScale());
+        }
+        out.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray(), 0, bytes.size());
+        out.writeInt((int) crc.getValue());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Contents decode(MappedByteBuffer buffer, int length) {
+        // Verify the checksum first: nothing is built from a damaged file
+        CRC32 crc = new CRC32();
+        buffer.limit(length - 4);
+        crc.update(buffer);
+        buffer.limit(length);
+        if ((int) crc.getValue() != buffer.getInt(length - 4)) {
+            FxLog.w(TAG, "Rate snapshot checksum mismatch, ignoring it");
+            return null;
+        }
+
+        buffer.position(0);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+        }
+        long savedAtMs = buffer.getLong();
+
+        CurrencySymbolTable symbols = CurrencySymbolTable.getInstance();
+        String[] strings = new String[checkCount(buffer.getInt(), length)];
+        byte[] utf8 = new byte[256];
+        for (int i = 0; i < strings.length; i++) {
+            int size = buffer.getShort() & 0xFFFF;
+            if (size > utf8.length) {
+                utf8 = new byte[size];
+            }
+            buffer.get(utf8, 0, size);
+            strings[i] = new String(utf8, 0, size, StandardCharsets.UTF_8);
+        }
+
+        int count = checkCount(buffer.getInt(), length);
+        List<CurrencyRate> rates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CurrencyRate rate = new CurrencyRate();
+            int baseCode = buffer.getInt();
+            int targetCode = buffer.getInt();
+            if (baseCode >= 0) {
+                rate.setBaseCode(baseCode);
+            } else {
+                rate.setBaseCode(symbols.intern(string(strings, -2 - baseCode)));
+            }
+            if (targetCode >= 0) {
+                rate.setTargetCode(targetCode);
+            } else {
+                rate.setTargetCode(symbols.intern(string(strings, -2 - targetCode)));
+            }
+            // Same shared instances as freshly parsed rates
+            rate.setTitle(symbols.intern(string(strings, buffer.getInt())));
+            rate.setBaseCurrency(symbols.intern(string(strings, buffer.getInt())));
+            rate.setTargetCurrency(symbols.intern(string(strings, buffer.getInt())));
+            rate.setLink(string(strings, buffer.getInt()));
+            rate.setPubDate(string(strings, buffer.getInt()));
+            rate.setDescription(string(strings, buffer.getInt()));
+
+            double value = buffer.getDouble();
+            long unscaled = buffer.getLong();
+            int scale = buffer.get();
+            if (scale >= 0) {
+                rate.setExactRate(unscaled, scale, value);
+            } else {
+                rate.setRate(value);
+            }
+            rates.add(rate);
+        }
+        if (buffer.position() != length - 4) {
+            throw new BufferUnderflowException();
+        }
+        return new Contents(rates, savedAtMs);
+    }
+
+    private static int codeRef(int packed, String code, Map<String, Integer> index, List<String> strings) {
+        if (packed != CurrencyCode.NONE) {
+            return packed;
+        }
+        int ref = stringRef(code, index, strings);
+        return ref >= 0 ? -2 - ref : CurrencyCode.NONE;
+    }
+
+    private static int stringRef(String s, Map<String, Integer> index, List<String> strings) {
+        if (s == null) {
+            return -1;
+        }
+        Integer ref = index.get(s);
+        if (ref == null) {
+            ref = strings.size();
+            strings.add(s);
+            index.put(s, ref);
+        }
+        return ref;
+    }
+
+    private static String string(String[] strings, int ref) {
+        return ref >= 0 ? strings[ref] : null;
+    }
+
+    private static int checkCount(int count, int length) {
+        if (count < 0 || count > length) {
+            throw new IllegalArgumentException("Bad count " + count);
+        }
+        return count;
+    }
+}
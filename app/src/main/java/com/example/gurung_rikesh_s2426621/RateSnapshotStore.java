@@ -0,0 +1,119 @@
+package com.example.gurung_rikesh_s2426621;
+
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import java.util.List;
+
+/**
+ * Process-wide holder of the latest RateSnapshot, shared by every screen
+ *
+ * Screens refer to a rate by its pair key ("GBP/USD") and look it up here, instead of
+ * passing CurrencyRate objects around in Bundles. A lookup always returns the rate of the
+ * latest refresh, and a screen recreated after process death simply resolves its key once
+ * the first result (from the feed cache or the network) has been published.
+ *
+ * The repository publishes each result as it completes; publishing the same List again
+ * returns the snapshot already built for it.
+ */
+public final class RateSnapshotStore {
+
+    private static volatile RateSnapshotStore instance;
+
+    private final MutableLiveData<RateSnapshot> snapshots = new MutableLiveData<>();
+
+    // Latest snapshot and the List it was built from, replaced together under the lock
+    private volatile RateSnapshot snapshot = RateSnapshot.EMPTY;
+    private List<CurrencyRate> source;
+
+    private RateSnapshotStore() {
+    }
+
+    /**
+     * Thread-safe singleton accessor using double-checked locking
+     */
+    public static RateSnapshotStore getInstance() {
+        if (instance == null) {
+            synchronized (RateSnapshotStore.class) {
+                if (instance == null) {
+                    instance = new RateSnapshotStore();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Makes a result the current snapshot and notifies observers
+     * May be called from any thread
+     * @return The snapshot of these rates (built once per List)
+     */
+    public RateSnapshot publish(List<CurrencyRate> rates) {
+        return publish(rates, true);
+    }
+
+    /**
+     * Publishes rates only if nothing has been published yet (e.g. rates saved on disk,
+     * which must not replace a result that arrived first)
+     * @return The published snapshot, or null if the store already had one
+     */
+    public RateSnapshot publishIfEmpty(List<CurrencyRate> rates) {
+        return publish(rates, false);
+    }
+
+    private RateSnapshot publish(List<CurrencyRate> rates, boolean replace) {
+        RateSnapshot published;
+        synchronized (this) {
+            if (rates == source) {
+                return snapshot;
+            }
+            if (!replace && source != null) {
+                return null;
+            }
+            published = RateSnapshot.of(rates);
+            source = rates;
+            snapshot = published;
+            // Notified under the lock: the last snapshot posted is always the current one
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                snapshots.setValue(published);
+            } else {
+                snapshots.postValue(published);
+            }
+        }
+        return published;
+    }
+
+    /**
+     * The latest snapshot (EMPTY until the first result)
+     */
+    public RateSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * The latest snapshot, observable; no value until the first result
+     */
+    public LiveData<RateSnapshot> getSnapshots() {
+        return snapshots;
+    }
+
+    /**
+     * The current rate of a pair, e.g. find("GBP/USD"), or null if the pair is not loaded
+     */
+    public CurrencyRate find(String pairKey) {
+        return find(snapshot, pairKey);
+    }
+
+    /**
+     * The rate of a pair in a given snapshot, or null
+     */
+    public static CurrencyRate find(RateSnapshot snapshot, String pairKey) {
+        if (snapshot == null) {
+            return null;
+        }
+        int row = snapshot.indexOfPair(pairKey);
+        return row >= 0 ? snapshot.getRow(row) : null;
+    }
+}
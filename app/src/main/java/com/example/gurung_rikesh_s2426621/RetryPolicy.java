@@ -0,0 +1,62 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.util.Random;
+
+/**
+ * Bounded retry policy with exponential backoff and "full jitter"
+ *
+ * Delay before retry n (1-based) is a random value in [0, min(maxDelay, baseDelay * 2^(n-1))].
+ * Randomising the whole delay spreads retries from many devices apart, so a recovering
+ * server is not hit by synchronized bursts.
+ */
+public class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final Random random;
+
+    /**
+     * @param maxAttempts Total attempts including the first one (>= 1)
+     * @param baseDelayMs Backoff ceiling before the first retry
+     * @param maxDelayMs Upper bound for any single backoff
+     */
+    public RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs) {
+        this(maxAttempts, baseDelayMs, maxDelayMs, new Random());
+    }
+
+    RetryPolicy(int maxAttempts, long baseDelayMs, long maxDelayMs, Random random) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.random = random;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Backoff to wait before the given retry
+     * @param retry 1 for the first retry, 2 for the second, ...
+     * @return Delay in milliseconds
+     */
+    public long backoffMs(int retry) {
+        int shift = Math.min(retry - 1, 30); // Avoid overflow for silly retry counts
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << shift);
+        synchronized (random) {
+            return (long) (random.nextDouble() * ceiling);
+        }
+    }
+
+    /**
+     * Whether a failed fetch is worth retrying (and counts against the host's circuit breaker)
+     * Network errors (code 0), 5xx and 429 are transient; other 4xx will not fix themselves
+     */
+    public static boolean isRetryable(int responseCode) {
+        return responseCode == 0 || responseCode == 429 || responseCode >= 500;
+    }
+}
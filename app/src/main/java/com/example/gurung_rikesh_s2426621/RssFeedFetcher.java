@@ -1,23 +1,155 @@
 package com.example.gurung_rikesh_s2426621;
 
-import android.util.Log;
-
-import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
 
 /**
  * Handles network operations to fetch RSS feed data
  * This class performs blocking I/O operations and should only be called from worker threads
+ *
+ * When constructed with a FeedCache, requests are conditional:
+ * - A cache entry still within its Cache-Control max-age is reused without touching the network
+ * - Otherwise If-None-Match / If-Modified-Since are sent, and a 304 reuses the cached body
+ *
+ * Responses are requested with gzip/deflate compression and decoded while streaming.
  */
 public class RssFeedFetcher {
 
     private static final String TAG = "RssFeedFetcher";
     private static final int TIMEOUT_MS = 10000; // 10 second timeout
 
+    /**
+     * Outcome of a single fetch
+     */
+    public static final class FetchResult {
+        public static final int STATUS_OK = 0;            // New body downloaded
+        public static final int STATUS_NOT_MODIFIED = 1;  // Cached copy is still current
+        public static final int STATUS_ERROR = 2;         // Network or HTTP error
+
+        public final int status;
+        public final String body;
+        public final int responseCode;
+        public final long compressedBytes; // Bytes received over the wire
+        public final long decodedBytes;    // Bytes after gzip/deflate decoding
+
+        private FetchResult(int status, String body, int responseCode,
+                            long compressedBytes, long decodedBytes) {
+            this.status = status;
+            this.body = body;
+            this.responseCode = responseCode;
+            this.compressedBytes = compressedBytes;
+            this.decodedBytes = decodedBytes;
+        }
+
+        static FetchResult ok(String body, int responseCode, long compressedBytes, long decodedBytes) {
+            return new FetchResult(STATUS_OK, body, responseCode, compressedBytes, decodedBytes);
+        }
+
+        static FetchResult notModified(int responseCode) {
+            return new FetchResult(STATUS_NOT_MODIFIED, null, responseCode, 0, 0);
+        }
+
+        static FetchResult error(int responseCode) {
+            return new FetchResult(STATUS_ERROR, null, responseCode, 0, 0);
+        }
+    }
+
+    /**
+     * Consumer of a streamed response body
+     * Called on the fetching thread while the connection is still open
+     */
+    public interface BodyHandler {
+        /**
+         * @param body          Decoded character stream of the response
+         * @param contentLength Content-Length as sent, -1 if not given; for a gzip/deflate body
+         *                      this is the compressed size, so the document is at least as long
+         */
+        void handleBody(Reader body, long contentLength) throws IOException;
+    }
+
+    /**
+     * Collects the body into a String for callers that want the whole document
+     */
+    private static final class BufferingHandler implements BodyHandler {
+        String body;
+
+        @Override
+        public void handleBody(Reader reader, long contentLength) throws IOException {
+            body = readFully(reader);
+        }
+    }
+
+    /**
+     * Copies every byte read from the wrapped stream into a side output (the cache file)
+     */
+    private static final class TeeInputStream extends FilterInputStream {
+        private final OutputStream copy;
+
+        TeeInputStream(InputStream in, OutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                copy.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                copy.write(buffer, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Route skips through read() so the copy stays complete
+            byte[] scratch = new byte[(int) Math.min(n, 8192)];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(scratch, 0, (int) Math.min(scratch.length, n - skipped));
+                if (read == -1) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+
+    private final FeedCache cache;
+    private final FeedHttpClient httpClient = FeedHttpClient.getInstance();
+
+    public RssFeedFetcher() {
+        this(null);
+    }
+
+    /**
+     * @param cache On-disk response cache, or null to always download the full feed
+     */
+    public RssFeedFetcher(FeedCache cache) {
+        this.cache = cache;
+    }
+
     /**
      * Downloads RSS feed data from the given URL
      * This is a blocking operation - must be called from a worker thread!
@@ -26,59 +158,232 @@ public class RssFeedFetcher {
      * @return XML string data from the RSS feed, or null if error occurs
      */
     public String fetchRssFeed(String urlString) {
+        FetchResult result = fetch(urlString);
+
+        if (result.status == FetchResult.STATUS_OK) {
+            return result.body;
+        } else if (result.status == FetchResult.STATUS_NOT_MODIFIED && cache != null) {
+            FeedCache.Entry entry = cache.get(urlString);
+            return entry != null ? cache.readBody(entry) : null;
+        }
+        return null;
+    }
+
+    /**
+     * Fetches the feed, using the cache validators when available
+     * This is a blocking operation - must be called from a worker thread!
+     *
+     * @param urlString The URL of the RSS feed to fetch
+     * @return FetchResult describing whether new data was downloaded
+     */
+    public FetchResult fetch(String urlString) {
+        BufferingHandler buffer = new BufferingHandler();
+        FetchResult result = fetch(urlString, buffer);
+        if (result.status != FetchResult.STATUS_OK) {
+            return result;
+        }
+        return FetchResult.ok(buffer.body, result.responseCode, result.compressedBytes, result.decodedBytes);
+    }
+
+    /**
+     * Fetches the feed and hands the decoded body to the handler while it is still streaming
+     * No copy of the document is kept in memory; the cache copy is written to disk as it passes.
+     * The handler is not called for 304 / fresh cache hits or HTTP errors.
+     * This is a blocking operation - must be called from a worker thread!
+     *
+     * @param urlString The URL of the RSS feed to fetch
+     * @param handler Consumer of the response body (e.g. a parser)
+     * @return FetchResult describing whether new data was processed (body is always null)
+     */
+    public FetchResult fetch(String urlString, BodyHandler handler) {
+        FeedCache.Entry cached = cache != null ? cache.get(urlString) : null;
+
+        // Still within max-age: no need to ask the server at all
+        if (cached != null && cached.isFresh(System.currentTimeMillis())) {
+            FxLog.d(TAG, "Cached feed still fresh, skipping request: ", urlString);
+            return FetchResult.notModified(0);
+        }
+
         HttpURLConnection connection = null;
-        BufferedReader reader = null;
-        StringBuilder result = new StringBuilder();
+        Reader reader = null;
+        FeedCache.PendingBody cacheOut = null;
+        boolean reusable = false;
 
         try {
-            Log.d(TAG, "Starting RSS feed download from: " + urlString);
+            FxLog.d(TAG, "Starting RSS feed download from: ", urlString);
+
+            // Open a connection through the shared client (reuses pooled keep-alive sockets)
+            connection = httpClient.open(urlString, TIMEOUT_MS);
 
-            // Create URL and open connection
-            URL url = new URL(urlString);
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(TIMEOUT_MS);
-            connection.setReadTimeout(TIMEOUT_MS);
-            connection.setRequestProperty("User-Agent", "FXMate/1.0");
+            // Conditional request headers from the last cached response
+            if (cached != null) {
+                if (cached.etag != null) {
+                    connection.setRequestProperty("If-None-Match", cached.etag);
+                }
+                if (cached.lastModified != null) {
+                    connection.setRequestProperty("If-Modified-Since", cached.lastModified);
+                }
+            }
 
             // Connect and check response code
             connection.connect();
             int responseCode = connection.getResponseCode();
 
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                // Read the response
-                InputStream inputStream = connection.getInputStream();
-                reader = new BufferedReader(new InputStreamReader(inputStream));
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                FxLog.d(TAG, "Feed not modified (304): ", urlString);
+                cache.refresh(urlString,
+                        connection.getHeaderField("ETag"),
+                        connection.getHeaderField("Last-Modified"),
+                        computeExpiry(connection));
+                reusable = true;
+                return FetchResult.notModified(responseCode);
 
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    result.append(line).append("\n");
+            } else if (responseCode == HttpURLConnection.HTTP_OK) {
+                // Read the response, counting bytes on both sides of the decoder
+                CountingInputStream wireCounter = new CountingInputStream(connection.getInputStream());
+                CountingInputStream bodyCounter = new CountingInputStream(
+                        ContentEncoding.decode(wireCounter, connection.getContentEncoding()));
+
+                // Copy the decoded bytes to the cache as they are consumed
+                InputStream body = bodyCounter;
+                if (isCacheable(urlString, connection)) {
+                    cacheOut = cache.beginBody(urlString);
+                    body = new TeeInputStream(bodyCounter, cacheOut);
                 }
 
-                Log.d(TAG, "Successfully downloaded RSS feed (" + result.length() + " characters)");
-                return result.toString();
+                reader = new InputStreamReader(body, StandardCharsets.UTF_8);
+                handler.handleBody(reader, connection.getContentLengthLong());
+                drain(reader); // Handler may stop before EOF; the cache needs the whole body
+
+                if (FxLog.DEBUG_ENABLED) {
+                    final String encoding = connection.getContentEncoding();
+                    FxLog.d(TAG, () -> "Successfully downloaded RSS feed (" + wireCounter.getCount()
+                            + " bytes transferred, " + bodyCounter.getCount() + " bytes decoded, encoding: "
+                            + encoding + ")");
+                }
+
+                if (cacheOut != null) {
+                    cacheOut.close();
+                    FeedCache.PendingBody finished = cacheOut;
+                    cacheOut = null;
+                    cache.commitBody(urlString, finished,
+                            connection.getHeaderField("ETag"),
+                            connection.getHeaderField("Last-Modified"),
+                            computeExpiry(connection));
+                }
+                reusable = true;
+                return FetchResult.ok(null, responseCode, wireCounter.getCount(), bodyCounter.getCount());
 
             } else {
-                Log.e(TAG, "HTTP error: " + responseCode + " " + connection.getResponseMessage());
-                return null;
+                FxLog.e(TAG, "HTTP error: ", responseCode, " ", connection.getResponseMessage());
+                reusable = true; // Error body is drained by the client, the socket stays usable
+                return FetchResult.error(responseCode);
             }
 
         } catch (IOException e) {
-            Log.e(TAG, "Network error fetching RSS feed: " + e.getMessage(), e);
-            return null;
+            FxLog.e(TAG, "Network error fetching RSS feed: ", e.getMessage(), e);
+            return FetchResult.error(0);
 
         } finally {
             // Clean up resources
+            if (cacheOut != null) {
+                // Download failed part-way: never publish a truncated body
+                try {
+                    cacheOut.close();
+                } catch (IOException e) {
+                    FxLog.e(TAG, "Error closing cache file", e);
+                }
+                cache.abortBody(cacheOut);
+            }
             if (reader != null) {
                 try {
                     reader.close();
                 } catch (IOException e) {
-                    Log.e(TAG, "Error closing reader", e);
+                    FxLog.e(TAG, "Error closing reader", e);
                 }
             }
-            if (connection != null) {
-                connection.disconnect();
+            // Keep the socket alive for the next refresh unless the exchange broke off
+            if (reusable) {
+                httpClient.release(connection);
+            } else {
+                httpClient.discard(connection);
+            }
+        }
+    }
+
+    /**
+     * Reads and discards whatever is left of a character stream
+     */
+    private static void drain(Reader reader) throws IOException {
+        char[] buffer = new char[8192];
+        while (reader.read(buffer) != -1) {
+            // Discard
+        }
+    }
+
+    /**
+     * Reads a whole character stream in fixed-size chunks
+     * Unlike readLine() this keeps the original line endings and avoids one String per line
+     */
+    private static String readFully(Reader reader) throws IOException {
+        StringBuilder result = new StringBuilder(16 * 1024);
+        char[] buffer = new char[8192];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            result.append(buffer, 0, read);
+        }
+        return result.toString();
+    }
+
+    /**
+     * A 200 response is cached unless there is no cache or the server sent no-store
+     */
+    private boolean isCacheable(String urlString, HttpURLConnection connection) {
+        if (cache == null) {
+            return false;
+        }
+        if (isNoStore(connection.getHeaderField("Cache-Control"))) {
+            cache.remove(urlString);
+            return false;
+        }
+        return true;
+    }
+
+    private static long computeExpiry(HttpURLConnection connection) {
+        return computeExpiry(connection.getHeaderField("Cache-Control"),
+                connection.getExpiration(), System.currentTimeMillis());
+    }
+
+    /**
+     * Whether a Cache-Control header forbids storing the response
+     */
+    static boolean isNoStore(String cacheControl) {
+        return cacheControl != null && cacheControl.toLowerCase(Locale.US).contains("no-store");
+    }
+
+    /**
+     * Works out when the response stops being fresh
+     * Cache-Control max-age wins over Expires; no-cache means "always revalidate"
+     * @param expiresMs Expires header as epoch millis (0 if absent)
+     * @return Expiry time in epoch millis (0 = already stale)
+     */
+    static long computeExpiry(String cacheControl, long expiresMs, long nowMs) {
+        if (cacheControl != null) {
+            for (String directive : cacheControl.toLowerCase(Locale.US).split(",")) {
+                directive = directive.trim();
+                if (directive.equals("no-cache")) {
+                    return 0L;
+                }
+                if (directive.startsWith("max-age=")) {
+                    try {
+                        long maxAgeSeconds = Long.parseLong(directive.substring(8).trim());
+                        return nowMs + maxAgeSeconds * 1000L;
+                    } catch (NumberFormatException e) {
+                        FxLog.w(TAG, "Ignoring malformed max-age: ", directive);
+                    }
+                }
             }
         }
+        return expiresMs > nowMs ? expiresMs : 0L;
     }
 }
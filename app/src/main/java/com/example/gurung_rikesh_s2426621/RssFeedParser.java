@@ -1,32 +1,31 @@
 package com.example.gurung_rikesh_s2426621;
 
-import android.util.Log;
-
 import com.example.gurung_rikesh_s2426621.CurrencyRate;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
-import org.xmlpull.v1.XmlPullParserFactory;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Parser for RSS feed containing currency exchange rates
  * Extracted from CurrencyRepository for better separation of concerns
+ * This is the PULL strategy of FeedParser
  */
-public class RssFeedParser {
+public class RssFeedParser implements FeedParser {
 
     private static final String TAG = "RssFeedParser";
 
-    // Pattern to extract currency codes from title: "British Pound Sterling(GBP)/United Arab Emirates Dirham(AED)"
-    private static final Pattern TITLE_PATTERN = Pattern.compile("([^(]+)\\(([A-Z]{3})\\)/([^(]+)\\(([A-Z]{3})\\)");
+    // Canonical name / code / title instances shared by every parse
+    private final CurrencySymbolTable symbols = CurrencySymbolTable.getInstance();
 
-    // Pattern to extract rate from description: "1 British Pound Sterling = 4.9354 United Arab Emirates Dirham"
-    private static final Pattern RATE_PATTERN = Pattern.compile("1\\s+[^=]+=\\s+([0-9.]+)");
+    @Override
+    public String getName() {
+        return "RssFeedParser";
+    }
 
     /**
      * Parses XML data containing currency exchange rates using PullParser approach
@@ -34,22 +33,59 @@ public class RssFeedParser {
      * @return List of parsed CurrencyRate objects
      */
     public List<CurrencyRate> parse(String dataToParse) {
-        // Sanitize XML to handle malformed entities (e.g., unescaped & characters)
-        dataToParse = sanitizeXml(dataToParse);
+        if (dataToParse == null || dataToParse.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return parse(new StringReader(dataToParse));
+    }
 
+    /**
+     * Parses a streamed RSS document without holding it in memory
+     * The caller owns the reader and is responsible for closing it
+     * @param reader Character stream of the RSS feed (e.g. straight from the network)
+     * @return List of parsed CurrencyRate objects
+     */
+    @Override
+    public List<CurrencyRate> parse(Reader reader) {
+        List<CurrencyRate> results = new ArrayList<>();
+        parse(reader, results);
+        return results;
+    }
+
+    /**
+     * Full parse for the snapshot: every item counts as changed
+     * A document that failed part-way leaves the snapshot as it was
+     */
+    @Override
+    public List<CurrencyRate> parse(Reader reader, ItemSnapshot snapshot) {
         List<CurrencyRate> results = new ArrayList<>();
+        boolean complete = parse(reader, results);
+        synchronized (snapshot) {
+            if (complete) {
+                snapshot.recordFullParse(results.size());
+            } else {
+                snapshot.abandon();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Parses the document into results
+     * @return true if the parser reached the end of the document without an error
+     */
+    private boolean parse(Reader reader, List<CurrencyRate> results) {
+        boolean complete = false;
         CurrencyRate current = null;
         String currentText = null;
+        XmlPullParser xpp = null;
+        RateDecoder rateDecoder = new RateDecoder(); // Reused for every item of this document
 
         try {
-            XmlPullParserFactory factory = XmlPullParserFactory.newInstance();
-            factory.setNamespaceAware(true);
-
-            // Enable relaxed mode to handle malformed XML
-            factory.setFeature("http://xmlpull.org/v1/doc/features.html#relaxed", true);
-
-            XmlPullParser xpp = factory.newPullParser();
-            xpp.setInput(new StringReader(dataToParse));
+            // Reuse this thread's namespace-aware parser, relaxed mode to handle malformed XML
+            // Stray '&' characters are escaped on the fly instead of rewriting the whole document
+            xpp = ParserContext.obtain(ParserContext.NAMESPACE_AWARE | ParserContext.RELAXED,
+                    new XmlAmpersandFilterReader(reader));
 
             int eventType = xpp.getEventType();
             while (eventType != XmlPullParser.END_DOCUMENT) {
@@ -59,7 +95,7 @@ public class RssFeedParser {
 
                         if ("item".equalsIgnoreCase(name)) {
                             current = new CurrencyRate();
-                            Log.d(TAG, "New Currency Rate item found!");
+                            FxLog.d(TAG, "New Currency Rate item found!");
                         }
                         break;
                     }
@@ -74,30 +110,30 @@ public class RssFeedParser {
 
                         if (current != null) {
                             if ("title".equalsIgnoreCase(name)) {
-                                String title = safe(currentText);
+                                String title = symbols.intern(safe(currentText));
                                 current.setTitle(title);
                                 parseTitle(current, title);
-                                Log.d(TAG, "Title is " + title);
+                                FxLog.d(TAG, "Title is ", title);
                             } else if ("link".equalsIgnoreCase(name)) {
                                 String link = safe(currentText);
                                 current.setLink(link);
-                                Log.d(TAG, "Link is " + link);
+                                FxLog.d(TAG, "Link is ", link);
                             } else if ("pubDate".equalsIgnoreCase(name)) {
                                 String pubDate = safe(currentText);
                                 current.setPubDate(pubDate);
-                                Log.d(TAG, "PubDate is " + pubDate);
+                                FxLog.d(TAG, "PubDate is ", pubDate);
                             } else if ("description".equalsIgnoreCase(name)) {
                                 String description = safe(currentText);
                                 current.setDescription(description);
-                                parseRate(current, description);
-                                Log.d(TAG, "Description is " + description);
+                                parseRate(current, description, rateDecoder);
+                                FxLog.d(TAG, "Description is ", description);
                             } else if ("item".equalsIgnoreCase(name)) {
                                 // Only add valid entries with proper currency codes
                                 if (isValidCurrencyRate(current)) {
                                     results.add(current);
-                                    Log.d(TAG, "Currency Rate parsing completed: " + current.toString());
+                                    FxLog.d(TAG, "Currency Rate parsing completed: ", current);
                                 } else {
-                                    Log.w(TAG, "Skipping invalid currency rate entry: " + current.getTitle());
+                                    FxLog.w(TAG, "Skipping invalid currency rate entry: ", current.getTitle());
                                 }
                                 current = null;
                             }
@@ -108,13 +144,39 @@ public class RssFeedParser {
 
                 eventType = xpp.next();
             }
+            complete = true;
         } catch (XmlPullParserException e) {
-            Log.e(TAG, "Parsing error: " + e, e);
+            FxLog.e(TAG, "Parsing error: ", e, e);
         } catch (IOException e) {
-            Log.e(TAG, "IO error during parsing", e);
+            FxLog.e(TAG, "IO error during parsing", e);
+        } finally {
+            ParserContext.release(xpp);
         }
 
-        return results;
+        return complete;
+    }
+
+    /**
+     * Builds a CurrencyRate from the text fields of an item parsed by another parser
+     * Names and codes come from the title as in parse(); the rate is decoded when a decoder is given
+     * @return The rate, or null if the title holds no valid currency codes
+     */
+    CurrencyRate toCurrencyRate(String title, String link, String pubDate, String description,
+                                RateDecoder rateDecoder) {
+        CurrencyRate rate = new CurrencyRate();
+        String trimmedTitle = symbols.intern(safe(title));
+        rate.setTitle(trimmedTitle);
+        parseTitle(rate, trimmedTitle);
+        if (!isValidCurrencyRate(rate)) {
+            return null;
+        }
+        rate.setLink(link);
+        rate.setPubDate(pubDate);
+        rate.setDescription(description);
+        if (rateDecoder != null && description != null) {
+            parseRate(rate, description, rateDecoder);
+        }
+        return rate;
     }
 
     /**
@@ -137,53 +199,83 @@ public class RssFeedParser {
     /**
      * Extract currency names and codes from title
      * Example: "British Pound Sterling(GBP)/United Arab Emirates Dirham(AED)"
+     *
+     * Matches like the pattern ([^(]+)\(([A-Z]{3})\)/([^(]+)\(([A-Z]{3})\), trying each '(' in
+     * turn as the base code's bracket, and resolves every part through the symbol table
+     * straight from the title's chars (no substring for names already known).
      */
     private void parseTitle(CurrencyRate rate, String title) {
-        Matcher m = TITLE_PATTERN.matcher(title);
-        if (m.find()) {
-            rate.setBaseCurrency(safe(m.group(1)));
-            rate.setBaseCode(safe(m.group(2)));
-            rate.setTargetCurrency(safe(m.group(3)));
-            rate.setTargetCode(safe(m.group(4)));
-        } else {
-            Log.w(TAG, "Could not parse currencies from title: " + title);
+        int length = title.length();
+        int segmentStart = 0;
+        for (int baseOpen = title.indexOf('('); baseOpen >= 0;
+             segmentStart = baseOpen + 1, baseOpen = title.indexOf('(', baseOpen + 1)) {
+            // "Base Name(BBB)/"
+            if (baseOpen == segmentStart || !isCodeAt(title, baseOpen + 1)
+                    || baseOpen + 5 >= length || title.charAt(baseOpen + 4) != ')'
+                    || title.charAt(baseOpen + 5) != '/') {
+                continue;
+            }
+
+            // "Target Name(TTT)"
+            int targetStart = baseOpen + 6;
+            int targetOpen = title.indexOf('(', targetStart);
+            if (targetOpen <= targetStart || !isCodeAt(title, targetOpen + 1)
+                    || targetOpen + 4 >= length || title.charAt(targetOpen + 4) != ')') {
+                continue;
+            }
+
+            rate.setBaseCurrency(internTrimmed(title, segmentStart, baseOpen));
+            rate.setBaseCode(CurrencyCode.pack(title, baseOpen + 1));
+            rate.setTargetCurrency(internTrimmed(title, targetStart, targetOpen));
+            rate.setTargetCode(CurrencyCode.pack(title, targetOpen + 1));
+            return;
         }
+        FxLog.w(TAG, "Could not parse currencies from title: ", title);
     }
 
     /**
-     * Extract exchange rate from description
-     * Example: "1 British Pound Sterling = 4.9354 United Arab Emirates Dirham"
+     * Shared instance of text[start, end) with surrounding whitespace removed (as trim())
      */
-    private void parseRate(CurrencyRate rate, String description) {
-        Matcher m = RATE_PATTERN.matcher(description);
-        if (m.find()) {
-            rate.setRate(parseDoubleSafe(m.group(1)));
-        } else {
-            Log.w(TAG, "Could not parse rate from description: " + description);
+    private String internTrimmed(String text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
         }
+        return symbols.intern(text, start, end);
     }
 
     /**
-     * Sanitizes XML data to handle common malformed entities
+     * Three upper-case letters starting at index
      */
-    private String sanitizeXml(String xml) {
-        if (xml == null || xml.isEmpty()) {
-            return xml;
+    private static boolean isCodeAt(String text, int index) {
+        if (index + 3 > text.length()) {
+            return false;
         }
+        for (int i = index; i < index + 3; i++) {
+            char c = text.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        // Replace unescaped & characters (but preserve valid XML entities)
-        return xml.replaceAll("&(?!(amp|lt|gt|quot|apos|#\\d+|#x[0-9a-fA-F]+);)", "&amp;");
+    /**
+     * Extract exchange rate from description
+     * Example: "1 British Pound Sterling = 4.9354 United Arab Emirates Dirham"
+     */
+    private void parseRate(CurrencyRate rate, String description, RateDecoder decoder) {
+        if (decoder.decode(description)) {
+            decoder.applyTo(rate);
+        } else {
+            rate.setRate(0.0);
+            FxLog.w(TAG, "Could not parse rate from description: ", description);
+        }
     }
 
     private static String safe(String s) {
         return s == null ? "" : s.trim();
     }
-
-    private static double parseDoubleSafe(String s) {
-        try {
-            return Double.parseDouble(s.trim());
-        } catch (Exception e) {
-            return 0.0;
-        }
-    }
 }
@@ -3,12 +3,14 @@ package com.example.gurung_rikesh_s2426621;
 import android.util.Log;
 
 import org.xmlpull.v1.XmlPullParser;
-import org.xmlpull.v1.XmlPullParserFactory;
 
 import java.io.BufferedInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 
 /**
@@ -44,20 +46,17 @@ public class RssManage {
 
     /**
      * Fetch RSS feed from URL and return XML InputStream
+     * The connection comes from the shared FeedHttpClient so its socket can be reused
      */
-    private static InputStream fetchRss(String urlString) {
+    private static InputStream fetchRss(HttpURLConnection connection) {
         try {
-            Log.d(TAG, "Fetching RSS: " + urlString);
+            FxLog.d(TAG, "Fetching RSS: ", connection.getURL());
 
-            URL url = new URL(urlString);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-
-            connection.setRequestMethod("GET");
-            connection.setReadTimeout(15000);
-            connection.setConnectTimeout(15000);
             connection.connect();
 
-            return new BufferedInputStream(connection.getInputStream());
+            // Decode gzip/deflate on the fly; the parser reads the decoded stream directly
+            InputStream raw = new BufferedInputStream(connection.getInputStream());
+            return ContentEncoding.decode(raw, connection.getContentEncoding());
 
         } catch (Exception e) {
             Log.e(TAG, "Error fetching feed: ", e);
@@ -69,22 +68,27 @@ public class RssManage {
      * Parse RSS feed InputStream into list of FeedItem objects
      */
     private static ArrayList<FeedItem> parseRss(InputStream inputStream) {
-        ArrayList<FeedItem> items = new ArrayList<>();
-
         if (inputStream == null) {
             Log.e(TAG, "Cannot parse: inputStream is null");
-            return items;
+            return new ArrayList<>();
         }
+        return parseRss(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse an RSS character stream into list of FeedItem objects
+     * Also used by RssManageFeedParser; the caller closes the reader
+     */
+    static ArrayList<FeedItem> parseRss(Reader reader) {
+        ArrayList<FeedItem> items = new ArrayList<>();
 
+        XmlPullParser parser = null;
         try {
             String text = "";
             FeedItem currentItem = null;
 
-            XmlPullParserFactory factory = XmlPullParserFactory.newInstance();
-            factory.setNamespaceAware(false);
-
-            XmlPullParser parser = factory.newPullParser();
-            parser.setInput(inputStream, "UTF-8");
+            // Cached per-thread parser; stray '&' escaped while reading
+            parser = ParserContext.obtain(0, new XmlAmpersandFilterReader(reader));
 
             int eventType = parser.getEventType();
 
@@ -132,6 +136,8 @@ public class RssManage {
 
         } catch (Exception e) {
             Log.e(TAG, "Error parsing RSS: ", e);
+        } finally {
+            ParserContext.release(parser);
         }
 
         return items;
@@ -141,7 +147,31 @@ public class RssManage {
      * Public method to fetch + parse in one call
      */
     public static ArrayList<FeedItem> getFeed(String url) {
-        InputStream stream = fetchRss(url);
-        return parseRss(stream);
+        FeedHttpClient client = FeedHttpClient.getInstance();
+        HttpURLConnection connection;
+        try {
+            connection = client.open(url, 15000);
+        } catch (IOException e) {
+            Log.e(TAG, "Error opening connection: ", e);
+            return new ArrayList<>();
+        }
+
+        InputStream stream = fetchRss(connection);
+        if (stream == null) {
+            // The request failed: the socket may be broken, never return it to the pool
+            client.discard(connection);
+            return new ArrayList<>();
+        }
+        try {
+            return parseRss(stream);
+        } finally {
+            // Close the stream and hand the socket back to the keep-alive pool
+            try {
+                stream.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Error closing feed stream", e);
+            }
+            client.release(connection);
+        }
     }
 }
@@ -0,0 +1,40 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FeedParser strategy backed by RssManage's parser
+ * Each FeedItem is converted to a CurrencyRate (names and codes from the title,
+ * rate decoded from the description).
+ */
+public class RssManageFeedParser implements FeedParser {
+
+    // Shared title handling (symbol table, validation)
+    private final RssFeedParser converter = new RssFeedParser();
+
+    @Override
+    public String getName() {
+        return "RssManage";
+    }
+
+    @Override
+    public List<CurrencyRate> parse(Reader reader) {
+        List<RssManage.FeedItem> items = RssManage.parseRss(reader);
+        List<CurrencyRate> rates = new ArrayList<>(items.size());
+        RateDecoder rateDecoder = new RateDecoder(); // Reused for every item
+        for (RssManage.FeedItem item : items) {
+            CurrencyRate rate = converter.toCurrencyRate(safe(item.title), safe(item.link),
+                    safe(item.pubDate), safe(item.description), rateDecoder);
+            if (rate != null) {
+                rates.add(rate);
+            }
+        }
+        return rates;
+    }
+
+    private static String safe(String s) {
+        return s == null ? "" : s.trim();
+    }
+}
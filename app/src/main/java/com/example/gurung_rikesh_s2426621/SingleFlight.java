@@ -0,0 +1,53 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bookkeeping for coalescing identical requests ("single-flight")
+ *
+ * The first caller to join a key leads the flight and starts the work; callers joining
+ * while it runs are only queued. complete() ends the flight and hands back everyone who
+ * joined, so the one result can be delivered to all of them. A caller joining after
+ * complete() leads a new flight.
+ *
+ * @param <W> Type of the waiting callers (e.g. a callback interface)
+ */
+final class SingleFlight<W> {
+
+    private final Map<String, List<W>> flights = new HashMap<>();
+
+    /**
+     * Adds a caller to the flight for a key, starting the flight if there is none
+     * @return true if the caller leads the flight and must start the work
+     */
+    synchronized boolean join(String key, W waiter) {
+        List<W> waiters = flights.get(key);
+        if (waiters != null) {
+            waiters.add(waiter);
+            return false;
+        }
+        waiters = new ArrayList<>();
+        waiters.add(waiter);
+        flights.put(key, waiters);
+        return true;
+    }
+
+    /**
+     * Ends the flight for a key
+     * @return Every caller that joined it, leader first, or null if no flight was running
+     */
+    synchronized List<W> complete(String key) {
+        return flights.remove(key);
+    }
+
+    /**
+     * Callers currently waiting on the flight for a key
+     */
+    synchronized int waiting(String key) {
+        List<W> waiters = flights.get(key);
+        return waiters != null ? waiters.size() : 0;
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides how long to wait before the next automatic refresh
+ *
+ * Instead of polling on a fixed timer, the interval adapts to what the feed is doing:
+ * - The feed did not change (304 / fresh cache / identical rates): the interval grows
+ * - Rates moved: the interval shrinks, so fast-moving periods are followed closely
+ * - The items' pubDate shows how often the feed is republished; once that period is
+ *   known, the next refresh is timed for just after the expected next publication
+ *   rather than polling blindly in between
+ *
+ * The interval always stays within [minIntervalMs, maxIntervalMs].
+ * Not thread-safe: call from the main thread only (the ViewModel's callbacks).
+ * Each call is kept cheap for that thread: items sharing a pubDate (the usual case) are
+ * parsed once, the comparison maps are reused between refreshes, and debug logging is lazy.
+ */
+public class UpdateScheduler {
+
+    private static final String TAG = "UpdateScheduler";
+
+    public static final long DEFAULT_MIN_INTERVAL_MS = 60 * 1000L;      // 1 minute
+    public static final long DEFAULT_MAX_INTERVAL_MS = 30 * 60 * 1000L; // 30 minutes
+
+    // Interval multiplier while nothing changes, and divisor when rates move
+    private static final double BACKOFF_FACTOR = 1.5;
+    private static final double SPEEDUP_FACTOR = 2.0;
+
+    // Weight of the newest pubDate gap in the publish-period average
+    private static final double PUBLISH_PERIOD_WEIGHT = 0.3;
+
+    // Wait this long after the expected publication, so the new items are really there
+    private static final long PUBLISH_SLACK_MS = 15 * 1000L;
+
+    // Relative rate movement below this is treated as "no change" (rounding noise)
+    private static final double CHANGE_EPSILON = 1e-9;
+
+    private final long minIntervalMs;
+    private final long maxIntervalMs;
+
+    private long intervalMs;
+    private long lastPublishedMs = -1L;      // Newest item pubDate seen so far
+    private long publishPeriodMs = -1L;      // Smoothed gap between publications, -1 = unknown
+    private int lastChangedCount;
+    private Map<String, CurrencyRate> previousRates = new HashMap<>();
+    private Map<String, CurrencyRate> currentRates = new HashMap<>(); // Reused, swapped each refresh
+
+    public UpdateScheduler() {
+        this(DEFAULT_MIN_INTERVAL_MS, DEFAULT_MAX_INTERVAL_MS);
+    }
+
+    /**
+     * @param minIntervalMs Shortest wait between refreshes
+     * @param maxIntervalMs Longest wait between refreshes, however static the feed is
+     */
+    public UpdateScheduler(long minIntervalMs, long maxIntervalMs) {
+        if (minIntervalMs <= 0 || maxIntervalMs < minIntervalMs) {
+            throw new IllegalArgumentException("Invalid bounds: " + minIntervalMs + ".." + maxIntervalMs);
+        }
+        this.minIntervalMs = minIntervalMs;
+        this.maxIntervalMs = maxIntervalMs;
+        this.intervalMs = minIntervalMs;
+    }
+
+    /**
+     * Records a freshly downloaded and parsed set of rates
+     * @param rates Rates just delivered by the repository
+     * @param nowMs Current wall-clock time (System.currentTimeMillis())
+     */
+    public void onRatesLoaded(List<CurrencyRate> rates, long nowMs) {
+        learnPublishPeriod(rates);
+
+        int changed = countChanges(rates);
+        lastChangedCount = changed;
+        if (changed > 0) {
+            intervalMs = clamp((long) (intervalMs / SPEEDUP_FACTOR));
+        } else {
+            // New download, but every rate is identical - treat as a static feed
+            intervalMs = clamp((long) (intervalMs * BACKOFF_FACTOR));
+        }
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> changed + " rates changed, interval now " + (intervalMs / 1000) + "s"
+                    + (publishPeriodMs > 0 ? ", publish period ~" + (publishPeriodMs / 1000) + "s" : ""));
+        }
+    }
+
+    /**
+     * Records a refresh that found the feed unchanged (HTTP 304 or fresh cache)
+     */
+    public void onUnchanged() {
+        lastChangedCount = 0;
+        intervalMs = clamp((long) (intervalMs * BACKOFF_FACTOR));
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> "Feed unchanged, interval now " + (intervalMs / 1000) + "s");
+        }
+    }
+
+    /**
+     * Records a failed refresh
+     * The repository already retries and trips its circuit breaker, so the
+     * schedule is simply kept as it is.
+     */
+    public void onError() {
+        if (FxLog.DEBUG_ENABLED) {
+            FxLog.d(TAG, () -> "Refresh failed, keeping interval at " + (intervalMs / 1000) + "s");
+        }
+    }
+
+    /**
+     * How long to wait from now before the next refresh
+     * If the feed's publishing period is known and the next publication is due sooner
+     * than the current interval, the refresh is moved up to just after it.
+     */
+    public long getNextDelayMs(long nowMs) {
+        long delay = intervalMs;
+        if (publishPeriodMs > 0 && lastPublishedMs > 0) {
+            long expectedNext = lastPublishedMs + publishPeriodMs + PUBLISH_SLACK_MS;
+            // Step forward whole periods if we already missed some publications
+            while (expectedNext <= nowMs) {
+                expectedNext += publishPeriodMs;
+            }
+            delay = Math.min(delay, expectedNext - nowMs);
+        }
+        return clamp(delay);
+    }
+
+    /**
+     * Current adaptive interval, before aligning to the publishing period
+     */
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    /**
+     * Smoothed gap between feed publications, or -1 if not yet known
+     */
+    public long getPublishPeriodMs() {
+        return publishPeriodMs;
+    }
+
+    /**
+     * Number of rates that moved in the last loaded result
+     */
+    public int getLastChangedCount() {
+        return lastChangedCount;
+    }
+
+    /**
+     * Updates the publish-period estimate from the newest item pubDate
+     */
+    private void learnPublishPeriod(List<CurrencyRate> rates) {
+        // A feed stamps its items with the same few dates, so only parse a new text
+        long newest = -1L;
+        String lastText = null;
+        for (CurrencyRate rate : rates) {
+            String text = rate.getPubDate();
+            if (text == null || text.equals(lastText)) {
+                continue;
+            }
+            lastText = text;
+            long published = DateUtils.parsePubDate(text);
+            if (published > newest) {
+                newest = published;
+            }
+        }
+        if (newest <= 0) {
+            return;
+        }
+
+        if (lastPublishedMs > 0 && newest > lastPublishedMs) {
+            long gap = newest - lastPublishedMs;
+            publishPeriodMs = publishPeriodMs < 0
+                    ? gap
+                    : (long) (PUBLISH_PERIOD_WEIGHT * gap + (1 - PUBLISH_PERIOD_WEIGHT) * publishPeriodMs);
+        }
+        if (newest > lastPublishedMs) {
+            lastPublishedMs = newest;
+        }
+    }
+
+    /**
+     * Counts pairs whose rate differs from the previous result, and remembers this result
+     * The first result has nothing to compare against and counts as changed.
+     * Rates reused by delta parsing are the very same objects, so they are skipped unread.
+     */
+    private int countChanges(List<CurrencyRate> rates) {
+        Map<String, CurrencyRate> current = currentRates;
+        current.clear();
+        int changed = 0;
+        for (CurrencyRate rate : rates) {
+            String key = rate.getPairKey();
+            current.put(key, rate);
+            CurrencyRate before = previousRates.get(key);
+            if (before == rate) {
+                continue;
+            }
+            if (before == null || Math.abs(rate.getRate() - before.getRate())
+                    > CHANGE_EPSILON * Math.max(Math.abs(before.getRate()), 1.0)) {
+                changed++;
+            }
+        }
+        currentRates = previousRates;
+        previousRates = current;
+        return changed;
+    }
+
+    private long clamp(long value) {
+        return Math.max(minIntervalMs, Math.min(maxIntervalMs, value));
+    }
+}
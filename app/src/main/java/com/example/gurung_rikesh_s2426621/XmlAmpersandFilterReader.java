@@ -0,0 +1,216 @@
+package com.example.gurung_rikesh_s2426621;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming replacement for the regex-based XML sanitizer
+ * Escapes stray '&' characters as "&amp;" while the document is being read,
+ * leaving valid entities (&amp; &lt; &gt; &quot; &apos; &#123; &#x1F;) untouched.
+ *
+ * Only a fixed-size buffer is held, so memory use does not grow with the document.
+ */
+public class XmlAmpersandFilterReader extends FilterReader {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Longest entity we look ahead for, e.g. "&#x10FFFF;" - longer ones are treated as stray
+    private static final int MAX_ENTITY_LENGTH = 12;
+
+    private static final char[] ESCAPE_TAIL = {'a', 'm', 'p', ';'};
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    // Chars of "amp;" still to emit after a stray '&'
+    private int pendingEscape = ESCAPE_TAIL.length;
+
+    public XmlAmpersandFilterReader(Reader in) {
+        super(in);
+    }
+
+    /**
+     * Reads one char straight from the internal buffer (no per-call array)
+     */
+    @Override
+    public int read() throws IOException {
+        if (pendingEscape < ESCAPE_TAIL.length) {
+            return ESCAPE_TAIL[pendingEscape++];
+        }
+        if (position == limit && !fill(0)) {
+            return -1;
+        }
+
+        char c = buffer[position];
+        if (c == '&') {
+            return readAmpersand();
+        }
+        position++;
+        return c;
+    }
+
+    @Override
+    public int read(char[] out, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+
+        int written = 0;
+        while (written < length) {
+            // Finish an escape sequence started in a previous call
+            if (pendingEscape < ESCAPE_TAIL.length) {
+                out[offset + written++] = ESCAPE_TAIL[pendingEscape++];
+                continue;
+            }
+
+            if (position == limit && !fill(0)) {
+                break;
+            }
+
+            char c = buffer[position];
+            if (c == '&') {
+                out[offset + written++] = (char) readAmpersand();
+            } else {
+                // Copy a run of ordinary characters in one go
+                int run = Math.min(length - written, limit - position);
+                int end = position + run;
+                int start = position;
+                while (position < end && buffer[position] != '&') {
+                    position++;
+                }
+                System.arraycopy(buffer, start, out, offset + written, position - start);
+                written += position - start;
+            }
+        }
+
+        return written == 0 ? -1 : written;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        char[] scratch = new char[(int) Math.min(n, BUFFER_SIZE)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(scratch, 0, (int) Math.min(scratch.length, n - skipped));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return position < limit || pendingEscape < ESCAPE_TAIL.length || in.ready();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readAheadLimit) throws IOException {
+        throw new IOException("mark() not supported");
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("reset() not supported");
+    }
+
+    /**
+     * Consumes the '&' at position and queues "amp;" when it does not start a valid entity
+     * @return '&'
+     */
+    private int readAmpersand() throws IOException {
+        // Make sure the whole candidate entity is in the buffer before deciding
+        if (limit - position < MAX_ENTITY_LENGTH) {
+            fill(MAX_ENTITY_LENGTH);
+        }
+        position++;
+        if (!isEntity(position)) {
+            pendingEscape = 0;
+        }
+        return '&';
+    }
+
+    /**
+     * Compacts the buffer and reads more input until at least minAvailable chars are
+     * buffered (or the input ends)
+     * @return true if at least one char is available
+     */
+    private boolean fill(int minAvailable) throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+
+        while (!endOfInput && limit < buffer.length && (limit == 0 || limit < minAvailable)) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read == -1) {
+                endOfInput = true;
+            } else {
+                limit += read;
+            }
+        }
+        return limit > position;
+    }
+
+    /**
+     * Checks whether the chars starting at index (just after '&') form a valid entity:
+     * amp; lt; gt; quot; apos; #digits; or #xhexdigits;
+     */
+    private boolean isEntity(int index) {
+        int end = Math.min(limit, index + MAX_ENTITY_LENGTH);
+        int semicolon = -1;
+        for (int i = index; i < end; i++) {
+            if (buffer[i] == ';') {
+                semicolon = i;
+                break;
+            }
+        }
+        if (semicolon <= index) {
+            return false;
+        }
+
+        int length = semicolon - index;
+        if (buffer[index] == '#') {
+            boolean hex = length > 1 && buffer[index + 1] == 'x';
+            int digitsStart = index + (hex ? 2 : 1);
+            if (digitsStart == semicolon) {
+                return false;
+            }
+            for (int i = digitsStart; i < semicolon; i++) {
+                char c = buffer[i];
+                boolean digit = c >= '0' && c <= '9';
+                boolean hexLetter = (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+                if (!digit && !(hex && hexLetter)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        return matches(index, length, "amp") || matches(index, length, "lt")
+                || matches(index, length, "gt") || matches(index, length, "quot")
+                || matches(index, length, "apos");
+    }
+
+    private boolean matches(int index, int length, String name) {
+        if (length != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[index + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
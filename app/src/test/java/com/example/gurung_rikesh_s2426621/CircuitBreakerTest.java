@@ -0,0 +1,112 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * CircuitBreaker state transitions, driven by a fake clock
+ */
+public class CircuitBreakerTest {
+
+    private static final int THRESHOLD = 3;
+    private static final long OPEN_MS = 1000;
+
+    private final AtomicLong now = new AtomicLong(10_000);
+    private final CircuitBreaker breaker = new CircuitBreaker("host", THRESHOLD, OPEN_MS, now::get);
+
+    @Test
+    public void opensAfterThresholdConsecutiveFailures() {
+        for (int i = 0; i < THRESHOLD - 1; i++) {
+            assertTrue(breaker.allowRequest());
+            breaker.onFailure();
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        }
+        assertTrue(breaker.allowRequest());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        assertEquals(2, breaker.getRejectedCount());
+    }
+
+    @Test
+    public void successResetsTheFailureCount() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        assertEquals(0, breaker.getConsecutiveFailures());
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void ignoredFailuresNeverOpenTheCircuit() {
+        for (int i = 0; i < THRESHOLD * 3; i++) {
+            assertTrue(breaker.allowRequest());
+            breaker.onIgnored();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getConsecutiveFailures());
+    }
+
+    @Test
+    public void halfOpenLetsExactlyOneTrialThrough() {
+        open();
+        now.addAndGet(OPEN_MS - 1);
+        assertFalse(breaker.allowRequest());
+
+        now.addAndGet(1);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertTrue(breaker.isTrial());
+        assertFalse("Second request during the trial", breaker.allowRequest());
+    }
+
+    @Test
+    public void successfulTrialClosesTheCircuit() {
+        open();
+        now.addAndGet(OPEN_MS);
+        assertTrue(breaker.allowRequest());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertFalse(breaker.isTrial());
+        assertTrue(breaker.allowRequest());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void failedTrialReopensForAnotherCoolDown() {
+        open();
+        now.addAndGet(OPEN_MS);
+        assertTrue(breaker.allowRequest());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        now.addAndGet(OPEN_MS - 1);
+        assertFalse(breaker.allowRequest());
+        now.addAndGet(1);
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void ignoredTrialFreesTheSlotButStaysHalfOpen() {
+        open();
+        now.addAndGet(OPEN_MS);
+        assertTrue(breaker.allowRequest());
+        breaker.onIgnored();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+    }
+
+    private void open() {
+        for (int i = 0; i < THRESHOLD; i++) {
+            breaker.allowRequest();
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
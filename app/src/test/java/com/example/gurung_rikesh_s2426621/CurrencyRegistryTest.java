@@ -0,0 +1,89 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * CurrencyRegistry's perfect hash and the CurrencyCode packing it is keyed by
+ */
+public class CurrencyRegistryTest {
+
+    @Test
+    public void everyCodeHasASlotOfItsOwn() {
+        int[] codes = CurrencyRegistry.codes();
+        assertEquals(CurrencyRegistry.size(), codes.length);
+
+        Set<Integer> slots = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (int code : codes) {
+            String text = CurrencyRegistry.codeOf(code);
+            assertTrue(text + " shares a slot", slots.add(CurrencyRegistry.slotOf(code)));
+            assertTrue(text + " is listed twice", names.add(text));
+            assertTrue(CurrencyRegistry.contains(code));
+            assertNotNull(CurrencyRegistry.nameOf(code));
+            assertNotNull(CurrencyRegistry.countryOf(code));
+        }
+    }
+
+    @Test
+    public void packAndToStringRoundTripForEveryCode() {
+        for (int code : CurrencyRegistry.codes()) {
+            String text = CurrencyCode.toString(code);
+            assertEquals(3, text.length());
+            assertEquals(text, code, CurrencyCode.pack(text));
+            assertEquals(code, CurrencyCode.pack("x" + text, 1));
+            assertEquals(code, CurrencyCode.pack(("x" + text).toCharArray(), 1));
+            assertSame(text, CurrencyCode.toString(CurrencyCode.pack(new String(text))));
+        }
+    }
+
+    @Test
+    public void packRejectsAnythingButThreeCapitals() {
+        assertEquals(CurrencyCode.NONE, CurrencyCode.pack("usd"));
+        assertEquals(CurrencyCode.NONE, CurrencyCode.pack("US"));
+        assertEquals(CurrencyCode.NONE, CurrencyCode.pack("USDX"));
+        assertEquals(CurrencyCode.NONE, CurrencyCode.pack("U1D"));
+        assertEquals(CurrencyCode.NONE, CurrencyCode.pack((String) null));
+        assertEquals(CurrencyCode.NONE, CurrencyCode.pack("xUS", 1));
+        assertNull(CurrencyCode.toString(CurrencyCode.NONE));
+        assertEquals(21059, CurrencyCode.pack("USD"));
+    }
+
+    @Test
+    public void unknownCodesUseTheFallbacks() {
+        int unknown = CurrencyCode.pack("QQQ");
+        assertFalse(CurrencyRegistry.contains(unknown));
+        assertNull(CurrencyRegistry.codeOf(unknown));
+        assertNull(CurrencyRegistry.nameOf(unknown));
+        assertEquals(2, CurrencyRegistry.minorDigitsOf(unknown));
+        assertEquals("QQQ", CurrencyCode.toString(unknown));
+        assertFalse(CurrencyRegistry.contains(CurrencyCode.NONE));
+    }
+
+    @Test
+    public void minorDigitsFollowIso4217() {
+        assertEquals(2, CurrencyRegistry.minorDigitsOf(CurrencyCode.GBP));
+        assertEquals(0, CurrencyRegistry.minorDigitsOf(CurrencyCode.JPY));
+        assertEquals(3, CurrencyRegistry.minorDigitsOf(CurrencyCode.pack("KWD")));
+    }
+
+    @Test
+    public void findSeedSeparatesEveryCode() {
+        int[] codes = CurrencyRegistry.codes();
+        int[] more = Arrays.copyOf(codes, codes.length + 1);
+        more[codes.length] = CurrencyCode.pack("QQQ");
+
+        int seed = CurrencyRegistry.findSeed(more);
+
+        assertNotEquals(0, seed);
+        Set<Integer> slots = new HashSet<>();
+        for (int code : more) {
+            assertTrue(slots.add((code * seed) >>> 24));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * CurrencyRepository's decisions on feed outcomes: which feeds are merged and which
+ * refreshes count as unchanged
+ */
+public class CurrencyRepositoryTest {
+
+    private static final int OK = RssFeedFetcher.FetchResult.STATUS_OK;
+    private static final int NOT_MODIFIED = RssFeedFetcher.FetchResult.STATUS_NOT_MODIFIED;
+    private static final int ERROR = RssFeedFetcher.FetchResult.STATUS_ERROR;
+
+    @Test
+    public void failedFeedsAreNotMerged() {
+        List<CurrencyRate> gbp = Arrays.asList(rate("GBP", "USD", 1.3312), rate("GBP", "EUR", 1.1412));
+        List<CurrencyRate> partial = Arrays.asList(rate("JPY", "USD", 0.0065));
+        Set<String> bases = new LinkedHashSet<>(Arrays.asList("GBP", "JPY"));
+        Map<String, CurrencyRepository.FeedOutcome> outcomes = new HashMap<>();
+
+        // A stream that failed part-way may still carry the items read before the failure
+        outcomes.put("GBP", new CurrencyRepository.FeedOutcome(OK, gbp, 200));
+        outcomes.put("JPY", new CurrencyRepository.FeedOutcome(ERROR, partial, 0));
+        CurrencyRepository.FeedOutcome merged = CurrencyRepository.mergeOutcomes(bases, outcomes);
+        assertEquals(OK, merged.status);
+        assertEquals(gbp, merged.rates);
+
+        outcomes.put("GBP", new CurrencyRepository.FeedOutcome(ERROR, gbp, 0));
+        merged = CurrencyRepository.mergeOutcomes(bases, outcomes);
+        assertEquals(ERROR, merged.status);
+        assertNull(merged.rates);
+    }
+
+    @Test
+    public void onlyADeltaWithNoChangesIsUnchanged() {
+        List<CurrencyRate> rates = Arrays.asList(rate("GBP", "USD", 1.3312));
+        assertTrue(outcome(NOT_MODIFIED, -1).isUnchanged());
+        assertTrue(outcome(OK, 0).isUnchanged());
+        assertFalse(outcome(OK, 1).isUnchanged());
+        assertFalse(outcome(OK, -1).isUnchanged()); // Unknown delta
+        assertFalse(outcome(ERROR, 0).isUnchanged());
+        assertFalse(new CurrencyRepository.FeedOutcome(OK, rates, 200).isUnchanged());
+    }
+
+    @Test
+    public void unchangedOnlyForTheFeedsThatDeliveredTheRates() {
+        List<CurrencyRate> rates = Arrays.asList(rate("GBP", "USD", 1.3312), rate("USD", "EUR", 0.8573));
+        CurrencyRepository.DeliveredRates last = new CurrencyRepository.DeliveredRates("GBP,USD", rates);
+
+        assertTrue(last.coversUnchanged("GBP,USD", outcome(NOT_MODIFIED, -1)));
+        assertTrue(last.coversUnchanged("GBP,USD", outcome(OK, 0)));
+        assertFalse(last.coversUnchanged("GBP,USD", outcome(OK, 1)));
+
+        // Bases narrowed to GBP: a 304 must still replace the rates holding the USD pairs
+        assertFalse(last.coversUnchanged("GBP", outcome(NOT_MODIFIED, -1)));
+        // Bases widened: the added feed's pairs were never delivered, even if it 304s
+        assertFalse(last.coversUnchanged("GBP,USD,EUR", outcome(NOT_MODIFIED, -1)));
+    }
+
+    @Test
+    public void mergeOfUnchangedFeedsKeepsOnlyTheRequestedBases() {
+        Set<String> bases = new LinkedHashSet<>(Arrays.asList("GBP"));
+        Map<String, CurrencyRepository.FeedOutcome> outcomes = new HashMap<>();
+        List<CurrencyRate> gbp = Arrays.asList(rate("GBP", "USD", 1.3312));
+        outcomes.put("GBP", new CurrencyRepository.FeedOutcome(NOT_MODIFIED, gbp, 304));
+        outcomes.put("USD", new CurrencyRepository.FeedOutcome(NOT_MODIFIED,
+                Arrays.asList(rate("USD", "EUR", 0.8573)), 304));
+
+        CurrencyRepository.FeedOutcome merged = CurrencyRepository.mergeOutcomes(bases, outcomes);
+        assertEquals(NOT_MODIFIED, merged.status);
+        assertEquals(gbp, merged.rates);
+    }
+
+    private static CurrencyRepository.FeedOutcome outcome(int status, int changedItems) {
+        return new CurrencyRepository.FeedOutcome(status, null, 200, changedItems);
+    }
+
+    private static CurrencyRate rate(String base, String target, double value) {
+        return new CurrencyRate(base + "/" + target, base, base, target, target, null, null, null, value);
+    }
+}
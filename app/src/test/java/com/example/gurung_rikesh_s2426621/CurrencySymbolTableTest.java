@@ -0,0 +1,127 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * CurrencySymbolTable interning: one shared instance per symbol, whatever the source
+ */
+public class CurrencySymbolTableTest {
+
+    private final CurrencySymbolTable symbols = new CurrencySymbolTable(4096);
+
+    @Test
+    public void everySourceResolvesToTheSameInstance() {
+        String first = symbols.intern(new String("British Pound Sterling"));
+        char[] buffer = "<title>British Pound Sterling(GBP)</title>".toCharArray();
+        StringBuilder builder = new StringBuilder("xxBritish Pound Sterlingyy");
+
+        assertSame(first, symbols.intern(new String("British Pound Sterling")));
+        assertSame(first, symbols.intern(buffer, 7, 29));
+        assertSame(first, symbols.intern(builder, 2, 24));
+        assertEquals("British Pound Sterling", first);
+        assertEquals(1, symbols.size());
+        assertNull(symbols.intern(null));
+    }
+
+    @Test
+    public void knownSymbolsAreHitsAndNewOnesAreMisses() {
+        char[] buffer = "GBPUSD".toCharArray();
+        String gbp = symbols.intern(buffer, 0, 3);
+        assertEquals(1, symbols.getMissCount());
+        assertEquals(0, symbols.getHitCount());
+
+        assertSame(gbp, symbols.intern(buffer, 0, 3));
+        assertEquals(1, symbols.getHitCount());
+
+        String usd = symbols.intern(buffer, 3, 6);
+        assertNotSame(gbp, usd);
+        assertEquals("USD", usd);
+        assertEquals(2, symbols.getMissCount());
+        assertEquals(2, symbols.size());
+    }
+
+    @Test
+    public void distinctSymbolsWithEqualHashesStayDistinct() {
+        // "Aa" and "BB" share String.hashCode()
+        String aa = symbols.intern("Aa");
+        String bb = symbols.intern("BB");
+        assertEquals(aa.hashCode(), bb.hashCode());
+        assertEquals("Aa", aa);
+        assertEquals("BB", bb);
+        assertSame(aa, symbols.intern(new String("Aa")));
+        assertSame(bb, symbols.intern(new String("BB")));
+        assertSame(symbols.intern(""), symbols.intern(new String("")));
+    }
+
+    @Test
+    public void identityIsKeptWhileTheTableGrows() {
+        List<String> first = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            first.add(symbols.intern(new String("Currency " + i)));
+        }
+        assertEquals(2000, symbols.size());
+        for (int i = 0; i < 2000; i++) {
+            assertSame(first.get(i), symbols.intern(new String("Currency " + i)));
+        }
+    }
+
+    @Test
+    public void fullTableReturnsUnsharedStrings() {
+        CurrencySymbolTable small = new CurrencySymbolTable(2);
+        String a = small.intern(new String("A"));
+        String b = small.intern(new String("B"));
+        String c = small.intern(new String("C"));
+
+        assertEquals("C", c);
+        assertNotSame(c, small.intern(new String("C")));
+        assertSame(a, small.intern(new String("A")));
+        assertSame(b, small.intern(new String("B")));
+        assertEquals(2, small.size());
+    }
+
+    @Test
+    public void concurrentThreadsShareOneInstance() throws Exception {
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    String[] interned = new String[1000];
+                    for (int i = 0; i < interned.length; i++) {
+                        interned[i] = symbols.intern(("Name " + i).toCharArray(), 0, ("Name " + i).length());
+                    }
+                    return interned;
+                }));
+            }
+            start.countDown();
+
+            String[] reference = results.get(0).get();
+            for (Future<String[]> result : results) {
+                String[] interned = result.get();
+                for (int i = 0; i < interned.length; i++) {
+                    assertSame(reference[i], interned[i]);
+                }
+            }
+            assertEquals(1000, symbols.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sharedInstanceIsASingleton() {
+        assertSame(CurrencySymbolTable.getInstance(), CurrencySymbolTable.getInstance());
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * FeedCache entries, streamed bodies and concurrent writers of the same URL
+ */
+public class FeedCacheTest {
+
+    private static final String URL = "https://www.fx-exchange.com/gbp/rss.xml";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void committedBodyIsReadBackWithItsValidators() throws IOException {
+        FeedCache cache = new FeedCache(folder.getRoot());
+        assertNull(cache.get(URL));
+
+        write(cache, URL, "<rss>one</rss>", "\"v1\"", "Mon, 01 Jan 2024 00:00:00 GMT", 1234L);
+
+        FeedCache.Entry entry = cache.get(URL);
+        assertNotNull(entry);
+        assertEquals("\"v1\"", entry.etag);
+        assertEquals("Mon, 01 Jan 2024 00:00:00 GMT", entry.lastModified);
+        assertEquals(1234L, entry.expiresAtMs);
+        assertTrue(entry.isFresh(1233L));
+        assertFalse(entry.isFresh(1234L));
+        assertEquals("<rss>one</rss>", cache.readBody(entry));
+    }
+
+    @Test
+    public void refreshAfterNotModifiedKeepsTheBody() throws IOException {
+        FeedCache cache = new FeedCache(folder.getRoot());
+        write(cache, URL, "<rss>one</rss>", "\"v1\"", null, 0L);
+
+        // 304 without an ETag: the old one is kept, only the expiry moves
+        cache.refresh(URL, null, "Tue, 02 Jan 2024 00:00:00 GMT", 5000L);
+
+        FeedCache.Entry entry = cache.get(URL);
+        assertEquals("\"v1\"", entry.etag);
+        assertEquals("Tue, 02 Jan 2024 00:00:00 GMT", entry.lastModified);
+        assertEquals(5000L, entry.expiresAtMs);
+        assertEquals("<rss>one</rss>", cache.readBody(entry));
+    }
+
+    @Test
+    public void refreshWithoutEntryDoesNothing() {
+        FeedCache cache = new FeedCache(folder.getRoot());
+        cache.refresh(URL, "\"v1\"", null, 5000L);
+        assertNull(cache.get(URL));
+    }
+
+    @Test
+    public void concurrentBodiesOfOneUrlDoNotShareATempFile() throws IOException {
+        FeedCache cache = new FeedCache(folder.getRoot());
+        FeedCache.PendingBody first = cache.beginBody(URL);
+        FeedCache.PendingBody second = cache.beginBody(URL);
+        first.write("<rss>first</rss>".getBytes(StandardCharsets.UTF_8));
+        second.write("<rss>second</rss>".getBytes(StandardCharsets.UTF_8));
+        first.close();
+        second.close();
+
+        // One download fails: the other's body must survive intact
+        cache.abortBody(first);
+        cache.commitBody(URL, second, "\"v2\"", null, 0L);
+
+        FeedCache.Entry entry = cache.get(URL);
+        assertEquals("<rss>second</rss>", cache.readBody(entry));
+        assertEquals(0, partFiles().length);
+    }
+
+    @Test
+    public void lastCommitWins() throws IOException {
+        FeedCache cache = new FeedCache(folder.getRoot());
+        FeedCache.PendingBody first = cache.beginBody(URL);
+        FeedCache.PendingBody second = cache.beginBody(URL);
+        first.write("<rss>first</rss>".getBytes(StandardCharsets.UTF_8));
+        second.write("<rss>second</rss>".getBytes(StandardCharsets.UTF_8));
+        first.close();
+        second.close();
+
+        cache.commitBody(URL, second, "\"v2\"", null, 0L);
+        cache.commitBody(URL, first, "\"v1\"", null, 0L);
+
+        FeedCache.Entry entry = cache.get(URL);
+        assertEquals("\"v1\"", entry.etag);
+        assertEquals("<rss>first</rss>", cache.readBody(entry));
+    }
+
+    @Test
+    public void leftoverPartFilesAreDeletedOnOpen() throws IOException {
+        FeedCache cache = new FeedCache(folder.getRoot());
+        cache.beginBody(URL).close(); // Never committed: a crash mid-download
+        assertEquals(1, partFiles().length);
+
+        new FeedCache(folder.getRoot());
+        assertEquals(0, partFiles().length);
+    }
+
+    @Test
+    public void crashBeforeTheMetaIsWrittenKeepsTheOldPair() throws IOException {
+        FeedCache cache = new FeedCache(folder.getRoot());
+        write(cache, URL, "<rss>one</rss>", "\"v1\"", null, 0L);
+
+        // The new body reached its final name, then the process died before its meta
+        FeedCache.PendingBody pending = cache.beginBody(URL);
+        pending.write("<rss>two</rss>".getBytes(StandardCharsets.UTF_8));
+        pending.close();
+        String name = pending.file.getName();
+        assertTrue(pending.file.renameTo(new File(folder.getRoot(),
+                name.substring(0, name.length() - ".part".length()) + ".body")));
+
+        FeedCache reopened = new FeedCache(folder.getRoot());
+        FeedCache.Entry entry = reopened.get(URL);
+        assertEquals("\"v1\"", entry.etag);
+        assertEquals("<rss>one</rss>", reopened.readBody(entry));
+        assertEquals(1, bodyFiles().length); // The orphan is gone
+    }
+
+    @Test
+    public void replacedBodiesAreDeleted() throws IOException {
+        FeedCache cache = new FeedCache(folder.getRoot());
+        write(cache, URL, "<rss>one</rss>", "\"v1\"", null, 0L);
+        write(cache, URL, "<rss>two</rss>", "\"v2\"", null, 0L);
+        assertEquals(1, bodyFiles().length);
+        assertEquals("<rss>two</rss>", cache.readBody(cache.get(URL)));
+    }
+
+    @Test
+    public void removeDeletesTheEntry() throws IOException {
+        FeedCache cache = new FeedCache(folder.getRoot());
+        write(cache, URL, "<rss/>", null, null, 0L);
+        cache.remove(URL);
+        assertNull(cache.get(URL));
+        assertEquals(0, bodyFiles().length);
+    }
+
+    private File[] partFiles() {
+        return folder.getRoot().listFiles((dir, name) -> name.endsWith(".part"));
+    }
+
+    private File[] bodyFiles() {
+        return folder.getRoot().listFiles((dir, name) -> name.endsWith(".body"));
+    }
+
+    private static void write(FeedCache cache, String url, String body, String etag,
+                              String lastModified, long expiresAtMs) throws IOException {
+        FeedCache.PendingBody pending = cache.beginBody(url);
+        pending.write(body.getBytes(StandardCharsets.UTF_8));
+        pending.close();
+        cache.commitBody(url, pending, etag, lastModified, expiresAtMs);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * FxLog's varargs form: parts joined in order, a trailing Throwable taken as the exception
+ */
+public class FxLogTest {
+
+    @Test
+    public void partsAreJoinedInOrder() {
+        Object[] parts = {"Truncating ", "seg-1", " from ", 120L, " to ", 96};
+        assertEquals("Truncating seg-1 from 120 to 96", FxLog.join(parts));
+        assertNull(FxLog.errorOf(parts));
+    }
+
+    @Test
+    public void trailingThrowableIsTheException() {
+        IOException error = new IOException("disk full");
+        Object[] parts = {"Could not read ", "rates.bin", error};
+        assertEquals("Could not read rates.bin", FxLog.join(parts));
+        assertSame(error, FxLog.errorOf(parts));
+    }
+
+    @Test
+    public void throwableElsewhereIsPartOfTheMessage() {
+        IOException error = new IOException("disk full");
+        assertEquals("Failed: java.io.IOException: disk full",
+                FxLog.join(new Object[]{"Failed: ", error, ""}));
+        // A lone part is the message, even a Throwable
+        assertNull(FxLog.errorOf(new Object[]{error}));
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * ItemSnapshot delta parsing: unchanged items reused, changed items re-parsed, removed items
+ * dropped, broken-off documents ignored
+ */
+public class ItemSnapshotTest {
+
+    private static final String USD = item("US Dollar(USD)", "1 British Pound Sterling = 1.3312 US Dollar");
+    private static final String EUR = item("Euro(EUR)", "1 British Pound Sterling = 1.1412 Euro");
+    private static final String EUR_MOVED = item("Euro(EUR)", "1 British Pound Sterling = 1.1420 Euro");
+    private static final String JPY = item("Japanese Yen(JPY)", "1 British Pound Sterling = 205.5 Japanese Yen");
+
+    private final FxRssScanner scanner = new FxRssScanner();
+    private final ItemSnapshot snapshot = new ItemSnapshot();
+
+    @Test
+    public void unchangedItemsAreReusedAsTheSameInstance() {
+        List<CurrencyRate> first = parse(USD + EUR + JPY);
+        assertEquals(3, snapshot.getChangedCount()); // Nothing to compare against yet
+
+        List<CurrencyRate> second = parse(USD + EUR + JPY);
+
+        assertEquals(3, second.size());
+        for (int i = 0; i < 3; i++) {
+            assertSame(first.get(i), second.get(i));
+        }
+        assertEquals(3, snapshot.getReusedCount());
+        assertEquals(0, snapshot.getChangedCount());
+        assertEquals(0, snapshot.getRemovedCount());
+        assertTrue(snapshot.isUnchanged());
+    }
+
+    @Test
+    public void changedItemsAreParsedAgain() {
+        List<CurrencyRate> first = parse(USD + EUR + JPY);
+        List<CurrencyRate> second = parse(USD + EUR_MOVED + JPY);
+
+        assertSame(first.get(0), second.get(0));
+        assertNotSame(first.get(1), second.get(1));
+        assertEquals(1.1420, second.get(1).getRate(), 0.0);
+        assertEquals(1.1412, first.get(1).getRate(), 0.0); // Earlier result left alone
+        assertSame(first.get(2), second.get(2));
+        assertEquals(2, snapshot.getReusedCount());
+        assertEquals(1, snapshot.getChangedCount());
+        assertFalse(snapshot.isUnchanged());
+
+        // The old text is no longer the baseline
+        List<CurrencyRate> third = parse(USD + EUR + JPY);
+        assertNotSame(first.get(1), third.get(1));
+        assertEquals(1, snapshot.getChangedCount());
+    }
+
+    @Test
+    public void removedItemsAreDropped() {
+        parse(USD + EUR + JPY);
+        List<CurrencyRate> second = parse(USD + JPY);
+
+        assertEquals(2, second.size());
+        assertEquals("USD", second.get(0).getTargetCode());
+        assertEquals("JPY", second.get(1).getTargetCode());
+        assertEquals(0, snapshot.getChangedCount());
+        assertEquals(1, snapshot.getRemovedCount());
+        assertFalse(snapshot.isUnchanged());
+
+        // Coming back counts as new
+        parse(USD + EUR + JPY);
+        assertEquals(1, snapshot.getChangedCount());
+        assertEquals(0, snapshot.getRemovedCount());
+    }
+
+    @Test
+    public void removeAndAddOfTheSameCountIsNotUnchanged() {
+        parse(USD + EUR);
+        parse(USD + JPY);
+
+        assertEquals(1, snapshot.getChangedCount());
+        assertEquals(1, snapshot.getRemovedCount()); // Same size, still one item gone
+        assertEquals(2, snapshot.getDeltaSize());
+    }
+
+    @Test
+    public void reorderedItemsAreNotUnchanged() {
+        List<CurrencyRate> first = parse(USD + EUR + JPY);
+        List<CurrencyRate> second = parse(JPY + USD + EUR);
+
+        assertSame(first.get(2), second.get(0));
+        assertEquals(0, snapshot.getChangedCount());
+        assertEquals(0, snapshot.getRemovedCount());
+        assertEquals(3, snapshot.getMovedCount());
+        assertEquals(3, snapshot.getDeltaSize());
+        assertFalse(snapshot.isUnchanged());
+
+        parse(JPY + USD + EUR);
+        assertEquals(0, snapshot.getDeltaSize());
+        assertTrue(snapshot.isUnchanged());
+    }
+
+    @Test
+    public void deltaSizeIsUnknownAfterAnAbandonedParse() {
+        parse(USD + EUR);
+        snapshot.begin();
+        snapshot.abandon();
+        assertEquals(-1, snapshot.getDeltaSize());
+    }
+
+    @Test
+    public void lookupsAndRecordsFollowTheTables() {
+        CurrencyRate rate = new CurrencyRate();
+        snapshot.begin();
+        snapshot.record(42L, rate, false);
+        assertNull(snapshot.find(42L)); // Not the baseline until commit
+        snapshot.commit();
+        assertSame(rate, snapshot.find(42L));
+
+        // More items than the initial table holds
+        snapshot.begin();
+        for (long hash = 1; hash <= 1000; hash++) {
+            snapshot.record(hash, rate, hash == 42L);
+        }
+        snapshot.commit();
+        assertEquals(999, snapshot.getChangedCount());
+        assertEquals(1, snapshot.getReusedCount());
+        for (long hash = 1; hash <= 1000; hash++) {
+            assertSame(rate, snapshot.find(hash));
+        }
+        assertNull(snapshot.find(1001L));
+    }
+
+    @Test
+    public void fullParseCountsEverythingAsChanged() {
+        parse(USD + EUR);
+        snapshot.recordFullParse(2);
+        assertEquals(2, snapshot.getChangedCount());
+        assertEquals(2, snapshot.getRemovedCount());
+        assertFalse(snapshot.isUnchanged());
+
+        // The table was cleared, so nothing can be reused next time
+        parse(USD + EUR);
+        assertEquals(0, snapshot.getReusedCount());
+        assertEquals(2, snapshot.getChangedCount());
+    }
+
+    @Test
+    public void documentThatBreaksOffKeepsThePreviousBaseline() {
+        List<CurrencyRate> first = parse(USD + EUR + JPY);
+
+        // The connection drops after the first item of the next refresh
+        String moved = feed(USD + EUR_MOVED + JPY);
+        List<CurrencyRate> partial = scanner.parse(
+                new BrokenReader(moved, moved.indexOf(EUR_MOVED) + 20), snapshot);
+        assertEquals(1, partial.size());
+        assertFalse(snapshot.isComplete());
+        assertFalse(snapshot.isUnchanged());
+
+        // Nothing of the partial read became the baseline
+        List<CurrencyRate> second = parse(USD + EUR + JPY);
+        for (int i = 0; i < 3; i++) {
+            assertSame(first.get(i), second.get(i));
+        }
+        assertTrue(snapshot.isComplete());
+        assertTrue(snapshot.isUnchanged());
+    }
+
+    @Test
+    public void hashIsNeverZeroAndSeesEveryChar() {
+        char[] a = "Euro = 1.1412".toCharArray();
+        char[] b = "Euro = 1.1413".toCharArray();
+        assertNotEquals(0L, ItemSnapshot.hash(a, 0, 0));
+        assertNotEquals(ItemSnapshot.hash(a, 0, a.length), ItemSnapshot.hash(b, 0, b.length));
+        assertEquals(ItemSnapshot.hash(a, 0, 4), ItemSnapshot.hash(b, 0, 4));
+        // High byte of a char counts too
+        assertNotEquals(ItemSnapshot.hash(new char[]{'Ł'}, 0, 1), ItemSnapshot.hash(new char[]{'A'}, 0, 1));
+    }
+
+    private List<CurrencyRate> parse(String items) {
+        List<CurrencyRate> rates = scanner.parse(new StringReader(feed(items)), snapshot);
+        assertEquals(0, scanner.getLastFallbackCount());
+        return rates;
+    }
+
+    // Delivers the first `limit` chars of the text, then fails like a dropped connection
+    private static final class BrokenReader extends Reader {
+        private final StringReader text;
+        private int remaining;
+
+        BrokenReader(String text, int limit) {
+            this.text = new StringReader(text);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read(char[] buf, int off, int len) throws IOException {
+            if (remaining == 0) {
+                throw new IOException("Connection reset");
+            }
+            int read = text.read(buf, off, Math.min(len, remaining));
+            remaining -= Math.max(read, 0);
+            return read;
+        }
+
+        @Override
+        public void close() {
+            text.close();
+        }
+    }
+
+    private static String feed(String items) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rss version=\"2.0\"><channel>\n" + items
+                + "</channel></rss>\n";
+    }
+
+    private static String item(String target, String description) {
+        String code = target.substring(target.indexOf('(') + 1, target.indexOf(')')).toLowerCase();
+        return "<item>\n<title>British Pound Sterling(GBP)/" + target + "</title>\n"
+                + "<link>https://www.fx-exchange.com/gbp/" + code + ".html</link>\n"
+                + "<pubDate>Fri Nov 28 2025 10:00:00 UTC</pubDate>\n"
+                + "<description>" + description + "</description>\n</item>\n";
+    }
+}
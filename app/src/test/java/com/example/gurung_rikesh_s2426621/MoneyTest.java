@@ -0,0 +1,144 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Money parsing, formatting and exact conversion, checked against a BigDecimal reference
+ */
+public class MoneyTest {
+
+    private static final int CASES = 20000;
+
+    @Test
+    public void parsesPlainDecimals() {
+        assertEquals(1250, Money.parse("12.5", "GBP").getMinorUnits());
+        assertEquals(700, Money.parse(" 7 ", "GBP").getMinorUnits());
+        assertEquals(1200, Money.parse("12.", "GBP").getMinorUnits());
+        assertEquals(50, Money.parse(".5", "GBP").getMinorUnits());
+        assertEquals(-250, Money.parse("-2.5", "EUR").getMinorUnits());
+        assertEquals(1250, Money.parse("1.25", "KWD").getMinorUnits());
+        assertNull(Money.parse("1.2.3", "GBP"));
+        assertNull(Money.parse("", "GBP"));
+        assertNull(Money.parse(".", "GBP"));
+        assertNull(Money.parse("abc", "GBP"));
+        assertNull(Money.parse("1e5", "GBP"));
+    }
+
+    @Test
+    public void roundsExtraDecimalsHalfEven() {
+        // 0.125 -> 0.12 and 0.135 -> 0.14 (ties go to the even digit)
+        assertEquals("0.12", Money.parse("0.125", "GBP").format());
+        assertEquals("0.14", Money.parse("0.135", "GBP").format());
+        assertEquals("0.13", Money.parse("0.1250001", "GBP").format());
+        assertEquals("1,500", Money.parse("1500.4", "JPY").format());
+        assertEquals("1,502", Money.parse("1501.5", "JPY").format());
+    }
+
+    @Test
+    public void commaGroupsThousandsWhenFollowedByThreeDigits() {
+        assertEquals(123450, Money.parse("1,234.50", "GBP").getMinorUnits());
+        assertEquals(123450, Money.parse("1,234.5", "GBP").getMinorUnits());
+        assertEquals(1250, Money.parse("1,250", "JPY").getMinorUnits());
+        assertEquals(1250000, Money.parse("1,250", "KWD").getMinorUnits()); // Not 1.250
+        assertEquals(123456789000L, Money.parse("1,234,567,890", "GBP").getMinorUnits());
+        assertEquals(-100000000, Money.parse("-1,000,000", "GBP").getMinorUnits());
+
+        // Malformed grouping is rejected, not guessed
+        assertNull(Money.parse("1234,567", "GBP"));
+        assertNull(Money.parse("1,23.4", "GBP"));
+        assertNull(Money.parse("1,234,56", "GBP"));
+        assertNull(Money.parse(",123", "GBP"));
+        assertNull(Money.parse("1,,234", "GBP"));
+        assertNull(Money.parse("1,234,", "GBP"));
+    }
+
+    @Test
+    public void decimalCommaIsAccepted() {
+        assertEquals(1250, Money.parse("12,5", "GBP").getMinorUnits());
+        assertEquals(1200, Money.parse("12,", "GBP").getMinorUnits());
+        assertEquals(-50, Money.parse("-0,5", "EUR").getMinorUnits());
+        assertEquals(1250, Money.parse("1,25", "KWD").getMinorUnits());
+        assertEquals(123, Money.parse("1,2345", "GBP").getMinorUnits()); // Rounded half-even
+        assertEquals(0, Money.parse("0,5", "JPY").getMinorUnits()); // Half-even to 0 yen
+
+        // '.' groups thousands when ',' is the decimal separator
+        assertEquals(123450, Money.parse("1.234,5", "GBP").getMinorUnits());
+        assertEquals(123456789, Money.parse("1.234.567,89", "GBP").getMinorUnits());
+        assertNull(Money.parse("1.5,000", "GBP"));
+        assertNull(Money.parse("1.23,4", "GBP"));
+        assertNull(Money.parse("1,2,5", "GBP"));
+        assertNull(Money.parse("1,2.5", "GBP"));
+    }
+
+    @Test
+    public void formatThenParseRoundTrips() {
+        String[] currencies = {"GBP", "JPY", "KWD", "USD"};
+        Random random = new Random(19);
+        for (int i = 0; i < CASES; i++) {
+            String code = currencies[i % currencies.length];
+            long minor = random.nextLong() / (1L << random.nextInt(63));
+            Money money = Money.ofMinor(minor, code);
+            String text = money.format();
+            assertEquals(text, money, Money.parse(text, code));
+        }
+        assertEquals("0.00", Money.ofMinor(0, "GBP").format());
+        assertEquals("-1,234.05", Money.ofMinor(-123405, "GBP").format());
+        assertEquals(Money.ofMinor(-123405, "GBP"), Money.parse("-1,234.05", "GBP"));
+    }
+
+    @Test
+    public void conversionsAreExactAndHalfEven() {
+        assertEquals("133.12", Money.parse("100", "GBP").multiplyByRate(13312, 4, "USD").format());
+        assertEquals("100.00", Money.parse("133.12", "USD").divideByRate(13312, 4, "GBP").format());
+
+        Random random = new Random(19);
+        for (int i = 0; i < CASES; i++) {
+            long minor = random.nextInt(100000000);
+            long rateUnscaled = 1 + random.nextInt(99999999);
+            int rateScale = random.nextInt(8);
+            BigDecimal amount = BigDecimal.valueOf(minor, 2);
+            BigDecimal rate = BigDecimal.valueOf(rateUnscaled, rateScale);
+
+            Money source = Money.ofMinor(minor, "GBP");
+            BigDecimal expectedTarget = amount.multiply(rate).setScale(0, RoundingMode.HALF_EVEN);
+            assertEquals(expectedTarget.longValueExact(),
+                    source.multiplyByRate(rateUnscaled, rateScale, "JPY").getMinorUnits());
+
+            BigDecimal expectedBase = amount.divide(rate, 2, RoundingMode.HALF_EVEN);
+            assertEquals(expectedBase.unscaledValue().longValueExact(),
+                    source.divideByRate(rateUnscaled, rateScale, "USD").getMinorUnits());
+        }
+    }
+
+    @Test
+    public void overflowFallsBackToExactResult() {
+        Money huge = Money.ofMinor(Long.MAX_VALUE / 10, "GBP");
+        Money result = huge.multiplyByRate(5, 1, "USD");
+        BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE / 10).multiply(BigDecimal.valueOf(5, 1))
+                .setScale(0, RoundingMode.HALF_EVEN);
+        assertEquals(expected.longValueExact(), result.getMinorUnits());
+    }
+
+    @Test
+    public void overflowPathRoundsOnceNearATie() {
+        // 10^25 / rate is within 1e-16 of a .5 tie, closer than a 40-place intermediate
+        // quotient can tell apart: rounding that first would put it on the tie
+        // 10055115.4999999999999997807...
+        assertEquals(10055115L, Money.ofMinor(1, "GBP")
+                .divideByRate(994518660675752556L, 25, "GBP").getMinorUnits());
+        // 10116926.5000000000000000536...
+        assertEquals(10116927L, Money.ofMinor(1, "GBP")
+                .divideByRate(988442487943349198L, 25, "GBP").getMinorUnits());
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void zeroRateCannotBeInverted() {
+        Money.ofMinor(100, "GBP").divideByRate(0, 4, "USD");
+    }
+}
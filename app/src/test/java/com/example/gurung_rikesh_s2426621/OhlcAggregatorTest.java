@@ -0,0 +1,270 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * OhlcAggregator bucket boundaries, rollover into block files, restart with open buckets,
+ * recovery of a torn block and retention
+ */
+public class OhlcAggregatorTest {
+
+    private static final long SECOND = 1000L;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+
+    // Start of a UTC day, so every resolution's bucket starts here
+    private static final long T0 = 19676 * DAY;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private OhlcAggregator aggregator;
+
+    @After
+    public void tearDown() {
+        if (aggregator != null) {
+            aggregator.close();
+        }
+    }
+
+    @Test
+    public void bucketStartsAreAlignedToTheResolution() {
+        assertEquals(T0, OhlcAggregator.Resolution.MINUTE.bucketStart(T0));
+        assertEquals(T0, OhlcAggregator.Resolution.MINUTE.bucketStart(T0 + MINUTE - 1));
+        assertEquals(T0 + MINUTE, OhlcAggregator.Resolution.MINUTE.bucketStart(T0 + MINUTE));
+        assertEquals(T0 + 2 * HOUR, OhlcAggregator.Resolution.HOUR.bucketStart(T0 + 3 * HOUR - 1));
+        assertEquals(T0, OhlcAggregator.Resolution.DAY.bucketStart(T0 + DAY - 1));
+        assertEquals(-DAY, OhlcAggregator.Resolution.DAY.bucketStart(-1)); // Floor, not truncation
+
+        assertEquals(OhlcAggregator.Resolution.MINUTE, OhlcAggregator.Resolution.forSpan(2 * HOUR, 300));
+        assertEquals(OhlcAggregator.Resolution.HOUR, OhlcAggregator.Resolution.forSpan(7 * DAY, 300));
+        assertEquals(OhlcAggregator.Resolution.DAY, OhlcAggregator.Resolution.forSpan(365 * DAY, 300));
+        assertEquals(OhlcAggregator.Resolution.DAY, OhlcAggregator.Resolution.forSpan(3650 * DAY, 300));
+    }
+
+    @Test
+    public void ticksInOneBucketBuildItsOpenHighLowClose() {
+        aggregator = new OhlcAggregator(folder.getRoot());
+        aggregator.update(T0 + 5 * SECOND, usd(1.0));
+        aggregator.update(T0 + 20 * SECOND, usd(1.3));
+        aggregator.update(T0 + 40 * SECOND, usd(0.9));
+        aggregator.update(T0 + 55 * SECOND, usd(1.1));
+
+        for (OhlcAggregator.Resolution resolution : OhlcAggregator.Resolution.values()) {
+            OhlcAggregator.Candles candles = query(resolution, T0, T0);
+            assertEquals(1, candles.size());
+            assertCandle(candles, 0, T0, 1.0, 1.3, 0.9, 1.1);
+        }
+
+        // Nothing closed yet: no file was written
+        assertEquals(0, new File(folder.getRoot(), "1m.ohlc").length());
+        assertFalse(new File(folder.getRoot(), "open.state").exists());
+    }
+
+    @Test
+    public void newBucketWritesTheFinishedOne() {
+        aggregator = new OhlcAggregator(folder.getRoot());
+        aggregator.update(T0 + 10 * SECOND, usd(1.0));
+        aggregator.update(T0 + 30 * SECOND, usd(1.2));
+        aggregator.update(T0 + MINUTE, usd(1.1));
+        aggregator.update(T0 + MINUTE + 59 * SECOND, usd(1.05));
+        aggregator.update(T0 + 2 * MINUTE, usd(1.15));
+
+        OhlcAggregator.Candles minutes = query(OhlcAggregator.Resolution.MINUTE, T0, T0 + HOUR);
+        assertEquals(3, minutes.size());
+        assertCandle(minutes, 0, T0, 1.0, 1.2, 1.0, 1.2);
+        assertCandle(minutes, 1, T0 + MINUTE, 1.1, 1.1, 1.05, 1.05);
+        assertCandle(minutes, 2, T0 + 2 * MINUTE, 1.15, 1.15, 1.15, 1.15); // Still open
+
+        // Range limits apply to bucket starts
+        OhlcAggregator.Candles middle = query(OhlcAggregator.Resolution.MINUTE, T0 + 1, T0 + MINUTE);
+        assertEquals(1, middle.size());
+        assertEquals(T0 + MINUTE, middle.getStart(0));
+
+        OhlcAggregator.Candles hours = query(OhlcAggregator.Resolution.HOUR, T0, T0 + DAY);
+        assertEquals(1, hours.size());
+        assertCandle(hours, 0, T0, 1.0, 1.2, 1.0, 1.15);
+    }
+
+    @Test
+    public void eachPairIsReadFromTheSharedBlocks() {
+        aggregator = new OhlcAggregator(folder.getRoot());
+        aggregator.update(T0, rates(1.25, 1.15));
+        aggregator.update(T0 + MINUTE, rates(1.26, 1.14));
+        // EUR missing from this refresh: its bucket closes, and no new one opens
+        aggregator.update(T0 + 2 * MINUTE, usd(1.27));
+        aggregator.update(T0 + 3 * MINUTE, rates(1.28, 1.13));
+        aggregator.update(T0 + 4 * MINUTE, usd(1.29));
+
+        OhlcAggregator.Candles usd = query(OhlcAggregator.Resolution.MINUTE, T0, T0 + HOUR);
+        assertEquals(5, usd.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(T0 + i * MINUTE, usd.getStart(i));
+            assertEquals(1.25 + i * 0.01, usd.getClose(i), 1e-12);
+        }
+
+        OhlcAggregator.Candles eur = aggregator.query(CurrencyCode.GBP, CurrencyCode.EUR,
+                OhlcAggregator.Resolution.MINUTE, T0, T0 + HOUR);
+        assertEquals(3, eur.size());
+        assertEquals(T0, eur.getStart(0));
+        assertEquals(T0 + MINUTE, eur.getStart(1));
+        assertEquals(T0 + 3 * MINUTE, eur.getStart(2));
+        assertEquals(1.13, eur.getClose(2), 0.0);
+
+        // A pair never seen at all
+        assertTrue(aggregator.query(CurrencyCode.GBP, CurrencyCode.JPY,
+                OhlcAggregator.Resolution.MINUTE, T0, T0 + HOUR).isEmpty());
+    }
+
+    @Test
+    public void openBucketsSurviveARestart() {
+        aggregator = new OhlcAggregator(folder.getRoot());
+        aggregator.update(T0 + 10 * SECOND, usd(1.0));
+        aggregator.update(T0 + MINUTE, usd(1.5)); // Closes a minute: state saved
+        aggregator.close();
+
+        aggregator = new OhlcAggregator(folder.getRoot());
+        aggregator.update(T0 + 2 * MINUTE, usd(1.2));
+
+        // The hour bucket spans the restart and keeps its open and high
+        OhlcAggregator.Candles hours = query(OhlcAggregator.Resolution.HOUR, T0, T0);
+        assertCandle(hours, 0, T0, 1.0, 1.5, 1.0, 1.2);
+
+        // The minute bucket left open before the restart was still closed and written
+        OhlcAggregator.Candles minutes = query(OhlcAggregator.Resolution.MINUTE, T0, T0 + HOUR);
+        assertEquals(3, minutes.size());
+        assertCandle(minutes, 1, T0 + MINUTE, 1.5, 1.5, 1.5, 1.5);
+
+        // A damaged state file only loses the open buckets
+        aggregator.update(T0 + 3 * MINUTE, usd(1.3));
+        aggregator.close();
+        corrupt(new File(folder.getRoot(), "open.state"), 20);
+        aggregator = new OhlcAggregator(folder.getRoot());
+        OhlcAggregator.Candles after = query(OhlcAggregator.Resolution.MINUTE, T0, T0 + HOUR);
+        assertEquals(3, after.size());
+        assertTrue(query(OhlcAggregator.Resolution.HOUR, T0, T0).isEmpty());
+    }
+
+    @Test
+    public void tornOrDamagedLastBlockIsCutOff() throws IOException {
+        aggregator = new OhlcAggregator(folder.getRoot());
+        for (int i = 0; i <= 4; i++) {
+            aggregator.update(T0 + i * MINUTE, rates(1.25 + i * 0.01, 1.15));
+        }
+        aggregator.close();
+        File minutes = new File(folder.getRoot(), "1m.ohlc");
+        long length = minutes.length();
+        long block = length / 4;
+
+        // Crash while writing the 4th block
+        try (RandomAccessFile raf = new RandomAccessFile(minutes, "rw")) {
+            raf.setLength(length - 5);
+        }
+        aggregator = new OhlcAggregator(folder.getRoot());
+        OhlcAggregator.Candles candles = query(OhlcAggregator.Resolution.MINUTE, T0, T0 + 3 * MINUTE);
+        assertEquals(3, candles.size());
+        assertEquals(3 * block, minutes.length());
+
+        // Writing resumes right after the last good block
+        aggregator.update(T0 + 5 * MINUTE, rates(1.30, 1.15));
+        assertEquals(4 * block, minutes.length());
+        aggregator.close();
+
+        // A full-length last block whose content fails its checksum
+        corrupt(minutes, 4 * block - 10);
+        aggregator = new OhlcAggregator(folder.getRoot());
+        assertEquals(3, query(OhlcAggregator.Resolution.MINUTE, T0, T0 + 4 * MINUTE).size());
+        assertEquals(3 * block, minutes.length());
+    }
+
+    @Test
+    public void ticksFromBeforeTheOpenBucketAreDropped() {
+        aggregator = new OhlcAggregator(folder.getRoot());
+        aggregator.update(T0 + 2 * MINUTE, usd(1.2));
+        aggregator.update(T0 + MINUTE, usd(9.9)); // Clock stepped back a minute
+
+        OhlcAggregator.Candles minutes = query(OhlcAggregator.Resolution.MINUTE, T0, T0 + HOUR);
+        assertEquals(1, minutes.size());
+        assertCandle(minutes, 0, T0 + 2 * MINUTE, 1.2, 1.2, 1.2, 1.2);
+
+        // Same hour: that bucket still takes it
+        assertEquals(9.9, query(OhlcAggregator.Resolution.HOUR, T0, T0).getHigh(0), 0.0);
+    }
+
+    @Test
+    public void minuteAndHourBlocksAreTrimmedWhenADayCloses() {
+        aggregator = new OhlcAggregator(folder.getRoot());
+        long step = 30 * MINUTE;
+        long end = T0 + 40 * DAY;
+        for (long time = T0; time <= end; time += step) {
+            aggregator.update(time, usd(1.25));
+        }
+
+        OhlcAggregator.Candles minutes = query(OhlcAggregator.Resolution.MINUTE, 0, Long.MAX_VALUE);
+        assertEquals(end - OhlcAggregator.MINUTE_RETENTION_MS, minutes.getStart(0));
+        assertEquals(end, minutes.getStart(minutes.size() - 1));
+
+        OhlcAggregator.Candles hours = query(OhlcAggregator.Resolution.HOUR, 0, Long.MAX_VALUE);
+        assertEquals(end - OhlcAggregator.HOUR_RETENTION_MS, hours.getStart(0));
+
+        OhlcAggregator.Candles days = query(OhlcAggregator.Resolution.DAY, 0, Long.MAX_VALUE);
+        assertEquals(41, days.size());
+        assertEquals(T0, days.getStart(0));
+
+        // The trimmed files are read back after a restart
+        aggregator.close();
+        aggregator = new OhlcAggregator(folder.getRoot());
+        assertEquals(minutes.size(), query(OhlcAggregator.Resolution.MINUTE, 0, Long.MAX_VALUE).size());
+        assertEquals(hours.size(), query(OhlcAggregator.Resolution.HOUR, 0, Long.MAX_VALUE).size());
+    }
+
+    private OhlcAggregator.Candles query(OhlcAggregator.Resolution resolution, long fromMs, long toMs) {
+        return aggregator.query(CurrencyCode.GBP, CurrencyCode.USD, resolution, fromMs, toMs);
+    }
+
+    private static void assertCandle(OhlcAggregator.Candles candles, int i, long start,
+                                     double open, double high, double low, double close) {
+        assertEquals(start, candles.getStart(i));
+        assertEquals(open, candles.getOpen(i), 0.0);
+        assertEquals(high, candles.getHigh(i), 0.0);
+        assertEquals(low, candles.getLow(i), 0.0);
+        assertEquals(close, candles.getClose(i), 0.0);
+    }
+
+    private static void corrupt(File file, long position) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(position);
+            int b = raf.read();
+            raf.seek(position);
+            raf.write(b ^ 0x01);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static List<CurrencyRate> usd(double value) {
+        return Collections.singletonList(rate("USD", "US Dollar", value));
+    }
+
+    private static List<CurrencyRate> rates(double usd, double eur) {
+        return Arrays.asList(rate("USD", "US Dollar", usd), rate("EUR", "Euro", eur));
+    }
+
+    private static CurrencyRate rate(String code, String name, double value) {
+        return new CurrencyRate("British Pound Sterling(GBP)/" + name + "(" + code + ")",
+                "British Pound Sterling", "GBP", name, code, null, null, null, value);
+    }
+}
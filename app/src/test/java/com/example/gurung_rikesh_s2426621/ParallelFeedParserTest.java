@@ -0,0 +1,211 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * ParallelFeedParser: chunking at item boundaries and results in document order.
+ * Uses FxRssScanner as the chunk parser; every generated item is in its fast-path layout,
+ * so no platform XML parser is needed.
+ */
+public class ParallelFeedParserTest {
+
+    private static final int THRESHOLD = 1024;
+    private static final String[] TARGETS = {"USD", "EUR", "JPY", "AED", "CHF", "INR", "KWD", "CAD"};
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void shutDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void resultsFollowDocumentOrder() {
+        String xml = feed(5000);
+        RecordingParser delegate = new RecordingParser(new FxRssScanner());
+        ParallelFeedParser parser = new ParallelFeedParser(delegate, pool, THRESHOLD);
+
+        List<CurrencyRate> rates = parser.parse(xml);
+
+        assertEquals(5000, rates.size());
+        for (int i = 0; i < rates.size(); i++) {
+            assertEquals(TARGETS[i % TARGETS.length], rates.get(i).getTargetCode());
+            assertEquals(rateFor(i), rates.get(i).getRate(), 0.0);
+        }
+        assertTrue("Expected several chunks", delegate.calls.size() > 1);
+    }
+
+    @Test
+    public void parallelResultMatchesSingleThreadedParse() {
+        String xml = feed(3000);
+        List<CurrencyRate> expected = new FxRssScanner().parse(xml);
+        ItemSnapshot snapshot = new ItemSnapshot();
+        List<CurrencyRate> actual = new ParallelFeedParser(new FxRssScanner(), pool, THRESHOLD)
+                .parse(xml, snapshot);
+
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(3000, snapshot.getChangedCount()); // Recorded as a full parse
+    }
+
+    @Test
+    public void streamedDocumentsGoStraightToTheWrappedParser() {
+        // Far above the threshold, but a stream is never buffered to be split
+        String xml = feed(5000);
+        RecordingParser delegate = new RecordingParser(new FxRssScanner());
+        ParallelFeedParser parser = new ParallelFeedParser(delegate, pool, THRESHOLD);
+        TrackingReader reader = new TrackingReader(xml);
+
+        assertEquals(5000, parser.parse(reader).size());
+        assertEquals(1, delegate.calls.size());
+        assertSame(reader, delegate.lastReader);
+        assertTrue("Read in small pieces", reader.largestRead <= 64 * 1024);
+    }
+
+    @Test
+    public void streamDeclaredAboveTheThresholdIsSplit() throws IOException {
+        String xml = feed(5000);
+        RecordingParser delegate = new RecordingParser(new FxRssScanner());
+        ParallelFeedParser parser = new ParallelFeedParser(delegate, pool, THRESHOLD);
+        ItemSnapshot snapshot = new ItemSnapshot();
+
+        List<CurrencyRate> rates = parser.parse(new StringReader(xml), snapshot, xml.length());
+
+        assertEquals(new FxRssScanner().parse(xml).toString(), rates.toString());
+        assertTrue("Expected several chunks", delegate.calls.size() > 1);
+        assertEquals(5000, snapshot.getChangedCount()); // Recorded as a full parse
+    }
+
+    @Test
+    public void streamDeclaredBelowTheThresholdOrUnknownIsNotBuffered() throws IOException {
+        String xml = feed(5000);
+        for (long lengthHint : new long[]{-1, THRESHOLD - 1}) {
+            RecordingParser delegate = new RecordingParser(new FxRssScanner());
+            ParallelFeedParser parser = new ParallelFeedParser(delegate, pool, THRESHOLD);
+            TrackingReader reader = new TrackingReader(xml);
+
+            assertEquals(5000, parser.parse(reader, new ItemSnapshot(), lengthHint).size());
+            assertEquals(1, delegate.calls.size());
+            assertSame(reader, delegate.lastReader);
+        }
+    }
+
+    @Test
+    public void smallDocumentsAreParsedOnTheCallingThread() {
+        String xml = feed(3);
+        RecordingParser delegate = new RecordingParser(new FxRssScanner());
+        ParallelFeedParser parser = new ParallelFeedParser(delegate, pool, xml.length() + 1);
+
+        assertEquals(3, parser.parse(xml).size());
+        assertEquals(Collections.singleton(Thread.currentThread().getName()), delegate.threads);
+        assertEquals(1, delegate.calls.size());
+    }
+
+    @Test
+    public void chunksEndOnItemBoundaries() {
+        String xml = feed(5000);
+        int[] bounds = new ParallelFeedParser(new FxRssScanner(), pool, THRESHOLD).chunkBounds(xml);
+
+        assertEquals(0, bounds[0]);
+        assertEquals(xml.length(), bounds[bounds.length - 1]);
+        for (int i = 1; i < bounds.length - 1; i++) {
+            assertTrue(bounds[i] > bounds[i - 1]);
+            assertTrue(xml.startsWith("</item>", bounds[i] - "</item>".length()));
+        }
+    }
+
+    @Test
+    public void chunkReaderJoinsPrefixRangeAndSuffix() throws IOException {
+        Reader reader = new ParallelFeedParser.ChunkReader("<a>", "xx<item/>yy", 2, 9, "</a>");
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[2];
+        int count;
+        while ((count = reader.read(buffer, 0, buffer.length)) != -1) {
+            text.append(buffer, 0, count);
+        }
+        assertEquals("<a><item/></a>", text.toString());
+        assertEquals(-1, reader.read(buffer, 0, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsANonPositiveThreshold() {
+        new ParallelFeedParser(new FxRssScanner(), pool, 0);
+    }
+
+    /**
+     * Records which threads parsed chunks and what each chunk held
+     */
+    private static final class RecordingParser implements FeedParser {
+        final FeedParser delegate;
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final List<Integer> calls = Collections.synchronizedList(new ArrayList<>());
+        volatile Reader lastReader;
+
+        RecordingParser(FeedParser delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return "Recording";
+        }
+
+        @Override
+        public List<CurrencyRate> parse(Reader reader) {
+            threads.add(Thread.currentThread().getName());
+            lastReader = reader;
+            List<CurrencyRate> rates = delegate.parse(reader);
+            calls.add(rates.size());
+            return rates;
+        }
+    }
+
+    /**
+     * Reader over a String that remembers the largest single read asked of it
+     */
+    private static final class TrackingReader extends StringReader {
+        int largestRead;
+
+        TrackingReader(String text) {
+            super(text);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            largestRead = Math.max(largestRead, length);
+            return super.read(buffer, offset, length);
+        }
+    }
+
+    private static double rateFor(int i) {
+        return (10000 + i) / 10000.0;
+    }
+
+    private static String feed(int items) {
+        StringBuilder xml = new StringBuilder(items * 300);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rss version=\"2.0\">\n<channel>\n")
+                .append("<title>British Pound Sterling(GBP) Exchange Rates</title>\n");
+        for (int i = 0; i < items; i++) {
+            String code = TARGETS[i % TARGETS.length];
+            xml.append("<item>\n<title>British Pound Sterling(GBP)/Currency ").append(code)
+                    .append('(').append(code).append(")</title>\n")
+                    .append("<link>https://www.fx-exchange.com/gbp/").append(code.toLowerCase()).append(".html</link>\n")
+                    .append("<pubDate>Fri Nov 28 2025 10:00:00 UTC</pubDate>\n")
+                    .append("<description>1 British Pound Sterling = ").append(rateFor(i))
+                    .append(" Currency ").append(code).append("</description>\n</item>\n");
+        }
+        return xml.append("</channel>\n</rss>\n").toString();
+    }
+}
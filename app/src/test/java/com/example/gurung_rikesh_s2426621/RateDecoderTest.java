@@ -0,0 +1,166 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * RateDecoder: description matching, fixed-point digits, rounding and overflow
+ */
+public class RateDecoderTest {
+
+    // The pattern the decoder replaced; its matches are the reference
+    private static final Pattern RATE_PATTERN = Pattern.compile("1\\s+[^=]+=\\s+([0-9.]+)");
+
+    private final RateDecoder decoder = new RateDecoder();
+
+    @Test
+    public void keepsThePublishedDigits() {
+        assertTrue(decoder.decode("1 British Pound Sterling = 4.93540 United Arab Emirates Dirham"));
+        assertEquals(493540L, decoder.getUnscaled());
+        assertEquals(5, decoder.getScale());
+        assertEquals(4.9354, decoder.getValue(), 0.0);
+
+        assertTrue(decoder.decode("1 British Pound Sterling = 205 Japanese Yen"));
+        assertEquals(205L, decoder.getUnscaled());
+        assertEquals(0, decoder.getScale());
+
+        assertTrue(decoder.decode("1 Kuwaiti Dinar = 0.000012 Bitcoin"));
+        assertEquals(12L, decoder.getUnscaled());
+        assertEquals(6, decoder.getScale());
+    }
+
+    @Test
+    public void appliesFixedPointToTheRate() {
+        CurrencyRate rate = new CurrencyRate();
+        assertTrue(decoder.decode("1 British Pound Sterling = 1.3310 US Dollar"));
+        decoder.applyTo(rate);
+        assertEquals(1.331, rate.getRate(), 0.0);
+    }
+
+    @Test
+    public void valuesAreRoundedLikeParseDouble() {
+        Random random = new Random(12);
+        for (int i = 0; i < 100000; i++) {
+            String number = randomDecimal(random, 1 + random.nextInt(17));
+            assertTrue(number, decoder.decodeNumber(number, 0, number.length()));
+            assertEquals(number, Double.doubleToLongBits(Double.parseDouble(number)),
+                    Double.doubleToLongBits(decoder.getValue()));
+        }
+        // Classic cases where a naive digit-by-digit sum rounds differently
+        for (String number : new String[]{"0.1", "0.3", "2.675", "1.0000000000000002", "9007199254740993",
+                "0.30000000000000004", "123456789.123456789"}) {
+            assertTrue(decoder.decodeNumber(number, 0, number.length()));
+            assertEquals(number, Double.parseDouble(number), decoder.getValue(), 0.0);
+        }
+    }
+
+    @Test
+    public void tooManyDigitsForALongKeepOnlyTheDouble() {
+        String number = "12345678901234567890.5";
+        assertTrue(decoder.decodeNumber(number, 0, number.length()));
+        assertEquals(-1, decoder.getScale());
+        assertEquals(0L, decoder.getUnscaled());
+        assertEquals(Double.parseDouble(number), decoder.getValue(), 0.0);
+
+        // Eighteen digits still fit the fixed-point form
+        String eighteen = "999999999999999999";
+        assertTrue(decoder.decodeNumber(eighteen, 0, eighteen.length()));
+        assertEquals(999999999999999999L, decoder.getUnscaled());
+        assertEquals(Double.parseDouble(eighteen), decoder.getValue(), 0.0);
+
+        CurrencyRate rate = new CurrencyRate();
+        assertTrue(decoder.decodeNumber(number, 0, number.length()));
+        decoder.applyTo(rate);
+        assertEquals(Double.parseDouble(number), rate.getRate(), 0.0);
+    }
+
+    @Test
+    public void toDoubleHandlesScalesBeyondTheExactPowers() {
+        assertEquals(1e-30, RateDecoder.toDouble(1, 30), 0.0);
+        assertEquals(Double.parseDouble("9007199254740993.5"),
+                RateDecoder.toDouble(90071992547409935L, 1), 0.0);
+    }
+
+    @Test
+    public void rejectsInvalidNumbers() {
+        for (String number : new String[]{"", ".", "1.2.3", "1,5", "-1", "1e5"}) {
+            assertFalse(number, decoder.decodeNumber(number, 0, number.length()));
+            assertEquals(-1, decoder.getScale());
+            assertEquals(0.0, decoder.getValue(), 0.0);
+        }
+        String longInvalid = "1234567890123456789.1.2";
+        assertFalse(decoder.decodeNumber(longInvalid, 0, longInvalid.length()));
+        assertEquals(0.0, decoder.getValue(), 0.0);
+    }
+
+    @Test
+    public void charArrayVariantAgrees() {
+        char[] buffer = "xx 1.3312 yy".toCharArray();
+        assertTrue(decoder.decodeNumber(buffer, 3, 9));
+        assertEquals(13312L, decoder.getUnscaled());
+        assertEquals(4, decoder.getScale());
+        assertFalse(decoder.decodeNumber(buffer, 0, 9));
+    }
+
+    @Test
+    public void matchesLikeTheOldPattern() {
+        String[] descriptions = {
+                "1 British Pound Sterling = 1.3312 US Dollar",
+                "1\tEuro =\t0.8765 British Pound",
+                "1 British Pound Sterling =1.3312 US Dollar",   // No space after '='
+                "1 = 1.3312",                                   // No name
+                "1British Pound Sterling = 1.3312 US Dollar",   // No space after '1'
+                "21 Euro = 18.1 Pound",                         // '1' inside a number
+                "Rate: 1 Euro = 0.87",
+                "1 Euro = abc",
+                "1 x 1 Euro = 0.87",
+                "no rate here",
+                "1 Euro = .",
+                "1 Euro = 1.2.3",
+        };
+        for (String description : descriptions) {
+            Matcher matcher = RATE_PATTERN.matcher(description);
+            boolean expected = matcher.find() && isDecimal(matcher.group(1));
+            assertEquals(description, expected, decoder.decode(description));
+            if (expected) {
+                assertEquals(description, Double.parseDouble(matcher.group(1)), decoder.getValue(), 0.0);
+            }
+        }
+        assertFalse(decoder.decode(null));
+    }
+
+    @Test
+    public void failedDecodeClearsThePreviousRate() {
+        assertTrue(decoder.decode("1 Euro = 0.87 Pound"));
+        assertFalse(decoder.decode("no rate"));
+        assertEquals(-1, decoder.getScale());
+        assertEquals(0L, decoder.getUnscaled());
+        assertEquals(0.0, decoder.getValue(), 0.0);
+    }
+
+    private static boolean isDecimal(String text) {
+        try {
+            Double.parseDouble(text);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static String randomDecimal(Random random, int digits) {
+        StringBuilder number = new StringBuilder();
+        int point = random.nextInt(digits + 1);
+        for (int i = 0; i < digits; i++) {
+            if (i == point && i > 0) {
+                number.append('.');
+            }
+            number.append((char) ('0' + random.nextInt(10)));
+        }
+        return number.toString();
+    }
+}
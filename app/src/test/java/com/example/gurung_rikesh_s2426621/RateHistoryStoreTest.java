@@ -0,0 +1,321 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * RateHistoryStore framing and recovery, segment rolling, compaction, retention and
+ * range reads through the sparse index
+ */
+public class RateHistoryStoreTest {
+
+    private static final long MINUTE = 60 * 1000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = RateHistoryStore.SEGMENT_SPAN_MS;
+
+    // Whole hour, so compacted intervals line up with the test's hours
+    private static final long T0 = 472222 * HOUR;
+
+    // Segment header, and one record holding two pairs
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8;
+    private static final int TWO_PAIR_RECORD = 4 + 4 + 8 + 4 + 2 * (4 + 8);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private RateHistoryStore store;
+
+    @After
+    public void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    public void tornLastRecordIsTruncatedAndTheValidPrefixSurvives() throws IOException {
+        store = new RateHistoryStore(folder.getRoot());
+        for (int i = 0; i < 10; i++) {
+            assertTrue(store.append(T0 + i * MINUTE, rates(usd(i), eur(i))));
+        }
+        store.close();
+
+        // Crash in the middle of writing the last record
+        File segment = onlySegment();
+        assertEquals(HEADER_SIZE + 10 * TWO_PAIR_RECORD, segment.length());
+        truncate(segment, segment.length() - 10);
+
+        store = new RateHistoryStore(folder.getRoot());
+        RateHistoryStore.Series usd = readUsd(0, Long.MAX_VALUE);
+        assertEquals(9, usd.size());
+        for (int i = 0; i < 9; i++) {
+            assertEquals(T0 + i * MINUTE, usd.getTime(i));
+            assertEquals(usd(i), usd.getRate(i), 0.0);
+        }
+        assertEquals(HEADER_SIZE + 9 * TWO_PAIR_RECORD, segment.length());
+        assertEquals(segment.length(), store.getTotalBytes());
+
+        // Appending resumes right after the last good record
+        assertTrue(store.append(T0 + 9 * MINUTE, rates(usd(9), eur(9))));
+        assertEquals(HEADER_SIZE + 10 * TWO_PAIR_RECORD, segment.length());
+        assertEquals(10, readUsd(0, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    public void damagedRecordIsDroppedWithEverythingAfterIt() throws IOException {
+        store = new RateHistoryStore(folder.getRoot());
+        for (int i = 0; i < 10; i++) {
+            store.append(T0 + i * MINUTE, rates(usd(i), eur(i)));
+        }
+        store.close();
+
+        // Flip a byte in the payload of record 5: its checksum no longer matches
+        File segment = onlySegment();
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            long position = HEADER_SIZE + 5 * TWO_PAIR_RECORD + 4 + 4 + 10;
+            raf.seek(position);
+            int b = raf.read();
+            raf.seek(position);
+            raf.write(b ^ 0x01);
+        }
+
+        store = new RateHistoryStore(folder.getRoot());
+        RateHistoryStore.Series eur = read(CurrencyCode.EUR, 0, Long.MAX_VALUE);
+        assertEquals(5, eur.size());
+        assertEquals(eur(4), eur.getRate(4), 0.0);
+        assertEquals(HEADER_SIZE + 5 * TWO_PAIR_RECORD, segment.length());
+    }
+
+    @Test
+    public void unchangedRatesAreNotWrittenAgain() {
+        store = new RateHistoryStore(folder.getRoot());
+        store.append(T0, rates(usd(0), eur(0)));
+        long size = store.getTotalBytes();
+
+        assertTrue(store.append(T0 + MINUTE, rates(usd(0), eur(0))));
+        assertEquals(size, store.getTotalBytes());
+
+        // Only the pair that moved
+        store.append(T0 + 2 * MINUTE, rates(usd(1), eur(0)));
+        assertEquals(size + 4 + 4 + 8 + 4 + (4 + 8), store.getTotalBytes());
+        assertEquals(1, read(CurrencyCode.EUR, 0, Long.MAX_VALUE).size());
+        assertEquals(2, readUsd(0, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    public void recordsThatDoNotMoveTimeForwardAreDropped() {
+        store = new RateHistoryStore(folder.getRoot());
+        assertTrue(store.append(T0, rates(usd(0), eur(0))));
+        long size = store.getTotalBytes();
+
+        // e.g. an older refresh persisted after a newer one
+        assertFalse(store.append(T0, rates(usd(1), eur(1))));
+        assertFalse(store.append(T0 - MINUTE, rates(usd(2), eur(2))));
+        assertEquals(size, store.getTotalBytes());
+
+        assertTrue(store.append(T0 + 1, rates(usd(3), eur(3))));
+        RateHistoryStore.Series usd = readUsd(0, Long.MAX_VALUE);
+        assertEquals(2, usd.size());
+        assertEquals(usd(3), usd.getRate(1), 0.0);
+
+        // Also across a restart: the time order comes from the log itself
+        store.close();
+        store = new RateHistoryStore(folder.getRoot());
+        assertFalse(store.append(T0, rates(usd(4), eur(4))));
+    }
+
+    @Test
+    public void segmentsRollDailyAndOldOnesAreCompactedThenExpired() {
+        store = new RateHistoryStore(folder.getRoot());
+        long step = 10 * MINUTE;
+        int perDay = (int) (DAY / step);
+        int days = 10;
+        for (int i = 0; i < days * perDay; i++) {
+            store.append(T0 + i * step, rates(usd(i), eur(0)));
+        }
+        assertEquals(days, store.getSegmentCount());
+
+        // Days 0 and 1 ended over FULL_RESOLUTION_MS before the last roll: one record per hour,
+        // stamped with the hour's last record and holding its rate
+        RateHistoryStore.Series old = readUsd(T0, T0 + 2 * DAY - 1);
+        assertEquals(48, old.size());
+        for (int h = 0; h < 48; h++) {
+            int last = h * 6 + 5;
+            assertEquals(T0 + last * step, old.getTime(h));
+            assertEquals(usd(last), old.getRate(h), 0.0);
+        }
+
+        // Day 2 onwards keeps every record
+        RateHistoryStore.Series recent = readUsd(T0 + 2 * DAY, T0 + 3 * DAY - 1);
+        assertEquals(perDay, recent.size());
+        assertEquals(T0 + 2 * DAY, recent.getTime(0));
+
+        // The compacted segments and their indexes are read back after a restart
+        store.close();
+        store = new RateHistoryStore(folder.getRoot());
+        assertSeries(old, readUsd(T0, T0 + 2 * DAY - 1));
+        assertEquals(days, store.getSegmentCount());
+
+        // A year later, every segment that ended over RETENTION_MS ago is deleted,
+        // and the rest are compacted
+        long later = T0 + RateHistoryStore.RETENTION_MS + 5 * DAY;
+        store.append(later, rates(usd(0), eur(0)));
+        assertEquals(5 + 1, store.getSegmentCount());
+        assertEquals(0, readUsd(T0, T0 + 5 * DAY - 1).size());
+        RateHistoryStore.Series day6 = readUsd(T0 + 6 * DAY, T0 + 7 * DAY - 1);
+        assertEquals(1 + 24, day6.size()); // The rate in effect at the start, then hourly
+        assertEquals(T0 + 6 * DAY - step, day6.getTime(0));
+        assertEquals(T0 + 6 * DAY + 50 * MINUTE, day6.getTime(1));
+    }
+
+    @Test
+    public void rangeReadsAcrossSegmentsMatchAFullScan() {
+        store = new RateHistoryStore(folder.getRoot());
+        long step = 5 * MINUTE;
+        int records = (int) (3 * DAY / step);
+
+        // EUR moves every 7th record, so a segment holds many indexed and unindexed entries
+        List<Long> times = new ArrayList<>();
+        List<Double> values = new ArrayList<>();
+        for (int i = 0; i < records; i++) {
+            long time = T0 + i * step;
+            double eur = eur(i / 7);
+            store.append(time, rates(usd(i), eur));
+            if (values.isEmpty() || values.get(values.size() - 1) != eur) {
+                times.add(time);
+                values.add(eur);
+            }
+        }
+        assertEquals(3, store.getSegmentCount());
+
+        long[][] ranges = {
+                {T0 + DAY - 3 * HOUR + 2 * MINUTE, T0 + 2 * DAY + 5 * HOUR + MINUTE}, // spans a boundary
+                {T0 + 2 * MINUTE, T0 + 3 * DAY},                                      // spans both
+                {T0 + DAY + 7 * HOUR + 2 * MINUTE, T0 + DAY + 7 * HOUR + 4 * MINUTE},  // between records
+                {T0 - DAY, T0 - 1},                                                   // before the log
+        };
+        for (int pass = 0; pass < 2; pass++) {
+            for (long[] range : ranges) {
+                RateHistoryStore.Series series = read(CurrencyCode.EUR, range[0], range[1]);
+                assertRange(times, values, range[0], range[1], series);
+            }
+            // Again with sealed segments opened from their saved indexes
+            store.close();
+            store = new RateHistoryStore(folder.getRoot());
+        }
+    }
+
+    @Test
+    public void pairMissingWhenASegmentRollsKeepsItsOpeningRate() {
+        store = new RateHistoryStore(folder.getRoot());
+        store.append(T0, rates(usd(0), eur(0)));
+        store.append(T0 + HOUR, rates(usd(1), eur(1)));
+
+        // The refresh that rolls the segment lacks EUR (e.g. that base feed failed)
+        store.append(T0 + DAY, Arrays.asList(rate("USD", "US Dollar", usd(2))));
+        store.append(T0 + DAY + HOUR, rates(usd(3), eur(1)));
+        assertEquals(2, store.getSegmentCount());
+
+        for (int pass = 0; pass < 2; pass++) {
+            // A read starting in the new segment still sees the rate in effect at its start
+            RateHistoryStore.Series eur = read(CurrencyCode.EUR, T0 + DAY + 30 * MINUTE, T0 + 2 * DAY);
+            assertEquals(1, eur.size());
+            assertEquals(eur(1), eur.getRate(0), 0.0);
+            assertTrue(eur.getTime(0) <= T0 + DAY + 30 * MINUTE);
+
+            // Restating it in the new segment adds no point to a longer read
+            assertEquals(2, read(CurrencyCode.EUR, 0, Long.MAX_VALUE).size());
+
+            // Again with the segments reopened from disk
+            store.close();
+            store = new RateHistoryStore(folder.getRoot());
+        }
+    }
+
+    // The series must start with the rate in effect at fromMs, then list every change up to toMs
+    private static void assertRange(List<Long> times, List<Double> values, long fromMs, long toMs,
+                                    RateHistoryStore.Series series) {
+        List<Double> expected = new ArrayList<>();
+        List<Long> expectedTimes = new ArrayList<>();
+        for (int i = 0; i < times.size(); i++) {
+            long time = times.get(i);
+            if (time <= fromMs) {
+                expected.clear();
+                expectedTimes.clear();
+            } else if (time > toMs) {
+                break;
+            }
+            expected.add(values.get(i));
+            expectedTimes.add(time);
+        }
+
+        String range = "[" + fromMs + ", " + toMs + "]";
+        assertEquals(range, expected.size(), series.size());
+        for (int i = 0; i < series.size(); i++) {
+            assertEquals(range, expected.get(i), series.getRate(i), 0.0);
+            if (i == 0) {
+                // May be restated by a later segment's first record, but never after fromMs
+                assertTrue(range, series.getTime(0) <= Math.max(fromMs, expectedTimes.get(0)));
+            } else {
+                assertEquals(range, (long) expectedTimes.get(i), series.getTime(i));
+            }
+        }
+    }
+
+    private static void assertSeries(RateHistoryStore.Series expected, RateHistoryStore.Series actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getTime(i), actual.getTime(i));
+            assertEquals(expected.getRate(i), actual.getRate(i), 0.0);
+        }
+    }
+
+    private RateHistoryStore.Series readUsd(long fromMs, long toMs) {
+        return read(CurrencyCode.USD, fromMs, toMs);
+    }
+
+    private RateHistoryStore.Series read(int target, long fromMs, long toMs) {
+        return store.read(CurrencyCode.GBP, target, fromMs, toMs);
+    }
+
+    private File onlySegment() {
+        File[] segments = folder.getRoot().listFiles((dir, name) -> name.endsWith(".seg"));
+        assertNotNull(segments);
+        assertEquals(1, segments.length);
+        return segments[0];
+    }
+
+    private static void truncate(File file, long length) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length);
+        }
+    }
+
+    private static double usd(int i) {
+        return 1.25 + i * 0.0001;
+    }
+
+    private static double eur(int i) {
+        return 1.15 + i * 0.0001;
+    }
+
+    private static List<CurrencyRate> rates(double usd, double eur) {
+        return Arrays.asList(rate("USD", "US Dollar", usd), rate("EUR", "Euro", eur));
+    }
+
+    private static CurrencyRate rate(String code, String name, double value) {
+        return new CurrencyRate("British Pound Sterling(GBP)/" + name + "(" + code + ")",
+                "British Pound Sterling", "GBP", name, code, null, null, null, value);
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * RateSeriesCodec round trips, grid quantization, block framing, and the sizes its class doc
+ * states for a year of minute samples (timings are in the instrumented RateSeriesCodecBenchmark)
+ */
+public class RateSeriesCodecTest {
+
+    private static final long MINUTE_MS = 60 * 1000L;
+    private static final int MINUTES_PER_YEAR = 365 * 24 * 60;
+    private static final int PAIRS = 170;
+
+    @Test
+    public void roundTripIsExactOnTheGrid() throws IOException {
+        Random random = new Random(25);
+        int size = 20000;
+        long[] times = new long[size];
+        long[] unscaled = new long[size];
+        int[] scales = new int[size];
+        long time = 1700000000000L;
+        long rate = 12345;
+        int scale = 4;
+        for (int i = 0; i < size; i++) {
+            switch (random.nextInt(8)) {
+                case 0: time += random.nextInt(1000); break;                    // small jitter
+                case 1: time += random.nextInt(Integer.MAX_VALUE) * 1000L; break; // long gap
+                case 2: time -= random.nextInt(5000); break;                    // out of order
+                default: time += MINUTE_MS; break;
+            }
+            if (random.nextInt(3) == 0) {
+                rate += random.nextInt(41) - 20;
+            }
+            if (random.nextInt(500) == 0) { // The feed starts publishing another precision
+                scale = random.nextInt(RateSeriesCodec.MAX_SCALE + 1);
+            }
+            times[i] = time;
+            unscaled[i] = rate;
+            scales[i] = scale;
+        }
+        unscaled[10] = Long.MAX_VALUE;
+        unscaled[11] = Long.MIN_VALUE;
+        unscaled[12] = 0;
+        times[14] = Long.MIN_VALUE + MINUTE_MS; // Grid cells that still fit in a long
+        times[15] = Long.MAX_VALUE - MINUTE_MS;
+        for (int i = 100; i < 1000; i++) { // A long run of repeats
+            times[i] = times[i - 1] + MINUTE_MS;
+            unscaled[i] = unscaled[99];
+            scales[i] = scales[99];
+        }
+
+        // A 1 ms grid keeps times exact
+        assertSeries(times, unscaled, scales, size, 1,
+                RateSeriesCodec.decode(RateSeriesCodec.encode(times, unscaled, scales, size, 1)));
+        // On a minute grid times come back as the start of their minute
+        assertSeries(times, unscaled, scales, size, MINUTE_MS,
+                RateSeriesCodec.decode(RateSeriesCodec.encode(times, unscaled, scales, size, MINUTE_MS)));
+
+        assertEquals(0, RateSeriesCodec.decode(RateSeriesCodec.encode(times, unscaled, scales, 0, MINUTE_MS)).size());
+        assertSeries(times, unscaled, scales, 1, MINUTE_MS,
+                RateSeriesCodec.decode(RateSeriesCodec.encode(times, unscaled, scales, 1, MINUTE_MS)));
+    }
+
+    @Test
+    public void jitterWithinTheGridCostsNothing() throws IOException {
+        long start = 1700000000000L - 1700000000000L % MINUTE_MS;
+        long[] exact = new long[1000];
+        long[] jittered = new long[1000];
+        Random random = new Random(60);
+        for (int i = 0; i < exact.length; i++) {
+            exact[i] = start + i * MINUTE_MS;
+            jittered[i] = exact[i] + random.nextInt(5000); // Refreshes land a few seconds late
+        }
+        long[] unscaled = new long[1000];
+        int[] scales = new int[1000];
+        Arrays.fill(unscaled, 12345);
+        Arrays.fill(scales, 4);
+
+        byte[] block = RateSeriesCodec.encode(jittered, unscaled, scales, 1000, MINUTE_MS);
+        assertArrayEquals(RateSeriesCodec.encode(exact, unscaled, scales, 1000, MINUTE_MS), block);
+        assertTrue(block.length < 20); // Header, first point and one run
+        RateSeriesCodec.Points points = RateSeriesCodec.decode(block);
+        for (int i = 0; i < exact.length; i++) {
+            assertEquals(exact[i], points.getTime(i));
+            assertEquals(1.2345, points.getValue(i), 0);
+        }
+    }
+
+    @Test
+    public void blocksAreSelfDelimitingInAStream() throws IOException {
+        long[] times = {1000, 61000, 121000, 181000};
+        long[] unscaled = {15, 15, 125, 15};
+        int[] scales = {1, 1, 2, 1};
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        stream.write(RateSeriesCodec.encode(times, unscaled, scales, 4, 1000));
+        stream.write(RateSeriesCodec.encode(times, unscaled, scales, 2, 1000));
+
+        ByteArrayInputStream in = new ByteArrayInputStream(stream.toByteArray());
+        int[] expectedSizes = {4, 2};
+        double[] values = {1.5, 1.5, 1.25, 1.5};
+        for (int expectedSize : expectedSizes) {
+            RateSeriesCodec.Decoder decoder = new RateSeriesCodec.Decoder(in);
+            int size = 0;
+            while (decoder.next()) {
+                assertEquals(times[size], decoder.getTime());
+                assertEquals(values[size], decoder.getValue(), 0);
+                size++;
+            }
+            assertEquals(expectedSize, size);
+        }
+        assertEquals(0, in.available());
+
+        byte[] block = RateSeriesCodec.encode(times, unscaled, scales, 4, 1000);
+        try {
+            RateSeriesCodec.decode(Arrays.copyOf(block, block.length - 2));
+            fail("Truncated block decoded");
+        } catch (EOFException expected) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void invalidScaleOrGridIsRejected() throws IOException {
+        RateSeriesCodec.Encoder encoder = new RateSeriesCodec.Encoder(new ByteArrayOutputStream(), MINUTE_MS);
+        try {
+            encoder.append(0, 1, RateSeriesCodec.MAX_SCALE + 1);
+            fail("Scale accepted");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+        try {
+            encoder.append(0, 1, -1); // CurrencyRate's "no exact rate"
+            fail("Scale accepted");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+        try {
+            new RateSeriesCodec.Encoder(new ByteArrayOutputStream(), 0);
+            fail("Grid accepted");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void yearOfMinuteSamplesHasTheDocumentedSize() {
+        long[] times = yearOfMinutes();
+        int[] scales = new int[MINUTES_PER_YEAR];
+        Arrays.fill(scales, 4);
+        long plain = (long) MINUTES_PER_YEAR * 16 * PAIRS;
+
+        // The target: rate changes about once an hour, ~4.0 MB for 170 pairs, over 350x
+        // smaller than plain
+        byte[] hourly = RateSeriesCodec.encode(times, hourlyChanges(), scales, MINUTES_PER_YEAR, MINUTE_MS);
+        assertTrue(hourly.length * (long) PAIRS < 4_500_000L);
+        assertTrue(hourly.length * (long) PAIRS * 350 < plain);
+
+        // Outside the target: a change every minute, ~195 MB, still over 7x smaller than plain
+        byte[] busy = RateSeriesCodec.encode(times, changesEveryMinute(), scales, MINUTES_PER_YEAR, MINUTE_MS);
+        assertTrue(busy.length * (long) PAIRS < 200_000_000L);
+        assertTrue(busy.length * (long) PAIRS * 7 < plain);
+    }
+
+    @Test
+    public void streamingEncoderWritesTheSameBlock() throws IOException {
+        long[] times = yearOfMinutes();
+        long[] unscaled = hourlyChanges();
+        int[] scales = new int[MINUTES_PER_YEAR];
+        Arrays.fill(scales, 4);
+        int size = 50000;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RateSeriesCodec.Encoder encoder = new RateSeriesCodec.Encoder(out, MINUTE_MS);
+        for (int i = 0; i < size; i++) {
+            encoder.append(times[i], unscaled[i], scales[i]);
+        }
+        encoder.finish();
+        assertEquals(size, encoder.getCount());
+        assertEquals(out.size(), encoder.getByteCount());
+        assertArrayEquals(RateSeriesCodec.encode(times, unscaled, scales, size, MINUTE_MS), out.toByteArray());
+    }
+
+    /** Refresh times over a year: one a minute, landing up to 5 s into the minute */
+    private static long[] yearOfMinutes() {
+        Random random = new Random(169);
+        long[] times = new long[MINUTES_PER_YEAR];
+        long start = 1700000000000L - 1700000000000L % MINUTE_MS;
+        for (int i = 0; i < MINUTES_PER_YEAR; i++) {
+            times[i] = start + i * MINUTE_MS + random.nextInt(5000);
+        }
+        return times;
+    }
+
+    /** The feed republishes about once an hour; most minute samples repeat the rate (scale 4) */
+    private static long[] hourlyChanges() {
+        Random random = new Random(170);
+        long[] unscaled = new long[MINUTES_PER_YEAR];
+        long rate = 12345;
+        for (int i = 0; i < MINUTES_PER_YEAR; i++) {
+            if (random.nextInt(60) == 0) {
+                rate = Math.round(rate * (1 + (random.nextDouble() - 0.5) / 200));
+            }
+            unscaled[i] = rate;
+        }
+        return unscaled;
+    }
+
+    /** Worst case: a new rate every minute, moving up to 0.05% (scale 4, ~162.87) */
+    private static long[] changesEveryMinute() {
+        Random random = new Random(171);
+        long[] unscaled = new long[MINUTES_PER_YEAR];
+        long rate = 1628700;
+        for (int i = 0; i < MINUTES_PER_YEAR; i++) {
+            rate = Math.round(rate * (1 + (random.nextDouble() - 0.5) / 1000));
+            unscaled[i] = rate;
+        }
+        return unscaled;
+    }
+
+    private static void assertSeries(long[] times, long[] unscaled, int[] scales, int size, long gridMs,
+                                     RateSeriesCodec.Points points) {
+        assertEquals(size, points.size());
+        assertEquals(gridMs, points.getGridMs());
+        for (int i = 0; i < size; i++) {
+            assertEquals("time " + i, Math.floorDiv(times[i], gridMs) * gridMs, points.getTime(i));
+            assertEquals("unscaled " + i, unscaled[i], points.getUnscaled(i));
+            assertEquals("scale " + i, scales[i], points.getScale(i));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.*;
+
+/**
+ * RateSnapshotFile round trip, and rejection of damaged files before anything is decoded
+ */
+public class RateSnapshotFileTest {
+
+    private static final long SAVED_AT = 1700000000000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writtenRatesAreReadBack() throws IOException {
+        RateSnapshotFile file = new RateSnapshotFile(folder.newFile("rates.bin"));
+        List<CurrencyRate> rates = rates();
+        assertTrue(file.write(rates, SAVED_AT));
+
+        RateSnapshotFile.Contents contents = file.read();
+        assertNotNull(contents);
+        assertEquals(SAVED_AT, contents.savedAtMs);
+        assertEquals(rates.size(), contents.rates.size());
+        for (int i = 0; i < rates.size(); i++) {
+            CurrencyRate expected = rates.get(i);
+            CurrencyRate actual = contents.rates.get(i);
+            assertEquals(expected.getPairKey(), actual.getPairKey());
+            assertEquals(expected.getTitle(), actual.getTitle());
+            assertEquals(expected.getTargetCurrency(), actual.getTargetCurrency());
+            assertEquals(expected.getPubDate(), actual.getPubDate());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getRate(), actual.getRate(), 0.0);
+            assertEquals(expected.getRateText(), actual.getRateText());
+        }
+    }
+
+    @Test
+    public void missingOrTinyFileIsIgnored() throws IOException {
+        assertNull(new RateSnapshotFile(new File(folder.getRoot(), "absent.bin")).read());
+
+        File tiny = folder.newFile("tiny.bin");
+        Files.write(tiny.toPath(), new byte[] {1, 2, 3});
+        assertNull(new RateSnapshotFile(tiny).read());
+    }
+
+    @Test
+    public void flippedByteFailsTheChecksum() throws IOException {
+        File path = folder.newFile("rates.bin");
+        RateSnapshotFile file = new RateSnapshotFile(path);
+        file.write(rates(), SAVED_AT);
+        byte[] data = Files.readAllBytes(path.toPath());
+
+        // Every single corrupted byte, header, strings, rows or the CRC itself, is caught
+        for (int i = 0; i < data.length; i++) {
+            byte[] damaged = data.clone();
+            damaged[i] ^= 0x10;
+            Files.write(path.toPath(), damaged);
+            assertNull("byte " + i, file.read());
+        }
+    }
+
+    @Test
+    public void truncatedFileIsIgnored() throws IOException {
+        File path = folder.newFile("rates.bin");
+        RateSnapshotFile file = new RateSnapshotFile(path);
+        file.write(rates(), SAVED_AT);
+        long length = path.length();
+
+        for (long cut = length - 1; cut > 0; cut -= 7) {
+            try (RandomAccessFile raf = new RandomAccessFile(path, "rw")) {
+                raf.setLength(cut);
+            }
+            assertNull("cut at " + cut, file.read());
+        }
+    }
+
+    @Test
+    public void wrongMagicOrVersionWithValidChecksumIsIgnored() throws IOException {
+        File path = folder.newFile("rates.bin");
+        RateSnapshotFile file = new RateSnapshotFile(path);
+        file.write(rates(), SAVED_AT);
+        byte[] data = Files.readAllBytes(path.toPath());
+
+        byte[] magic = data.clone();
+        ByteBuffer.wrap(magic).putInt(0, 0x46585330); // "FXS0"
+        Files.write(path.toPath(), withChecksum(magic));
+        assertNull(file.read());
+
+        byte[] version = data.clone();
+        ByteBuffer.wrap(version).putInt(4, 2);
+        Files.write(path.toPath(), withChecksum(version));
+        assertNull(file.read());
+    }
+
+    @Test
+    public void inconsistentBodyWithValidChecksumIsIgnored() throws IOException {
+        File path = folder.newFile("rates.bin");
+        RateSnapshotFile file = new RateSnapshotFile(path);
+        file.write(rates(), SAVED_AT);
+        byte[] data = Files.readAllBytes(path.toPath());
+
+        // Absurd string count (bytes 16..19, after magic, version and savedAt)
+        byte[] count = data.clone();
+        ByteBuffer.wrap(count).putInt(16, Integer.MAX_VALUE);
+        Files.write(path.toPath(), withChecksum(count));
+        assertNull(file.read());
+
+        // Trailing bytes the row count does not account for
+        byte[] longer = Arrays.copyOf(data, data.length + 8);
+        System.arraycopy(data, data.length - 4, longer, longer.length - 4, 4);
+        Files.write(path.toPath(), withChecksum(longer));
+        assertNull(file.read());
+    }
+
+    @Test
+    public void leftoverTempFileIsReplacedOnRewrite() throws IOException {
+        File path = folder.newFile("rates.bin");
+        RateSnapshotFile file = new RateSnapshotFile(path);
+        file.write(rates(), SAVED_AT);
+
+        // A leftover temp file from a crash mid-write is simply replaced
+        Files.write(new File(path.getPath() + ".tmp").toPath(), new byte[] {9, 9, 9});
+        assertTrue(file.write(rates().subList(0, 1), SAVED_AT + 60000));
+
+        RateSnapshotFile.Contents contents = file.read();
+        assertEquals(1, contents.rates.size());
+        assertEquals(SAVED_AT + 60000, contents.savedAtMs);
+        assertFalse(new File(path.getPath() + ".tmp").exists());
+    }
+
+    // Rewrites the CRC trailer so only the structural checks can reject the file
+    private static byte[] withChecksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        ByteBuffer.wrap(data).putInt(data.length - 4, (int) crc.getValue());
+        return data;
+    }
+
+    private static List<CurrencyRate> rates() {
+        List<CurrencyRate> rates = new ArrayList<>();
+        rates.add(rate("USD", "United States Dollar", 12500, 4, "British Pound Sterling to US Dollar"));
+        rates.add(rate("EUR", "Euro", 11700, 4, "British Pound Sterling to Euro"));
+        CurrencyRate plain = rate("XYZ", "Unlisted Currency", 0, -1, "British Pound Sterling to XYZ");
+        plain.setRate(3.25);
+        plain.setDescription(null);
+        rates.add(plain);
+        return rates;
+    }
+
+    private static CurrencyRate rate(String code, String name, long unscaled, int scale, String title) {
+        CurrencyRate rate = new CurrencyRate(title, "British Pound Sterling", "GBP", name, code,
+                "https://www.fx-exchange.com/gbp/" + code.toLowerCase() + ".html",
+                "Mon, 01 Jan 2024 00:00:00 GMT", "1 GBP = " + unscaled + " " + code, 0);
+        if (scale >= 0) {
+            rate.setExactRate(unscaled, scale, unscaled / Math.pow(10, scale));
+        }
+        return rate;
+    }
+}
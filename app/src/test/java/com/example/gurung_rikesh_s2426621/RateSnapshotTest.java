@@ -0,0 +1,191 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * RateSnapshot columns: lookups, row order, rows rebuilt from the columns and the List views
+ */
+public class RateSnapshotTest {
+
+    private static final String PUB_DATE = "Tue, 25 Nov 2025 14:32:05 GMT";
+    private static final long PUBLISHED_MS = 1764081125000L;
+
+    private final List<CurrencyRate> rates = new ArrayList<>(Arrays.asList(
+            rate("GBP", "USD", "US Dollar", 13312, 4),
+            rate("GBP", "EUR", "Euro", 114120, 5),
+            rate("GBP", "JPY", "Japanese Yen", 2055, 1),
+            rate("USD", "EUR", "Euro", 8573, 4),
+            rate("GBP", "TTD", "Trinidad & Tobago Dollar", 89912, 4)));
+
+    private final RateSnapshot snapshot = RateSnapshot.of(rates);
+
+    @Test
+    public void rowsKeepTheInputOrder() {
+        assertEquals(5, snapshot.size());
+        assertFalse(snapshot.isEmpty());
+        for (int row = 0; row < rates.size(); row++) {
+            CurrencyRate rate = rates.get(row);
+            assertSameFields(rate, snapshot.getRow(row));
+            assertSameFields(rate, snapshot.asList().get(row));
+            assertEquals(rate.getBaseCode(), snapshot.getBaseCode(row));
+            assertEquals(rate.getTargetCode(), snapshot.getTargetCode(row));
+            assertEquals(rate.getTargetCodeId(), snapshot.getTargetCodeId(row));
+            assertEquals(rate.getTargetCurrency(), snapshot.getTargetName(row));
+            assertEquals(rate.getRate(), snapshot.getRate(row), 0.0);
+            assertEquals(rate.getRateUnscaled(), snapshot.getRateUnscaled(row));
+            assertEquals(rate.getRateScale(), snapshot.getRateScale(row));
+            assertEquals(PUBLISHED_MS, snapshot.getPublishedAt(row));
+        }
+        assertEquals(rates.size(), snapshot.asList().size());
+    }
+
+    @Test
+    public void rowsAreRebuiltFromTheColumns() {
+        CurrencyRate full = new CurrencyRate("Title", "British Pound Sterling", "GBP", "Euro", "EUR",
+                "https://www.fx-exchange.com/gbp/eur.html", PUB_DATE, "1 GBP = 1.1412 EUR", 0);
+        full.setExactRate(11412, 4, 1.1412);
+        CurrencyRate odd = new CurrencyRate(null, null, "XAUX", "Gold", "gold", null, null, null, 2.5);
+        RateSnapshot mixed = RateSnapshot.of(Arrays.asList(full, odd));
+
+        CurrencyRate row = mixed.getRow(0);
+        assertSameFields(full, row);
+        assertNotSame(full, row);
+        assertSame(full.getTitle(), row.getTitle()); // The parser's Strings, not copies
+        assertEquals("1.1412", row.getRateText());
+
+        // Codes that do not pack, null fields and an unknown scale survive too
+        assertSameFields(odd, mixed.getRow(1));
+        assertEquals(CurrencyCode.NONE, mixed.getTargetCodeId(1));
+        assertEquals("gold", mixed.getTargetCode(1));
+        assertNull(mixed.getTitle(1));
+        assertFalse(mixed.getRow(1).hasExactRate());
+
+        // A changed row object does not change the snapshot
+        row.setRate(9.0);
+        assertEquals(1.1412, mixed.getRate(0), 0.0);
+    }
+
+    @Test
+    public void largeScalesDoNotWrap() {
+        CurrencyRate rate = rate("GBP", "USD", "US Dollar", 13312, 200);
+        RateSnapshot single = RateSnapshot.of(Arrays.asList(rate));
+        assertEquals(200, single.getRateScale(0));
+        assertEquals(200, single.getRow(0).getRateScale());
+    }
+
+    @Test
+    public void keepsThePublishedDigits() {
+        assertEquals(114120L, snapshot.getRateUnscaled(1));
+        assertEquals(5, snapshot.getRateScale(1));
+        assertEquals(1.1412, snapshot.getRate(1), 0.0);
+    }
+
+    @Test
+    public void findsPairsByCodeAndKey() {
+        int gbp = CurrencyCode.pack("GBP", 0);
+        int usd = CurrencyCode.pack("USD", 0);
+        int eur = CurrencyCode.pack("EUR", 0);
+
+        assertEquals(0, snapshot.indexOf(gbp, usd));
+        assertEquals(1, snapshot.indexOf(gbp, eur));
+        assertEquals(3, snapshot.indexOf(usd, eur));
+        assertEquals(-1, snapshot.indexOf(eur, gbp));
+
+        assertEquals(2, snapshot.indexOfPair("GBP/JPY"));
+        assertEquals(3, snapshot.indexOfPair("USD/EUR"));
+        assertEquals(-1, snapshot.indexOfPair("GBP/CHF"));
+        assertEquals(-1, snapshot.indexOfPair("GBP-USD"));
+        assertEquals(-1, snapshot.indexOfPair("GBP/US"));
+        assertEquals(-1, snapshot.indexOfPair("gbp/usd"));
+        assertEquals(-1, snapshot.indexOfPair(null));
+    }
+
+    @Test
+    public void findTargetsReturnsRowsInRowOrder() {
+        int[] rows = snapshot.findTargets(CurrencyCode.pack("JPY", 0), CurrencyCode.pack("EUR", 0),
+                CurrencyCode.pack("CHF", 0));
+        assertArrayEquals(new int[]{1, 2, 3}, rows);
+
+        List<CurrencyRate> view = snapshot.asList(rows);
+        assertEquals(3, view.size());
+        assertSameFields(rates.get(1), view.get(0));
+        assertSameFields(rates.get(3), view.get(2));
+        assertEquals(0, snapshot.findTargets().length);
+    }
+
+    @Test
+    public void searchMatchesNamesCodesAndTitlesIgnoringCase() {
+        assertArrayEquals(new int[]{1, 3}, snapshot.search("euro"));
+        assertArrayEquals(new int[]{2}, snapshot.search(" jpy "));
+        assertArrayEquals(new int[]{4}, snapshot.search("tobago"));
+        assertArrayEquals(new int[]{0, 3}, snapshot.search("(USD)")); // Titles, base side included
+        assertEquals(5, snapshot.search("").length);
+        assertEquals(0, snapshot.search("zloty").length);
+    }
+
+    @Test
+    public void distinctNamesAreStoredOnce() {
+        assertSame(snapshot.getTargetName(1), snapshot.getTargetName(3));
+        assertEquals("British Pound Sterling", snapshot.getBaseName(0));
+        assertEquals("US Dollar", snapshot.getBaseName(3));
+    }
+
+    @Test
+    public void laterChangesToTheInputListAreNotSeen() {
+        rates.clear();
+        assertEquals(5, snapshot.size());
+        assertEquals("USD", snapshot.getTargetCode(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void listViewIsReadOnly() {
+        snapshot.asList().remove(0);
+    }
+
+    @Test
+    public void unparseablePubDateIsMinusOne() {
+        CurrencyRate rate = rate("GBP", "USD", "US Dollar", 13312, 4);
+        rate.setPubDate("soon");
+        RateSnapshot single = RateSnapshot.of(Arrays.asList(rate));
+        assertEquals(-1L, single.getPublishedAt(0));
+    }
+
+    @Test
+    public void emptySnapshotHasNoRows() {
+        assertTrue(RateSnapshot.EMPTY.isEmpty());
+        assertEquals(0, RateSnapshot.EMPTY.asList().size());
+        assertEquals(-1, RateSnapshot.EMPTY.indexOfPair("GBP/USD"));
+        assertEquals(0, RateSnapshot.EMPTY.search("usd").length);
+        assertTrue(snapshot.estimatedBytes() > 0);
+    }
+
+    private static void assertSameFields(CurrencyRate expected, CurrencyRate actual) {
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getBaseCurrency(), actual.getBaseCurrency());
+        assertEquals(expected.getBaseCode(), actual.getBaseCode());
+        assertEquals(expected.getBaseCodeId(), actual.getBaseCodeId());
+        assertEquals(expected.getTargetCurrency(), actual.getTargetCurrency());
+        assertEquals(expected.getTargetCode(), actual.getTargetCode());
+        assertEquals(expected.getTargetCodeId(), actual.getTargetCodeId());
+        assertEquals(expected.getLink(), actual.getLink());
+        assertEquals(expected.getPubDate(), actual.getPubDate());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getRate(), actual.getRate(), 0.0);
+        assertEquals(expected.getRateUnscaled(), actual.getRateUnscaled());
+        assertEquals(expected.getRateScale(), actual.getRateScale());
+    }
+
+    private static CurrencyRate rate(String base, String target, String targetName, long unscaled, int scale) {
+        String baseName = base.equals("GBP") ? "British Pound Sterling" : "US Dollar";
+        CurrencyRate rate = new CurrencyRate(baseName + "(" + base + ")/" + targetName + "(" + target + ")",
+                baseName, base, targetName, target, null, PUB_DATE, null, 0);
+        rate.setExactRate(unscaled, scale, RateDecoder.toDouble(unscaled, scale));
+        return rate;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * RetryPolicy backoff bounds and retryable status codes
+ */
+public class RetryPolicyTest {
+
+    private static final int SAMPLES = 5000;
+
+    @Test
+    public void backoffStaysWithinTheExponentialCeiling() {
+        RetryPolicy policy = new RetryPolicy(5, 1000, 8000, new Random(6));
+        long[] ceilings = {1000, 2000, 4000, 8000, 8000};
+        for (int retry = 1; retry <= ceilings.length; retry++) {
+            long max = 0;
+            long min = Long.MAX_VALUE;
+            for (int i = 0; i < SAMPLES; i++) {
+                long backoff = policy.backoffMs(retry);
+                assertTrue("retry " + retry + ": " + backoff, backoff >= 0 && backoff < ceilings[retry - 1]);
+                max = Math.max(max, backoff);
+                min = Math.min(min, backoff);
+            }
+            // Full jitter: samples spread over the whole range
+            assertTrue("retry " + retry + " max " + max, max > ceilings[retry - 1] * 9 / 10);
+            assertTrue("retry " + retry + " min " + min, min < ceilings[retry - 1] / 10);
+        }
+    }
+
+    @Test
+    public void hugeRetryCountsDoNotOverflow() {
+        RetryPolicy policy = new RetryPolicy(3, 1000, 8000, new Random(6));
+        for (int retry : new int[] {31, 64, Integer.MAX_VALUE}) {
+            long backoff = policy.backoffMs(retry);
+            assertTrue(backoff >= 0 && backoff < 8000);
+        }
+    }
+
+    @Test
+    public void onlyTransientFailuresAreRetryable() {
+        assertTrue(RetryPolicy.isRetryable(0));
+        assertTrue(RetryPolicy.isRetryable(429));
+        assertTrue(RetryPolicy.isRetryable(500));
+        assertTrue(RetryPolicy.isRetryable(503));
+        assertFalse(RetryPolicy.isRetryable(-1));
+        assertFalse(RetryPolicy.isRetryable(400));
+        assertFalse(RetryPolicy.isRetryable(404));
+        assertFalse(RetryPolicy.isRetryable(304));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroAttempts() {
+        new RetryPolicy(0, 1000, 8000);
+    }
+}
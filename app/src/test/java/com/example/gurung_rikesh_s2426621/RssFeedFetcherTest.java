@@ -0,0 +1,125 @@
+package com.example.gurung_rikesh_s2426621;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Conditional GET and Cache-Control handling of RssFeedFetcher, against a local HTTP server
+ */
+public class RssFeedFetcherTest {
+
+    private static final String BODY = "<rss><channel><title>GBP</title></channel></rss>";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+    private String url;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger conditionalRequests = new AtomicInteger();
+    private volatile String cacheControl;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/rss.xml", exchange -> {
+            requests.incrementAndGet();
+            if (cacheControl != null) {
+                exchange.getResponseHeaders().set("Cache-Control", cacheControl);
+            }
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                conditionalRequests.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/rss.xml";
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void notModifiedReusesTheCachedBody() {
+        cacheControl = "no-cache";
+        RssFeedFetcher fetcher = new RssFeedFetcher(new FeedCache(folder.getRoot()));
+
+        RssFeedFetcher.FetchResult first = fetcher.fetch(url);
+        assertEquals(RssFeedFetcher.FetchResult.STATUS_OK, first.status);
+        assertEquals(BODY, first.body);
+
+        RssFeedFetcher.FetchResult second = fetcher.fetch(url);
+        assertEquals(RssFeedFetcher.FetchResult.STATUS_NOT_MODIFIED, second.status);
+        assertEquals(304, second.responseCode);
+        assertEquals(1, conditionalRequests.get());
+        assertEquals(BODY, fetcher.fetchRssFeed(url));
+    }
+
+    @Test
+    public void freshEntryIsServedWithoutARequest() {
+        cacheControl = "public, max-age=600";
+        RssFeedFetcher fetcher = new RssFeedFetcher(new FeedCache(folder.getRoot()));
+
+        assertEquals(RssFeedFetcher.FetchResult.STATUS_OK, fetcher.fetch(url).status);
+        RssFeedFetcher.FetchResult second = fetcher.fetch(url);
+        assertEquals(RssFeedFetcher.FetchResult.STATUS_NOT_MODIFIED, second.status);
+        assertEquals(0, second.responseCode);
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void noStoreResponseIsNotCached() {
+        cacheControl = "no-store";
+        FeedCache cache = new FeedCache(folder.getRoot());
+        RssFeedFetcher fetcher = new RssFeedFetcher(cache);
+
+        assertEquals(BODY, fetcher.fetch(url).body);
+        assertNull(cache.get(url));
+        assertEquals(RssFeedFetcher.FetchResult.STATUS_OK, fetcher.fetch(url).status);
+        assertEquals(0, conditionalRequests.get());
+    }
+
+    @Test
+    public void expiryFollowsCacheControlThenExpires() {
+        long now = 1_000_000L;
+        assertEquals(now + 60_000L, RssFeedFetcher.computeExpiry("max-age=60", 0L, now));
+        assertEquals(now + 60_000L, RssFeedFetcher.computeExpiry("Public, MAX-AGE=60", now + 5L, now));
+        assertEquals(0L, RssFeedFetcher.computeExpiry("no-cache, max-age=60", 0L, now));
+        // Malformed max-age falls back to Expires
+        assertEquals(now + 5L, RssFeedFetcher.computeExpiry("max-age=soon", now + 5L, now));
+        assertEquals(now + 5L, RssFeedFetcher.computeExpiry(null, now + 5L, now));
+        // Expires in the past (or absent) means stale
+        assertEquals(0L, RssFeedFetcher.computeExpiry(null, now - 5L, now));
+        assertEquals(0L, RssFeedFetcher.computeExpiry(null, 0L, now));
+    }
+
+    @Test
+    public void noStoreIsDetectedCaseInsensitively() {
+        assertTrue(RssFeedFetcher.isNoStore("private, No-Store"));
+        assertFalse(RssFeedFetcher.isNoStore("no-cache"));
+        assertFalse(RssFeedFetcher.isNoStore(null));
+    }
+}
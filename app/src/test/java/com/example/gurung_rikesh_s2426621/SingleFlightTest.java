@@ -0,0 +1,111 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * SingleFlight coalescing: one leader per flight, every joined caller gets the one result
+ */
+public class SingleFlightTest {
+
+    private static final int CALLERS = 32;
+
+    /** Records the single result handed to a caller */
+    private static final class Waiter {
+        final AtomicReference<String> result = new AtomicReference<>();
+        final AtomicInteger deliveries = new AtomicInteger();
+
+        void deliver(String value) {
+            result.set(value);
+            deliveries.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void concurrentCallersShareOneFetchAndAllGetTheResult() throws Exception {
+        assertEveryCallerGets("rates");
+    }
+
+    @Test
+    public void concurrentCallersAllGetTheError() throws Exception {
+        assertEveryCallerGets("error: timeout");
+    }
+
+    @Test
+    public void joiningAfterCompleteStartsANewFlight() {
+        SingleFlight<String> flight = new SingleFlight<>();
+        assertTrue(flight.join("GBP", "a"));
+        assertFalse(flight.join("GBP", "b"));
+        assertTrue(flight.join("GBP,USD", "c")); // Different key, separate flight
+        assertEquals(2, flight.waiting("GBP"));
+
+        List<String> waiters = flight.complete("GBP");
+        assertEquals("a", waiters.get(0));
+        assertEquals("b", waiters.get(1));
+        assertEquals(0, flight.waiting("GBP"));
+        assertNull(flight.complete("GBP"));
+
+        assertTrue(flight.join("GBP", "d"));
+        assertEquals(1, flight.complete("GBP").size());
+        assertEquals(1, flight.complete("GBP,USD").size());
+    }
+
+    /**
+     * Many threads join at once; the leader "fetches" once and completes the flight
+     */
+    private static void assertEveryCallerGets(final String outcome) throws Exception {
+        final SingleFlight<Waiter> flight = new SingleFlight<>();
+        final AtomicInteger fetches = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch joined = new CountDownLatch(CALLERS);
+        final CountDownLatch leaderStarted = new CountDownLatch(1);
+        final List<Waiter> waiters = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < CALLERS; i++) {
+                final Waiter waiter = new Waiter();
+                waiters.add(waiter);
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                        if (flight.join("GBP", waiter)) {
+                            fetches.incrementAndGet();
+                            leaderStarted.countDown();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        joined.countDown();
+                    }
+                });
+            }
+            start.countDown();
+            assertTrue(joined.await(10, TimeUnit.SECONDS));
+            assertTrue(leaderStarted.await(0, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdown();
+        }
+
+        // The leader's fetch finishes: everyone who joined gets the same outcome exactly once
+        List<Waiter> completed = flight.complete("GBP");
+        assertEquals(1, fetches.get());
+        assertEquals(CALLERS, completed.size());
+        for (Waiter waiter : completed) {
+            waiter.deliver(outcome);
+        }
+        for (Waiter waiter : waiters) {
+            assertEquals(outcome, waiter.result.get());
+            assertEquals(1, waiter.deliveries.get());
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * UpdateScheduler interval computation: adaptive back-off, speed-up, clamping and
+ * alignment to the feed's publishing period
+ */
+public class UpdateSchedulerTest {
+
+    private static final long MIN = 60 * 1000L;
+    private static final long MAX = 30 * 60 * 1000L;
+    private static final long NOW = 1764081125000L; // Tue, 25 Nov 2025 14:32:05 GMT
+
+    private final UpdateScheduler scheduler = new UpdateScheduler(MIN, MAX);
+
+    @Test
+    public void startsAtTheMinimumInterval() {
+        assertEquals(MIN, scheduler.getIntervalMs());
+        assertEquals(MIN, scheduler.getNextDelayMs(NOW));
+        assertEquals(-1L, scheduler.getPublishPeriodMs());
+    }
+
+    @Test
+    public void backsOffWhileUnchangedAndClampsAtTheMaximum() {
+        scheduler.onUnchanged();
+        assertEquals(90 * 1000L, scheduler.getIntervalMs());
+        scheduler.onUnchanged();
+        assertEquals(135 * 1000L, scheduler.getIntervalMs());
+        for (int i = 0; i < 20; i++) {
+            scheduler.onUnchanged();
+        }
+        assertEquals(MAX, scheduler.getIntervalMs());
+        assertEquals(MAX, scheduler.getNextDelayMs(NOW));
+    }
+
+    @Test
+    public void identicalRatesBackOffAndMovedRatesSpeedUp() {
+        scheduler.onRatesLoaded(rates(null, 1.25, 1.10), NOW);
+        assertEquals(2, scheduler.getLastChangedCount()); // First result counts as changed
+        assertEquals(MIN, scheduler.getIntervalMs());      // Clamped at the minimum
+
+        scheduler.onRatesLoaded(rates(null, 1.25, 1.10), NOW);
+        assertEquals(0, scheduler.getLastChangedCount());
+        assertEquals(90 * 1000L, scheduler.getIntervalMs());
+        scheduler.onRatesLoaded(rates(null, 1.25, 1.10), NOW);
+        assertEquals(135 * 1000L, scheduler.getIntervalMs());
+
+        scheduler.onRatesLoaded(rates(null, 1.26, 1.10), NOW);
+        assertEquals(1, scheduler.getLastChangedCount());
+        assertEquals(67500L, scheduler.getIntervalMs());
+        scheduler.onRatesLoaded(rates(null, 1.27, 1.11), NOW);
+        assertEquals(2, scheduler.getLastChangedCount());
+        assertEquals(MIN, scheduler.getIntervalMs());
+    }
+
+    @Test
+    public void reusedRateObjectsCountAsUnchanged() {
+        List<CurrencyRate> first = rates(null, 1.25, 1.10);
+        scheduler.onRatesLoaded(first, NOW);
+        scheduler.onRatesLoaded(new ArrayList<>(first), NOW);
+        assertEquals(0, scheduler.getLastChangedCount());
+    }
+
+    @Test
+    public void errorsKeepTheInterval() {
+        scheduler.onUnchanged();
+        scheduler.onError();
+        assertEquals(90 * 1000L, scheduler.getIntervalMs());
+    }
+
+    @Test
+    public void learnsThePublishPeriodAndRefreshesJustAfterTheNextPublication() {
+        scheduler.onRatesLoaded(rates("Tue, 25 Nov 2025 14:00:00 GMT", 1.25, 1.10), NOW);
+        assertEquals(-1L, scheduler.getPublishPeriodMs()); // One publication: no period yet
+        for (int i = 0; i < 10; i++) {
+            scheduler.onUnchanged(); // Interval at the 30 minute maximum
+        }
+
+        // Republished with the same rates: the interval stays at the maximum
+        scheduler.onRatesLoaded(rates("Tue, 25 Nov 2025 14:10:00 GMT", 1.25, 1.10), NOW);
+        assertEquals(MAX, scheduler.getIntervalMs());
+        assertEquals(10 * 60 * 1000L, scheduler.getPublishPeriodMs());
+
+        // Next publication expected 14:20:00, refresh 15 s after it
+        long at = NOW - 32 * 60 * 1000L - 5000L + 12 * 60 * 1000L; // 14:12:00
+        assertEquals(8 * 60 * 1000L + 15 * 1000L, scheduler.getNextDelayMs(at));
+
+        // Missed publications are stepped over whole periods
+        long later = at + 25 * 60 * 1000L; // 14:37:00, next expected 14:40:15
+        assertEquals(3 * 60 * 1000L + 15 * 1000L, scheduler.getNextDelayMs(later));
+
+        // Never sooner than the minimum interval
+        long justBefore = at + 8 * 60 * 1000L; // 14:20:00
+        assertEquals(MIN, scheduler.getNextDelayMs(justBefore));
+    }
+
+    @Test
+    public void publishPeriodIsSmoothed() {
+        scheduler.onRatesLoaded(rates("Tue, 25 Nov 2025 14:00:00 GMT", 1.25), NOW);
+        scheduler.onRatesLoaded(rates("Tue, 25 Nov 2025 14:10:00 GMT", 1.26), NOW);
+        scheduler.onRatesLoaded(rates("Tue, 25 Nov 2025 14:30:00 GMT", 1.27), NOW);
+        // 0.3 * 20 min + 0.7 * 10 min
+        assertEquals(13 * 60 * 1000L, scheduler.getPublishPeriodMs());
+
+        // An older or unparseable pubDate leaves the estimate alone
+        scheduler.onRatesLoaded(rates("Tue, 25 Nov 2025 14:20:00 GMT", 1.28), NOW);
+        scheduler.onRatesLoaded(rates("not a date", 1.29), NOW);
+        assertEquals(13 * 60 * 1000L, scheduler.getPublishPeriodMs());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvertedBounds() {
+        new UpdateScheduler(MAX, MIN);
+    }
+
+    private static List<CurrencyRate> rates(String pubDate, double... values) {
+        String[] targets = {"USD", "EUR", "JPY"};
+        List<CurrencyRate> rates = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            rates.add(new CurrencyRate("GBP/" + targets[i], "British Pound Sterling", "GBP",
+                    targets[i], targets[i], null, pubDate, null, values[i]));
+        }
+        return rates;
+    }
+}
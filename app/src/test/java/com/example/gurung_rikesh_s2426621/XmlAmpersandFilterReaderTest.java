@@ -0,0 +1,132 @@
+package com.example.gurung_rikesh_s2426621;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Stray '&' escaping in XmlAmpersandFilterReader, including entities split across reads
+ */
+public class XmlAmpersandFilterReaderTest {
+
+    @Test
+    public void strayAmpersandIsEscaped() throws IOException {
+        assertEquals("Trinidad &amp; Tobago", filter("Trinidad & Tobago"));
+        assertEquals("a&amp;b", filter("a&b"));
+        assertEquals("end&amp;", filter("end&"));
+        assertEquals("&amp;&amp;", filter("&&"));
+    }
+
+    @Test
+    public void validEntitiesAreLeftAlone() throws IOException {
+        String escaped = "&amp; &lt; &gt; &quot; &apos; &#163; &#x20AC; &#XYZ;";
+        assertEquals("&amp; &lt; &gt; &quot; &apos; &#163; &#x20AC; &amp;#XYZ;", filter(escaped));
+        assertEquals("&amp;nbsp;", filter("&nbsp;"));
+        assertEquals("&amp;#;", filter("&#;"));
+        // Longer than any entity we look ahead for
+        assertEquals("&amp;#0000000000001;", filter("&#0000000000001;"));
+    }
+
+    @Test
+    public void alreadyEscapedTextIsUnchanged() throws IOException {
+        String text = "<title>Trinidad &amp; Tobago &lt;TTD&gt;</title>";
+        assertEquals(text, filter(text));
+        assertEquals(text, filter(filter("<title>Trinidad & Tobago &lt;TTD&gt;</title>")));
+    }
+
+    @Test
+    public void entitySplitAcrossInputReadsIsRecognised() throws IOException {
+        // The underlying reader hands over one char per read()
+        String text = "x &amp; y & z &#x20AC;";
+        assertEquals("x &amp; y &amp; z &#x20AC;", readAll(new XmlAmpersandFilterReader(new TrickleReader(text)), 1));
+        assertEquals("x &amp; y &amp; z &#x20AC;", readAll(new XmlAmpersandFilterReader(new TrickleReader(text)), 3));
+    }
+
+    @Test
+    public void entitySplitAcrossTheInternalBufferIsRecognised() throws IOException {
+        // Put '&' at every position around the 8192-char buffer boundary
+        for (int padding = 8180; padding < 8200; padding++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < padding; i++) {
+                text.append('.');
+            }
+            String input = text + "&amp;|&lt;|& |&#163;";
+            String expected = text + "&amp;|&lt;|&amp; |&#163;";
+            assertEquals("padding " + padding, expected, filter(input));
+            assertEquals("padding " + padding, expected, readAll(new XmlAmpersandFilterReader(new StringReader(input)), 7));
+        }
+    }
+
+    @Test
+    public void escapeTailContinuesInTheNextRead() throws IOException {
+        Reader reader = new XmlAmpersandFilterReader(new StringReader("&x"));
+        char[] out = new char[2];
+        assertEquals(2, reader.read(out, 0, 2));
+        assertEquals("&a", new String(out));
+        assertEquals('m', reader.read());
+        assertEquals('p', reader.read());
+        assertEquals(';', reader.read());
+        assertEquals('x', reader.read());
+        assertEquals(-1, reader.read());
+    }
+
+    @Test
+    public void singleCharReadsMatchBulkReads() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 8190; i++) {
+            text.append('.');
+        }
+        String input = text + "&amp;|& |&#163;|&";
+        Reader reader = new XmlAmpersandFilterReader(new StringReader(input));
+        StringBuilder result = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1) {
+            result.append((char) c);
+        }
+        assertEquals(filter(input), result.toString());
+        assertEquals(text + "&amp;|&amp; |&#163;|&amp;", result.toString());
+    }
+
+    private static String filter(String text) throws IOException {
+        return readAll(new XmlAmpersandFilterReader(new StringReader(text)), 4096);
+    }
+
+    private static String readAll(Reader reader, int chunk) throws IOException {
+        StringBuilder result = new StringBuilder();
+        char[] buffer = new char[chunk];
+        int read;
+        while ((read = reader.read(buffer, 0, chunk)) != -1) {
+            result.append(buffer, 0, read);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Returns at most one char per read, like a slow network stream
+     */
+    private static final class TrickleReader extends Reader {
+        private final String text;
+        private int position;
+
+        TrickleReader(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == text.length()) {
+                return -1;
+            }
+            buffer[offset] = text.charAt(position++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}